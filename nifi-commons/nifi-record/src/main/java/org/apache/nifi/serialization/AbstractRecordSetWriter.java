@@ -20,6 +20,7 @@ package org.apache.nifi.serialization;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.nifi.serialization.record.Record;
@@ -60,6 +61,13 @@ public abstract class AbstractRecordSetWriter implements RecordSetWriter {
         return WriteResult.of(++recordCount, attributes);
     }
 
+    @Override
+    public final WriteResult writeBatch(final List<Record> records) throws IOException {
+        final Map<String, String> attributes = writeRecords(records);
+        recordCount += records.size();
+        return WriteResult.of(recordCount, attributes);
+    }
+
     protected OutputStream getOutputStream() {
         return out;
     }
@@ -118,4 +126,20 @@ public abstract class AbstractRecordSetWriter implements RecordSetWriter {
     }
 
     protected abstract Map<String, String> writeRecord(Record record) throws IOException;
+
+    /**
+     * Writes each of the given records. By default, this method calls {@link #writeRecord(Record)} for each
+     * record, but subclasses may override it in order to avoid work that need only be performed once per batch.
+     *
+     * @param records the records to write
+     * @return a Map of key/value pairs that should be added to the FlowFile as attributes
+     * @throws IOException if unable to write to the underlying stream
+     */
+    protected Map<String, String> writeRecords(final List<Record> records) throws IOException {
+        Map<String, String> attributes = Collections.emptyMap();
+        for (final Record record : records) {
+            attributes = writeRecord(record);
+        }
+        return attributes;
+    }
 }
@@ -19,6 +19,8 @@ package org.apache.nifi.serialization;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordSchema;
@@ -70,6 +72,47 @@ public interface RecordReader extends Closeable {
      */
     Record nextRecord(boolean coerceTypes, boolean dropUnknownFields) throws IOException, MalformedRecordException;
 
+    /**
+     * Reads up to <code>maxRecords</code> records from the underlying stream. The records are coerced and validated in the same
+     * way as they would be by {@link #nextRecord(boolean, boolean)}. Implementations that are able to amortize work across many
+     * records, such as resolving schema fields or allocating buffers, are encouraged to override the default implementation,
+     * which simply calls {@link #nextRecord(boolean, boolean)} repeatedly.
+     *
+     * @param maxRecords the maximum number of records to return
+     * @param coerceTypes whether or not fields in the Records should be validated against the schema and coerced when necessary
+     * @param dropUnknownFields if <code>true</code>, any field that is found in the data that is not present in the schema will be dropped
+     *
+     * @return the next records in the stream, in order. If fewer than <code>maxRecords</code> records are returned, the stream has
+     *         been exhausted; an empty List indicates that no more records are available.
+     * @throws IOException if unable to read from the underlying data
+     * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse a record
+     * @throws SchemaValidationException if a Record contains a field that violates the schema and cannot be coerced into the appropriate
+     *             field type and schema enforcement is enabled
+     */
+    default List<Record> nextBatch(final int maxRecords, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        final List<Record> batch = new ArrayList<>(Math.min(maxRecords, 1024));
+
+        Record record;
+        while (batch.size() < maxRecords && (record = nextRecord(coerceTypes, dropUnknownFields)) != null) {
+            batch.add(record);
+        }
+
+        return batch;
+    }
+
+    /**
+     * Reads up to <code>maxRecords</code> records from the underlying stream. Types will be coerced and any unknown fields will be dropped.
+     *
+     * @param maxRecords the maximum number of records to return
+     * @return the next records in the stream; an empty List indicates that no more records are available
+     * @throws IOException if unable to read from the underlying data
+     * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse a record
+     * @see #nextBatch(int, boolean, boolean)
+     */
+    default List<Record> nextBatch(final int maxRecords) throws IOException, MalformedRecordException {
+        return nextBatch(maxRecords, true, true);
+    }
+
     /**
      * @return a RecordSchema that is appropriate for the records in the stream
      * @throws MalformedRecordException if an unrecoverable failure occurs when trying to parse the underlying data
@@ -19,6 +19,7 @@ package org.apache.nifi.serialization;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.nifi.serialization.record.Record;
 
@@ -32,6 +33,22 @@ public interface RecordWriter extends Closeable {
      */
     WriteResult write(Record record) throws IOException;
 
+    /**
+     * Writes the given records, in order, to the underlying stream. The default implementation calls {@link #write(Record)}
+     * for each of the records; implementations that can amortize per-record work across the batch are encouraged to override it.
+     *
+     * @param records the records to write
+     * @return the results of writing the data
+     * @throws IOException if unable to write to the underlying stream
+     */
+    default WriteResult writeBatch(final List<Record> records) throws IOException {
+        WriteResult result = WriteResult.EMPTY;
+        for (final Record record : records) {
+            result = write(record);
+        }
+        return result;
+    }
+
     /**
      * @return the MIME Type that the Record Writer produces. This will be added to FlowFiles using
      *         the mime.type attribute.
@@ -0,0 +1,481 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import java.text.DateFormat;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.nifi.serialization.SchemaValidationException;
+import org.apache.nifi.serialization.record.type.ArrayDataType;
+import org.apache.nifi.serialization.record.type.MapDataType;
+import org.apache.nifi.serialization.record.util.DataTypeUtils;
+import org.apache.nifi.serialization.record.util.IllegalTypeConversionException;
+
+/**
+ * <p>
+ * A {@link Record} whose values are held in an array that is indexed by the position of each field in the
+ * Record's {@link RecordSchema}. Unlike {@link MapRecord}, looking up a value for a field of the schema does not
+ * require hashing the field's name against a per-record Map, and creating a Record does not require allocating
+ * a Map entry for each field. This makes it well-suited for Record Readers that produce many records that share
+ * the same schema.
+ * </p>
+ *
+ * <p>
+ * Values for fields that are not part of the schema are retained in a separate Map, which is created only if
+ * such a value is encountered, unless the record is configured to drop unknown fields.
+ * </p>
+ */
+public class ArrayRecord implements Record {
+    private RecordSchema schema;
+    private Object[] values;
+    private final BitSet presentFields;
+    private Map<String, Object> unknownValues;
+    private Optional<SerializedForm> serializedForm;
+    private final boolean checkTypes;
+    private final boolean dropUnknownFields;
+
+    /**
+     * Creates a Record whose values are given in the order of the schema's fields. All fields are considered to be
+     * present in the Record, even if their value is <code>null</code>.
+     *
+     * @param schema the schema of the record
+     * @param values the values of the record, indexed by the position of the field in the schema
+     */
+    public ArrayRecord(final RecordSchema schema, final Object[] values) {
+        this(schema, values, null, null, null, false, false);
+    }
+
+    /**
+     * Creates a Record whose values are given in the order of the schema's fields.
+     *
+     * @param schema the schema of the record
+     * @param values the values of the record, indexed by the position of the field in the schema. The array is not copied.
+     * @param presentFields the indices of the fields that were explicitly provided, or <code>null</code> if all fields are present
+     * @param unknownValues values for fields that are not part of the schema, or <code>null</code> if there are none
+     * @param serializedForm the serialized form of the record, or <code>null</code> if not available
+     * @param checkTypes whether or not the values should be checked against the schema
+     * @param dropUnknownFields whether or not values for fields that are not part of the schema should be dropped
+     */
+    public ArrayRecord(final RecordSchema schema, final Object[] values, final BitSet presentFields, final Map<String, Object> unknownValues,
+        final SerializedForm serializedForm, final boolean checkTypes, final boolean dropUnknownFields) {
+        this.schema = Objects.requireNonNull(schema);
+        Objects.requireNonNull(values);
+
+        if (values.length != schema.getFieldCount()) {
+            throw new IllegalArgumentException("Record schema has " + schema.getFieldCount() + " fields but " + values.length + " values were given");
+        }
+
+        this.values = values;
+        if (presentFields == null) {
+            this.presentFields = new BitSet(values.length);
+            this.presentFields.set(0, values.length);
+        } else {
+            this.presentFields = presentFields;
+        }
+
+        this.unknownValues = dropUnknownFields || unknownValues == null || unknownValues.isEmpty() ? null : unknownValues;
+        this.serializedForm = Optional.ofNullable(serializedForm);
+        this.checkTypes = checkTypes;
+        this.dropUnknownFields = dropUnknownFields;
+
+        if (checkTypes) {
+            checkTypes();
+        }
+    }
+
+    private void checkTypes() {
+        for (final RecordField field : schema.getFields()) {
+            final Object value = getExplicitValue(field);
+
+            if (value == null) {
+                if (field.isNullable()) {
+                    continue;
+                }
+
+                throw new SchemaValidationException("Field " + field.getFieldName() + " cannot be null");
+            }
+
+            if (!DataTypeUtils.isCompatibleDataType(value, field.getDataType())) {
+                throw new SchemaValidationException("Field " + field.getFieldName() + " has a value of " + value
+                    + ", which cannot be coerced into the appropriate data type of " + field.getDataType());
+            }
+        }
+    }
+
+    @Override
+    public boolean isDropUnknownFields() {
+        return dropUnknownFields;
+    }
+
+    @Override
+    public boolean isTypeChecked() {
+        return checkTypes;
+    }
+
+    @Override
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Object[] getValues() {
+        final Object[] copy = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            copy[i] = value == null ? schema.getField(i).getDefaultValue() : value;
+        }
+        return copy;
+    }
+
+    @Override
+    public Object getValue(final String fieldName) {
+        final OptionalInt index = schema.getFieldIndex(fieldName);
+        if (index.isPresent()) {
+            return getValue(schema.getField(index.getAsInt()));
+        }
+
+        if (dropUnknownFields || unknownValues == null) {
+            return null;
+        }
+
+        return unknownValues.get(fieldName);
+    }
+
+    @Override
+    public Object getValue(final RecordField field) {
+        final Object explicitValue = getExplicitValue(field);
+        if (explicitValue != null) {
+            return explicitValue;
+        }
+
+        final Object defaultValue = field.getDefaultValue();
+        if (defaultValue != null) {
+            return defaultValue;
+        }
+
+        final OptionalInt resolvedIndex = resolveIndex(field);
+        if (resolvedIndex.isPresent()) {
+            return schema.getField(resolvedIndex.getAsInt()).getDefaultValue();
+        }
+
+        return null;
+    }
+
+    private OptionalInt resolveIndex(final RecordField field) {
+        OptionalInt index = schema.getFieldIndex(field.getFieldName());
+        if (index.isPresent()) {
+            return index;
+        }
+
+        for (final String alias : field.getAliases()) {
+            index = schema.getFieldIndex(alias);
+            if (index.isPresent()) {
+                return index;
+            }
+        }
+
+        return OptionalInt.empty();
+    }
+
+    private Object getExplicitValue(final RecordField field) {
+        Object value = getExplicitValue(field.getFieldName());
+        if (value != null) {
+            return value;
+        }
+
+        for (final String alias : field.getAliases()) {
+            value = getExplicitValue(alias);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    private Object getExplicitValue(final String fieldName) {
+        final OptionalInt index = schema.getFieldIndex(fieldName);
+        if (index.isPresent()) {
+            return values[index.getAsInt()];
+        }
+
+        return unknownValues == null ? null : unknownValues.get(fieldName);
+    }
+
+    @Override
+    public String getAsString(final String fieldName) {
+        final Optional<DataType> dataTypeOption = schema.getDataType(fieldName);
+        if (dataTypeOption.isPresent()) {
+            return convertToString(getValue(fieldName), dataTypeOption.get().getFormat());
+        }
+
+        return DataTypeUtils.toString(getValue(fieldName), (Supplier<DateFormat>) null);
+    }
+
+    @Override
+    public String getAsString(final String fieldName, final String format) {
+        return convertToString(getValue(fieldName), format);
+    }
+
+    @Override
+    public String getAsString(final RecordField field, final String format) {
+        return convertToString(getValue(field), format);
+    }
+
+    private String convertToString(final Object value, final String format) {
+        if (value == null) {
+            return null;
+        }
+
+        return DataTypeUtils.toString(value, format);
+    }
+
+    @Override
+    public Long getAsLong(final String fieldName) {
+        return DataTypeUtils.toLong(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Integer getAsInt(final String fieldName) {
+        return DataTypeUtils.toInteger(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Double getAsDouble(final String fieldName) {
+        return DataTypeUtils.toDouble(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Float getAsFloat(final String fieldName) {
+        return DataTypeUtils.toFloat(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Record getAsRecord(String fieldName, final RecordSchema schema) {
+        return DataTypeUtils.toRecord(getValue(fieldName), schema, fieldName);
+    }
+
+    @Override
+    public Boolean getAsBoolean(final String fieldName) {
+        return DataTypeUtils.toBoolean(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public Date getAsDate(final String fieldName, final String format) {
+        return DataTypeUtils.toDate(getValue(fieldName), () -> DataTypeUtils.getDateFormat(format), fieldName);
+    }
+
+    @Override
+    public Object[] getAsArray(final String fieldName) {
+        return DataTypeUtils.toArray(getValue(fieldName), fieldName);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 + 41 * Arrays.deepHashCode(values) + 7 * schema.hashCode() + Objects.hashCode(unknownValues);
+    }
+
+    /**
+     * An ArrayRecord is equal only to another ArrayRecord with the same schema, values and unknown values. As with
+     * {@link MapRecord}, a Record of a different class is never equal, even if it holds the same content; callers
+     * that mix the two should compare the schemas and the values returned by {@link #getValues()}.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof ArrayRecord)) {
+            return false;
+        }
+        final ArrayRecord other = (ArrayRecord) obj;
+        return schema.equals(other.schema) && Arrays.deepEquals(values, other.values) && Objects.equals(unknownValues, other.unknownValues);
+    }
+
+    @Override
+    public String toString() {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = presentFields.nextSetBit(0); i >= 0 && i < values.length; i = presentFields.nextSetBit(i + 1)) {
+            map.put(schema.getField(i).getFieldName(), values[i]);
+        }
+        if (unknownValues != null) {
+            map.putAll(unknownValues);
+        }
+
+        return "ArrayRecord[" + map + "]";
+    }
+
+    @Override
+    public Optional<SerializedForm> getSerializedForm() {
+        return serializedForm;
+    }
+
+    @Override
+    public void setValue(final String fieldName, final Object value) {
+        final OptionalInt index = schema.getFieldIndex(fieldName);
+        if (!index.isPresent()) {
+            if (dropUnknownFields) {
+                return;
+            }
+
+            if (unknownValues == null) {
+                unknownValues = new LinkedHashMap<>();
+            }
+
+            final Object previousValue = unknownValues.put(fieldName, value);
+            if (!Objects.equals(value, previousValue)) {
+                serializedForm = Optional.empty();
+            }
+
+            return;
+        }
+
+        final int fieldIndex = index.getAsInt();
+        final Object coerced = isTypeChecked() ? DataTypeUtils.convertType(value, schema.getField(fieldIndex).getDataType(), fieldName) : value;
+        final Object previousValue = values[fieldIndex];
+        values[fieldIndex] = coerced;
+        presentFields.set(fieldIndex);
+
+        if (!Objects.equals(coerced, previousValue)) {
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    public void setArrayValue(final String fieldName, final int arrayIndex, final Object value) {
+        final OptionalInt index = schema.getFieldIndex(fieldName);
+        if (!index.isPresent()) {
+            return;
+        }
+
+        final DataType dataType = schema.getField(index.getAsInt()).getDataType();
+        if (dataType.getFieldType() != RecordFieldType.ARRAY) {
+            throw new IllegalTypeConversionException("Cannot set the value of an array index on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an ARRAY type");
+        }
+
+        final Object arrayObject = values[index.getAsInt()];
+        if (!(arrayObject instanceof Object[])) {
+            return;
+        }
+
+        final Object[] array = (Object[]) arrayObject;
+        if (arrayIndex >= array.length) {
+            return;
+        }
+
+        final DataType elementType = ((ArrayDataType) dataType).getElementType();
+        final Object coerced = DataTypeUtils.convertType(value, elementType, fieldName);
+
+        if (!Objects.equals(coerced, array[arrayIndex])) {
+            array[arrayIndex] = coerced;
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setMapValue(final String fieldName, final String mapKey, final Object value) {
+        final OptionalInt index = schema.getFieldIndex(fieldName);
+        if (!index.isPresent()) {
+            return;
+        }
+
+        final int fieldIndex = index.getAsInt();
+        final DataType dataType = schema.getField(fieldIndex).getDataType();
+        if (dataType.getFieldType() != RecordFieldType.MAP) {
+            throw new IllegalTypeConversionException("Cannot set the value of map entry on Record because the field '" + fieldName
+                + "' is of type '" + dataType + "' and cannot be coerced into an MAP type");
+        }
+
+        Object mapObject = values[fieldIndex];
+        if (mapObject == null) {
+            mapObject = new HashMap<String, Object>();
+            values[fieldIndex] = mapObject;
+            presentFields.set(fieldIndex);
+        }
+        if (!(mapObject instanceof Map)) {
+            return;
+        }
+
+        final Map<String, Object> map = (Map<String, Object>) mapObject;
+        final DataType valueDataType = ((MapDataType) dataType).getValueType();
+        final Object coerced = DataTypeUtils.convertType(value, valueDataType, fieldName);
+
+        final Object replaced = map.put(mapKey, coerced);
+        if (replaced == null || !replaced.equals(coerced)) {
+            serializedForm = Optional.empty();
+        }
+    }
+
+    @Override
+    public void incorporateSchema(final RecordSchema other) {
+        final RecordSchema merged = DataTypeUtils.merge(this.schema, other);
+        if (merged == this.schema) {
+            return;
+        }
+
+        // Merging retains the position of all existing fields and appends any new fields,
+        // so the existing values remain valid and only need to be extended.
+        this.schema = merged;
+        if (merged.getFieldCount() != values.length) {
+            values = Arrays.copyOf(values, merged.getFieldCount());
+        }
+
+        if (unknownValues != null) {
+            final Iterator<Map.Entry<String, Object>> itr = unknownValues.entrySet().iterator();
+            while (itr.hasNext()) {
+                final Map.Entry<String, Object> entry = itr.next();
+                final OptionalInt index = merged.getFieldIndex(entry.getKey());
+                if (index.isPresent()) {
+                    values[index.getAsInt()] = entry.getValue();
+                    presentFields.set(index.getAsInt());
+                    itr.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Set<String> getRawFieldNames() {
+        final Set<String> fieldNames = new LinkedHashSet<>();
+        for (int i = presentFields.nextSetBit(0); i >= 0 && i < values.length; i = presentFields.nextSetBit(i + 1)) {
+            fieldNames.add(schema.getField(i).getFieldName());
+        }
+        if (unknownValues != null) {
+            fieldNames.addAll(unknownValues.keySet());
+        }
+
+        return fieldNames;
+    }
+}
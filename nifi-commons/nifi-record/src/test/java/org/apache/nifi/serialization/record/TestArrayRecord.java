@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization.record;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.junit.Test;
+
+public class TestArrayRecord {
+
+    private Set<String> set(final String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    private RecordSchema createSchema() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("name", RecordFieldType.STRING.getDataType(), null, set("fullName")));
+        fields.add(new RecordField("greeting", RecordFieldType.STRING.getDataType(), "hello"));
+        return new SimpleRecordSchema(fields);
+    }
+
+    @Test
+    public void testGetValueByNameAndAlias() {
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null});
+
+        assertEquals(1, record.getValue("id"));
+        assertEquals("John Doe", record.getValue("name"));
+        assertEquals("John Doe", record.getValue("fullName"));
+        assertEquals("hello", record.getValue("greeting"));
+        assertNull(record.getValue("unknown"));
+
+        final RecordField withAlias = new RecordField("other", RecordFieldType.STRING.getDataType(), null, set("name"));
+        assertEquals("John Doe", record.getValue(withAlias));
+
+        final RecordField newDefault = new RecordField("greeting", RecordFieldType.STRING.getDataType(), "hi");
+        assertEquals("hi", record.getValue(newDefault));
+
+        assertArrayEquals(new Object[] {1, "John Doe", "hello"}, record.getValues());
+    }
+
+    @Test
+    public void testSetValueInvalidatesSerializedForm() {
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null}, null, null,
+            SerializedForm.of("{}", "application/json"), false, false);
+        assertTrue(record.getSerializedForm().isPresent());
+
+        record.setValue("id", 1);
+        assertTrue(record.getSerializedForm().isPresent());
+
+        record.setValue("fullName", "Jane Doe");
+        assertFalse(record.getSerializedForm().isPresent());
+        assertEquals("Jane Doe", record.getValue("name"));
+    }
+
+    @Test
+    public void testUnknownFields() {
+        final Map<String, Object> unknown = new HashMap<>();
+        unknown.put("extra", "value");
+
+        final BitSet present = new BitSet();
+        present.set(0);
+
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, null, null}, present, unknown, null, false, false);
+        assertEquals("value", record.getValue("extra"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("id", "extra")), record.getRawFieldNames());
+
+        record.setValue("other", 5);
+        assertEquals(5, record.getValue("other"));
+
+        final Record dropping = new ArrayRecord(createSchema(), new Object[] {1, null, null}, present, unknown, null, false, true);
+        assertNull(dropping.getValue("extra"));
+        dropping.setValue("other", 5);
+        assertNull(dropping.getValue("other"));
+    }
+
+    @Test
+    public void testIncorporateSchemaMovesUnknownValues() {
+        final Map<String, Object> unknown = new HashMap<>();
+        unknown.put("extra", "value");
+
+        final Record record = new ArrayRecord(createSchema(), new Object[] {1, "John Doe", null}, null, unknown, null, false, false);
+
+        final List<RecordField> otherFields = new ArrayList<>();
+        otherFields.add(new RecordField("extra", RecordFieldType.STRING.getDataType()));
+        record.incorporateSchema(new SimpleRecordSchema(otherFields));
+
+        assertEquals(4, record.getSchema().getFieldCount());
+        assertEquals("value", record.getValue("extra"));
+        assertEquals(1, record.getValue("id"));
+        assertArrayEquals(new Object[] {1, "John Doe", "hello", "value"}, record.getValues());
+    }
+
+    @Test
+    public void testEqualsAndHashCodeWithArrayValues() {
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("tags", RecordFieldType.ARRAY.getArrayDataType(RecordFieldType.STRING.getDataType())));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final Record first = new ArrayRecord(schema, new Object[] {1, new Object[] {"a", "b"}});
+        final Record second = new ArrayRecord(schema, new Object[] {1, new Object[] {"a", "b"}});
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        final Set<Record> records = new HashSet<>(Arrays.asList(first, second));
+        assertEquals(1, records.size());
+
+        final Map<String, Object> unknown = new HashMap<>();
+        unknown.put("extra", "value");
+        final Record withUnknown = new ArrayRecord(schema, new Object[] {1, new Object[] {"a", "b"}}, null, unknown, null, false, false);
+        final Record otherWithUnknown = new ArrayRecord(schema, new Object[] {1, new Object[] {"a", "b"}}, null, new HashMap<>(unknown), null, false, false);
+        assertFalse(first.equals(withUnknown));
+        assertEquals(withUnknown, otherWithUnknown);
+        assertEquals(withUnknown.hashCode(), otherWithUnknown.hashCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongNumberOfValues() {
+        new ArrayRecord(createSchema(), new Object[] {1});
+    }
+}
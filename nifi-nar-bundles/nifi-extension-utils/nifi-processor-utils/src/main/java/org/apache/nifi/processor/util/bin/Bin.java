@@ -43,6 +43,10 @@ public class Bin {
     long size;
     int successiveFailedOfferings = 0;
 
+    // FlowFiles that a BinManager has added to the bin but not yet migrated to the bin's session; see BinManager#offer
+    int offersAccepted = 0;
+    volatile int offersCompleted = 0;
+
     /**
      * Constructs a new bin
      *
@@ -122,6 +126,21 @@ public class Bin {
      * @return true if added; false otherwise
      */
     public boolean offer(final FlowFile flowFile, final ProcessSession session) {
+        if (!add(flowFile)) {
+            return false;
+        }
+
+        session.migrate(getSession(), Collections.singleton(flowFile));
+        return true;
+    }
+
+    /**
+     * Adds the given flow file to the contents of this bin if there is room for it, without migrating it to the bin's session
+     *
+     * @param flowFile flowfile to add
+     * @return true if added; false otherwise
+     */
+    boolean add(final FlowFile flowFile) {
         if (((size + flowFile.getSize()) > maximumSizeBytes) || (binContents.size() >= maximumEntries)) {
             successiveFailedOfferings++;
             return false;
@@ -139,12 +158,18 @@ public class Bin {
 
         size += flowFile.getSize();
 
-        session.migrate(getSession(), Collections.singleton(flowFile));
         binContents.add(flowFile);
         successiveFailedOfferings = 0;
         return true;
     }
 
+    /**
+     * @return true if FlowFiles have been added to this bin that have yet to be migrated to its session
+     */
+    boolean hasPendingOffers() {
+        return offersCompleted < offersAccepted;
+    }
+
     private static final Pattern intPattern = Pattern.compile("\\d+");
 
     public Integer toInteger(final String value) {
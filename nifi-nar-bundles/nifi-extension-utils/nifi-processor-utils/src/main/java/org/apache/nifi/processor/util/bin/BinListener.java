@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.bin;
+
+import org.apache.nifi.flowfile.FlowFile;
+
+/**
+ * Receives a callback from a {@link BinManager} each time a FlowFile is added to one of its bins, which allows work
+ * such as merging content to be done as FlowFiles arrive rather than all at once when the bin is complete.
+ */
+public interface BinListener {
+
+    /**
+     * Called after the given FlowFile has been added to the given bin and migrated to the bin's session. The call is
+     * made once the BinManager's lock has been released, so FlowFiles may be added to bins while it is in progress, but
+     * calls for the same bin are made one at a time, in the order of the bin's contents, and before the bin is considered
+     * ready. Implementations must not throw Exceptions and must not read the bin's contents, which may be changing.
+     *
+     * @param bin the bin that the FlowFile was added to
+     * @param flowFile the FlowFile that was added, which now belongs to the bin's session
+     */
+    void flowFileBinned(Bin bin, FlowFile flowFile);
+}
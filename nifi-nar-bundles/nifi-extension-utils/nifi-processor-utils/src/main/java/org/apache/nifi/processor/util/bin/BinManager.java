@@ -18,6 +18,7 @@ package org.apache.nifi.processor.util.bin;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,6 +46,7 @@ public class BinManager {
     private final AtomicInteger minEntries = new AtomicInteger(0);
     private final AtomicInteger maxEntries = new AtomicInteger(Integer.MAX_VALUE);
     private final AtomicReference<String> fileCountAttribute = new AtomicReference<>(null);
+    private final AtomicReference<BinListener> binListener = new AtomicReference<>(null);
 
     private final AtomicInteger maxBinAgeSeconds = new AtomicInteger(Integer.MAX_VALUE);
     private final Map<String, List<Bin>> groupBinMap = new HashMap<>();
@@ -76,6 +78,13 @@ public class BinManager {
         this.fileCountAttribute.set(fileCountAttribute);
     }
 
+    /**
+     * @param binListener the listener to notify each time a FlowFile is added to a bin, or <code>null</code> if no listener is to be notified
+     */
+    public void setBinListener(final BinListener binListener) {
+        this.binListener.set(binListener);
+    }
+
     public void setMinimumEntries(final int minimumEntries) {
         this.minEntries.set(minimumEntries);
     }
@@ -121,6 +130,8 @@ public class BinManager {
         if (flowFile.getSize() > currentMaxSizeBytes) { //won't fit into any new bins (and probably none existing)
             return false;
         }
+
+        final List<BinnedFlowFile> binned = new ArrayList<>(1);
         wLock.lock();
         try {
             final List<Bin> currentBins = groupBinMap.get(groupIdentifier);
@@ -131,10 +142,10 @@ public class BinManager {
                 bins.add(bin);
                 groupBinMap.put(groupIdentifier, bins);
                 binCount++;
-                return bin.offer(flowFile, session);
+                return offerToBin(bin, flowFile, session, binned);
             } else {
                 for (final Bin bin : currentBins) {
-                    final boolean accepted = bin.offer(flowFile, session);
+                    final boolean accepted = offerToBin(bin, flowFile, session, binned);
                     if (accepted) {
                         return true;
                     }
@@ -145,10 +156,11 @@ public class BinManager {
                     maxEntries.get(), fileCountAttribute.get());
                 currentBins.add(bin);
                 binCount++;
-                return bin.offer(flowFile, session);
+                return offerToBin(bin, flowFile, session, binned);
             }
         } finally {
             wLock.unlock();
+            completeOffers(binned, session);
         }
     }
 
@@ -167,6 +179,7 @@ public class BinManager {
         final long currentMaxSizeBytes = maxSizeBytes.get();
         final Set<FlowFile> unbinned = new HashSet<>();
 
+        final List<BinnedFlowFile> binned = new ArrayList<>(flowFiles.size());
         wLock.lock();
         try {
             flowFileLoop: for (final FlowFile flowFile : flowFiles) {
@@ -184,14 +197,14 @@ public class BinManager {
                     groupBinMap.put(groupIdentifier, bins);
                     binCount++;
 
-                    final boolean added = bin.offer(flowFile, session);
+                    final boolean added = offerToBin(bin, flowFile, session, binned);
                     if (!added) {
                         unbinned.add(flowFile);
                     }
                     continue;
                 } else {
                     for (final Bin bin : currentBins) {
-                        final boolean accepted = bin.offer(flowFile, session);
+                        final boolean accepted = offerToBin(bin, flowFile, session, binned);
                         if (accepted) {
                             continue flowFileLoop;
                         }
@@ -202,7 +215,7 @@ public class BinManager {
                         maxEntries.get(), fileCountAttribute.get());
                     currentBins.add(bin);
                     binCount++;
-                    final boolean added = bin.offer(flowFile, session);
+                    final boolean added = offerToBin(bin, flowFile, session, binned);
                     if (!added) {
                         unbinned.add(flowFile);
                     }
@@ -212,11 +225,70 @@ public class BinManager {
             }
         } finally {
             wLock.unlock();
+            completeOffers(binned, session);
         }
 
         return unbinned;
     }
 
+    private boolean offerToBin(final Bin bin, final FlowFile flowFile, final ProcessSession session, final List<BinnedFlowFile> binned) {
+        final BinListener listener = binListener.get();
+        if (listener == null) {
+            return bin.offer(flowFile, session);
+        }
+
+        // The FlowFile is migrated to the bin and passed to the listener once the lock is released; see completeOffers
+        if (!bin.add(flowFile)) {
+            return false;
+        }
+        binned.add(new BinnedFlowFile(bin, flowFile, bin.offersAccepted++, listener));
+        return true;
+    }
+
+    /**
+     * Migrates FlowFiles that were added to bins while holding the lock to the bins' sessions and notifies the listener,
+     * so that the listener's work does not hold up the binning of other FlowFiles. The FlowFiles of each bin are
+     * handled one at a time and in the order in which they were added, and a bin is not considered ready until all
+     * of its FlowFiles have been handled.
+     */
+    private void completeOffers(final List<BinnedFlowFile> binned, final ProcessSession session) {
+        RuntimeException failure = null;
+        boolean interrupted = false;
+        for (final BinnedFlowFile binnedFlowFile : binned) {
+            final Bin bin = binnedFlowFile.bin;
+            synchronized (bin) {
+                while (bin.offersCompleted < binnedFlowFile.sequenceNumber) {
+                    try {
+                        bin.wait();
+                    } catch (final InterruptedException e) {
+                        // the FlowFile has already been added to the bin, so it must still be migrated
+                        interrupted = true;
+                    }
+                }
+
+                try {
+                    session.migrate(bin.getSession(), Collections.singleton(binnedFlowFile.flowFile));
+                    binnedFlowFile.listener.flowFileBinned(bin, binnedFlowFile.flowFile);
+                } catch (final RuntimeException e) {
+                    // keep going, as the bins and any other threads waiting on them depend on every FlowFile being handled
+                    if (failure == null) {
+                        failure = e;
+                    }
+                } finally {
+                    bin.offersCompleted++;
+                    bin.notifyAll();
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Finds all bins that are considered full and removes them from the manager.
      * <p/>
@@ -233,7 +305,9 @@ public class BinManager {
             for (final Map.Entry<String, List<Bin>> group : groupBinMap.entrySet()) {
                 final List<Bin> remainingBins = new ArrayList<>();
                 for (final Bin bin : group.getValue()) {
-                    if (relaxFullnessConstraint && (bin.isFullEnough() || bin.isOlderThan(maxBinAgeSeconds.get(), TimeUnit.SECONDS))) { //relaxed check
+                    if (bin.hasPendingOffers()) { //still being filled by another thread
+                        remainingBins.add(bin);
+                    } else if (relaxFullnessConstraint && (bin.isFullEnough() || bin.isOlderThan(maxBinAgeSeconds.get(), TimeUnit.SECONDS))) { //relaxed check
                         readyBins.add(bin);
                     } else if (!relaxFullnessConstraint && bin.isFull()) { //strict check
                         readyBins.add(bin);
@@ -262,6 +336,9 @@ public class BinManager {
 
             for (final Map.Entry<String, List<Bin>> group : groupBinMap.entrySet()) {
                 for (final Bin bin : group.getValue()) {
+                    if (bin.hasPendingOffers()) {
+                        continue;
+                    }
                     if (oldestBin == null || bin.isOlderThan(oldestBin)) {
                         oldestBin = bin;
                         oldestBinGroup = group.getKey();
@@ -303,4 +380,21 @@ public class BinManager {
         }
         return false;
     }
+
+    /**
+     * A FlowFile that has been added to a bin but not yet migrated to the bin's session
+     */
+    private static class BinnedFlowFile {
+        private final Bin bin;
+        private final FlowFile flowFile;
+        private final int sequenceNumber;
+        private final BinListener listener;
+
+        BinnedFlowFile(final Bin bin, final FlowFile flowFile, final int sequenceNumber, final BinListener listener) {
+            this.bin = bin;
+            this.flowFile = flowFile;
+            this.sequenceNumber = sequenceNumber;
+            this.listener = listener;
+        }
+    }
 }
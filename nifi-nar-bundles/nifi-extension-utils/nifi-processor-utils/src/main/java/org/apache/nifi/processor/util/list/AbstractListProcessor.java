@@ -55,6 +55,7 @@ import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.util.StandardValidators;
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.JsonParseException;
 import org.codehaus.jackson.map.JsonMappingException;
@@ -93,6 +94,13 @@ import org.codehaus.jackson.map.ObjectMapper;
  * determine new entities.
  * </p>
  * <p>
+ * Alternatively, when the Listing Strategy is set to track entities, every entity that has been listed is recorded, along with its timestamp and size, in a
+ * {@link ListedEntityIndex} on local disk, and each listing is compared with the index. This finds entities that appear with a timestamp older than that of
+ * entities already listed, and entities that are modified, at the cost of performing a full listing each time. The timestamp state is still stored, along
+ * with the snapshot of the index that it corresponds to, so that a node whose index is missing or out of step, such as a newly elected Primary Node, only
+ * emits the entities that are newer than those listed by the node that last updated the state.
+ * </p>
+ * <p>
  * NOTE: This processor performs migrations of legacy state mechanisms inclusive of locally stored, file-based state and the optional utilization of the <code>Distributed Cache
  * Service</code> property to the new {@link StateManager} functionality. Upon successful migration, the associated data from one or both of the legacy mechanisms is purged.
  * </p>
@@ -160,6 +168,31 @@ public abstract class AbstractListProcessor<T extends ListableEntity> extends Ab
         .defaultValue(PRECISION_AUTO_DETECT.getValue())
         .build();
 
+    public static final AllowableValue BY_TIMESTAMPS = new AllowableValue("timestamps", "Tracking Timestamps",
+            "Only entities with a timestamp later than that of the latest entity listed are listed. Requires little state, but an entity that appears"
+            + " with an older timestamp, such as a file moved into the directory, is not listed.");
+    public static final AllowableValue BY_ENTITIES = new AllowableValue("entities", "Tracking Entities",
+            "Every listed entity is recorded, along with its timestamp and size, in an index on local disk, and each listing is compared with the index."
+            + " Lists entities that appear with an older timestamp and entities that are modified, but requires every listing to include all entities.");
+
+    public static final PropertyDescriptor LISTING_STRATEGY = new PropertyDescriptor.Builder()
+        .name("listing-strategy")
+        .displayName("Listing Strategy")
+        .description("Specify how to determine which entities are new or have been modified since they were listed.")
+        .required(true)
+        .allowableValues(BY_TIMESTAMPS, BY_ENTITIES)
+        .defaultValue(BY_TIMESTAMPS.getValue())
+        .build();
+
+    public static final PropertyDescriptor ENTITY_INDEX_DIRECTORY = new PropertyDescriptor.Builder()
+        .name("entity-index-directory")
+        .displayName("Entity Index Directory")
+        .description("The directory in which the index of listed entities is kept when the Listing Strategy is Tracking Entities.")
+        .required(true)
+        .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+        .defaultValue("./state/listing-index")
+        .build();
+
     public static final Relationship REL_SUCCESS = new Relationship.Builder()
         .name("success")
         .description("All FlowFiles that are received are routed to success")
@@ -197,6 +230,7 @@ public abstract class AbstractListProcessor<T extends ListableEntity> extends Ab
     static final String LATEST_LISTED_ENTRY_TIMESTAMP_KEY = "listing.timestamp";
     static final String LAST_PROCESSED_LATEST_ENTRY_TIMESTAMP_KEY = "processed.timestamp";
     static final String IDENTIFIER_PREFIX = "id";
+    static final String INDEX_SNAPSHOT_KEY = "index.snapshot";
 
     public File getPersistenceFile() {
         return new File("conf/state/" + getIdentifier());
@@ -207,12 +241,14 @@ public abstract class AbstractListProcessor<T extends ListableEntity> extends Ab
         final List<PropertyDescriptor> properties = new ArrayList<>();
         properties.add(DISTRIBUTED_CACHE_SERVICE);
         properties.add(TARGET_SYSTEM_TIMESTAMP_PRECISION);
+        properties.add(LISTING_STRATEGY);
+        properties.add(ENTITY_INDEX_DIRECTORY);
         return properties;
     }
 
     @Override
     public void onPropertyModified(final PropertyDescriptor descriptor, final String oldValue, final String newValue) {
-        if (isConfigurationRestored() && isListingResetNecessary(descriptor)) {
+        if (isConfigurationRestored() && (LISTING_STRATEGY.equals(descriptor) || isListingResetNecessary(descriptor))) {
             resetTimeStates(); // clear lastListingTime so that we have to fetch new time
             resetState = true;
         }
@@ -256,6 +292,7 @@ public abstract class AbstractListProcessor<T extends ListableEntity> extends Ab
 
         if (resetState) {
             context.getStateManager().clear(getStateScope(context));
+            getEntityIndex(context).delete();
             resetState = false;
         }
     }
@@ -352,6 +389,11 @@ public abstract class AbstractListProcessor<T extends ListableEntity> extends Ab
 
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+        if (BY_ENTITIES.getValue().equals(context.getProperty(LISTING_STRATEGY).getValue())) {
+            listByTrackingEntities(context, session);
+            return;
+        }
+
         Long minTimestampToListMillis = lastListedLatestEntryTimestampMillis;
 
         if (this.lastListedLatestEntryTimestampMillis == null || this.lastProcessedLatestEntryTimestampMillis == null || justElectedPrimaryNode) {
@@ -546,6 +588,143 @@ public abstract class AbstractListProcessor<T extends ListableEntity> extends Ab
         }
     }
 
+    private void listByTrackingEntities(final ProcessContext context, final ProcessSession session) throws ProcessException {
+        final StateMap stateMap;
+        try {
+            stateMap = context.getStateManager().getState(getStateScope(context));
+        } catch (final IOException ioe) {
+            getLogger().error("Failed to retrieve timestamp of last listing from the State Manager. Will not perform listing until this is accomplished.");
+            context.yield();
+            return;
+        }
+
+        final ListedEntityIndex index = getEntityIndex(context);
+        String indexSnapshotId;
+        try {
+            indexSnapshotId = index.getSnapshotId();
+        } catch (final IOException ioe) {
+            // The index cannot be updated either, so it is deleted and treated as out of step with the state
+            getLogger().warn("Failed to read the index of listed entities {} due to {}. The index will be deleted and rebuilt.", new Object[] {index.getFile(), ioe});
+            try {
+                index.delete();
+            } catch (final IOException dioe) {
+                getLogger().error("Failed to delete the index of listed entities {} due to {}", new Object[] {index.getFile(), dioe});
+                context.yield();
+                return;
+            }
+            indexSnapshotId = null;
+        }
+
+        final String stateSnapshotId = stateMap.get(INDEX_SNAPSHOT_KEY);
+        final String stateTimestamp = stateMap.get(LATEST_LISTED_ENTRY_TIMESTAMP_KEY);
+        final long listedTimestampMillis = stateTimestamp == null ? 0L : Long.parseLong(stateTimestamp);
+        try {
+            if (stateSnapshotId == null && indexSnapshotId != null) {
+                getLogger().info("Detected that state was cleared for this component.  Deleting the index of listed entities.");
+                index.delete();
+            } else if (stateSnapshotId != null && !stateSnapshotId.equals(indexSnapshotId)) {
+                getLogger().info("The index of listed entities is not the one that was last stored in the state, as another node listed since it was written or it was lost. "
+                    + "Entities with a timestamp up to {} are considered already listed.", new Object[] {listedTimestampMillis});
+            }
+        } catch (final IOException ioe) {
+            getLogger().error("Failed to delete the index of listed entities {} due to {}", new Object[] {index.getFile(), ioe});
+            context.yield();
+            return;
+        }
+        // When the index is out of step with the state, the entities listed by the node that stored the state are only known by their timestamps
+        final boolean indexInStep = stateSnapshotId == null || stateSnapshotId.equals(indexSnapshotId);
+
+        final List<T> entityList;
+        final long currentRunTimeMillis = System.currentTimeMillis();
+        try {
+            // every entity is listed, as those with older timestamps may not have been listed yet
+            entityList = performListing(context, null);
+        } catch (final IOException e) {
+            getLogger().error("Failed to perform listing on remote host due to {}", e);
+            context.yield();
+            return;
+        }
+        final List<T> entities = entityList == null ? Collections.emptyList() : entityList;
+
+        final TimeUnit targetSystemTimePrecision = getTargetSystemTimePrecision(context, entities);
+        final long listingLagMillis = LISTING_LAG_MILLIS.get(targetSystemTimePrecision);
+        final long minimumReliableTimestampMillis = targetSystemTimePrecision.toMillis(
+            targetSystemTimePrecision.convert(currentRunTimeMillis - listingLagMillis, TimeUnit.MILLISECONDS));
+
+        final List<T> newEntities = new ArrayList<>();
+        final ListedEntityIndex.Update update;
+        try {
+            update = index.update(entities, entity -> {
+                if (entity.getTimestamp() > minimumReliableTimestampMillis) {
+                    // the entity may still be written to, so it is compared with the index again by the next listing
+                    return false;
+                }
+                if (indexInStep || entity.getTimestamp() > listedTimestampMillis) {
+                    newEntities.add(entity);
+                }
+                return true;
+            });
+        } catch (final IOException ioe) {
+            getLogger().error("Failed to compare the listing with the index of listed entities {} due to {}", new Object[] {index.getFile(), ioe});
+            context.yield();
+            return;
+        }
+
+        long latestTimestampMillis = listedTimestampMillis;
+        for (final T entity : newEntities) {
+            final Map<String, String> attributes = createAttributes(entity, context);
+            FlowFile flowFile = session.create();
+            flowFile = session.putAllAttributes(flowFile, attributes);
+            session.transfer(flowFile, REL_SUCCESS);
+            latestTimestampMillis = Math.max(latestTimestampMillis, entity.getTimestamp());
+        }
+
+        if (newEntities.isEmpty()) {
+            getLogger().debug("There is no data to list. Yielding.");
+            context.yield();
+        } else {
+            getLogger().info("Successfully created listing with {} new objects", new Object[]{newEntities.size()});
+            session.commit();
+        }
+
+        try {
+            update.commit();
+            if (!update.getSnapshotId().equals(stateSnapshotId)) {
+                final Map<String, String> updatedState = new HashMap<>(2);
+                updatedState.put(LATEST_LISTED_ENTRY_TIMESTAMP_KEY, String.valueOf(latestTimestampMillis));
+                updatedState.put(INDEX_SNAPSHOT_KEY, update.getSnapshotId());
+                context.getStateManager().setState(updatedState, getStateScope(context));
+            }
+        } catch (final IOException ioe) {
+            getLogger().warn("Unable to save the index of listed entities or state due to {}. If NiFi is restarted before they are saved, or "
+                + "if another node begins executing this Processor, data duplication may occur.", ioe);
+        }
+    }
+
+    private TimeUnit getTargetSystemTimePrecision(final ProcessContext context, final List<T> entities) {
+        final String specifiedPrecision = context.getProperty(TARGET_SYSTEM_TIMESTAMP_PRECISION).getValue();
+        if (PRECISION_MILLIS.getValue().equals(specifiedPrecision)) {
+            return TimeUnit.MILLISECONDS;
+        } else if (PRECISION_SECONDS.getValue().equals(specifiedPrecision)) {
+            return TimeUnit.SECONDS;
+        } else if (PRECISION_MINUTES.getValue().equals(specifiedPrecision)) {
+            return TimeUnit.MINUTES;
+        }
+
+        boolean targetSystemHasSeconds = false;
+        for (final T entity : entities) {
+            if (entity.getTimestamp() % 1000 > 0) {
+                return TimeUnit.MILLISECONDS;
+            }
+            targetSystemHasSeconds = targetSystemHasSeconds || entity.getTimestamp() % 60_000 > 0;
+        }
+        return targetSystemHasSeconds ? TimeUnit.SECONDS : TimeUnit.MINUTES;
+    }
+
+    private ListedEntityIndex getEntityIndex(final ProcessContext context) {
+        return new ListedEntityIndex(new File(context.getProperty(ENTITY_INDEX_DIRECTORY).getValue(), getIdentifier() + ".index"));
+    }
+
     private void resetTimeStates() {
         lastListedLatestEntryTimestampMillis = null;
         lastProcessedLatestEntryTimestampMillis = 0L;
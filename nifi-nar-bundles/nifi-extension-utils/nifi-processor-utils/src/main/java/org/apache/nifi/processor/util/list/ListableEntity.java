@@ -37,4 +37,12 @@ public interface ListableEntity {
      */
     long getTimestamp();
 
+    /**
+     * @return the size of the entity in bytes, or -1 if the size is not known. The size is used, along with the timestamp, to determine
+     *         whether an entity has been modified when listing by entity index
+     */
+    default long getSize() {
+        return -1L;
+    }
+
 }
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.list;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>
+ * An index of the entities that have been listed, along with the timestamp and size of each, that is kept in a file on local disk.
+ * The entities are stored sorted by identifier, so that a listing is compared with the index by merging the sorted listing with the
+ * stored entities as they are read. Only the listing is held in memory, which allows the index to hold far more entities than would
+ * fit in memory.
+ * </p>
+ *
+ * <p>
+ * Every update of the index is written to a new file that replaces the index once it is committed, and is given a new snapshot
+ * identifier, so that a processor can detect whether the index is in step with the state it stored elsewhere.
+ * </p>
+ *
+ * <p>
+ * NOTE: Not intended for multi-thread usage hence not Thread-safe.
+ * </p>
+ */
+public class ListedEntityIndex {
+
+    private static final int MAGIC = 0x4C454931;
+    private static final int END_OF_ENTITIES = -1;
+
+    private final File file;
+
+    /**
+     * @param file the file that holds the index
+     */
+    public ListedEntityIndex(final File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the identifier of the snapshot held by the index, or null if there is no index
+     * @throws IOException if unable to read the index
+     */
+    public String getSnapshotId() throws IOException {
+        try (final IndexReader reader = IndexReader.open(file)) {
+            return reader == null ? null : reader.snapshotId;
+        }
+    }
+
+    /**
+     * Deletes the index, so that every entity is considered new by the next update.
+     *
+     * @throws IOException if unable to delete the index
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * Compares the given listing with the index, writing a new snapshot of the index to a temporary file. Entities of the listing that
+     * are not in the index, or whose timestamp or size differ from those in the index, are passed to the given predicate, which determines
+     * whether the change is recorded. Entities whose change is not recorded keep their previous entry, if any, so that they are passed to
+     * the predicate again by the next update. Entities of the index that are not in the listing are removed.
+     *
+     * @param entities the listing to compare with the index
+     * @param recordChange determines whether the change of a new or modified entity is recorded in the index
+     * @param <T> the type of entity
+     * @return the update, which must be committed or discarded
+     * @throws IOException if unable to read the index or write the new snapshot
+     */
+    public <T extends ListableEntity> Update update(final List<T> entities, final Predicate<T> recordChange) throws IOException {
+        final List<T> sorted = new ArrayList<>(entities);
+        sorted.sort(Comparator.comparing(ListableEntity::getIdentifier));
+
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new IOException("Unable to create directory " + parent + " for listed entity index");
+        }
+
+        final String snapshotId = UUID.randomUUID().toString();
+        final File updateFile = new File(parent, file.getName() + ".partial");
+        String previousSnapshotId = null;
+        boolean modified = false;
+        boolean written = false;
+
+        try (final IndexReader reader = IndexReader.open(file);
+             final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(updateFile), 65536)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(snapshotId);
+            previousSnapshotId = reader == null ? null : reader.snapshotId;
+            modified = reader == null;
+
+            Entry entry = reader == null ? null : reader.next();
+            String lastIdentifier = null;
+            for (final T entity : sorted) {
+                final String identifier = entity.getIdentifier();
+                if (identifier.equals(lastIdentifier)) {
+                    continue;
+                }
+                lastIdentifier = identifier;
+
+                // entries that precede the entity are no longer listed
+                while (entry != null && entry.identifier.compareTo(identifier) < 0) {
+                    modified = true;
+                    entry = reader.next();
+                }
+
+                final Entry previous = entry != null && entry.identifier.equals(identifier) ? entry : null;
+                if (previous != null) {
+                    entry = reader.next();
+                }
+
+                if (previous != null && previous.timestamp == entity.getTimestamp() && previous.size == entity.getSize()) {
+                    previous.write(out);
+                } else if (recordChange.test(entity)) {
+                    modified = true;
+                    new Entry(identifier, entity.getTimestamp(), entity.getSize()).write(out);
+                } else if (previous != null) {
+                    previous.write(out);
+                }
+            }
+            if (entry != null) {
+                modified = true;
+            }
+
+            out.writeInt(END_OF_ENTITIES);
+            written = true;
+        } finally {
+            if (!written) {
+                Files.deleteIfExists(updateFile.toPath());
+            }
+        }
+
+        // an index that is not modified keeps its snapshot identifier, as it is not replaced
+        return new Update(updateFile, modified, modified ? snapshotId : previousSnapshotId);
+    }
+
+    /**
+     * A new snapshot of the index that replaces the index when it is committed.
+     */
+    public class Update {
+        private final File updateFile;
+        private final boolean modified;
+        private final String snapshotId;
+
+        private Update(final File updateFile, final boolean modified, final String snapshotId) {
+            this.updateFile = updateFile;
+            this.modified = modified;
+            this.snapshotId = snapshotId;
+        }
+
+        /**
+         * @return whether the new snapshot differs from the index
+         */
+        public boolean isModified() {
+            return modified;
+        }
+
+        /**
+         * @return the identifier of the snapshot held by the index once the update is committed
+         */
+        public String getSnapshotId() {
+            return snapshotId;
+        }
+
+        /**
+         * Replaces the index with the new snapshot, if it was modified.
+         *
+         * @throws IOException if unable to replace the index
+         */
+        public void commit() throws IOException {
+            if (!modified) {
+                discard();
+                return;
+            }
+
+            try {
+                Files.move(updateFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final IOException e) {
+                discard();
+                throw e;
+            }
+        }
+
+        /**
+         * Discards the new snapshot, leaving the index as it was.
+         */
+        public void discard() {
+            if (!updateFile.delete() && updateFile.exists()) {
+                updateFile.deleteOnExit();
+            }
+        }
+    }
+
+    private static class Entry {
+        private final String identifier;
+        private final long timestamp;
+        private final long size;
+
+        private Entry(final String identifier, final long timestamp, final long size) {
+            this.identifier = identifier;
+            this.timestamp = timestamp;
+            this.size = size;
+        }
+
+        private void write(final DataOutputStream out) throws IOException {
+            final byte[] identifierBytes = identifier.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(identifierBytes.length);
+            out.write(identifierBytes);
+            out.writeLong(timestamp);
+            out.writeLong(size);
+        }
+    }
+
+    private static class IndexReader implements Closeable {
+        private final DataInputStream in;
+        private final String snapshotId;
+
+        private IndexReader(final DataInputStream in) throws IOException {
+            this.in = in;
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Listed entity index is not in the expected format");
+            }
+            this.snapshotId = in.readUTF();
+        }
+
+        /**
+         * @return a reader of the given index, or null if there is no index
+         */
+        private static IndexReader open(final File file) throws IOException {
+            final FileInputStream fis;
+            try {
+                fis = new FileInputStream(file);
+            } catch (final FileNotFoundException e) {
+                return null;
+            }
+
+            try {
+                return new IndexReader(new DataInputStream(new BufferedInputStream(new GZIPInputStream(fis, 65536))));
+            } catch (final IOException e) {
+                fis.close();
+                throw e;
+            }
+        }
+
+        private Entry next() throws IOException {
+            final int length = in.readInt();
+            if (length == END_OF_ENTITIES) {
+                return null;
+            }
+
+            final byte[] identifierBytes = new byte[length];
+            in.readFully(identifierBytes);
+            final long timestamp = in.readLong();
+            final long size = in.readLong();
+            return new Entry(new String(identifierBytes, StandardCharsets.UTF_8), timestamp, size);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -170,7 +171,8 @@ public abstract class AbstractListenEventBatchingProcessor<E extends Event> exte
      * Batches together up to the batchSize events. Events are grouped together based on a batch key which
      * by default is the sender of the event, but can be override by sub-classes.
      *
-     * This method will return when batchSize has been reached, or when no more events are available on the queue.
+     * The available events are drained from the queue at once, and the content of each batch is written to its
+     * FlowFile in a single write, so that the cost of a write is not paid for every event.
      *
      * @param session the current session
      * @param totalBatchSize the total number of events to process
@@ -182,49 +184,38 @@ public abstract class AbstractListenEventBatchingProcessor<E extends Event> exte
     protected Map<String,FlowFileEventBatch> getBatches(final ProcessSession session, final int totalBatchSize,
                                                         final byte[] messageDemarcatorBytes) {
 
-        final Map<String,FlowFileEventBatch> batches = new HashMap<>();
-        for (int i=0; i < totalBatchSize; i++) {
-            final E event = getMessage(true, true, session);
-            if (event == null) {
-                break;
-            }
-
-            final String batchKey = getBatchKey(event);
-            FlowFileEventBatch batch = batches.get(batchKey);
-
-            // if we don't have a batch for this key then create a new one
-            if (batch == null) {
-                batch = new FlowFileEventBatch(session.create(), new ArrayList<E>());
-                batches.put(batchKey, batch);
-            }
+        final Map<String,List<E>> eventsByKey = new LinkedHashMap<>();
+        for (final E event : getMessages(totalBatchSize, true, session)) {
+            eventsByKey.computeIfAbsent(getBatchKey(event), key -> new ArrayList<>()).add(event);
+        }
 
-            // add the current event to the batch
-            batch.getEvents().add(event);
+        final Map<String,FlowFileEventBatch> batches = new HashMap<>();
+        for (final Map.Entry<String,List<E>> entry : eventsByKey.entrySet()) {
+            final List<E> events = entry.getValue();
+            FlowFile flowFile = session.create();
 
-            // append the event's data to the FlowFile, write the demarcator first if not on the first event
-            final boolean writeDemarcator = (i > 0);
+            // write the data of all of the events to the FlowFile, placing the demarcator between events
             try {
-                final byte[] rawMessage = event.getData();
-                FlowFile appendedFlowFile = session.append(batch.getFlowFile(), new OutputStreamCallback() {
+                flowFile = session.write(flowFile, new OutputStreamCallback() {
                     @Override
                     public void process(final OutputStream out) throws IOException {
-                        if (writeDemarcator) {
-                            out.write(messageDemarcatorBytes);
+                        for (int i = 0; i < events.size(); i++) {
+                            if (i > 0) {
+                                out.write(messageDemarcatorBytes);
+                            }
+                            out.write(events.get(i).getData());
                         }
-
-                        out.write(rawMessage);
                     }
                 });
-
-                // update the FlowFile reference in the batch object
-                batch.setFlowFile(appendedFlowFile);
-
             } catch (final Exception e) {
-                getLogger().error("Failed to write contents of the message to FlowFile due to {}; will re-queue message and try again",
+                getLogger().error("Failed to write contents of the messages to FlowFile due to {}; will re-queue messages and try again",
                         new Object[] {e.getMessage()}, e);
-                errorEvents.offer(event);
-                break;
+                session.remove(flowFile);
+                errorEvents.addAll(events);
+                continue;
             }
+
+            batches.put(entry.getKey(), new FlowFileEventBatch(flowFile, events));
         }
 
         return batches;
@@ -227,7 +227,8 @@ public abstract class AbstractListenEventProcessor<E extends Event> extends Abst
     }
 
     /**
-     * Creates a pool of ByteBuffers with the given size.
+     * Creates a pool of ByteBuffers with the given size. The buffers are direct so that channels read into them
+     * without first reading into a temporary direct buffer.
      *
      * @param poolSize the number of buffers to initialize the pool with
      * @param bufferSize the size of each buffer
@@ -236,7 +237,7 @@ public abstract class AbstractListenEventProcessor<E extends Event> extends Abst
     protected BlockingQueue<ByteBuffer> createBufferPool(final int poolSize, final int bufferSize) {
         final LinkedBlockingQueue<ByteBuffer> bufferPool = new LinkedBlockingQueue<>(poolSize);
         for (int i = 0; i < poolSize; i++) {
-            bufferPool.offer(ByteBuffer.allocate(bufferSize));
+            bufferPool.offer(ByteBuffer.allocateDirect(bufferSize));
         }
         return bufferPool;
     }
@@ -281,4 +282,41 @@ public abstract class AbstractListenEventProcessor<E extends Event> extends Abst
         return event;
     }
 
+    /**
+     * Drains up to maxMessages events, taking events from the error queue first if pollErrorQueue is true. If no
+     * events are immediately available, the regular queue is polled with a short timeout for the first event.
+     *
+     * @param maxMessages the maximum number of events to return
+     * @param pollErrorQueue whether or not to drain the error queue first
+     *
+     * @return the events drained from the queues, which is empty if none are available
+     */
+    protected List<E> getMessages(final int maxMessages, final boolean pollErrorQueue, final ProcessSession session) {
+        final List<E> drained = new ArrayList<>(Math.min(maxMessages, 1024));
+        if (pollErrorQueue) {
+            errorEvents.drainTo(drained, maxMessages);
+        }
+
+        if (drained.size() < maxMessages && events.drainTo(drained, maxMessages - drained.size()) == 0 && drained.isEmpty()) {
+            final E event;
+            try {
+                event = events.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return drained;
+            }
+
+            if (event != null) {
+                drained.add(event);
+                events.drainTo(drained, maxMessages - 1);
+            }
+        }
+
+        if (!drained.isEmpty()) {
+            session.adjustCounter("Messages Received", drained.size(), false);
+        }
+
+        return drained;
+    }
+
 }
@@ -21,6 +21,7 @@ import org.apache.nifi.components.ValidationContext;
 import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.components.Validator;
 import org.apache.nifi.expression.AttributeExpression;
+import org.apache.nifi.processor.util.StandardValidators;
 
 import java.net.NetworkInterface;
 import java.net.SocketException;
@@ -84,4 +85,17 @@ public class ListenerProperties {
             .expressionLanguageSupported(true)
             .build();
 
+    public static final PropertyDescriptor UDP_RECEIVERS = new PropertyDescriptor.Builder()
+            .name("udp-receivers")
+            .displayName("Number of UDP Receivers")
+            .description("The number of threads that receive datagrams, each reading from its own socket. When greater than 1, the sockets are bound to "
+                    + "the same port with SO_REUSEPORT and the operating system balances the incoming datagrams across them, which requires Linux "
+                    + "or another platform that supports SO_REUSEPORT, and Java 9 or later. Java 8 does not provide SO_REUSEPORT, so when running "
+                    + "on Java 8 this property must be left at 1. The datagrams received and dropped by each receiver are reported as counters "
+                    + "when this property is greater than 1.")
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .defaultValue("1")
+            .required(true)
+            .build();
+
 }
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.SocketOption;
 import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
@@ -35,6 +36,7 @@ import java.nio.channels.Selector;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Reads from the Datagram channel into an available buffer. If data is read then the buffer is queued for
@@ -42,12 +44,20 @@ import java.util.concurrent.BlockingQueue;
  */
 public class DatagramChannelDispatcher<E extends Event<DatagramChannel>> implements ChannelDispatcher {
 
+    /**
+     * The SO_REUSEPORT socket option, which is only defined by Java 9 and later, or null if it is not defined.
+     */
+    private static final SocketOption<Boolean> SO_REUSEPORT = getReusePortOption();
+
     private final EventFactory<E> eventFactory;
     private final BlockingQueue<ByteBuffer> bufferPool;
     private final EventQueue<E> events;
     private final ComponentLog logger;
     private final String sendingHost;
     private final Integer sendingPort;
+    private final boolean reusePort;
+    private final AtomicLong messagesReceived = new AtomicLong(0L);
+    private final AtomicLong messagesDropped = new AtomicLong(0L);
 
     private Selector selector;
     private DatagramChannel datagramChannel;
@@ -66,11 +76,26 @@ public class DatagramChannelDispatcher<E extends Event<DatagramChannel>> impleme
                                      final ComponentLog logger,
                                      final String sendingHost,
                                      final Integer sendingPort) {
+        this(eventFactory, bufferPool, events, logger, sendingHost, sendingPort, false);
+    }
+
+    /**
+     * @param reusePort whether to bind the channel with SO_REUSEPORT, so that several dispatchers can listen on the same port
+     *                  and the operating system balances the incoming datagrams across them
+     */
+    public DatagramChannelDispatcher(final EventFactory<E> eventFactory,
+                                     final BlockingQueue<ByteBuffer> bufferPool,
+                                     final BlockingQueue<E> events,
+                                     final ComponentLog logger,
+                                     final String sendingHost,
+                                     final Integer sendingPort,
+                                     final boolean reusePort) {
         this.eventFactory = eventFactory;
         this.bufferPool = bufferPool;
         this.logger = logger;
         this.sendingHost = sendingHost;
         this.sendingPort = sendingPort;
+        this.reusePort = reusePort;
         this.events = new EventQueue<>(events, logger);
 
         if (bufferPool == null || bufferPool.size() == 0) {
@@ -96,6 +121,13 @@ public class DatagramChannelDispatcher<E extends Event<DatagramChannel>> impleme
 
         // we don't have to worry about nicAddress being null here because InetSocketAddress already handles it
         datagramChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        if (reusePort) {
+            if (SO_REUSEPORT == null || !datagramChannel.supportedOptions().contains(SO_REUSEPORT)) {
+                datagramChannel.close();
+                throw new IOException("SO_REUSEPORT is not supported on this platform");
+            }
+            datagramChannel.setOption(SO_REUSEPORT, true);
+        }
         datagramChannel.socket().bind(new InetSocketAddress(nicAddress, port));
 
         // if a sending host and port were provided then connect to that specific address to only receive
@@ -140,7 +172,11 @@ public class DatagramChannelDispatcher<E extends Event<DatagramChannel>> impleme
 
                             final Map<String,String> metadata = EventFactoryUtil.createMapWithSender(sender);
                             final E event = eventFactory.create(bytes, metadata, null);
-                            events.offer(event);
+                            if (events.offer(event)) {
+                                messagesReceived.incrementAndGet();
+                            } else {
+                                messagesDropped.incrementAndGet();
+                            }
 
                             buffer.clear();
                         }
@@ -168,6 +204,44 @@ public class DatagramChannelDispatcher<E extends Event<DatagramChannel>> impleme
         return datagramChannel == null ? 0 : datagramChannel.socket().getLocalPort();
     }
 
+    /**
+     * @return the number of datagrams queued since the last call to this method
+     */
+    public long getAndResetMessagesReceived() {
+        return messagesReceived.getAndSet(0L);
+    }
+
+    /**
+     * @return the number of datagrams dropped because the event queue was full since the last call to this method
+     */
+    public long getAndResetMessagesDropped() {
+        return messagesDropped.getAndSet(0L);
+    }
+
+    /**
+     * @return true if datagram channels can be bound with SO_REUSEPORT on this platform
+     */
+    public static boolean isReusePortSupported() {
+        if (SO_REUSEPORT == null) {
+            return false;
+        }
+
+        try (final DatagramChannel channel = DatagramChannel.open()) {
+            return channel.supportedOptions().contains(SO_REUSEPORT);
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> getReusePortOption() {
+        try {
+            return (SocketOption<Boolean>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+        } catch (final NoSuchFieldException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
     @Override
     public void close() {
         stopped = true;
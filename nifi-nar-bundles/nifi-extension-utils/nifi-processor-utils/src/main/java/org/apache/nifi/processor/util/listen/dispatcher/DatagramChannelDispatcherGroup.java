@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.listen.dispatcher;
+
+import org.apache.nifi.processor.ProcessSession;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs several DatagramChannelDispatchers that are bound to the same port with SO_REUSEPORT, each on its own thread,
+ * so that the operating system balances the incoming datagrams across the threads.
+ */
+public class DatagramChannelDispatcherGroup implements ChannelDispatcher {
+
+    private final List<DatagramChannelDispatcher<?>> dispatchers;
+    private final String threadName;
+
+    /**
+     * @param dispatchers the dispatchers to run, each of which must have been created to reuse the port
+     * @param threadName the name to give the threads of the dispatchers, which is suffixed with the number of the dispatcher
+     */
+    public DatagramChannelDispatcherGroup(final List<DatagramChannelDispatcher<?>> dispatchers, final String threadName) {
+        if (dispatchers == null || dispatchers.isEmpty()) {
+            throw new IllegalArgumentException("At least one dispatcher is required");
+        }
+        this.dispatchers = Collections.unmodifiableList(new ArrayList<>(dispatchers));
+        this.threadName = threadName;
+    }
+
+    @Override
+    public void open(final InetAddress nicAddress, final int port, final int maxBufferSize) throws IOException {
+        try {
+            // the first dispatcher resolves the port in case a random port was requested
+            dispatchers.get(0).open(nicAddress, port, maxBufferSize);
+            final int boundPort = dispatchers.get(0).getPort();
+            for (int i = 1; i < dispatchers.size(); i++) {
+                dispatchers.get(i).open(nicAddress, boundPort, maxBufferSize);
+            }
+        } catch (final IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the first dispatcher on the calling thread, and each of the others on a new daemon thread.
+     */
+    @Override
+    public void run() {
+        for (int i = 1; i < dispatchers.size(); i++) {
+            final Thread thread = new Thread(dispatchers.get(i));
+            thread.setName(threadName + " Receiver " + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        dispatchers.get(0).run();
+    }
+
+    @Override
+    public int getPort() {
+        return dispatchers.get(0).getPort();
+    }
+
+    @Override
+    public void close() {
+        for (final DatagramChannelDispatcher<?> dispatcher : dispatchers) {
+            dispatcher.close();
+        }
+    }
+
+    /**
+     * Adjusts the counters of datagrams received and dropped by each dispatcher since the counters were last adjusted.
+     *
+     * @param session the session to adjust the counters on
+     */
+    public void adjustCounters(final ProcessSession session) {
+        for (int i = 0; i < dispatchers.size(); i++) {
+            final long received = dispatchers.get(i).getAndResetMessagesReceived();
+            if (received > 0) {
+                session.adjustCounter("Receiver " + (i + 1) + " Datagrams Received", received, false);
+            }
+
+            final long dropped = dispatchers.get(i).getAndResetMessagesDropped();
+            if (dropped > 0) {
+                session.adjustCounter("Receiver " + (i + 1) + " Datagrams Dropped", dropped, false);
+            }
+        }
+    }
+
+}
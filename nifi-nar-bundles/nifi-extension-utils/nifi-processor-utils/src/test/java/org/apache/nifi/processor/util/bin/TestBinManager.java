@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.ProcessSessionFactory;
+import org.apache.nifi.processor.Processor;
+import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.util.MockProcessSession;
+import org.apache.nifi.util.SharedSessionState;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestBinManager {
+
+    private MockProcessSession session;
+    private ProcessSessionFactory sessionFactory;
+
+    @Before
+    public void setup() {
+        final Processor processor = new AbstractProcessor() {
+            @Override
+            public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+            }
+        };
+        final SharedSessionState sharedState = new SharedSessionState(processor, new AtomicLong(0L));
+        sessionFactory = () -> new MockProcessSession(sharedState, processor);
+        session = new MockProcessSession(sharedState, processor);
+    }
+
+    @Test
+    public void testListenerNotifiedInOrder() {
+        final List<FlowFile> notified = new ArrayList<>();
+        final BinManager binManager = new BinManager();
+        binManager.setBinListener((bin, flowFile) -> notified.add(flowFile));
+
+        final FlowFile first = session.createFlowFile("1".getBytes());
+        final FlowFile second = session.createFlowFile("2".getBytes());
+        assertTrue(binManager.offer("group", first, session, sessionFactory));
+        assertTrue(binManager.offer("group", Arrays.asList(second), session, sessionFactory).isEmpty());
+
+        assertEquals(Arrays.asList(first, second), notified);
+        final Collection<Bin> bins = binManager.removeReadyBins(true);
+        assertEquals(1, bins.size());
+        assertEquals(notified, bins.iterator().next().getContents());
+    }
+
+    @Test(timeout = 10000)
+    public void testListenerDoesNotBlockOtherBins() throws Exception {
+        final CountDownLatch listenerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseListener = new CountDownLatch(1);
+        final BinManager binManager = new BinManager();
+        binManager.setMaximumEntries(1);
+        binManager.setBinListener((bin, flowFile) -> {
+            if (flowFile.getSize() > 1) {
+                listenerStarted.countDown();
+                try {
+                    releaseListener.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        final MockProcessSession slowSession = (MockProcessSession) sessionFactory.createSession();
+        final FlowFile slowFlowFile = slowSession.createFlowFile("slow".getBytes());
+        final Thread slowThread = new Thread(() -> binManager.offer("slow", slowFlowFile, slowSession, sessionFactory));
+        slowThread.start();
+        assertTrue(listenerStarted.await(5, TimeUnit.SECONDS));
+
+        // another FlowFile can be binned while the listener is busy, but the busy bin is not ready until the listener is done
+        assertTrue(binManager.offer("fast", session.createFlowFile("f".getBytes()), session, sessionFactory));
+        assertEquals(2, binManager.getBinCount());
+        final Collection<Bin> fastBins = binManager.removeReadyBins(false);
+        assertEquals(1, fastBins.size());
+        assertEquals(1, fastBins.iterator().next().getContents().get(0).getSize());
+
+        releaseListener.countDown();
+        slowThread.join();
+        final Collection<Bin> slowBins = binManager.removeReadyBins(false);
+        assertEquals(1, slowBins.size());
+        assertSame(slowFlowFile, slowBins.iterator().next().getContents().get(0));
+    }
+}
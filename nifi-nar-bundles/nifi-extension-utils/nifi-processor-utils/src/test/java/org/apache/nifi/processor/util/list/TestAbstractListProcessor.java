@@ -22,6 +22,7 @@ import static org.apache.nifi.processor.util.list.AbstractListProcessor.PRECISIO
 import static org.apache.nifi.processor.util.list.AbstractListProcessor.PRECISION_SECONDS;
 import static org.apache.nifi.processor.util.list.AbstractListProcessor.TARGET_SYSTEM_TIMESTAMP_PRECISION;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -511,6 +512,131 @@ public class TestAbstractListProcessor {
         assertEquals("new id", updatedStateMap.get(AbstractListProcessor.IDENTIFIER_PREFIX + ".0"));
     }
 
+    @Test
+    public void testTrackingEntities() throws Exception {
+        runner.setProperty(AbstractListProcessor.LISTING_STRATEGY, AbstractListProcessor.BY_ENTITIES.getValue());
+        runner.setProperty(AbstractListProcessor.ENTITY_INDEX_DIRECTORY, testFolder.getRoot().getAbsolutePath());
+        final long oldTimestamp = System.currentTimeMillis() - 60_000L;
+
+        proc.addEntity("name", "id", oldTimestamp);
+        proc.addEntity("name", "id2", oldTimestamp + 1000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 2);
+        runner.clearTransferState();
+
+        // an entity that appears with an older timestamp than those already listed is listed
+        proc.addEntity("name", "id3", oldTimestamp - 1000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ConcreteListProcessor.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "id3");
+        runner.clearTransferState();
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 0);
+
+        // a modified entity is listed again, and an entity that is no longer listed is removed from the index
+        proc.entities.clear();
+        proc.addEntity("name", "id", oldTimestamp + 2000L);
+        proc.addEntity("name", "id2", oldTimestamp + 1000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ConcreteListProcessor.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "id");
+        runner.clearTransferState();
+
+        proc.addEntity("name", "id3", oldTimestamp - 1000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.clearTransferState();
+
+        final StateMap stateMap = runner.getStateManager().getState(Scope.CLUSTER);
+        assertEquals(Long.toString(oldTimestamp + 2000L), stateMap.get(AbstractListProcessor.LATEST_LISTED_ENTRY_TIMESTAMP_KEY));
+        assertEquals(new ListedEntityIndex(new File(testFolder.getRoot(), proc.getIdentifier() + ".index")).getSnapshotId(),
+            stateMap.get(AbstractListProcessor.INDEX_SNAPSHOT_KEY));
+    }
+
+    @Test
+    public void testTrackingEntitiesHoldsBackRecentEntities() throws Exception {
+        runner.setProperty(AbstractListProcessor.LISTING_STRATEGY, AbstractListProcessor.BY_ENTITIES.getValue());
+        runner.setProperty(AbstractListProcessor.ENTITY_INDEX_DIRECTORY, testFolder.getRoot().getAbsolutePath());
+        setTargetSystemTimestampPrecision(TimeUnit.MILLISECONDS);
+
+        proc.addEntity("name", "id", System.currentTimeMillis() + 60_000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 0);
+
+        proc.entities.clear();
+        proc.addEntity("name", "id", System.currentTimeMillis());
+        Thread.sleep(DEFAULT_SLEEP_MILLIS);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+    }
+
+    @Test
+    public void testTrackingEntitiesWithIndexOutOfStep() throws Exception {
+        runner.setProperty(AbstractListProcessor.LISTING_STRATEGY, AbstractListProcessor.BY_ENTITIES.getValue());
+        runner.setProperty(AbstractListProcessor.ENTITY_INDEX_DIRECTORY, testFolder.getRoot().getAbsolutePath());
+        final long oldTimestamp = System.currentTimeMillis() - 60_000L;
+
+        proc.addEntity("name", "id", oldTimestamp);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.clearTransferState();
+
+        // as when another node becomes the primary node, only entities newer than those in the state are listed
+        assertTrue(new File(testFolder.getRoot(), proc.getIdentifier() + ".index").delete());
+        proc.addEntity("name", "id2", oldTimestamp - 1000L);
+        proc.addEntity("name", "id3", oldTimestamp + 1000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ConcreteListProcessor.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "id3");
+        runner.clearTransferState();
+
+        // once the index is rebuilt, entities that appear with older timestamps are listed
+        proc.addEntity("name", "id4", oldTimestamp - 2000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ConcreteListProcessor.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "id4");
+        runner.clearTransferState();
+
+        // clearing the state starts the listing over
+        runner.getStateManager().clear(Scope.CLUSTER);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 4);
+    }
+
+    @Test
+    public void testTrackingEntitiesWithCorruptIndex() throws Exception {
+        runner.setProperty(AbstractListProcessor.LISTING_STRATEGY, AbstractListProcessor.BY_ENTITIES.getValue());
+        runner.setProperty(AbstractListProcessor.ENTITY_INDEX_DIRECTORY, testFolder.getRoot().getAbsolutePath());
+        final long oldTimestamp = System.currentTimeMillis() - 60_000L;
+
+        proc.addEntity("name", "id", oldTimestamp);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.clearTransferState();
+
+        // an index that cannot be read is replaced, and only entities newer than those in the state are listed
+        final File indexFile = new File(testFolder.getRoot(), proc.getIdentifier() + ".index");
+        try (final FileOutputStream out = new FileOutputStream(indexFile)) {
+            out.write("not an index".getBytes(Charsets.UTF_8));
+        }
+        proc.addEntity("name", "id2", oldTimestamp - 1000L);
+        proc.addEntity("name", "id3", oldTimestamp + 1000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ConcreteListProcessor.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "id3");
+        runner.clearTransferState();
+
+        final StateMap stateMap = runner.getStateManager().getState(Scope.CLUSTER);
+        assertEquals(new ListedEntityIndex(indexFile).getSnapshotId(), stateMap.get(AbstractListProcessor.INDEX_SNAPSHOT_KEY));
+
+        // the rebuilt index is in use, so entities that appear with older timestamps are listed
+        proc.addEntity("name", "id4", oldTimestamp - 2000L);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ConcreteListProcessor.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ConcreteListProcessor.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "id4");
+    }
+
     private static class DistributedCache extends AbstractControllerService implements DistributedMapCacheClient {
         private final Map<Object, Object> stored = new HashMap<>();
         private int fetchCount = 0;
@@ -55,6 +55,7 @@ import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.SchemaIdentifier;
+import org.apache.nifi.serialization.record.SerializedForm;
 import org.apache.nifi.serialization.record.type.ArrayDataType;
 import org.apache.nifi.serialization.record.type.ChoiceDataType;
 import org.apache.nifi.serialization.record.type.MapDataType;
@@ -67,6 +68,7 @@ import org.slf4j.LoggerFactory;
 public class AvroTypeUtil {
     private static final Logger logger = LoggerFactory.getLogger(AvroTypeUtil.class);
     public static final String AVRO_SCHEMA_FORMAT = "avro";
+    public static final String AVRO_MIME_TYPE = "application/avro-binary";
 
     private static final String LOGICAL_TYPE_DATE = "date";
     private static final String LOGICAL_TYPE_TIME_MILLIS = "time-millis";
@@ -416,6 +418,35 @@ public class AvroTypeUtil {
         return bb;
     }
 
+    /**
+     * Returns the Avro record that the given Record was read from, provided that the Record has not been modified since it was read
+     * and that the Avro record has the given schema. In this case, the Avro record can be written as-is rather than being created
+     * via {@link #createAvroRecord(Record, Schema)}.
+     *
+     * @param record the Record
+     * @param avroSchema the Avro schema that the record is to be written with
+     * @return the Avro record that the given Record was read from, or an empty Optional if the Record cannot be written as-is
+     */
+    public static Optional<GenericRecord> getSerializedAvroRecord(final Record record, final Schema avroSchema) {
+        final Optional<SerializedForm> serializedForm = record.getSerializedForm();
+        if (!serializedForm.isPresent() || !AVRO_MIME_TYPE.equals(serializedForm.get().getMimeType())) {
+            return Optional.empty();
+        }
+
+        final Object serialized = serializedForm.get().getSerialized();
+        if (!(serialized instanceof GenericRecord)) {
+            return Optional.empty();
+        }
+
+        final GenericRecord avroRecord = (GenericRecord) serialized;
+        final Schema recordAvroSchema = avroRecord.getSchema();
+        if (recordAvroSchema != avroSchema && !recordAvroSchema.equals(avroSchema)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(avroRecord);
+    }
+
     public static GenericRecord createAvroRecord(final Record record, final Schema avroSchema) throws IOException {
         final GenericRecord rec = new GenericData.Record(avroSchema);
         final RecordSchema recordSchema = record.getSchema();
@@ -601,35 +632,53 @@ public class AvroTypeUtil {
         final Map<String, Object> values = new HashMap<>(recordSchema.getFieldCount());
 
         for (final RecordField recordField : recordSchema.getFields()) {
-            Object value = avroRecord.get(recordField.getFieldName());
-            if (value == null) {
-                for (final String alias : recordField.getAliases()) {
-                    value = avroRecord.get(alias);
-                    if (value != null) {
-                        break;
-                    }
-                }
-            }
-
-            final String fieldName = recordField.getFieldName();
-            final Field avroField = avroRecord.getSchema().getField(fieldName);
-            if (avroField == null) {
-                values.put(fieldName, null);
-                continue;
-            }
+            values.put(recordField.getFieldName(), convertAvroFieldValue(avroRecord, recordField));
+        }
 
-            final Schema fieldSchema = avroField.schema();
-            final Object rawValue = normalizeValue(value, fieldSchema, fieldName);
+        return values;
+    }
 
-            final DataType desiredType = recordField.getDataType();
-            final Object coercedValue = DataTypeUtils.convertType(rawValue, desiredType, fieldName);
+    /**
+     * Converts the given Avro record into an array of values, in the order of the fields of the given Record Schema.
+     *
+     * @param avroRecord the Avro record to convert
+     * @param recordSchema the Record Schema that dictates the order and types of the values
+     * @return the values of the record, indexed by the position of each field in the Record Schema
+     */
+    public static Object[] convertAvroRecordToValues(final GenericRecord avroRecord, final RecordSchema recordSchema) {
+        final Object[] values = new Object[recordSchema.getFieldCount()];
 
-            values.put(fieldName, coercedValue);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = convertAvroFieldValue(avroRecord, recordSchema.getField(i));
         }
 
         return values;
     }
 
+    private static Object convertAvroFieldValue(final GenericRecord avroRecord, final RecordField recordField) {
+        Object value = avroRecord.get(recordField.getFieldName());
+        if (value == null) {
+            for (final String alias : recordField.getAliases()) {
+                value = avroRecord.get(alias);
+                if (value != null) {
+                    break;
+                }
+            }
+        }
+
+        final String fieldName = recordField.getFieldName();
+        final Field avroField = avroRecord.getSchema().getField(fieldName);
+        if (avroField == null) {
+            return null;
+        }
+
+        final Schema fieldSchema = avroField.schema();
+        final Object rawValue = normalizeValue(value, fieldSchema, fieldName);
+
+        final DataType desiredType = recordField.getDataType();
+        return DataTypeUtils.convertType(rawValue, desiredType, fieldName);
+    }
+
     /**
      * Convert value of a nullable union field.
      * @param originalValue original value
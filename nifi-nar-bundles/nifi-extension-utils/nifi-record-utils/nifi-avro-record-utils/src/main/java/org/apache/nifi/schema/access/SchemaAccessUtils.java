@@ -122,18 +122,34 @@ public class SchemaAccessUtils {
 
 
     public static SchemaAccessStrategy getSchemaAccessStrategy(final String allowableValue, final SchemaRegistry schemaRegistry, final PropertyContext context) {
+        return getSchemaAccessStrategy(allowableValue, schemaRegistry, context, null);
+    }
+
+    /**
+     * Creates the Schema Access Strategy for the given allowable value. Strategies that resolve schemas from content that
+     * uniquely identifies the schema, such as the schema text or a Schema Identifier and Version, use the given cache
+     * so that the schema is not parsed or retrieved again for every FlowFile.
+     *
+     * @param allowableValue the value of the Schema Access Strategy property
+     * @param schemaRegistry the configured Schema Registry, or <code>null</code> if none is configured
+     * @param context the context to obtain property values from
+     * @param schemaCache the cache to use, or <code>null</code> if schemas should not be cached
+     * @return the Schema Access Strategy, or <code>null</code> if the value is not a known strategy
+     */
+    public static SchemaAccessStrategy getSchemaAccessStrategy(final String allowableValue, final SchemaRegistry schemaRegistry, final PropertyContext context,
+                                                               final RecordSchemaCache schemaCache) {
         if (allowableValue.equalsIgnoreCase(SCHEMA_NAME_PROPERTY.getValue())) {
             return new SchemaNamePropertyStrategy(schemaRegistry, context.getProperty(SCHEMA_NAME));
         } else if (allowableValue.equalsIgnoreCase(INHERIT_RECORD_SCHEMA.getValue())) {
             return new InheritSchemaFromRecord();
         } else if (allowableValue.equalsIgnoreCase(SCHEMA_TEXT_PROPERTY.getValue())) {
-            return new AvroSchemaTextStrategy(context.getProperty(SCHEMA_TEXT));
+            return new AvroSchemaTextStrategy(context.getProperty(SCHEMA_TEXT), schemaCache);
         } else if (allowableValue.equalsIgnoreCase(HWX_CONTENT_ENCODED_SCHEMA.getValue())) {
-            return new HortonworksEncodedSchemaReferenceStrategy(schemaRegistry);
+            return new HortonworksEncodedSchemaReferenceStrategy(schemaRegistry, schemaCache);
         } else if (allowableValue.equalsIgnoreCase(HWX_SCHEMA_REF_ATTRIBUTES.getValue())) {
-            return new HortonworksAttributeSchemaReferenceStrategy(schemaRegistry);
+            return new HortonworksAttributeSchemaReferenceStrategy(schemaRegistry, schemaCache);
         } else if (allowableValue.equalsIgnoreCase(CONFLUENT_ENCODED_SCHEMA.getValue())) {
-            return new ConfluentSchemaRegistryStrategy(schemaRegistry);
+            return new ConfluentSchemaRegistryStrategy(schemaRegistry, schemaCache);
         }
 
         return null;
@@ -32,9 +32,15 @@ import org.apache.nifi.stream.io.StreamUtils;
 public class ConfluentSchemaRegistryStrategy implements SchemaAccessStrategy {
     private final Set<SchemaField> schemaFields;
     private final SchemaRegistry schemaRegistry;
+    private final RecordSchemaCache schemaCache;
 
     public ConfluentSchemaRegistryStrategy(final SchemaRegistry schemaRegistry) {
+        this(schemaRegistry, null);
+    }
+
+    public ConfluentSchemaRegistryStrategy(final SchemaRegistry schemaRegistry, final RecordSchemaCache schemaCache) {
         this.schemaRegistry = schemaRegistry;
+        this.schemaCache = schemaCache;
 
         schemaFields = new HashSet<>();
         schemaFields.add(SchemaField.SCHEMA_IDENTIFIER);
@@ -64,7 +70,11 @@ public class ConfluentSchemaRegistryStrategy implements SchemaAccessStrategy {
         }
 
         final int schemaId = bb.getInt();
-        return schemaRegistry.retrieveSchema(schemaId, 1);
+        if (schemaCache == null) {
+            return schemaRegistry.retrieveSchema(schemaId, 1);
+        }
+
+        return schemaCache.get(RecordSchemaCache.registryKey(schemaRegistry, schemaId, 1), () -> schemaRegistry.retrieveSchema(schemaId, 1));
     }
 
     @Override
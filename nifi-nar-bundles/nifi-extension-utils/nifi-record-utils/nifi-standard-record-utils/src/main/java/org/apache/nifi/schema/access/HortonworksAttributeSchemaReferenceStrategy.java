@@ -35,10 +35,16 @@ public class HortonworksAttributeSchemaReferenceStrategy implements SchemaAccess
     public static final String SCHEMA_PROTOCOL_VERSION_ATTRIBUTE = "schema.protocol.version";
 
     private final SchemaRegistry schemaRegistry;
+    private final RecordSchemaCache schemaCache;
 
 
     public HortonworksAttributeSchemaReferenceStrategy(final SchemaRegistry schemaRegistry) {
+        this(schemaRegistry, null);
+    }
+
+    public HortonworksAttributeSchemaReferenceStrategy(final SchemaRegistry schemaRegistry, final RecordSchemaCache schemaCache) {
         this.schemaRegistry = schemaRegistry;
+        this.schemaCache = schemaCache;
 
         schemaFields = new HashSet<>();
         schemaFields.add(SchemaField.SCHEMA_IDENTIFIER);
@@ -84,7 +90,13 @@ public class HortonworksAttributeSchemaReferenceStrategy implements SchemaAccess
         final long schemaId = Long.parseLong(schemaIdentifier);
         final int version = Integer.parseInt(schemaVersion);
 
-        final RecordSchema schema = schemaRegistry.retrieveSchema(schemaId, version);
+        final RecordSchema schema;
+        if (schemaCache == null) {
+            schema = schemaRegistry.retrieveSchema(schemaId, version);
+        } else {
+            schema = schemaCache.get(RecordSchemaCache.registryKey(schemaRegistry, schemaId, version), () -> schemaRegistry.retrieveSchema(schemaId, version));
+        }
+
         if (schema == null) {
             throw new SchemaNotFoundException("Could not find a Schema in the Schema Registry with Schema Identifier '" + schemaId + "' and Version '" + version + "'");
         }
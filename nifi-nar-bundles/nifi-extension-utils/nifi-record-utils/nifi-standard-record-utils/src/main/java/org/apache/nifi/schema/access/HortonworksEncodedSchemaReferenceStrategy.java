@@ -34,9 +34,15 @@ public class HortonworksEncodedSchemaReferenceStrategy implements SchemaAccessSt
 
     private final Set<SchemaField> schemaFields;
     private final SchemaRegistry schemaRegistry;
+    private final RecordSchemaCache schemaCache;
 
     public HortonworksEncodedSchemaReferenceStrategy(final SchemaRegistry schemaRegistry) {
+        this(schemaRegistry, null);
+    }
+
+    public HortonworksEncodedSchemaReferenceStrategy(final SchemaRegistry schemaRegistry, final RecordSchemaCache schemaCache) {
         this.schemaRegistry = schemaRegistry;
+        this.schemaCache = schemaCache;
 
         schemaFields = new HashSet<>();
         schemaFields.add(SchemaField.SCHEMA_IDENTIFIER);
@@ -66,7 +72,11 @@ public class HortonworksEncodedSchemaReferenceStrategy implements SchemaAccessSt
         final long schemaId = bb.getLong();
         final int schemaVersion = bb.getInt();
 
-        return schemaRegistry.retrieveSchema(schemaId, schemaVersion);
+        if (schemaCache == null) {
+            return schemaRegistry.retrieveSchema(schemaId, schemaVersion);
+        }
+
+        return schemaCache.get(RecordSchemaCache.registryKey(schemaRegistry, schemaId, schemaVersion), () -> schemaRegistry.retrieveSchema(schemaId, schemaVersion));
     }
 
     @Override
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.access;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.nifi.schemaregistry.services.SchemaRegistry;
+import org.apache.nifi.serialization.record.RecordSchema;
+
+/**
+ * <p>
+ * A bounded, least-recently-used cache of {@link RecordSchema}s. Schemas are keyed on something that uniquely and
+ * immutably identifies them, such as the text of the schema, a parsed Avro schema, or a Schema Identifier and Version
+ * in a particular Schema Registry (see {@link #registryKey(SchemaRegistry, long, int)}). Schemas that may change over
+ * time, such as the latest version of a schema looked up by name, must not be cached here.
+ * </p>
+ *
+ * <p>
+ * The cache returns the same RecordSchema instance for the same key for as long as the entry remains cached, so callers
+ * may compare schemas by identity before falling back to {@link Object#equals(Object)}.
+ * </p>
+ */
+public class RecordSchemaCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final int maxSize;
+    private final AtomicLong hitCount = new AtomicLong(0L);
+    private final AtomicLong missCount = new AtomicLong(0L);
+    private final AtomicLong evictionCount = new AtomicLong(0L);
+
+    private final Map<Object, RecordSchema> schemas;
+
+    public RecordSchemaCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public RecordSchemaCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1 but was " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.schemas = new LinkedHashMap<Object, RecordSchema>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, RecordSchema> eldest) {
+                final boolean evict = size() > RecordSchemaCache.this.maxSize;
+                if (evict) {
+                    evictionCount.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Returns the schema that is cached for the given key, using the given loader to create and cache it if
+     * no schema is cached yet. If several threads load the same schema concurrently, all of them are given
+     * the instance that was cached first.
+     *
+     * @param key the key that uniquely identifies the schema
+     * @param loader creates the schema if it is not cached
+     * @return the canonical schema for the given key
+     * @throws SchemaNotFoundException if the loader is unable to find or create the schema
+     * @throws IOException if the loader is unable to read the schema
+     */
+    public RecordSchema get(final Object key, final SchemaLoader loader) throws SchemaNotFoundException, IOException {
+        Objects.requireNonNull(key);
+
+        // As with the compiled Avro schema caches, loading a schema may be expensive, so we do not hold the lock while doing so.
+        synchronized (this) {
+            final RecordSchema cached = schemas.get(key);
+            if (cached != null) {
+                hitCount.incrementAndGet();
+                return cached;
+            }
+        }
+
+        missCount.incrementAndGet();
+        final RecordSchema loaded = loader.load();
+        if (loaded == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            return schemas.computeIfAbsent(key, k -> loaded);
+        }
+    }
+
+    public synchronized int size() {
+        return schemas.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Removes all schemas from the cache and resets the hit, miss and eviction counts.
+     */
+    public synchronized void clear() {
+        schemas.clear();
+        hitCount.set(0L);
+        missCount.set(0L);
+        evictionCount.set(0L);
+    }
+
+    /**
+     * @return the number of schemas cached, the maximum number that may be cached, and the number of hits, misses and evictions
+     *         since the cache was created or last cleared
+     */
+    public synchronized Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("size", (long) schemas.size());
+        statistics.put("maxSize", (long) maxSize);
+        statistics.put("hits", hitCount.get());
+        statistics.put("misses", missCount.get());
+        statistics.put("evictions", evictionCount.get());
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordSchemaCache[size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+            + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    /**
+     * Creates a key that identifies a specific version of a schema in the given Schema Registry.
+     *
+     * @param schemaRegistry the registry that the schema is retrieved from
+     * @param schemaId the identifier of the schema
+     * @param version the version of the schema
+     * @return a key for use with {@link #get(Object, SchemaLoader)}
+     */
+    public static Object registryKey(final SchemaRegistry schemaRegistry, final long schemaId, final int version) {
+        return new RegistryKey(schemaRegistry == null ? null : schemaRegistry.getIdentifier(), schemaId, version);
+    }
+
+    /**
+     * Creates a RecordSchema when it is not yet cached.
+     */
+    public interface SchemaLoader {
+        RecordSchema load() throws SchemaNotFoundException, IOException;
+    }
+
+    private static class RegistryKey {
+        private final String registryId;
+        private final long schemaId;
+        private final int version;
+
+        RegistryKey(final String registryId, final long schemaId, final int version) {
+            this.registryId = registryId;
+            this.schemaId = schemaId;
+            this.version = version;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Objects.hashCode(registryId) + Long.hashCode(schemaId)) + version;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof RegistryKey)) {
+                return false;
+            }
+
+            final RegistryKey other = (RegistryKey) obj;
+            return schemaId == other.schemaId && version == other.version && Objects.equals(registryId, other.registryId);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.schema.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.junit.Test;
+
+public class TestRecordSchemaCache {
+
+    private RecordSchema createSchema(final String fieldName) {
+        return new SimpleRecordSchema(Collections.singletonList(new RecordField(fieldName, RecordFieldType.STRING.getDataType())));
+    }
+
+    @Test
+    public void testSameInstanceReturnedForKey() throws IOException, SchemaNotFoundException {
+        final RecordSchemaCache cache = new RecordSchemaCache(10);
+        final AtomicInteger loads = new AtomicInteger(0);
+
+        final RecordSchema first = cache.get("schema-a", () -> {
+            loads.incrementAndGet();
+            return createSchema("a");
+        });
+        final RecordSchema second = cache.get("schema-a", () -> {
+            loads.incrementAndGet();
+            return createSchema("a");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() throws IOException, SchemaNotFoundException {
+        final RecordSchemaCache cache = new RecordSchemaCache(2);
+
+        final RecordSchema a = cache.get("a", () -> createSchema("a"));
+        cache.get("b", () -> createSchema("b"));
+        assertSame(a, cache.get("a", () -> createSchema("a")));
+
+        // 'b' is now the least recently used and should be evicted
+        cache.get("c", () -> createSchema("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.get("a", () -> createSchema("a")));
+
+        final RecordSchema b = createSchema("b");
+        assertSame(b, cache.get("b", () -> b));
+    }
+
+    @Test
+    public void testNullNotCached() throws IOException, SchemaNotFoundException {
+        final RecordSchemaCache cache = new RecordSchemaCache(2);
+        assertNull(cache.get("a", () -> null));
+        assertEquals(0, cache.size());
+
+        final RecordSchema a = createSchema("a");
+        assertSame(a, cache.get("a", () -> a));
+        assertNotSame(a, createSchema("a"));
+    }
+
+    @Test
+    public void testClearResetsStatistics() throws IOException, SchemaNotFoundException {
+        final RecordSchemaCache cache = new RecordSchemaCache(2);
+        cache.get("a", () -> createSchema("a"));
+        cache.get("a", () -> createSchema("a"));
+
+        assertEquals(Long.valueOf(1L), cache.getStatistics().get("size"));
+        assertEquals(Long.valueOf(1L), cache.getStatistics().get("hits"));
+        assertEquals(Long.valueOf(1L), cache.getStatistics().get("misses"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(Long.valueOf(2L), cache.getStatistics().get("maxSize"));
+    }
+
+    @Test
+    public void testRegistryKey() {
+        assertEquals(RecordSchemaCache.registryKey(null, 1L, 2), RecordSchemaCache.registryKey(null, 1L, 2));
+        assertEquals(RecordSchemaCache.registryKey(null, 1L, 2).hashCode(), RecordSchemaCache.registryKey(null, 1L, 2).hashCode());
+        assertNotEquals(RecordSchemaCache.registryKey(null, 1L, 2), RecordSchemaCache.registryKey(null, 1L, 3));
+        assertNotEquals(RecordSchemaCache.registryKey(null, 1L, 2), RecordSchemaCache.registryKey(null, 2L, 2));
+    }
+}
@@ -49,6 +49,11 @@ import org.apache.nifi.serialization.record.RecordSchema;
 
 public abstract class AbstractRecordProcessor extends AbstractProcessor {
 
+    /**
+     * The maximum number of records that are read from the Record Reader, processed, and handed to the Record Writer at a time
+     */
+    static final int RECORD_BATCH_SIZE = 1000;
+
     static final PropertyDescriptor RECORD_READER = new PropertyDescriptor.Builder()
         .name("record-reader")
         .displayName("Record Reader")
@@ -116,10 +121,16 @@ public abstract class AbstractRecordProcessor extends AbstractProcessor {
                         try (final RecordSetWriter writer = writerFactory.createWriter(getLogger(), writeSchema, out)) {
                             writer.beginRecordSet();
 
-                            Record record;
-                            while ((record = reader.nextRecord()) != null) {
-                                final Record processed = AbstractRecordProcessor.this.process(record, writeSchema, original, context);
-                                writer.write(processed);
+                            // the list returned by the reader may not be modifiable, so the processed records are collected in a list of our own
+                            final List<Record> processed = new ArrayList<>(RECORD_BATCH_SIZE);
+                            List<Record> batch;
+                            while (!(batch = reader.nextBatch(RECORD_BATCH_SIZE)).isEmpty()) {
+                                processed.clear();
+                                for (final Record record : batch) {
+                                    processed.add(AbstractRecordProcessor.this.process(record, writeSchema, original, context));
+                                }
+
+                                writer.writeBatch(processed);
                             }
 
                             final WriteResult writeResult = writer.finishRecordSet();
@@ -27,11 +27,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.nifi.annotation.behavior.EventDriven;
 import org.apache.nifi.annotation.behavior.InputRequirement;
@@ -42,17 +45,23 @@ import org.apache.nifi.annotation.behavior.SupportsBatching;
 import org.apache.nifi.annotation.behavior.WritesAttribute;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.io.StreamCallback;
+import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.ParallelCompressionOutputStream;
+import org.apache.nifi.processors.standard.util.ParallelCompressionOutputStream.BlockCompressor;
 import org.apache.nifi.stream.io.BufferedInputStream;
 import org.apache.nifi.stream.io.BufferedOutputStream;
 import org.apache.nifi.stream.io.GZIPOutputStream;
@@ -125,6 +134,26 @@ public class CompressContent extends AbstractProcessor {
         .defaultValue("false")
         .build();
 
+    public static final PropertyDescriptor COMPRESSION_THREADS = new PropertyDescriptor.Builder()
+    .name("Compression Threads")
+    .description("The number of threads to use to compress the content of each FlowFile. If greater than 1, the content is split into blocks of the "
+        + "Parallel Block Size, which are compressed concurrently and independently of one another, producing a concatenation of compressed streams "
+        + "(e.g., a multi-member gzip stream) that standard decompressors read back as a single stream. This applies only when compressing with the "
+        + "GZIP, BZIP2 or XZ-LZMA2 formats; other formats are always compressed using a single thread.")
+        .required(true)
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .defaultValue("1")
+        .build();
+    public static final PropertyDescriptor PARALLEL_BLOCK_SIZE = new PropertyDescriptor.Builder()
+    .name("Parallel Block Size")
+    .description("The amount of uncompressed data in each block when Compression Threads is greater than 1. Larger blocks compress slightly better; "
+        + "at most twice the number of Compression Threads blocks are held in memory for each FlowFile that is being compressed.")
+        .required(true)
+        .addValidator(StandardValidators.DATA_SIZE_VALIDATOR)
+        .addValidator(StandardValidators.createDataSizeBoundsValidator(1, Integer.MAX_VALUE))
+        .defaultValue("1 MB")
+        .build();
+
     public static final Relationship REL_SUCCESS = new Relationship.Builder()
     .name("success")
     .description("FlowFiles will be transferred to the success relationship after successfully being compressed or decompressed")
@@ -138,6 +167,8 @@ public class CompressContent extends AbstractProcessor {
     private Set<Relationship> relationships;
     private Map<String, String> compressionFormatMimeTypeMap;
 
+    private volatile ExecutorService compressionExecutor;
+
     @Override
     protected void init(final ProcessorInitializationContext context) {
         final List<PropertyDescriptor> properties = new ArrayList<>();
@@ -145,6 +176,8 @@ public class CompressContent extends AbstractProcessor {
         properties.add(COMPRESSION_FORMAT);
         properties.add(COMPRESSION_LEVEL);
         properties.add(UPDATE_FILENAME);
+        properties.add(COMPRESSION_THREADS);
+        properties.add(PARALLEL_BLOCK_SIZE);
         this.properties = Collections.unmodifiableList(properties);
 
         final Set<Relationship> relationships = new HashSet<>();
@@ -173,6 +206,21 @@ public class CompressContent extends AbstractProcessor {
         return properties;
     }
 
+    @OnScheduled
+    public void setupExecutor(final ProcessContext context) {
+        final int threads = context.getProperty(COMPRESSION_THREADS).asInteger();
+        compressionExecutor = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    @OnStopped
+    public void shutdownExecutor() {
+        final ExecutorService executor = compressionExecutor;
+        compressionExecutor = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) {
         FlowFile flowFile = session.get();
@@ -205,6 +253,9 @@ public class CompressContent extends AbstractProcessor {
         final String compressionFormat = compressionFormatValue;
         final AtomicReference<String> mimeTypeRef = new AtomicReference<>(null);
         final StopWatch stopWatch = new StopWatch(true);
+        final ExecutorService parallelExecutor = compressionExecutor;
+        final int parallelBlockSize = context.getProperty(PARALLEL_BLOCK_SIZE).asDataSize(DataUnit.B).intValue();
+        final int maxBlocksInFlight = 2 * context.getProperty(COMPRESSION_THREADS).asInteger();
 
         final String fileExtension;
         switch (compressionFormat.toLowerCase()) {
@@ -248,7 +299,12 @@ public class CompressContent extends AbstractProcessor {
                             switch (compressionFormat.toLowerCase()) {
                                 case COMPRESSION_FORMAT_GZIP:
                                     final int compressionLevel = context.getProperty(COMPRESSION_LEVEL).asInteger();
-                                    compressionOut = new GZIPOutputStream(bufferedOut, compressionLevel);
+                                    if (parallelExecutor == null) {
+                                        compressionOut = new GZIPOutputStream(bufferedOut, compressionLevel);
+                                    } else {
+                                        compressionOut = new ParallelCompressionOutputStream(bufferedOut, parallelExecutor, createGzipBlockCompressor(compressionLevel),
+                                            parallelBlockSize, maxBlocksInFlight);
+                                    }
                                     mimeTypeRef.set("application/gzip");
                                     break;
                                 case COMPRESSION_FORMAT_LZMA:
@@ -256,7 +312,12 @@ public class CompressContent extends AbstractProcessor {
                                     mimeTypeRef.set("application/x-lzma");
                                     break;
                                 case COMPRESSION_FORMAT_XZ_LZMA2:
-                                    compressionOut = new XZOutputStream(bufferedOut, new LZMA2Options());
+                                    if (parallelExecutor == null) {
+                                        compressionOut = new XZOutputStream(bufferedOut, new LZMA2Options());
+                                    } else {
+                                        compressionOut = new ParallelCompressionOutputStream(bufferedOut, parallelExecutor, createXZBlockCompressor(),
+                                            parallelBlockSize, maxBlocksInFlight);
+                                    }
                                     mimeTypeRef.set("application/x-xz");
                                     break;
                                 case COMPRESSION_FORMAT_SNAPPY:
@@ -270,7 +331,12 @@ public class CompressContent extends AbstractProcessor {
                                 case COMPRESSION_FORMAT_BZIP2:
                                 default:
                                     mimeTypeRef.set("application/x-bzip2");
-                                    compressionOut = new CompressorStreamFactory().createCompressorOutputStream(compressionFormat.toLowerCase(), bufferedOut);
+                                    if (parallelExecutor == null || !COMPRESSION_FORMAT_BZIP2.equals(compressionFormat.toLowerCase())) {
+                                        compressionOut = new CompressorStreamFactory().createCompressorOutputStream(compressionFormat.toLowerCase(), bufferedOut);
+                                    } else {
+                                        compressionOut = new ParallelCompressionOutputStream(bufferedOut, parallelExecutor, createBZip2BlockCompressor(),
+                                            parallelBlockSize, maxBlocksInFlight);
+                                    }
                                     break;
                             }
                         } else {
@@ -346,6 +412,30 @@ public class CompressContent extends AbstractProcessor {
         }
     }
 
+    private static BlockCompressor createGzipBlockCompressor(final int compressionLevel) {
+        return (data, length, out) -> {
+            try (final OutputStream gzipOut = new GZIPOutputStream(out, compressionLevel)) {
+                gzipOut.write(data, 0, length);
+            }
+        };
+    }
+
+    private static BlockCompressor createXZBlockCompressor() {
+        return (data, length, out) -> {
+            try (final OutputStream xzOut = new XZOutputStream(out, new LZMA2Options())) {
+                xzOut.write(data, 0, length);
+            }
+        };
+    }
+
+    private static BlockCompressor createBZip2BlockCompressor() {
+        return (data, length, out) -> {
+            try (final OutputStream bzip2Out = new BZip2CompressorOutputStream(out)) {
+                bzip2Out.write(data, 0, length);
+            }
+        };
+    }
+
     private void closeQuietly(final Closeable closeable) {
         if (closeable != null) {
             try {
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -33,9 +34,14 @@ import org.apache.nifi.annotation.behavior.SupportsBatching;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.annotation.lifecycle.OnScheduled;
 import org.apache.nifi.annotation.behavior.WritesAttribute;
 import org.apache.nifi.annotation.behavior.InputRequirement.Requirement;
+import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.ValidationContext;
+import org.apache.nifi.components.ValidationResult;
+import org.apache.nifi.components.Validator;
 import org.apache.nifi.distributed.cache.client.Deserializer;
 import org.apache.nifi.distributed.cache.client.DistributedMapCacheClient;
 import org.apache.nifi.distributed.cache.client.Serializer;
@@ -50,6 +56,7 @@ import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.TimePartitionedBloomFilter;
 
 @EventDriven
 @SupportsBatching
@@ -58,19 +65,42 @@ import org.apache.nifi.processor.util.StandardValidators;
 @CapabilityDescription("Caches a value, computed from FlowFile attributes, for each incoming FlowFile and determines if the cached value has already been seen. "
         + "If so, routes the FlowFile to 'duplicate' with an attribute named 'original.identifier' that specifies the original FlowFile's "
         + "\"description\", which is specified in the <FlowFile Description> property. If the FlowFile is not determined to be a duplicate, the Processor "
-        + "routes the FlowFile to 'non-duplicate'")
+        + "routes the FlowFile to 'non-duplicate'. Alternatively, the values may be kept in a Bloom filter in the memory of each node, "
+        + "which uses far less space and requires no round trip per FlowFile, at the cost of occasionally routing a FlowFile that is not a duplicate "
+        + "to 'duplicate' and of not detecting duplicates that are processed by different nodes.")
 @WritesAttribute(attribute = "original.flowfile.description", description = "All FlowFiles routed to the duplicate relationship will have "
         + "an attribute added named original.flowfile.description. The value of this attribute is determined by the attributes of the original "
-        + "copy of the data and by the FlowFile Description property.")
+        + "copy of the data and by the FlowFile Description property. This attribute is not added when using a Local Bloom Filter, "
+        + "as the filter does not retain descriptions.")
 @SeeAlso(classNames = {"org.apache.nifi.distributed.cache.client.DistributedMapCacheClientService", "org.apache.nifi.distributed.cache.server.map.DistributedMapCacheServer"})
 public class DetectDuplicate extends AbstractProcessor {
 
     public static final String ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME = "original.flowfile.description";
 
+    // The number of generations that the Age Off Duration is divided into by the Bloom filter
+    private static final int BLOOM_FILTER_PARTITIONS = 10;
+
+    public static final AllowableValue MODE_DISTRIBUTED_CACHE = new AllowableValue("Distributed Cache", "Distributed Cache",
+            "The Cache Entry Identifier of each FlowFile is stored, along with its FlowFile Description, in the Distributed Cache Service. "
+            + "Duplicates are detected exactly, across all nodes that share the cache.");
+    public static final AllowableValue MODE_BLOOM_FILTER = new AllowableValue("Local Bloom Filter", "Local Bloom Filter",
+            "The Cache Entry Identifier of each FlowFile is added to a Bloom filter held in the memory of this node, which grows as needed "
+            + "and forgets identifiers as they age off. Duplicates are detected without communicating with any service, but only among FlowFiles "
+            + "processed by this node, and a FlowFile may be routed to 'duplicate' with the configured False Positive Probability. "
+            + "The filter is lost when NiFi is restarted or when the Bloom filter properties are changed.");
+
+    public static final PropertyDescriptor DETECTION_MODE = new PropertyDescriptor.Builder()
+            .name("Detection Mode")
+            .description("Specifies where the Cache Entry Identifiers that have been seen are kept")
+            .required(true)
+            .allowableValues(MODE_DISTRIBUTED_CACHE, MODE_BLOOM_FILTER)
+            .defaultValue(MODE_DISTRIBUTED_CACHE.getValue())
+            .build();
     public static final PropertyDescriptor DISTRIBUTED_CACHE_SERVICE = new PropertyDescriptor.Builder()
             .name("Distributed Cache Service")
-            .description("The Controller Service that is used to cache unique identifiers, used to determine duplicates")
-            .required(true)
+            .description("The Controller Service that is used to cache unique identifiers, used to determine duplicates. "
+                    + "Required when the Detection Mode is Distributed Cache.")
+            .required(false)
             .identifiesControllerService(DistributedMapCacheClient.class)
             .build();
     public static final PropertyDescriptor CACHE_ENTRY_IDENTIFIER = new PropertyDescriptor.Builder()
@@ -111,6 +141,24 @@ public class DetectDuplicate extends AbstractProcessor {
             .defaultValue("true")
             .build();
 
+    public static final PropertyDescriptor BLOOM_FILTER_EXPECTED_ENTRIES = new PropertyDescriptor.Builder()
+            .name("Bloom Filter Expected Entries")
+            .description("The number of distinct Cache Entry Identifiers that are expected within the Age Off Duration, or in total if no Age Off "
+                    + "Duration is set. The filter grows beyond this if needed, but is most compact when this is accurate. "
+                    + "Only used when the Detection Mode is Local Bloom Filter.")
+            .required(true)
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .defaultValue("1000000")
+            .build();
+    public static final PropertyDescriptor BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY = new PropertyDescriptor.Builder()
+            .name("Bloom Filter False Positive Probability")
+            .description("The maximum probability that a FlowFile that is not a duplicate is routed to 'duplicate'. Lower values require more memory. "
+                    + "Only used when the Detection Mode is Local Bloom Filter.")
+            .required(true)
+            .addValidator(new ProbabilityValidator())
+            .defaultValue("0.001")
+            .build();
+
     public static final Relationship REL_DUPLICATE = new Relationship.Builder()
             .name("duplicate")
             .description("If a FlowFile has been detected to be a duplicate, it will be routed to this relationship")
@@ -129,6 +177,9 @@ public class DetectDuplicate extends AbstractProcessor {
     private final Serializer<CacheValue> valueSerializer = new CacheValueSerializer();
     private final Deserializer<CacheValue> valueDeserializer = new CacheValueDeserializer();
 
+    private volatile TimePartitionedBloomFilter bloomFilter;
+    private volatile String bloomFilterSettings;
+
     public DetectDuplicate() {
         final Set<Relationship> rels = new HashSet<>();
         rels.add(REL_DUPLICATE);
@@ -143,11 +194,48 @@ public class DetectDuplicate extends AbstractProcessor {
         descriptors.add(CACHE_ENTRY_IDENTIFIER);
         descriptors.add(FLOWFILE_DESCRIPTION);
         descriptors.add(AGE_OFF_DURATION);
+        descriptors.add(DETECTION_MODE);
         descriptors.add(DISTRIBUTED_CACHE_SERVICE);
         descriptors.add(CACHE_IDENTIFIER);
+        descriptors.add(BLOOM_FILTER_EXPECTED_ENTRIES);
+        descriptors.add(BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY);
         return descriptors;
     }
 
+    @Override
+    protected Collection<ValidationResult> customValidate(final ValidationContext validationContext) {
+        final List<ValidationResult> results = new ArrayList<>();
+        if (MODE_DISTRIBUTED_CACHE.getValue().equals(validationContext.getProperty(DETECTION_MODE).getValue())
+                && !validationContext.getProperty(DISTRIBUTED_CACHE_SERVICE).isSet()) {
+            results.add(new ValidationResult.Builder()
+                    .subject(DISTRIBUTED_CACHE_SERVICE.getDisplayName())
+                    .valid(false)
+                    .explanation("a Distributed Cache Service is required when the Detection Mode is " + MODE_DISTRIBUTED_CACHE.getDisplayName())
+                    .build());
+        }
+        return results;
+    }
+
+    @OnScheduled
+    public void setupBloomFilter(final ProcessContext context) {
+        if (!MODE_BLOOM_FILTER.getValue().equals(context.getProperty(DETECTION_MODE).getValue())) {
+            bloomFilter = null;
+            bloomFilterSettings = null;
+            return;
+        }
+
+        final long expectedEntries = context.getProperty(BLOOM_FILTER_EXPECTED_ENTRIES).asLong();
+        final double falsePositiveProbability = Double.parseDouble(context.getProperty(BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY).getValue());
+        final Long ageOffMillis = context.getProperty(AGE_OFF_DURATION).asTimePeriod(TimeUnit.MILLISECONDS);
+
+        // Keep the identifiers that have been seen across restarts of the processor, unless the filter must be resized
+        final String settings = expectedEntries + "/" + falsePositiveProbability + "/" + ageOffMillis;
+        if (bloomFilter == null || !settings.equals(bloomFilterSettings)) {
+            bloomFilter = new TimePartitionedBloomFilter(expectedEntries, falsePositiveProbability, ageOffMillis == null ? -1L : ageOffMillis, BLOOM_FILTER_PARTITIONS);
+            bloomFilterSettings = settings;
+        }
+    }
+
     @Override
     public Set<Relationship> getRelationships() {
         return relationships;
@@ -168,6 +256,31 @@ public class DetectDuplicate extends AbstractProcessor {
             session.transfer(flowFile, REL_FAILURE);
             return;
         }
+
+        final TimePartitionedBloomFilter filter = bloomFilter;
+        if (filter != null) {
+            final long now = System.currentTimeMillis();
+            final boolean duplicate;
+            if (context.getProperty(CACHE_IDENTIFIER).asBoolean()) {
+                duplicate = !filter.putIfAbsent(cacheKey, now);
+            } else {
+                duplicate = filter.mightContain(cacheKey, now);
+            }
+
+            if (duplicate) {
+                session.getProvenanceReporter().route(flowFile, REL_DUPLICATE, "Probable duplicate detected by Bloom filter");
+                session.transfer(flowFile, REL_DUPLICATE);
+                logger.info("Found {} to probably be a duplicate", new Object[]{flowFile});
+                session.adjustCounter("Duplicates Detected", 1L, false);
+            } else {
+                session.getProvenanceReporter().route(flowFile, REL_NON_DUPLICATE);
+                session.transfer(flowFile, REL_NON_DUPLICATE);
+                logger.info("Could not find a duplicate entry in Bloom filter for {}; routing to non-duplicate", new Object[]{flowFile});
+                session.adjustCounter("Non-Duplicate Files Processed", 1L, false);
+            }
+            return;
+        }
+
         final DistributedMapCacheClient cache = context.getProperty(DISTRIBUTED_CACHE_SERVICE).asControllerService(DistributedMapCacheClient.class);
         final Long durationMS = context.getProperty(AGE_OFF_DURATION).asTimePeriod(TimeUnit.MILLISECONDS);
         final long now = System.currentTimeMillis();
@@ -277,6 +390,27 @@ public class DetectDuplicate extends AbstractProcessor {
         }
     }
 
+    private static class ProbabilityValidator implements Validator {
+
+        @Override
+        public ValidationResult validate(final String subject, final String input, final ValidationContext context) {
+            boolean valid;
+            try {
+                final double value = Double.parseDouble(input);
+                valid = value > 0D && value < 1D;
+            } catch (final NumberFormatException e) {
+                valid = false;
+            }
+
+            return new ValidationResult.Builder()
+                    .subject(subject)
+                    .input(input)
+                    .valid(valid)
+                    .explanation(valid ? null : "must be a number greater than 0 and less than 1")
+                    .build();
+        }
+    }
+
     private static class StringSerializer implements Serializer<String> {
 
         @Override
@@ -18,6 +18,7 @@ package org.apache.nifi.processors.standard;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -56,6 +57,7 @@ import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.StreamingRegexMatcher;
 import org.apache.nifi.stream.io.StreamUtils;
 
 @EventDriven
@@ -207,6 +209,19 @@ public class ExtractText extends AbstractProcessor {
             .defaultValue("false")
             .build();
 
+    public static final PropertyDescriptor STREAMING_EVALUATION = new PropertyDescriptor.Builder()
+            .name("extract-text-streaming-evaluation")
+            .displayName("Streaming Evaluation")
+            .description("If set to true, the Regular Expressions are evaluated against the entire content of the FlowFile, which is read through a window "
+                    + "of twice the Maximum Buffer Size rather than being buffered, so that matches are found however large the FlowFile is. In this case, "
+                    + "the Maximum Buffer Size is the maximum number of characters that a single match may span, and lookbehind may see at most "
+                    + StreamingRegexMatcher.DEFAULT_LOOKBEHIND_LENGTH + " characters before a match. Otherwise, only the first Maximum Buffer Size bytes "
+                    + "of the FlowFile are evaluated.")
+            .required(true)
+            .allowableValues("true", "false")
+            .defaultValue("false")
+            .build();
+
     public static final Relationship REL_MATCH = new Relationship.Builder()
             .name("matched")
             .description("FlowFiles are routed to this relationship when the Regular Expression is successfully evaluated and the FlowFile is modified as a result")
@@ -244,6 +259,7 @@ public class ExtractText extends AbstractProcessor {
         props.add(UNIX_LINES);
         props.add(INCLUDE_CAPTURE_GROUP_ZERO);
         props.add(ENABLE_REPEATING_CAPTURE_GROUP);
+        props.add(STREAMING_EVALUATION);
         this.properties = Collections.unmodifiableList(props);
     }
 
@@ -330,58 +346,70 @@ public class ExtractText extends AbstractProcessor {
         final Charset charset = Charset.forName(context.getProperty(CHARACTER_SET).getValue());
         final int maxCaptureGroupLength = context.getProperty(MAX_CAPTURE_GROUP_LENGTH).asInteger();
 
-        final String contentString;
-        byte[] buffer = bufferQueue.poll();
-        if (buffer == null) {
-            final int maxBufferSize = context.getProperty(MAX_BUFFER_SIZE).asDataSize(DataUnit.B).intValue();
-            buffer = new byte[maxBufferSize];
-        }
-
-        try {
-            final byte[] byteBuffer = buffer;
-            session.read(flowFile, new InputStreamCallback() {
-                @Override
-                public void process(InputStream in) throws IOException {
-                    StreamUtils.fillBuffer(in, byteBuffer, false);
-                }
-            });
-
-            final long len = Math.min(byteBuffer.length, flowFile.getSize());
-            contentString = new String(byteBuffer, 0, (int) len, charset);
-        } finally {
-            bufferQueue.offer(buffer);
-        }
-
         final Map<String, String> regexResults = new HashMap<>();
 
         final Map<String, Pattern> patternMap = compiledPattersMapRef.get();
 
         final int startGroupIdx = context.getProperty(INCLUDE_CAPTURE_GROUP_ZERO).asBoolean() ? 0 : 1;
+        final boolean repeatingCaptureGroup = context.getProperty(ENABLE_REPEATING_CAPTURE_GROUP).asBoolean();
+
+        if (context.getProperty(STREAMING_EVALUATION).asBoolean()) {
+            final int maxMatchLength = Math.max(1, context.getProperty(MAX_BUFFER_SIZE).asDataSize(DataUnit.B).intValue());
+
+            for (final Map.Entry<String, Pattern> entry : patternMap.entrySet()) {
+                final StreamingRegexMatcher streamingMatcher = new StreamingRegexMatcher(entry.getValue(), maxMatchLength);
+                session.read(flowFile, new InputStreamCallback() {
+                    @Override
+                    public void process(InputStream in) throws IOException {
+                        streamingMatcher.process(new InputStreamReader(in, charset), new StreamingRegexMatcher.MatchHandler() {
+                            private int j = 0;
+
+                            @Override
+                            public void unmatched(final CharSequence text, final int start, final int end) {
+                            }
+
+                            @Override
+                            public boolean matched(final Matcher matcher) {
+                                j = addCaptureGroups(matcher, entry.getKey(), j, startGroupIdx, maxCaptureGroupLength, regexResults);
+                                return repeatingCaptureGroup;
+                            }
+                        });
+                    }
+                });
+            }
+        } else {
+            final String contentString;
+            byte[] buffer = bufferQueue.poll();
+            if (buffer == null) {
+                final int maxBufferSize = context.getProperty(MAX_BUFFER_SIZE).asDataSize(DataUnit.B).intValue();
+                buffer = new byte[maxBufferSize];
+            }
 
-        for (final Map.Entry<String, Pattern> entry : patternMap.entrySet()) {
-
-            final Matcher matcher = entry.getValue().matcher(contentString);
-            int j = 0;
-
-            while (matcher.find()) {
-                final String baseKey = entry.getKey();
-                int start = j == 0 ? startGroupIdx : 1;
-                for (int i = start; i <= matcher.groupCount(); i++) {
-                    final String key = new StringBuilder(baseKey).append(".").append(i + j).toString();
-                    String value = matcher.group(i);
-                    if (value != null && !value.isEmpty()) {
-                        if (value.length() > maxCaptureGroupLength) {
-                            value = value.substring(0, maxCaptureGroupLength);
-                        }
-                        regexResults.put(key, value);
-                        if (i == 1 && j == 0) {
-                            regexResults.put(baseKey, value);
-                        }
+            try {
+                final byte[] byteBuffer = buffer;
+                session.read(flowFile, new InputStreamCallback() {
+                    @Override
+                    public void process(InputStream in) throws IOException {
+                        StreamUtils.fillBuffer(in, byteBuffer, false);
+                    }
+                });
+
+                final long len = Math.min(byteBuffer.length, flowFile.getSize());
+                contentString = new String(byteBuffer, 0, (int) len, charset);
+            } finally {
+                bufferQueue.offer(buffer);
+            }
+
+            for (final Map.Entry<String, Pattern> entry : patternMap.entrySet()) {
+
+                final Matcher matcher = entry.getValue().matcher(contentString);
+                int j = 0;
+
+                while (matcher.find()) {
+                    j = addCaptureGroups(matcher, entry.getKey(), j, startGroupIdx, maxCaptureGroupLength, regexResults);
+                    if (!repeatingCaptureGroup) {
+                        break;
                     }
-                }
-                j += matcher.groupCount();
-                if (!context.getProperty(ENABLE_REPEATING_CAPTURE_GROUP).asBoolean()) {
-                    break;
                 }
             }
         }
@@ -398,6 +426,36 @@ public class ExtractText extends AbstractProcessor {
 
     }
 
+    /**
+     * Adds the capture groups of the current match of the given matcher to the given results
+     *
+     * @param matcher the matcher whose current match is to be added
+     * @param baseKey the name of the attribute that the Regular Expression populates
+     * @param j the number of capture groups that were added for previous matches of the same Regular Expression
+     * @param startGroupIdx the first capture group to add for the first match
+     * @param maxCaptureGroupLength the maximum number of characters of each capture group to add
+     * @param regexResults the results to add to
+     * @return the number of capture groups that have been added for the Regular Expression, including this match
+     */
+    private static int addCaptureGroups(final Matcher matcher, final String baseKey, final int j, final int startGroupIdx,
+                                        final int maxCaptureGroupLength, final Map<String, String> regexResults) {
+        int start = j == 0 ? startGroupIdx : 1;
+        for (int i = start; i <= matcher.groupCount(); i++) {
+            final String key = new StringBuilder(baseKey).append(".").append(i + j).toString();
+            String value = matcher.group(i);
+            if (value != null && !value.isEmpty()) {
+                if (value.length() > maxCaptureGroupLength) {
+                    value = value.substring(0, maxCaptureGroupLength);
+                }
+                regexResults.put(key, value);
+                if (i == 1 && j == 0) {
+                    regexResults.put(baseKey, value);
+                }
+            }
+        }
+        return j + matcher.groupCount();
+    }
+
     int getCompileFlags(ProcessContext context) {
         int flags = (context.getProperty(UNIX_LINES).asBoolean() ? Pattern.UNIX_LINES : 0)
                 | (context.getProperty(CASE_INSENSITIVE).asBoolean() ? Pattern.CASE_INSENSITIVE : 0)
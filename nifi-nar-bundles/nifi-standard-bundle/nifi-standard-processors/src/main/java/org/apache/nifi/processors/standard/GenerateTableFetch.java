@@ -46,11 +46,13 @@ import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processors.standard.db.DatabaseAdapter;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -72,7 +74,8 @@ import java.util.stream.IntStream;
 @CapabilityDescription("Generates SQL select queries that fetch \"pages\" of rows from a table. The partition size property, along with the table's row count, "
         + "determine the size and number of pages and generated FlowFiles. In addition, incremental fetching can be achieved by setting Maximum-Value Columns, "
         + "which causes the processor to track the columns' maximum values, thus only fetching rows whose columns' values exceed the observed maximums. This "
-        + "processor is intended to be run on the Primary Node only.\n\n"
+        + "processor is intended to be run on the Primary Node only. If a Column for Value Partitioning is specified, the pages are bounded by ranges of that column's "
+        + "values instead of by offsets, so that each generated query costs about the same no matter how far into the table its page is.\n\n"
         + "This processor can accept incoming connections; the behavior of the processor is different whether incoming connections are provided:\n"
         + "  - If no incoming connection(s) are specified, the processor will generate SQL queries on the specified processor schedule. Expression Language is supported for many "
         + "fields, but no flow file attributes are available. However the properties will be evaluated using the Variable Registry.\n"
@@ -93,7 +96,8 @@ import java.util.stream.IntStream;
         @WritesAttribute(attribute = "generatetablefetch.maxColumnNames", description = "The comma-separated list of column names used to keep track of data "
                     + "that has been returned since the processor started running."),
         @WritesAttribute(attribute = "generatetablefetch.limit", description = "The number of result rows to be fetched by the SQL statement."),
-        @WritesAttribute(attribute = "generatetablefetch.offset", description = "Offset to be used to retrieve the corresponding partition.")
+        @WritesAttribute(attribute = "generatetablefetch.offset", description = "Offset to be used to retrieve the corresponding partition. This attribute is not "
+                + "set if a Column for Value Partitioning is specified, as the partition is then given by the range in the where clause.")
 })
 @DynamicProperty(name = "Initial Max Value", value = "Attribute Expression Language", supportsExpressionLanguage = false, description = "Specifies an initial "
         + "max value for max value columns. Properties should be added in the format `initial.maxvalue.{max_value_column}`.")
@@ -112,6 +116,20 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
             .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
             .build();
 
+    public static final PropertyDescriptor COLUMN_FOR_VALUE_PARTITIONING = new PropertyDescriptor.Builder()
+            .name("gen-table-column-for-val-partitioning")
+            .displayName("Column for Value Partitioning")
+            .description("The name of a numeric column whose values will be used to partition the table. By default the pages are fetched using an offset/limit "
+                    + "strategy, which requires the database to skip over all the rows before each page, so the queries for pages far into a large table become "
+                    + "progressively slower. If this property is set, the minimum and maximum values of the column are retrieved along with the row count, and the "
+                    + "range between them is divided into as many equal ranges as there would be pages, each of which is fetched by a query with a bounded WHERE clause. "
+                    + "The pages are of balanced size when the column's values are evenly distributed, such as for a generated key, and an index on the column "
+                    + "makes each query cost about the same. Rows whose value for the column is null are fetched by one additional query.")
+            .required(false)
+            .expressionLanguageSupported(true)
+            .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+            .build();
+
     public static final Relationship REL_FAILURE = new Relationship.Builder()
             .name("failure")
             .description("This relationship is only used when SQL query execution (using an incoming FlowFile) failed. The incoming FlowFile will be penalized and routed to this relationship. "
@@ -132,6 +150,7 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
         pds.add(MAX_VALUE_COLUMN_NAMES);
         pds.add(QUERY_TIMEOUT);
         pds.add(PARTITION_SIZE);
+        pds.add(COLUMN_FOR_VALUE_PARTITIONING);
         pds.add(WHERE_CLAUSE);
         propDescriptors = Collections.unmodifiableList(pds);
     }
@@ -187,6 +206,8 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
         final String maxValueColumnNames = context.getProperty(MAX_VALUE_COLUMN_NAMES).evaluateAttributeExpressions(fileToProcess).getValue();
         final int partitionSize = context.getProperty(PARTITION_SIZE).evaluateAttributeExpressions(fileToProcess).asInteger();
         final String customWhereClause = context.getProperty(WHERE_CLAUSE).evaluateAttributeExpressions(fileToProcess).getValue();
+        final String columnForPartitioning = context.getProperty(COLUMN_FOR_VALUE_PARTITIONING).evaluateAttributeExpressions(fileToProcess).getValue();
+        final boolean useColumnValsForPaging = !StringUtils.isEmpty(columnForPartitioning);
 
         final StateManager stateManager = context.getStateManager();
         final StateMap stateMap;
@@ -256,11 +277,20 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
             }
 
             whereClause = StringUtils.join(maxValueClauses, " AND ");
+
+            // The statistics of the partitioning column follow the maximum-value columns, so that they are not mistaken for maximum values
+            final int maxValueColumnCount = maxValueSelectColumns.size();
+            if (useColumnValsForPaging) {
+                maxValueSelectColumns.add("COUNT(" + columnForPartitioning + ")");
+                maxValueSelectColumns.add("MIN(" + columnForPartitioning + ")");
+                maxValueSelectColumns.add("MAX(" + columnForPartitioning + ")");
+            }
             columnsClause = StringUtils.join(maxValueSelectColumns, ", ");
 
             // Build a SELECT query with maximum-value columns (if present)
             final String selectQuery = dbAdapter.getSelectStatement(tableName, columnsClause, whereClause, null, null, null);
             long rowCount = 0;
+            List<String> partitionClauses = null;
 
             try (final Connection con = dbcpService.getConnection();
                 final Statement st = con.createStatement()) {
@@ -279,7 +309,7 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
 
                     // Update the state map with the newly-observed maximum values
                     ResultSetMetaData rsmd = resultSet.getMetaData();
-                    for (int i = 2; i <= rsmd.getColumnCount(); i++) {
+                    for (int i = 2; i <= maxValueColumnCount; i++) {
                         //Some JDBC drivers consider the columns name and label to be very different things.
                         // Since this column has been aliased lets check the label first,
                         // if there is no label we'll use the column name.
@@ -309,6 +339,10 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
                         }
 
                     }
+
+                    if (useColumnValsForPaging && partitionSize > 0) {
+                        partitionClauses = getPartitionClauses(resultSet, maxValueColumnCount + 1, columnForPartitioning, rowCount, partitionSize);
+                    }
                 } else {
                     // Something is very wrong here, one row (even if count is zero) should be returned
                     throw new SQLException("No rows returned from metadata query: " + selectQuery);
@@ -331,28 +365,46 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
                 //Update WHERE list to include new right hand boundaries
                 whereClause = StringUtils.join(maxValueClauses, " AND ");
 
-                final long numberOfFetches = (partitionSize == 0) ? 1 : (rowCount / partitionSize) + (rowCount % partitionSize == 0 ? 0 : 1);
+                final long numberOfFetches;
+                if (partitionClauses != null) {
+                    numberOfFetches = partitionClauses.size();
+                } else {
+                    numberOfFetches = (partitionSize == 0) ? 1 : (rowCount / partitionSize) + (rowCount % partitionSize == 0 ? 0 : 1);
+                }
 
                 // Generate SQL statements to read "pages" of data
                 for (long i = 0; i < numberOfFetches; i++) {
-                    Long limit = partitionSize == 0 ? null : (long) partitionSize;
-                    Long offset = partitionSize == 0 ? null : i * partitionSize;
+                    final Long limit;
+                    final Long offset;
+                    final String pageWhereClause;
+                    if (partitionClauses != null) {
+                        // The page is bounded by the range in the WHERE clause, so it is fetched without an offset
+                        limit = null;
+                        offset = null;
+                        final List<String> pageClauses = new ArrayList<>(maxValueClauses);
+                        pageClauses.add(partitionClauses.get((int) i));
+                        pageWhereClause = StringUtils.join(pageClauses, " AND ");
+                    } else {
+                        limit = partitionSize == 0 ? null : (long) partitionSize;
+                        offset = partitionSize == 0 ? null : i * partitionSize;
+                        pageWhereClause = whereClause;
+                    }
                     final String maxColumnNames = StringUtils.join(maxValueColumnNameList, ", ");
-                    final String query = dbAdapter.getSelectStatement(tableName, columnNames, whereClause, maxColumnNames, limit, offset);
+                    final String query = dbAdapter.getSelectStatement(tableName, columnNames, pageWhereClause, maxColumnNames, limit, offset);
                     FlowFile sqlFlowFile = (fileToProcess == null) ? session.create() : session.create(fileToProcess);
                     sqlFlowFile = session.write(sqlFlowFile, out -> out.write(query.getBytes()));
                     sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.tableName", tableName);
                     if (columnNames != null) {
                         sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.columnNames", columnNames);
                     }
-                    if (StringUtils.isNotBlank(whereClause)) {
-                        sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.whereClause", whereClause);
+                    if (StringUtils.isNotBlank(pageWhereClause)) {
+                        sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.whereClause", pageWhereClause);
                     }
                     if (StringUtils.isNotBlank(maxColumnNames)) {
                         sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.maxColumnNames", maxColumnNames);
                     }
                     sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.limit", String.valueOf(limit));
-                    if (partitionSize != 0) {
+                    if (offset != null) {
                         sqlFlowFile = session.putAttribute(sqlFlowFile, "generatetablefetch.offset", String.valueOf(offset));
                     }
                     session.transfer(sqlFlowFile, REL_SUCCESS);
@@ -391,6 +443,64 @@ public class GenerateTableFetch extends AbstractDatabaseFetchProcessor {
         }
     }
 
+    /**
+     * Divides the values of the partitioning column into ranges that each hold about the given number of rows, assuming the values are evenly distributed.
+     *
+     * @param resultSet the result set positioned at the row holding the count of non-null values, the minimum and the maximum of the partitioning column
+     * @param columnIndex the index of the count of non-null values in the result set
+     * @param columnForPartitioning the name of the partitioning column
+     * @param rowCount the total number of rows to be fetched
+     * @param partitionSize the number of rows per page
+     * @return a condition for each page, or null if the rows are to be fetched as a single page
+     * @throws SQLException if the statistics cannot be read from the result set
+     */
+    static List<String> getPartitionClauses(final ResultSet resultSet, final int columnIndex, final String columnForPartitioning, final long rowCount,
+                                            final int partitionSize) throws SQLException {
+        final long nonNullCount = resultSet.getLong(columnIndex);
+        if (nonNullCount == 0 || rowCount <= partitionSize) {
+            return null;
+        }
+
+        switch (resultSet.getMetaData().getColumnType(columnIndex + 1)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                break;
+            default:
+                throw new ProcessException("Column for Value Partitioning '" + columnForPartitioning + "' must be numeric");
+        }
+
+        // Fractional values are truncated, which is safe as the first and last ranges are open-ended
+        final BigInteger min = BigInteger.valueOf(resultSet.getLong(columnIndex + 1));
+        final BigInteger max = BigInteger.valueOf(resultSet.getLong(columnIndex + 2));
+        final BigInteger partitions = BigInteger.valueOf((nonNullCount + partitionSize - 1) / partitionSize);
+        final BigInteger span = max.subtract(min).add(BigInteger.ONE);
+        final BigInteger width = span.add(partitions).subtract(BigInteger.ONE).divide(partitions);
+
+        final List<String> clauses = new ArrayList<>();
+        BigInteger lower = null;
+        BigInteger upper = min.add(width);
+        while (upper.compareTo(max) <= 0) {
+            clauses.add(lower == null
+                    ? columnForPartitioning + " < " + upper
+                    : columnForPartitioning + " >= " + lower + " AND " + columnForPartitioning + " < " + upper);
+            lower = upper;
+            upper = upper.add(width);
+        }
+        clauses.add(lower == null ? columnForPartitioning + " IS NOT NULL" : columnForPartitioning + " >= " + lower);
+
+        if (nonNullCount < rowCount) {
+            clauses.add(columnForPartitioning + " IS NULL");
+        }
+        return clauses;
+    }
+
     private String getColumnStateMaxValue(String tableName, Map<String, String> statePropertyMap, String colName) {
         final String fullyQualifiedStateKey = getStateKey(tableName, colName);
         String maxValue = statePropertyMap.get(fullyQualifiedStateKey);
@@ -20,9 +20,14 @@ import com.burgstaller.okhttp.AuthenticationCacheInterceptor;
 import com.burgstaller.okhttp.CachingAuthenticatorDecorator;
 import com.burgstaller.okhttp.digest.CachingAuthenticator;
 import com.burgstaller.okhttp.digest.DigestAuthenticator;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
 import okhttp3.Credentials;
+import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -40,6 +45,7 @@ import org.apache.nifi.annotation.behavior.WritesAttributes;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.ValidationContext;
 import org.apache.nifi.components.ValidationResult;
@@ -95,7 +101,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
@@ -370,6 +378,48 @@ public final class InvokeHTTP extends AbstractProcessor {
             .allowableValues("true", "false")
             .build();
 
+    public static final PropertyDescriptor PROP_MAX_IN_FLIGHT_REQUESTS = new PropertyDescriptor.Builder()
+            .name("invokehttp-max-in-flight-requests")
+            .displayName("Max In-Flight Requests")
+            .description("The maximum number of requests that each task sends without waiting for their responses. If greater than 1, each task takes up to "
+                    + "this many FlowFiles, sends a request for each of them at once and completes each FlowFile as its response arrives, committing them "
+                    + "together once every response has been received. The content sent for each FlowFile is held in memory until its request has been sent. "
+                    + "If 1, each task sends a single request and waits for its response.")
+            .required(true)
+            .defaultValue("1")
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .build();
+
+    public static final PropertyDescriptor PROP_MAX_IDLE_CONNECTIONS = new PropertyDescriptor.Builder()
+            .name("invokehttp-max-idle-connections")
+            .displayName("Max Idle Connections")
+            .description("The maximum number of idle connections that are kept open for reuse by later requests. Over HTTP/1.1 each request that is in "
+                    + "flight uses a connection of its own, so this should be about the number of requests in flight across all tasks, whereas over HTTP/2 "
+                    + "the requests to a host are multiplexed over a single connection.")
+            .required(true)
+            .defaultValue("5")
+            .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+            .build();
+
+    public static final PropertyDescriptor PROP_IDLE_CONNECTION_KEEP_ALIVE = new PropertyDescriptor.Builder()
+            .name("invokehttp-idle-connection-keep-alive")
+            .displayName("Idle Connection Keep-Alive")
+            .description("How long an idle connection is kept open for reuse before it is closed.")
+            .required(true)
+            .defaultValue("5 mins")
+            .addValidator(StandardValidators.createTimePeriodValidator(1, TimeUnit.MILLISECONDS, Long.MAX_VALUE, TimeUnit.MILLISECONDS))
+            .build();
+
+    public static final PropertyDescriptor PROP_HTTP2_ENABLED = new PropertyDescriptor.Builder()
+            .name("invokehttp-http2-enabled")
+            .displayName("HTTP/2 Enabled")
+            .description("Whether to use HTTP/2 when the remote server supports it, in which case the requests to that server are multiplexed over a single "
+                    + "connection. HTTP/2 is only negotiated for HTTPS connections, and only if the JVM supports ALPN; otherwise HTTP/1.1 is used.")
+            .required(true)
+            .defaultValue("true")
+            .allowableValues("true", "false")
+            .build();
+
     public static final List<PropertyDescriptor> PROPERTIES = Collections.unmodifiableList(Arrays.asList(
             PROP_METHOD,
             PROP_URL,
@@ -394,7 +444,11 @@ public final class InvokeHTTP extends AbstractProcessor {
             PROP_CONTENT_TYPE,
             PROP_SEND_BODY,
             PROP_USE_CHUNKED_ENCODING,
-            PROP_PENALIZE_NO_RETRY));
+            PROP_PENALIZE_NO_RETRY,
+            PROP_MAX_IN_FLIGHT_REQUESTS,
+            PROP_MAX_IDLE_CONNECTIONS,
+            PROP_IDLE_CONNECTION_KEEP_ALIVE,
+            PROP_HTTP2_ENABLED));
 
     // relationships
     public static final Relationship REL_SUCCESS_REQ = new Relationship.Builder()
@@ -548,11 +602,34 @@ public final class InvokeHTTP extends AbstractProcessor {
 
         setAuthenticator(okHttpClientBuilder, context);
 
+        // Allow every task to have its maximum number of requests in flight, whether to a single host or many
+        final int maxRequests = context.getProperty(PROP_MAX_IN_FLIGHT_REQUESTS).asInteger() * context.getMaxConcurrentTasks();
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        okHttpClientBuilder.dispatcher(dispatcher);
+
+        okHttpClientBuilder.connectionPool(new ConnectionPool(context.getProperty(PROP_MAX_IDLE_CONNECTIONS).asInteger(),
+                context.getProperty(PROP_IDLE_CONNECTION_KEEP_ALIVE).asTimePeriod(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS));
+
+        if (!context.getProperty(PROP_HTTP2_ENABLED).asBoolean()) {
+            okHttpClientBuilder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+        }
+
         useChunked = context.getProperty(PROP_USE_CHUNKED_ENCODING).asBoolean();
 
         okHttpClientAtomicReference.set(okHttpClientBuilder.build());
     }
 
+    @OnStopped
+    public void shutdownClient() {
+        final OkHttpClient okHttpClient = okHttpClientAtomicReference.getAndSet(null);
+        if (okHttpClient != null) {
+            okHttpClient.dispatcher().executorService().shutdown();
+            okHttpClient.connectionPool().evictAll();
+        }
+    }
+
     /*
         Overall, this method is based off of examples from OkHttp3 documentation:
             https://square.github.io/okhttp/3.x/okhttp/okhttp3/OkHttpClient.Builder.html#sslSocketFactory-javax.net.ssl.SSLSocketFactory-javax.net.ssl.X509TrustManager-
@@ -648,7 +725,18 @@ public final class InvokeHTTP extends AbstractProcessor {
     public void onTrigger(ProcessContext context, ProcessSession session) throws ProcessException {
         OkHttpClient okHttpClient = okHttpClientAtomicReference.get();
 
-        FlowFile requestFlowFile = session.get();
+        final int maxInFlightRequests = context.getProperty(PROP_MAX_IN_FLIGHT_REQUESTS).asInteger();
+        FlowFile requestFlowFile;
+        if (maxInFlightRequests > 1) {
+            final List<FlowFile> requestFlowFiles = session.get(maxInFlightRequests);
+            if (requestFlowFiles.size() > 1) {
+                invokeAsynchronously(context, session, okHttpClient, requestFlowFiles);
+                return;
+            }
+            requestFlowFile = requestFlowFiles.isEmpty() ? null : requestFlowFiles.get(0);
+        } else {
+            requestFlowFile = session.get();
+        }
 
         // Checking to see if the property to put the body of the response in an attribute was set
         boolean putToAttribute = context.getProperty(PROP_PUT_OUTPUT_IN_ATTRIBUTE).isSet();
@@ -665,20 +753,17 @@ public final class InvokeHTTP extends AbstractProcessor {
             }
         }
 
-        // Setting some initial variables
-        final int maxAttributeSize = context.getProperty(PROP_PUT_ATTRIBUTE_MAX_LENGTH).asInteger();
         final ComponentLog logger = getLogger();
 
         // Every request/response cycle has a unique transaction id which will be stored as a flowfile attribute.
         final UUID txId = UUID.randomUUID();
 
-        FlowFile responseFlowFile = null;
         try {
             // read the url property from the context
             final String urlstr = trimToEmpty(context.getProperty(PROP_URL).evaluateAttributeExpressions(requestFlowFile).getValue());
             final URL url = new URL(urlstr);
 
-            Request httpRequest = configureRequest(context, session, requestFlowFile, url);
+            Request httpRequest = configureRequest(context, session, requestFlowFile, url, false);
 
             // log request
             logRequest(logger, httpRequest);
@@ -691,6 +776,75 @@ public final class InvokeHTTP extends AbstractProcessor {
             final long startNanos = System.nanoTime();
             Response responseHttp = okHttpClient.newCall(httpRequest).execute();
 
+            processResponse(context, session, requestFlowFile, url, txId, startNanos, responseHttp);
+        } catch (final Exception e) {
+            routeToFailure(context, session, requestFlowFile, e);
+        }
+    }
+
+    /**
+     * Sends a request for each of the given FlowFiles without waiting for the responses, and completes each FlowFile as its response arrives.
+     * The requests are dispatched by the OkHttp client, which multiplexes them over a single connection to each host if HTTP/2 is negotiated.
+     * Because the session is not thread-safe, the content of each FlowFile is read into memory before its request is sent, and each response is
+     * handed back to the calling thread to be processed.
+     */
+    private void invokeAsynchronously(final ProcessContext context, final ProcessSession session, final OkHttpClient okHttpClient, final List<FlowFile> requestFlowFiles) {
+        final ComponentLog logger = getLogger();
+        final InFlightRequests inFlightRequests = new InFlightRequests();
+
+        for (final FlowFile requestFlowFile : requestFlowFiles) {
+            try {
+                final URL url = new URL(trimToEmpty(context.getProperty(PROP_URL).evaluateAttributeExpressions(requestFlowFile).getValue()));
+                final Request httpRequest = configureRequest(context, session, requestFlowFile, url, true);
+
+                logRequest(logger, httpRequest);
+
+                if (httpRequest.body() != null) {
+                    session.getProvenanceReporter().send(requestFlowFile, url.toExternalForm(), true);
+                }
+
+                inFlightRequests.send(okHttpClient.newCall(httpRequest), new InFlightRequest(requestFlowFile, url));
+            } catch (final Exception e) {
+                routeToFailure(context, session, requestFlowFile, e);
+            }
+        }
+
+        boolean completed = false;
+        try {
+            for (int i = 0; i < inFlightRequests.size(); i++) {
+                final InFlightRequest inFlightRequest = inFlightRequests.take();
+                if (inFlightRequest.failure != null) {
+                    routeToFailure(context, session, inFlightRequest.requestFlowFile, inFlightRequest.failure);
+                    continue;
+                }
+
+                try {
+                    processResponse(context, session, inFlightRequest.requestFlowFile, inFlightRequest.url, inFlightRequest.txId,
+                            inFlightRequest.startNanos, inFlightRequest.response);
+                } catch (final Exception e) {
+                    routeToFailure(context, session, inFlightRequest.requestFlowFile, e);
+                }
+            }
+            completed = true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessException("Interrupted while waiting for responses to " + inFlightRequests.size() + " requests", e);
+        } finally {
+            if (!completed) {
+                inFlightRequests.abandon();
+            }
+        }
+    }
+
+    private void processResponse(final ProcessContext context, final ProcessSession session, FlowFile requestFlowFile, final URL url, final UUID txId,
+            final long startNanos, final Response responseHttp) throws IOException {
+        // Checking to see if the property to put the body of the response in an attribute was set
+        final boolean putToAttribute = context.getProperty(PROP_PUT_OUTPUT_IN_ATTRIBUTE).isSet();
+        final int maxAttributeSize = context.getProperty(PROP_PUT_ATTRIBUTE_MAX_LENGTH).asInteger();
+        final ComponentLog logger = getLogger();
+
+        FlowFile responseFlowFile = null;
+        try {
             // output the raw response headers (DEBUG level only)
             logResponse(logger, url, responseHttp);
 
@@ -817,19 +971,7 @@ public final class InvokeHTTP extends AbstractProcessor {
 
             route(requestFlowFile, responseFlowFile, session, context, statusCode);
         } catch (final Exception e) {
-            // penalize or yield
-            if (requestFlowFile != null) {
-                logger.error("Routing to {} due to exception: {}", new Object[]{REL_FAILURE.getName(), e}, e);
-                requestFlowFile = session.penalize(requestFlowFile);
-                requestFlowFile = session.putAttribute(requestFlowFile, EXCEPTION_CLASS, e.getClass().getName());
-                requestFlowFile = session.putAttribute(requestFlowFile, EXCEPTION_MESSAGE, e.getMessage());
-                // transfer original to failure
-                session.transfer(requestFlowFile, REL_FAILURE);
-            } else {
-                logger.error("Yielding processor due to exception encountered as a source processor: {}", e);
-                context.yield();
-            }
-
+            closeResponse(responseHttp);
 
             // cleanup response flowfile, if applicable
             try {
@@ -839,11 +981,36 @@ public final class InvokeHTTP extends AbstractProcessor {
             } catch (final Exception e1) {
                 logger.error("Could not cleanup response flowfile due to exception: {}", new Object[]{e1}, e1);
             }
+            throw e;
+        }
+    }
+
+    private void routeToFailure(final ProcessContext context, final ProcessSession session, FlowFile requestFlowFile, final Exception e) {
+        final ComponentLog logger = getLogger();
+
+        // penalize or yield
+        if (requestFlowFile != null) {
+            logger.error("Routing to {} due to exception: {}", new Object[]{REL_FAILURE.getName(), e}, e);
+            requestFlowFile = session.penalize(requestFlowFile);
+            requestFlowFile = session.putAttribute(requestFlowFile, EXCEPTION_CLASS, e.getClass().getName());
+            requestFlowFile = session.putAttribute(requestFlowFile, EXCEPTION_MESSAGE, e.getMessage());
+            // transfer original to failure
+            session.transfer(requestFlowFile, REL_FAILURE);
+        } else {
+            logger.error("Yielding processor due to exception encountered as a source processor: {}", e);
+            context.yield();
+        }
+    }
+
+    private static void closeResponse(final Response response) {
+        final ResponseBody responseBody = response.body();
+        if (responseBody != null) {
+            responseBody.close();
         }
     }
 
 
-    private Request configureRequest(final ProcessContext context, final ProcessSession session, final FlowFile requestFlowFile, URL url) {
+    private Request configureRequest(final ProcessContext context, final ProcessSession session, final FlowFile requestFlowFile, URL url, final boolean bufferContent) {
         Request.Builder requestBuilder = new Request.Builder();
 
         requestBuilder = requestBuilder.url(url);
@@ -864,15 +1031,15 @@ public final class InvokeHTTP extends AbstractProcessor {
                 requestBuilder = requestBuilder.get();
                 break;
             case "POST":
-                RequestBody requestBody = getRequestBodyToSend(session, context, requestFlowFile);
+                RequestBody requestBody = getRequestBodyToSend(session, context, requestFlowFile, bufferContent);
                 requestBuilder = requestBuilder.post(requestBody);
                 break;
             case "PUT":
-                requestBody = getRequestBodyToSend(session, context, requestFlowFile);
+                requestBody = getRequestBodyToSend(session, context, requestFlowFile, bufferContent);
                 requestBuilder = requestBuilder.put(requestBody);
                 break;
             case "PATCH":
-                requestBody = getRequestBodyToSend(session, context, requestFlowFile);
+                requestBody = getRequestBodyToSend(session, context, requestFlowFile, bufferContent);
                 requestBuilder = requestBuilder.patch(requestBody);
                 break;
             case "HEAD":
@@ -890,19 +1057,40 @@ public final class InvokeHTTP extends AbstractProcessor {
         return requestBuilder.build();
     }
 
-    private RequestBody getRequestBodyToSend(final ProcessSession session, final ProcessContext context, final FlowFile requestFlowFile) {
+    /**
+     * Returns the body of the request, which writes the content of the FlowFile when the request is sent. If the request is not sent by
+     * the calling thread, the content must be buffered, as the session cannot be used by the thread that sends the request.
+     */
+    private RequestBody getRequestBodyToSend(final ProcessSession session, final ProcessContext context, final FlowFile requestFlowFile, final boolean bufferContent) {
         if(context.getProperty(PROP_SEND_BODY).asBoolean()) {
+            String contentType = context.getProperty(PROP_CONTENT_TYPE).evaluateAttributeExpressions(requestFlowFile).getValue();
+            contentType = StringUtils.isBlank(contentType) ? DEFAULT_CONTENT_TYPE : contentType;
+            final MediaType mediaType = MediaType.parse(contentType);
+
+            final byte[] bufferedContent;
+            if (bufferContent) {
+                if (requestFlowFile.getSize() > Integer.MAX_VALUE) {
+                    throw new ProcessException("Cannot buffer the content of " + requestFlowFile + " as it is larger than 2 GB");
+                }
+                bufferedContent = new byte[(int) requestFlowFile.getSize()];
+                session.read(requestFlowFile, in -> StreamUtils.fillBuffer(in, bufferedContent));
+            } else {
+                bufferedContent = null;
+            }
+
             return new RequestBody() {
                 @Override
                 public MediaType contentType() {
-                    String contentType = context.getProperty(PROP_CONTENT_TYPE).evaluateAttributeExpressions(requestFlowFile).getValue();
-                    contentType = StringUtils.isBlank(contentType) ? DEFAULT_CONTENT_TYPE : contentType;
-                    return MediaType.parse(contentType);
+                    return mediaType;
                 }
 
                 @Override
                 public void writeTo(BufferedSink sink) throws IOException {
-                    session.exportTo(requestFlowFile, sink.outputStream());
+                    if (bufferedContent != null) {
+                        sink.write(bufferedContent);
+                    } else {
+                        session.exportTo(requestFlowFile, sink.outputStream());
+                    }
                 }
 
                 @Override
@@ -1093,6 +1281,91 @@ public final class InvokeHTTP extends AbstractProcessor {
         return contentType != null ? contentType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
     }
 
+    /**
+     * A request that has been sent without waiting for its response.
+     */
+    private static class InFlightRequest {
+
+        private final FlowFile requestFlowFile;
+        private final URL url;
+        private final UUID txId = UUID.randomUUID();
+        private final long startNanos = System.nanoTime();
+
+        // set by the thread that completes the call, and read once the request has been taken from the completed requests
+        private Response response;
+        private IOException failure;
+
+        private InFlightRequest(final FlowFile requestFlowFile, final URL url) {
+            this.requestFlowFile = requestFlowFile;
+            this.url = url;
+        }
+    }
+
+    /**
+     * The requests sent by a task that are yet to be completed. The threads of the OkHttp dispatcher hand over each request as its response
+     * arrives or its call fails, so that the task can complete the requests in the order in which they finish. If the task stops waiting, the
+     * calls are cancelled and every response that has arrived, or arrives later, is closed.
+     */
+    private static class InFlightRequests {
+
+        private final List<Call> calls = new ArrayList<>();
+        private final BlockingQueue<InFlightRequest> completedRequests = new LinkedBlockingQueue<>();
+        private boolean abandoned = false;
+
+        /**
+         * Enqueues the given call, which is only counted as in flight once it has been enqueued, so that no response is
+         * waited for if the call is rejected.
+         */
+        private void send(final Call call, final InFlightRequest request) {
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(final Call call, final IOException e) {
+                    request.failure = e;
+                    complete(request);
+                }
+
+                @Override
+                public void onResponse(final Call call, final Response response) {
+                    request.response = response;
+                    complete(request);
+                }
+            });
+            calls.add(call);
+        }
+
+        private synchronized void complete(final InFlightRequest request) {
+            if (abandoned) {
+                if (request.response != null) {
+                    closeResponse(request.response);
+                }
+            } else {
+                completedRequests.add(request);
+            }
+        }
+
+        private int size() {
+            return calls.size();
+        }
+
+        private InFlightRequest take() throws InterruptedException {
+            return completedRequests.take();
+        }
+
+        private void abandon() {
+            synchronized (this) {
+                abandoned = true;
+                InFlightRequest request;
+                while ((request = completedRequests.poll()) != null) {
+                    if (request.response != null) {
+                        closeResponse(request.response);
+                    }
+                }
+            }
+
+            calls.forEach(Call::cancel);
+        }
+    }
+
     private static class OverrideHostnameVerifier implements HostnameVerifier {
 
         private final String trustedHostname;
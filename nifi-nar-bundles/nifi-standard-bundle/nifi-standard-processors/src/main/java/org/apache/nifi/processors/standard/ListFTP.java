@@ -86,6 +86,8 @@ public class ListFTP extends ListFileTransfer {
         properties.add(FTPTransfer.HTTP_PROXY_PASSWORD);
         properties.add(FTPTransfer.BUFFER_SIZE);
         properties.add(TARGET_SYSTEM_TIMESTAMP_PRECISION);
+        properties.add(LISTING_STRATEGY);
+        properties.add(ENTITY_INDEX_DIRECTORY);
         return properties;
     }
 
@@ -27,8 +27,11 @@ import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.ValidationContext;
+import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.components.state.Scope;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.processor.DataUnit;
@@ -37,11 +40,13 @@ import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processor.util.list.AbstractListProcessor;
+import org.apache.nifi.processors.standard.util.DirectoryWatcher;
 import org.apache.nifi.processors.standard.util.FileInfo;
 
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileStore;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -54,6 +59,7 @@ import java.nio.file.attribute.PosixFilePermissions;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -62,8 +68,11 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
 import java.util.regex.Pattern;
 
 @TriggerSerially
@@ -187,9 +196,53 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
             .required(true)
             .build();
 
+    static final AllowableValue LISTING_MODE_FULL_SCAN = new AllowableValue("full-scan", "Full Scan", "Every listing scans all of the directories.");
+    static final AllowableValue LISTING_MODE_WATCH = new AllowableValue("watch-for-changes", "Watch for Changes",
+        "The directories are watched for changes, using inotify on Linux, and a listing only scans the directories in which a change was reported. All of "
+        + "the directories are still scanned by the first listing after the Processor is started, after every Full Scan Interval, and whenever changes were lost "
+        + "because too many occurred. Changes to remote file systems, such as NFS mounts, may not be reported, in which case they are only listed by the full scans.");
+
+    public static final PropertyDescriptor LISTING_MODE = new PropertyDescriptor.Builder()
+            .name("listing-mode")
+            .displayName("Listing Mode")
+            .description("Specifies how the directories are scanned for new files.")
+            .allowableValues(LISTING_MODE_FULL_SCAN, LISTING_MODE_WATCH)
+            .defaultValue(LISTING_MODE_FULL_SCAN.getValue())
+            .required(true)
+            .build();
+
+    public static final PropertyDescriptor FULL_SCAN_INTERVAL = new PropertyDescriptor.Builder()
+            .name("full-scan-interval")
+            .displayName("Full Scan Interval")
+            .description("When the Listing Mode is Watch for Changes, how often all of the directories are scanned in order to pick up any files whose changes "
+                    + "were not reported.")
+            .required(true)
+            .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
+            .defaultValue("10 mins")
+            .build();
+
+    public static final PropertyDescriptor SCAN_THREADS = new PropertyDescriptor.Builder()
+            .name("directory-scan-threads")
+            .displayName("Directory Scan Threads")
+            .description("The number of threads used to scan subdirectories in parallel when Recurse Subdirectories is true.")
+            .required(true)
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .defaultValue("1")
+            .build();
+
     private List<PropertyDescriptor> properties;
     private Set<Relationship> relationships;
-    private final AtomicReference<FileFilter> fileFilterRef = new AtomicReference<>();
+    private final AtomicReference<BiPredicate<Path, BasicFileAttributes>> fileFilterRef = new AtomicReference<>();
+
+    private volatile ForkJoinPool scanPool;
+    private volatile boolean watchForChanges;
+    private volatile DirectoryWatcher directoryWatcher;
+    private volatile long fullScanIntervalMillis;
+    private volatile long changedDirectoryRetentionMillis;
+    private volatile long lastFullScanMillis;
+    // directories in which a change was reported, and when it was reported; these are scanned again for a while as the
+    // newest files of a listing may be held back until the next listing
+    private final Map<Path, Long> changedDirectories = new HashMap<>();
 
     public static final String FILE_CREATION_TIME_ATTRIBUTE = "file.creationTime";
     public static final String FILE_LAST_MODIFY_TIME_ATTRIBUTE = "file.lastModifiedTime";
@@ -214,6 +267,11 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
         properties.add(MAX_SIZE);
         properties.add(IGNORE_HIDDEN_FILES);
         properties.add(TARGET_SYSTEM_TIMESTAMP_PRECISION);
+        properties.add(LISTING_STRATEGY);
+        properties.add(ENTITY_INDEX_DIRECTORY);
+        properties.add(LISTING_MODE);
+        properties.add(FULL_SCAN_INTERVAL);
+        properties.add(SCAN_THREADS);
         this.properties = Collections.unmodifiableList(properties);
 
         final Set<Relationship> relationships = new HashSet<>();
@@ -231,9 +289,58 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
         return relationships;
     }
 
+    @Override
+    protected Collection<ValidationResult> customValidate(final ValidationContext context) {
+        final List<ValidationResult> results = new ArrayList<>();
+        if (LISTING_MODE_WATCH.getValue().equals(context.getProperty(LISTING_MODE).getValue())
+                && BY_ENTITIES.getValue().equals(context.getProperty(LISTING_STRATEGY).getValue())) {
+            results.add(new ValidationResult.Builder()
+                    .subject(LISTING_MODE.getDisplayName())
+                    .valid(false)
+                    .explanation("a Listing Mode of " + LISTING_MODE_WATCH.getDisplayName() + " only lists the changed directories, whereas a Listing Strategy of "
+                            + BY_ENTITIES.getDisplayName() + " requires every listing to include all files")
+                    .build());
+        }
+        return results;
+    }
+
     @OnScheduled
-    public void onScheduled(final ProcessContext context) {
+    public void onScheduled(final ProcessContext context) throws IOException {
         fileFilterRef.set(createFileFilter(context));
+
+        final int scanThreads = context.getProperty(SCAN_THREADS).asInteger();
+        if (scanThreads > 1) {
+            scanPool = new ForkJoinPool(scanThreads);
+        }
+
+        lastFullScanMillis = 0L;
+        changedDirectories.clear();
+        watchForChanges = LISTING_MODE_WATCH.getValue().equals(context.getProperty(LISTING_MODE).getValue());
+        if (watchForChanges) {
+            fullScanIntervalMillis = context.getProperty(FULL_SCAN_INTERVAL).asTimePeriod(TimeUnit.MILLISECONDS);
+
+            final String precision = context.getProperty(TARGET_SYSTEM_TIMESTAMP_PRECISION).getValue();
+            final TimeUnit precisionUnit = PRECISION_MILLIS.getValue().equals(precision) ? TimeUnit.MILLISECONDS
+                    : PRECISION_SECONDS.getValue().equals(precision) ? TimeUnit.SECONDS : TimeUnit.MINUTES;
+            changedDirectoryRetentionMillis = context.getProperty(MIN_AGE).asTimePeriod(TimeUnit.MILLISECONDS) + 2 * LISTING_LAG_MILLIS.get(precisionUnit);
+        }
+    }
+
+    @OnStopped
+    public void onStopped() {
+        if (scanPool != null) {
+            scanPool.shutdownNow();
+            scanPool = null;
+        }
+
+        if (directoryWatcher != null) {
+            try {
+                directoryWatcher.close();
+            } catch (final IOException e) {
+                getLogger().warn("Failed to stop watching directories due to {}", new Object[] {e});
+            }
+            directoryWatcher = null;
+        }
     }
 
     @Override
@@ -311,9 +418,45 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
 
     @Override
     protected List<FileInfo> performListing(final ProcessContext context, final Long minTimestamp) throws IOException {
-        final File path = new File(getPath(context));
+        final Path path = Paths.get(getPath(context)).toAbsolutePath();
         final Boolean recurse = context.getProperty(RECURSE).asBoolean();
-        return scanDirectory(path, fileFilterRef.get(), recurse, minTimestamp);
+        final BiPredicate<Path, BasicFileAttributes> filter = fileFilterRef.get();
+
+        // the watcher is created once the directory exists, until then the listing is empty as when scanning
+        DirectoryWatcher watcher = directoryWatcher;
+        if (watcher == null && watchForChanges && Files.isDirectory(path)) {
+            watcher = new DirectoryWatcher(path, recurse);
+            directoryWatcher = watcher;
+        }
+        if (watcher == null) {
+            return scanDirectory(path, filter, recurse, minTimestamp);
+        }
+
+        final long now = System.currentTimeMillis();
+        final Set<Path> changed = watcher.pollChangedDirectories();
+        if (changed != null && now - lastFullScanMillis < fullScanIntervalMillis) {
+            for (final Path directory : changed) {
+                changedDirectories.put(directory.toAbsolutePath(), now);
+            }
+
+            // subdirectories have their own changes reported, so each changed directory is scanned on its own
+            final List<FileInfo> listing = new ArrayList<>();
+            for (final Path directory : changedDirectories.keySet()) {
+                listing.addAll(scanDirectory(directory, filter, false, minTimestamp));
+            }
+            changedDirectories.values().removeIf(changedMillis -> now - changedMillis > changedDirectoryRetentionMillis);
+            return listing;
+        }
+
+        final List<FileInfo> listing = scanDirectory(path, filter, recurse, minTimestamp);
+        lastFullScanMillis = now;
+        changedDirectories.clear();
+        for (final FileInfo fileInfo : listing) {
+            if (now - fileInfo.getLastModifiedTime() <= changedDirectoryRetentionMillis) {
+                changedDirectories.put(Paths.get(fileInfo.getFullPathFileName()).getParent(), now);
+            }
+        }
+        return listing;
     }
 
     @Override
@@ -329,78 +472,138 @@ public class ListFile extends AbstractListProcessor<FileInfo> {
                 || IGNORE_HIDDEN_FILES.equals(property);
     }
 
-    private List<FileInfo> scanDirectory(final File path, final FileFilter filter, final Boolean recurse,
-                                         final Long minTimestamp) throws IOException {
+    private List<FileInfo> scanDirectory(final Path directory, final BiPredicate<Path, BasicFileAttributes> filter, final boolean recurse,
+                                         final Long minTimestamp) {
+        final ForkJoinPool pool = scanPool;
+        if (recurse && pool != null) {
+            return pool.invoke(new DirectoryScanTask(directory, filter, minTimestamp));
+        }
+
         final List<FileInfo> listing = new ArrayList<>();
-        File[] files = path.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    if (recurse) {
-                        listing.addAll(scanDirectory(file, filter, true, minTimestamp));
-                    }
-                } else {
-                    if ((minTimestamp == null || file.lastModified() >= minTimestamp) && filter.accept(file)) {
-                        listing.add(new FileInfo.Builder()
-                                .directory(file.isDirectory())
-                                .filename(file.getName())
-                                .fullPathFileName(file.getAbsolutePath())
-                                .lastModifiedTime(file.lastModified())
-                                .build());
-                    }
-                }
+        final List<Path> subdirectories = new ArrayList<>();
+        listDirectory(directory, filter, minTimestamp, listing, subdirectories);
+        if (recurse) {
+            for (final Path subdirectory : subdirectories) {
+                listing.addAll(scanDirectory(subdirectory, filter, true, minTimestamp));
             }
         }
-
         return listing;
     }
 
-    private FileFilter createFileFilter(final ProcessContext context) {
+    /**
+     * Adds the files of the given directory that pass the filter to the listing, and its subdirectories to the given list. The
+     * attributes of each entry are read once, rather than for each check of the filter.
+     */
+    private static void listDirectory(final Path directory, final BiPredicate<Path, BasicFileAttributes> filter, final Long minTimestamp,
+                                      final List<FileInfo> listing, final List<Path> subdirectories) {
+        try (final DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (final Path entry : entries) {
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (final IOException e) {
+                    // the entry was removed since the directory was read, or is a broken link
+                    continue;
+                }
+
+                if (attributes.isDirectory()) {
+                    subdirectories.add(entry);
+                    continue;
+                }
+
+                final long lastModified = attributes.lastModifiedTime().toMillis();
+                if ((minTimestamp == null || lastModified >= minTimestamp) && filter.test(entry, attributes)) {
+                    listing.add(new FileInfo.Builder()
+                            .directory(false)
+                            .filename(entry.getFileName().toString())
+                            .fullPathFileName(entry.toAbsolutePath().toString())
+                            .lastModifiedTime(lastModified)
+                            .size(attributes.size())
+                            .build());
+                }
+            }
+        } catch (final IOException | DirectoryIteratorException e) {
+            // the directory was removed or cannot be read, in which case it has nothing to list
+        }
+    }
+
+    private BiPredicate<Path, BasicFileAttributes> createFileFilter(final ProcessContext context) {
         final long minSize = context.getProperty(MIN_SIZE).asDataSize(DataUnit.B).longValue();
         final Double maxSize = context.getProperty(MAX_SIZE).asDataSize(DataUnit.B);
         final long minAge = context.getProperty(MIN_AGE).asTimePeriod(TimeUnit.MILLISECONDS);
         final Long maxAge = context.getProperty(MAX_AGE).asTimePeriod(TimeUnit.MILLISECONDS);
         final boolean ignoreHidden = context.getProperty(IGNORE_HIDDEN_FILES).asBoolean();
         final Pattern filePattern = Pattern.compile(context.getProperty(FILE_FILTER).getValue());
-        final String indir = context.getProperty(DIRECTORY).evaluateAttributeExpressions().getValue();
+        final Path indir = Paths.get(context.getProperty(DIRECTORY).evaluateAttributeExpressions().getValue()).toAbsolutePath();
         final boolean recurseDirs = context.getProperty(RECURSE).asBoolean();
         final String pathPatternStr = context.getProperty(PATH_FILTER).getValue();
         final Pattern pathPattern = (!recurseDirs || pathPatternStr == null) ? null : Pattern.compile(pathPatternStr);
 
-        return new FileFilter() {
-            @Override
-            public boolean accept(final File file) {
-                if (minSize > file.length()) {
-                    return false;
-                }
-                if (maxSize != null && maxSize < file.length()) {
-                    return false;
-                }
-                final long fileAge = System.currentTimeMillis() - file.lastModified();
-                if (minAge > fileAge) {
-                    return false;
-                }
-                if (maxAge != null && maxAge < fileAge) {
-                    return false;
-                }
-                if (ignoreHidden && file.isHidden()) {
+        return (path, attributes) -> {
+            if (minSize > attributes.size()) {
+                return false;
+            }
+            if (maxSize != null && maxSize < attributes.size()) {
+                return false;
+            }
+            final long fileAge = System.currentTimeMillis() - attributes.lastModifiedTime().toMillis();
+            if (minAge > fileAge) {
+                return false;
+            }
+            if (maxAge != null && maxAge < fileAge) {
+                return false;
+            }
+            try {
+                if (ignoreHidden && Files.isHidden(path)) {
                     return false;
                 }
-                if (pathPattern != null) {
-                    Path reldir = Paths.get(indir).relativize(file.toPath()).getParent();
-                    if (reldir != null && !reldir.toString().isEmpty()) {
-                        if (!pathPattern.matcher(reldir.toString()).matches()) {
-                            return false;
-                        }
+            } catch (final IOException e) {
+                return false;
+            }
+            if (pathPattern != null) {
+                Path reldir = indir.relativize(path.toAbsolutePath()).getParent();
+                if (reldir != null && !reldir.toString().isEmpty()) {
+                    if (!pathPattern.matcher(reldir.toString()).matches()) {
+                        return false;
                     }
                 }
-                //Verify that we have at least read permissions on the file we're considering grabbing
-                if (!Files.isReadable(file.toPath())) {
-                    return false;
-                }
-                return filePattern.matcher(file.getName()).matches();
             }
+            //Verify that we have at least read permissions on the file we're considering grabbing
+            if (!Files.isReadable(path)) {
+                return false;
+            }
+            return filePattern.matcher(path.getFileName().toString()).matches();
         };
     }
 
+    /**
+     * Lists a directory and all of its subdirectories, forking a task for each subdirectory so that they are listed in parallel.
+     */
+    private static class DirectoryScanTask extends RecursiveTask<List<FileInfo>> {
+        private final Path directory;
+        private final BiPredicate<Path, BasicFileAttributes> filter;
+        private final Long minTimestamp;
+
+        DirectoryScanTask(final Path directory, final BiPredicate<Path, BasicFileAttributes> filter, final Long minTimestamp) {
+            this.directory = directory;
+            this.filter = filter;
+            this.minTimestamp = minTimestamp;
+        }
+
+        @Override
+        protected List<FileInfo> compute() {
+            final List<FileInfo> listing = new ArrayList<>();
+            final List<Path> subdirectories = new ArrayList<>();
+            listDirectory(directory, filter, minTimestamp, listing, subdirectories);
+
+            final List<DirectoryScanTask> tasks = new ArrayList<>(subdirectories.size());
+            for (final Path subdirectory : subdirectories) {
+                tasks.add(new DirectoryScanTask(subdirectory, filter, minTimestamp));
+            }
+            for (final DirectoryScanTask task : invokeAll(tasks)) {
+                listing.addAll(task.join());
+            }
+            return listing;
+        }
+    }
 }
@@ -83,6 +83,8 @@ public class ListSFTP extends ListFileTransfer {
         properties.add(SFTPTransfer.DATA_TIMEOUT);
         properties.add(SFTPTransfer.USE_KEEPALIVE_ON_TIMEOUT);
         properties.add(TARGET_SYSTEM_TIMESTAMP_PRECISION);
+        properties.add(LISTING_STRATEGY);
+        properties.add(ENTITY_INDEX_DIRECTORY);
         return properties;
     }
 
@@ -17,6 +17,7 @@
 package org.apache.nifi.processors.standard;
 
 import static org.apache.nifi.processor.util.listen.ListenerProperties.NETWORK_INTF_NAME;
+import static org.apache.nifi.processor.util.listen.ListenerProperties.UDP_RECEIVERS;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -64,6 +65,7 @@ import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processor.util.listen.dispatcher.AsyncChannelDispatcher;
 import org.apache.nifi.processor.util.listen.dispatcher.ChannelDispatcher;
 import org.apache.nifi.processor.util.listen.dispatcher.DatagramChannelDispatcher;
+import org.apache.nifi.processor.util.listen.dispatcher.DatagramChannelDispatcherGroup;
 import org.apache.nifi.processor.util.listen.dispatcher.SocketChannelDispatcher;
 import org.apache.nifi.processor.util.listen.event.Event;
 import org.apache.nifi.processor.util.listen.event.EventFactory;
@@ -218,6 +220,7 @@ public class ListenSyslog extends AbstractSyslogProcessor {
         descriptors.add(MAX_MESSAGE_QUEUE_SIZE);
         descriptors.add(MAX_SOCKET_BUFFER_SIZE);
         descriptors.add(MAX_CONNECTIONS);
+        descriptors.add(UDP_RECEIVERS);
         descriptors.add(MAX_BATCH_SIZE);
         descriptors.add(MESSAGE_DELIMITER);
         descriptors.add(PARSE_MESSAGES);
@@ -271,6 +274,13 @@ public class ListenSyslog extends AbstractSyslogProcessor {
                     .valid(false).subject("SSL Context").build());
         }
 
+        if (UDP_VALUE.getValue().equals(protocol) && validationContext.getProperty(UDP_RECEIVERS).asInteger() > 1
+                && !DatagramChannelDispatcher.isReusePortSupported()) {
+            results.add(new ValidationResult.Builder()
+                    .explanation("More than one receiver requires SO_REUSEPORT, which is not supported on this platform")
+                    .valid(false).subject(UDP_RECEIVERS.getDisplayName()).build());
+        }
+
         // Validate CLIENT_AUTH
         final String clientAuth = validationContext.getProperty(CLIENT_AUTH).getValue();
         if (sslContextService != null && StringUtils.isBlank(clientAuth)) {
@@ -304,7 +314,7 @@ public class ListenSyslog extends AbstractSyslogProcessor {
 
         bufferPool = new LinkedBlockingQueue<>(maxConnections);
         for (int i = 0; i < maxConnections; i++) {
-            bufferPool.offer(ByteBuffer.allocate(bufferSize));
+            bufferPool.offer(ByteBuffer.allocateDirect(bufferSize));
         }
 
         parser = new SyslogParser(Charset.forName(charSet));
@@ -340,7 +350,20 @@ public class ListenSyslog extends AbstractSyslogProcessor {
         final EventFactory<RawSyslogEvent> eventFactory = new RawSyslogEventFactory();
 
         if (UDP_VALUE.getValue().equals(protocol)) {
-            return new DatagramChannelDispatcher(eventFactory, bufferPool, events, getLogger());
+            final int receivers = context.getProperty(UDP_RECEIVERS).asInteger();
+            if (receivers == 1) {
+                return new DatagramChannelDispatcher(eventFactory, bufferPool, events, getLogger());
+            }
+
+            // each receiver reads into its own buffer
+            final int bufferSize = context.getProperty(RECV_BUFFER_SIZE).asDataSize(DataUnit.B).intValue();
+            final List<DatagramChannelDispatcher<?>> dispatchers = new ArrayList<>(receivers);
+            for (int i = 0; i < receivers; i++) {
+                final BlockingQueue<ByteBuffer> receiverBufferPool = new LinkedBlockingQueue<>(1);
+                receiverBufferPool.offer(ByteBuffer.allocateDirect(bufferSize));
+                dispatchers.add(new DatagramChannelDispatcher(eventFactory, receiverBufferPool, events, getLogger(), null, null, true));
+            }
+            return new DatagramChannelDispatcherGroup(dispatchers, "ListenSyslog [" + getIdentifier() + "]");
         } else {
             // if an SSLContextService was provided then create an SSLContext to pass down to the dispatcher
             SSLContext sslContext = null;
@@ -401,6 +424,11 @@ public class ListenSyslog extends AbstractSyslogProcessor {
 
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+        final ChannelDispatcher currentDispatcher = channelDispatcher;
+        if (currentDispatcher instanceof DatagramChannelDispatcherGroup) {
+            ((DatagramChannelDispatcherGroup) currentDispatcher).adjustCounters(session);
+        }
+
         // poll the queue with a small timeout to avoid unnecessarily yielding below
         RawSyslogEvent rawSyslogEvent = getMessage(true, true, session);
 
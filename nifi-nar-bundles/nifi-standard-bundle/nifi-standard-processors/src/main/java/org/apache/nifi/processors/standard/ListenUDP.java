@@ -16,6 +16,8 @@
  */
 package org.apache.nifi.processors.standard;
 
+import static org.apache.nifi.processor.util.listen.ListenerProperties.UDP_RECEIVERS;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.annotation.behavior.InputRequirement;
 import org.apache.nifi.annotation.behavior.InputRequirement.Requirement;
@@ -30,10 +32,13 @@ import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.components.Validator;
 import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processor.util.listen.AbstractListenEventBatchingProcessor;
 import org.apache.nifi.processor.util.listen.dispatcher.ChannelDispatcher;
 import org.apache.nifi.processor.util.listen.dispatcher.DatagramChannelDispatcher;
+import org.apache.nifi.processor.util.listen.dispatcher.DatagramChannelDispatcherGroup;
 import org.apache.nifi.processor.util.listen.event.EventFactory;
 import org.apache.nifi.processor.util.listen.event.StandardEvent;
 import org.apache.nifi.processor.util.listen.event.StandardEventFactory;
@@ -87,7 +92,8 @@ public class ListenUDP extends AbstractListenEventBatchingProcessor<StandardEven
     protected List<PropertyDescriptor> getAdditionalProperties() {
         return Arrays.asList(
                 SENDING_HOST,
-                SENDING_HOST_PORT
+                SENDING_HOST_PORT,
+                UDP_RECEIVERS
         );
     }
 
@@ -114,6 +120,15 @@ public class ListenUDP extends AbstractListenEventBatchingProcessor<StandardEven
                             .build());
         }
 
+        if (validationContext.getProperty(UDP_RECEIVERS).asInteger() > 1 && !DatagramChannelDispatcher.isReusePortSupported()) {
+            result.add(
+                    new ValidationResult.Builder()
+                            .subject(UDP_RECEIVERS.getDisplayName())
+                            .valid(false)
+                            .explanation("More than one receiver requires SO_REUSEPORT, which is not supported on this platform")
+                            .build());
+        }
+
         return result;
     }
 
@@ -123,9 +138,30 @@ public class ListenUDP extends AbstractListenEventBatchingProcessor<StandardEven
         final String sendingHost = context.getProperty(SENDING_HOST).evaluateAttributeExpressions().getValue();
         final Integer sendingHostPort = context.getProperty(SENDING_HOST_PORT).evaluateAttributeExpressions().asInteger();
         final Integer bufferSize = context.getProperty(RECV_BUFFER_SIZE).asDataSize(DataUnit.B).intValue();
-        final BlockingQueue<ByteBuffer> bufferPool = createBufferPool(context.getMaxConcurrentTasks(), bufferSize);
+        final int receivers = context.getProperty(UDP_RECEIVERS).asInteger();
         final EventFactory<StandardEvent> eventFactory = new StandardEventFactory();
-        return new DatagramChannelDispatcher<>(eventFactory, bufferPool, events, getLogger(), sendingHost, sendingHostPort);
+
+        if (receivers == 1) {
+            final BlockingQueue<ByteBuffer> bufferPool = createBufferPool(context.getMaxConcurrentTasks(), bufferSize);
+            return new DatagramChannelDispatcher<>(eventFactory, bufferPool, events, getLogger(), sendingHost, sendingHostPort);
+        }
+
+        // each receiver reads into its own buffer
+        final List<DatagramChannelDispatcher<?>> dispatchers = new ArrayList<>(receivers);
+        for (int i = 0; i < receivers; i++) {
+            dispatchers.add(new DatagramChannelDispatcher<>(eventFactory, createBufferPool(1, bufferSize), events, getLogger(), sendingHost, sendingHostPort, true));
+        }
+        return new DatagramChannelDispatcherGroup(dispatchers, getClass().getName() + " [" + getIdentifier() + "]");
+    }
+
+    @Override
+    public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+        super.onTrigger(context, session);
+
+        final ChannelDispatcher currentDispatcher = dispatcher;
+        if (currentDispatcher instanceof DatagramChannelDispatcherGroup) {
+            ((DatagramChannelDispatcherGroup) currentDispatcher).adjustCounters(session);
+        }
     }
 
     @Override
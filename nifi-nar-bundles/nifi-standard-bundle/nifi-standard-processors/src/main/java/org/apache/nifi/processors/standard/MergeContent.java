@@ -38,6 +38,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -63,6 +64,7 @@ import org.apache.nifi.annotation.behavior.SideEffectFree;
 import org.apache.nifi.annotation.behavior.TriggerWhenEmpty;
 import org.apache.nifi.annotation.behavior.WritesAttribute;
 import org.apache.nifi.annotation.behavior.WritesAttributes;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
@@ -83,6 +85,7 @@ import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processor.util.bin.Bin;
 import org.apache.nifi.processor.util.bin.BinFiles;
+import org.apache.nifi.processor.util.bin.BinListener;
 import org.apache.nifi.processor.util.bin.BinManager;
 import org.apache.nifi.processors.standard.merge.AttributeStrategy;
 import org.apache.nifi.processors.standard.merge.AttributeStrategyUtil;
@@ -325,11 +328,24 @@ public class MergeContent extends BinFiles {
             .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
             .defaultValue("${file.lastModifiedTime}")
             .build();
+    public static final PropertyDescriptor STREAMING_MERGE = new PropertyDescriptor.Builder()
+            .name("mergecontent-streaming-merge")
+            .displayName("Streaming Merge")
+            .description("If true, the content of each FlowFile is appended to the merged FlowFile as soon as the FlowFile is added to a bin, "
+                    + "rather than all content being copied once the bin is complete. This avoids reading the binned content a second time and "
+                    + "spreads the work of merging over the life of the bin. This property is valid only when using the Bin-Packing Algorithm "
+                    + "with the Binary Concatenation Merge Format.")
+            .required(true)
+            .allowableValues("true", "false")
+            .defaultValue("false")
+            .build();
 
     public static final Relationship REL_MERGED = new Relationship.Builder().name("merged").description("The FlowFile containing the merged content").build();
 
     public static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
 
+    private final Map<Bin, StreamingBundle> streamingBundles = new ConcurrentHashMap<>();
+
     @Override
     public Set<Relationship> getRelationships() {
         final Set<Relationship> relationships = new HashSet<>();
@@ -360,6 +376,7 @@ public class MergeContent extends BinFiles {
         descriptors.add(COMPRESSION_LEVEL);
         descriptors.add(KEEP_PATH);
         descriptors.add(TAR_MODIFIED_TIME);
+        descriptors.add(STREAMING_MERGE);
         return descriptors;
     }
 
@@ -384,6 +401,18 @@ public class MergeContent extends BinFiles {
                 results.add(StandardValidators.FILE_EXISTS_VALIDATOR.validate(DEMARCATOR.getName(), demarcatorValue, context));
             }
         }
+
+        if (context.getProperty(STREAMING_MERGE).asBoolean()) {
+            if (!MERGE_STRATEGY_BIN_PACK.getValue().equals(context.getProperty(MERGE_STRATEGY).getValue())
+                    || !MERGE_FORMAT_CONCAT_VALUE.equals(context.getProperty(MERGE_FORMAT).getValue())) {
+                results.add(new ValidationResult.Builder()
+                        .subject(STREAMING_MERGE.getDisplayName())
+                        .valid(false)
+                        .explanation("Streaming Merge is supported only when using the " + MERGE_STRATEGY_BIN_PACK.getDisplayName() + " with the "
+                                + MERGE_FORMAT_CONCAT.getDisplayName() + " Merge Format")
+                        .build());
+            }
+        }
         return results;
     }
 
@@ -427,6 +456,15 @@ public class MergeContent extends BinFiles {
         if (MERGE_STRATEGY_DEFRAGMENT.equals(context.getProperty(MERGE_STRATEGY).getValue())) {
             binManager.setFileCountAttribute(FRAGMENT_COUNT_ATTRIBUTE);
         }
+
+        streamingBundles.clear();
+        binManager.setBinListener(context.getProperty(STREAMING_MERGE).asBoolean() ? new StreamingConcatenationListener(context) : null);
+    }
+
+    @OnStopped
+    public void clearStreamingBundles() {
+        // the bin sessions, and with them the partially merged bundles, are rolled back when the bins are purged
+        streamingBundles.clear();
     }
 
     @Override
@@ -451,7 +489,7 @@ public class MergeContent extends BinFiles {
                 merger = new FlowFileStreamMerger(new FlowFilePackagerV1(), "application/flowfile-v1");
                 break;
             case MERGE_FORMAT_CONCAT_VALUE:
-                merger = new BinaryConcatenationMerge();
+                merger = context.getProperty(STREAMING_MERGE).asBoolean() ? new StreamingConcatenationMerge() : new BinaryConcatenationMerge();
                 break;
             case MERGE_FORMAT_AVRO_VALUE:
                 merger = new AvroMerge();
@@ -631,48 +669,183 @@ public class MergeContent extends BinFiles {
             return bundle;
         }
 
-        private byte[] getDelimiterContent(final ProcessContext context, final List<FlowFile> wrappers, final PropertyDescriptor descriptor) throws IOException {
-            final String delimiterStrategyValue = context.getProperty(DELIMITER_STRATEGY).getValue();
-            if (DELIMITER_STRATEGY_FILENAME.equals(delimiterStrategyValue)) {
-                return getDelimiterFileContent(context, wrappers, descriptor);
-            } else {
-                return getDelimiterTextContent(context, wrappers, descriptor);
+        @Override
+        public String getMergedContentType() {
+            return mimeType;
+        }
+
+        @Override
+        public List<FlowFile> getUnmergedFlowFiles() {
+            return Collections.emptyList();
+        }
+    }
+
+    private byte[] getDelimiterContent(final ProcessContext context, final List<FlowFile> wrappers, final PropertyDescriptor descriptor) throws IOException {
+        final String delimiterStrategyValue = context.getProperty(DELIMITER_STRATEGY).getValue();
+        if (DELIMITER_STRATEGY_FILENAME.equals(delimiterStrategyValue)) {
+            return getDelimiterFileContent(context, wrappers, descriptor);
+        } else {
+            return getDelimiterTextContent(context, wrappers, descriptor);
+        }
+    }
+
+    private byte[] getDelimiterFileContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
+            throws IOException {
+        byte[] property = null;
+        final String descriptorValue = context.getProperty(descriptor).evaluateAttributeExpressions().getValue();
+        if (descriptorValue != null && flowFiles != null && flowFiles.size() > 0) {
+            final String content = new String(readContent(descriptorValue), StandardCharsets.UTF_8);
+            final FlowFile flowFile = flowFiles.get(0);
+            if (flowFile != null && content != null) {
+                final PropertyValue propVal = context.newPropertyValue(content).evaluateAttributeExpressions(flowFile);
+                property = propVal.getValue().getBytes(StandardCharsets.UTF_8);
             }
         }
+        return property;
+    }
 
-        private byte[] getDelimiterFileContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
-                throws IOException {
-            byte[] property = null;
-            final String descriptorValue = context.getProperty(descriptor).evaluateAttributeExpressions().getValue();
-            if (descriptorValue != null && flowFiles != null && flowFiles.size() > 0) {
-                final String content = new String(readContent(descriptorValue), StandardCharsets.UTF_8);
-                final FlowFile flowFile = flowFiles.get(0);
-                if (flowFile != null && content != null) {
-                    final PropertyValue propVal = context.newPropertyValue(content).evaluateAttributeExpressions(flowFile);
-                    property = propVal.getValue().getBytes(StandardCharsets.UTF_8);
+    private byte[] getDelimiterTextContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
+            throws IOException {
+        byte[] property = null;
+        if (flowFiles != null && flowFiles.size() > 0) {
+            final FlowFile flowFile = flowFiles.get(0);
+            if (flowFile != null) {
+                final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
+                if (value != null) {
+                    property = value.getBytes(StandardCharsets.UTF_8);
                 }
             }
-            return property;
         }
+        return property;
+    }
 
-        private byte[] getDelimiterTextContent(final ProcessContext context, final List<FlowFile> flowFiles, final PropertyDescriptor descriptor)
-                throws IOException {
-            byte[] property = null;
-            if (flowFiles != null && flowFiles.size() > 0) {
-                final FlowFile flowFile = flowFiles.get(0);
-                if (flowFile != null) {
-                    final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
-                    if (value != null) {
-                        property = value.getBytes(StandardCharsets.UTF_8);
+    /**
+     * The state of a bin whose content is being concatenated as FlowFiles are added to it
+     */
+    private static class StreamingBundle {
+        private FlowFile bundle;
+        private byte[] demarcator;
+        private boolean failed = false;
+    }
+
+    /**
+     * Appends the content of each FlowFile to its bin's bundle as the FlowFile is binned
+     */
+    private class StreamingConcatenationListener implements BinListener {
+
+        private final ProcessContext context;
+
+        public StreamingConcatenationListener(final ProcessContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void flowFileBinned(final Bin bin, final FlowFile flowFile) {
+            final ProcessSession session = bin.getSession();
+            StreamingBundle streamingBundle = streamingBundles.get(bin);
+            if (streamingBundle != null && streamingBundle.failed) {
+                return;
+            }
+
+            try {
+                final byte[] prefix;
+                if (streamingBundle == null) {
+                    // the header and demarcator are evaluated against the first FlowFile in the bin, as when merging all at once
+                    final List<FlowFile> firstFlowFile = Collections.singletonList(flowFile);
+                    streamingBundle = new StreamingBundle();
+                    streamingBundles.put(bin, streamingBundle);
+                    streamingBundle.demarcator = getDelimiterContent(context, firstFlowFile, DEMARCATOR);
+                    streamingBundle.bundle = session.create();
+                    prefix = getDelimiterContent(context, firstFlowFile, HEADER);
+                } else {
+                    prefix = streamingBundle.demarcator;
+                }
+
+                streamingBundle.bundle = session.append(streamingBundle.bundle, new OutputStreamCallback() {
+                    @Override
+                    public void process(final OutputStream out) throws IOException {
+                        if (prefix != null) {
+                            out.write(prefix);
+                        }
+
+                        session.read(flowFile, false, new InputStreamCallback() {
+                            @Override
+                            public void process(final InputStream in) throws IOException {
+                                StreamUtils.copy(in, out);
+                            }
+                        });
                     }
+                });
+            } catch (final Exception e) {
+                getLogger().warn("Failed to append {} to the merged content of its bin; the bin will be merged once it is complete instead",
+                        new Object[] {flowFile, e});
+                streamingBundle.failed = true;
+            }
+        }
+    }
+
+    /**
+     * Completes a bundle whose content was concatenated as the FlowFiles were binned. If no such bundle exists for the bin,
+     * because the bin was not created by the BinManager or appending to it failed, the bin is merged all at once instead.
+     */
+    private class StreamingConcatenationMerge implements MergeBin {
+
+        private final BinaryConcatenationMerge fallback = new BinaryConcatenationMerge();
+        private String mimeType = null;
+
+        @Override
+        public FlowFile merge(final Bin bin, final ProcessContext context) {
+            final List<FlowFile> contents = bin.getContents();
+            final ProcessSession session = bin.getSession();
+            final StreamingBundle streamingBundle = streamingBundles.remove(bin);
+
+            if (streamingBundle == null || streamingBundle.bundle == null) {
+                return fallback.merge(bin, context);
+            }
+            if (streamingBundle.failed) {
+                session.remove(streamingBundle.bundle);
+                return fallback.merge(bin, context);
+            }
+
+            FlowFile bundle = streamingBundle.bundle;
+            try {
+                final byte[] footer = getDelimiterContent(context, contents, FOOTER);
+                if (footer != null) {
+                    bundle = session.append(bundle, new OutputStreamCallback() {
+                        @Override
+                        public void process(final OutputStream out) throws IOException {
+                            out.write(footer);
+                        }
+                    });
+                }
+            } catch (final Exception e) {
+                session.remove(bundle);
+                throw new ProcessException("Failed to write footer of merged content", e);
+            }
+
+            session.getProvenanceReporter().join(contents, bundle);
+            bundle = session.putAttribute(bundle, CoreAttributes.FILENAME.key(), createFilename(contents));
+
+            final String bundleMimeType = contents.get(0).getAttribute(CoreAttributes.MIME_TYPE.key());
+            if (bundleMimeType != null) {
+                boolean allSame = true;
+                for (final FlowFile flowFile : contents) {
+                    if (!bundleMimeType.equals(flowFile.getAttribute(CoreAttributes.MIME_TYPE.key()))) {
+                        allSame = false;
+                        break;
+                    }
+                }
+                if (allSame) {
+                    mimeType = bundleMimeType;
                 }
             }
-            return property;
+
+            return bundle;
         }
 
         @Override
         public String getMergedContentType() {
-            return mimeType;
+            return mimeType == null ? fallback.getMergedContentType() : mimeType;
         }
 
         @Override
@@ -681,7 +854,6 @@ public class MergeContent extends BinFiles {
         }
     }
 
-
     private String getPath(final FlowFile flowFile) {
         Path path = Paths.get(flowFile.getAttribute(CoreAttributes.PATH.key()));
         if (path.getNameCount() == 0) {
@@ -20,11 +20,17 @@ package org.apache.nifi.processors.standard;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -218,7 +224,21 @@ public class MergeRecord extends AbstractSessionFactoryProcessor {
         .description("If the bundle cannot be created, all FlowFiles that would have been used to created the bundle will be transferred to failure")
         .build();
 
+    // Bins are grouped by a short identifier for each distinct schema text rather than by the text itself, so that group lookups
+    // do not need to hash and compare the full schema for every FlowFile. The identifier is also cached for each RecordSchema
+    // instance, as Record Readers commonly return the same instance for every FlowFile, so that the schema text does not need to be
+    // built for every FlowFile either. The identifiers are never reused, so clearing the caches when they grow too large only means
+    // that FlowFiles with a previously seen schema start new bins.
+    //
+    // Records are always read and written again rather than concatenating the input containers: the Record Reader and Record Writer
+    // are opaque Controller Services, so there is no way to know that the input is already in the format that the writer produces.
+    // MergeContent's Avro Merge Format merges Avro data blocks without decoding them.
+    private static final int MAX_CACHED_SCHEMA_IDENTIFIERS = 1000;
+
     private final AtomicReference<RecordBinManager> binManager = new AtomicReference<>();
+    private final ConcurrentMap<String, String> schemaIdentifiers = new ConcurrentHashMap<>();
+    private final Map<RecordSchema, String> schemaInstanceIdentifiers = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicLong schemaIdentifierGenerator = new AtomicLong(0L);
 
 
     @Override
@@ -337,21 +357,53 @@ public class MergeRecord extends AbstractSessionFactoryProcessor {
             return flowFile.getAttribute(FRAGMENT_ID_ATTRIBUTE);
         }
 
-        final Optional<String> optionalText = schema.getSchemaText();
-        final String schemaText = optionalText.isPresent() ? optionalText.get() : AvroTypeUtil.extractAvroSchema(schema).toString();
+        final String schemaId = getSchemaIdentifier(schema);
 
         final String groupId;
         final String correlationshipAttributeName = context.getProperty(CORRELATION_ATTRIBUTE_NAME).getValue();
         if (correlationshipAttributeName != null) {
             final String correlationAttr = flowFile.getAttribute(correlationshipAttributeName);
-            groupId = correlationAttr == null ? schemaText : schemaText + correlationAttr;
+            // the schema identifier is numeric, so the first ':' always separates it from the correlation value
+            groupId = correlationAttr == null ? schemaId : schemaId + ":" + correlationAttr;
         } else {
-            groupId = schemaText;
+            groupId = schemaId;
         }
 
         return groupId;
     }
 
+    private String getSchemaIdentifier(final RecordSchema schema) {
+        final String existing = schemaInstanceIdentifiers.get(schema);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Optional<String> optionalText = schema.getSchemaText();
+        final String schemaText = optionalText.isPresent() ? optionalText.get() : AvroTypeUtil.extractAvroSchema(schema).toString();
+        final String schemaId = getSchemaIdentifier(schemaText);
+
+        synchronized (schemaInstanceIdentifiers) {
+            if (schemaInstanceIdentifiers.size() >= MAX_CACHED_SCHEMA_IDENTIFIERS) {
+                schemaInstanceIdentifiers.clear();
+            }
+            schemaInstanceIdentifiers.put(schema, schemaId);
+        }
+        return schemaId;
+    }
+
+    private String getSchemaIdentifier(final String schemaText) {
+        final String existing = schemaIdentifiers.get(schemaText);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (schemaIdentifiers.size() >= MAX_CACHED_SCHEMA_IDENTIFIERS) {
+            schemaIdentifiers.clear();
+        }
+
+        return schemaIdentifiers.computeIfAbsent(schemaText, text -> String.valueOf(schemaIdentifierGenerator.getAndIncrement()));
+    }
+
     int getBinCount() {
         return binManager.get().getBinCount();
     }
@@ -44,6 +44,7 @@ import org.apache.nifi.processor.util.pattern.PartialFunctions;
 import org.apache.nifi.processor.util.pattern.Put;
 import org.apache.nifi.processor.util.pattern.RollbackOnFailure;
 import org.apache.nifi.processor.util.pattern.RoutingResult;
+import org.apache.nifi.processors.standard.db.DatabaseAdapter;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
 import org.apache.nifi.serialization.RecordReaderFactory;
@@ -71,6 +72,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -104,6 +106,9 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
 
     static final String PUT_DATABASE_RECORD_ERROR = "putdatabaserecord.error";
 
+    // The maximum number of records read from the Record Reader at a time while binding statement parameters
+    private static final int RECORD_BATCH_SIZE = 1000;
+
     static final AllowableValue IGNORE_UNMATCHED_FIELD = new AllowableValue("Ignore Unmatched Fields", "Ignore Unmatched Fields",
             "Any field in the document that cannot be mapped to a column in the database is ignored");
     static final AllowableValue FAIL_UNMATCHED_FIELD = new AllowableValue("Fail on Unmatched Fields", "Fail on Unmatched Fields",
@@ -264,8 +269,23 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
             .expressionLanguageSupported(true)
             .build();
 
+    static final PropertyDescriptor DB_TYPE;
+
+    static final PropertyDescriptor MULTI_ROW_INSERTS = new PropertyDescriptor.Builder()
+            .name("put-db-record-multi-row-inserts")
+            .displayName("Use Multi-Row Inserts")
+            .description("If true, INSERT statements insert many records at once using a multi-row VALUES clause, which most databases execute much faster than "
+                    + "a JDBC batch of single-row statements. The number of records per statement is limited by the Database Type, according to the database's "
+                    + "limits on rows and parameters per statement. If the Database Type does not support multi-row inserts, records are inserted one statement at "
+                    + "a time as usual. This property is ignored for other statement types.")
+            .allowableValues("true", "false")
+            .defaultValue("false")
+            .build();
+
     protected static List<PropertyDescriptor> propDescriptors;
 
+    protected final static Map<String, DatabaseAdapter> dbAdapters = new HashMap<>();
+
     private final Map<SchemaKey, TableSchema> schemaCache = new LinkedHashMap<SchemaKey, TableSchema>(100) {
         private static final long serialVersionUID = 1L;
 
@@ -277,6 +297,23 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
 
 
     static {
+        final List<AllowableValue> dbAdapterValues = new ArrayList<>();
+        final ServiceLoader<DatabaseAdapter> dbAdapterLoader = ServiceLoader.load(DatabaseAdapter.class);
+        dbAdapterLoader.forEach(it -> {
+            dbAdapters.put(it.getName(), it);
+            dbAdapterValues.add(new AllowableValue(it.getName(), it.getName(), it.getDescription()));
+        });
+
+        DB_TYPE = new PropertyDescriptor.Builder()
+                .name("put-db-record-db-type")
+                .displayName("Database Type")
+                .description("The type/flavor of database, used for generating database-specific code. In many cases the Generic type "
+                        + "should suffice, but some databases (such as Oracle) do not support multi-row inserts or limit their size.")
+                .allowableValues(dbAdapterValues.toArray(new AllowableValue[dbAdapterValues.size()]))
+                .defaultValue("Generic")
+                .required(true)
+                .build();
+
         final Set<Relationship> r = new HashSet<>();
         r.add(REL_SUCCESS);
         r.add(REL_FAILURE);
@@ -287,6 +324,7 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         pds.add(RECORD_READER_FACTORY);
         pds.add(STATEMENT_TYPE);
         pds.add(DBCP_SERVICE);
+        pds.add(DB_TYPE);
         pds.add(CATALOG_NAME);
         pds.add(SCHEMA_NAME);
         pds.add(TABLE_NAME);
@@ -298,6 +336,7 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         pds.add(QUOTED_IDENTIFIERS);
         pds.add(QUOTED_TABLE_IDENTIFIER);
         pds.add(QUERY_TIMEOUT);
+        pds.add(MULTI_ROW_INSERTS);
         pds.add(RollbackOnFailure.ROLLBACK_ON_FAILURE);
 
         propDescriptors = Collections.unmodifiableList(pds);
@@ -500,6 +539,10 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         // Quote table name?
         private final boolean quoteTableName;
 
+        // Insert many records per statement, if the database supports it?
+        private final boolean multiRowInserts;
+        private final DatabaseAdapter dbAdapter;
+
         private DMLSettings(ProcessContext context) {
             translateFieldNames = context.getProperty(TRANSLATE_FIELD_NAMES).asBoolean();
             ignoreUnmappedFields = IGNORE_UNMATCHED_FIELD.getValue().equalsIgnoreCase(context.getProperty(UNMATCHED_FIELD_BEHAVIOR).getValue());
@@ -509,6 +552,9 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
 
             escapeColumnNames = context.getProperty(QUOTED_IDENTIFIERS).asBoolean();
             quoteTableName = context.getProperty(QUOTED_TABLE_IDENTIFIER).asBoolean();
+
+            multiRowInserts = context.getProperty(MULTI_ROW_INSERTS).asBoolean();
+            dbAdapter = dbAdapters.get(context.getProperty(DB_TYPE).getValue());
         }
 
     }
@@ -626,6 +672,16 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
             throw new IllegalArgumentException(format("Statement Type %s is not valid, FlowFile %s", statementType, flowFile));
         }
 
+        final int maxRowsPerInsert = INSERT_TYPE.equalsIgnoreCase(statementType) && settings.multiRowInserts && settings.dbAdapter != null
+                ? settings.dbAdapter.getMaxRowsPerInsert(sqlHolder.getColumnNames().size())
+                : 1;
+        if (maxRowsPerInsert > 1) {
+            executeMultiRowInsert(con, recordParser, sqlHolder, settings.dbAdapter, maxRowsPerInsert, functionContext.queryTimeout);
+            result.routeTo(flowFile, REL_SUCCESS);
+            session.getProvenanceReporter().send(flowFile, functionContext.jdbcUrl);
+            return;
+        }
+
         try (PreparedStatement ps = con.prepareStatement(sqlHolder.getSql())) {
 
             final int queryTimeout = functionContext.queryTimeout;
@@ -638,35 +694,38 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
                 }
             }
 
-            Record currentRecord;
-            List<Integer> fieldIndexes = sqlHolder.getFieldIndexes();
-
-            while ((currentRecord = recordParser.nextRecord()) != null) {
-                Object[] values = currentRecord.getValues();
-                if (values != null) {
-                    if (fieldIndexes != null) {
-                        for (int i = 0; i < fieldIndexes.size(); i++) {
-                            // If DELETE type, insert the object twice because of the null check (see generateDelete for details)
-                            if (DELETE_TYPE.equalsIgnoreCase(statementType)) {
-                                ps.setObject(i * 2 + 1, values[fieldIndexes.get(i)]);
-                                ps.setObject(i * 2 + 2, values[fieldIndexes.get(i)]);
-                            } else {
-                                ps.setObject(i + 1, values[fieldIndexes.get(i)]);
+            final List<Integer> fieldIndexes = sqlHolder.getFieldIndexes();
+            final boolean deleteStatement = DELETE_TYPE.equalsIgnoreCase(statementType);
+
+            List<Record> batch;
+            while (!(batch = recordParser.nextBatch(RECORD_BATCH_SIZE)).isEmpty()) {
+                for (final Record currentRecord : batch) {
+                    Object[] values = currentRecord.getValues();
+                    if (values != null) {
+                        if (fieldIndexes != null) {
+                            for (int i = 0; i < fieldIndexes.size(); i++) {
+                                // If DELETE type, insert the object twice because of the null check (see generateDelete for details)
+                                if (deleteStatement) {
+                                    ps.setObject(i * 2 + 1, values[fieldIndexes.get(i)]);
+                                    ps.setObject(i * 2 + 2, values[fieldIndexes.get(i)]);
+                                } else {
+                                    ps.setObject(i + 1, values[fieldIndexes.get(i)]);
+                                }
                             }
-                        }
-                    } else {
-                        // If there's no index map, assume all values are included and set them in order
-                        for (int i = 0; i < values.length; i++) {
-                            // If DELETE type, insert the object twice because of the null check (see generateDelete for details)
-                            if (DELETE_TYPE.equalsIgnoreCase(statementType)) {
-                                ps.setObject(i * 2 + 1, values[i]);
-                                ps.setObject(i * 2 + 2, values[i]);
-                            } else {
-                                ps.setObject(i + 1, values[i]);
+                        } else {
+                            // If there's no index map, assume all values are included and set them in order
+                            for (int i = 0; i < values.length; i++) {
+                                // If DELETE type, insert the object twice because of the null check (see generateDelete for details)
+                                if (deleteStatement) {
+                                    ps.setObject(i * 2 + 1, values[i]);
+                                    ps.setObject(i * 2 + 2, values[i]);
+                                } else {
+                                    ps.setObject(i + 1, values[i]);
+                                }
                             }
                         }
+                        ps.addBatch();
                     }
-                    ps.addBatch();
                 }
             }
 
@@ -678,6 +737,80 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         }
     }
 
+    /**
+     * Inserts the records using INSERT statements of the given number of rows each. The statements are executed as a JDBC batch, so that a failure
+     * is reported as a BatchUpdateException just as for single-row statements. The remaining records are inserted by one smaller statement.
+     */
+    private void executeMultiRowInsert(final Connection con, final RecordReader recordParser, final SqlAndIncludedColumns sqlHolder,
+                                       final DatabaseAdapter dbAdapter, final int maxRowsPerInsert, final int queryTimeout)
+            throws MalformedRecordException, IOException, SQLException {
+
+        final List<Integer> fieldIndexes = sqlHolder.getFieldIndexes();
+        final List<Object[]> rows = new ArrayList<>(maxRowsPerInsert);
+        PreparedStatement ps = null;
+        try {
+            Record currentRecord;
+            while ((currentRecord = recordParser.nextRecord()) != null) {
+                final Object[] values = currentRecord.getValues();
+                if (values == null) {
+                    continue;
+                }
+
+                rows.add(values);
+                if (rows.size() == maxRowsPerInsert) {
+                    if (ps == null) {
+                        ps = prepareInsert(con, sqlHolder, dbAdapter, maxRowsPerInsert, queryTimeout);
+                    }
+                    setRowParameters(ps, rows, fieldIndexes);
+                    ps.addBatch();
+                    rows.clear();
+                }
+            }
+
+            if (ps != null) {
+                getLogger().debug("Executing batch of multi-row inserts into {}", new Object[]{sqlHolder.getTableName()});
+                ps.executeBatch();
+            }
+        } finally {
+            if (ps != null) {
+                ps.close();
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            try (final PreparedStatement remainderPs = prepareInsert(con, sqlHolder, dbAdapter, rows.size(), queryTimeout)) {
+                setRowParameters(remainderPs, rows, fieldIndexes);
+                remainderPs.addBatch();
+                remainderPs.executeBatch();
+            }
+        }
+    }
+
+    private PreparedStatement prepareInsert(final Connection con, final SqlAndIncludedColumns sqlHolder, final DatabaseAdapter dbAdapter, final int rowCount,
+                                            final int queryTimeout) throws SQLException {
+        final PreparedStatement ps = con.prepareStatement(dbAdapter.getInsertStatement(sqlHolder.getTableName(), sqlHolder.getColumnNames(), rowCount));
+        try {
+            ps.setQueryTimeout(queryTimeout); // timeout in seconds
+        } catch (SQLException se) {
+            // If the driver doesn't support query timeout, then assume it is "infinite". Allow a timeout of zero only
+            if (queryTimeout > 0) {
+                ps.close();
+                throw se;
+            }
+        }
+        return ps;
+    }
+
+    private static void setRowParameters(final PreparedStatement ps, final List<Object[]> rows, final List<Integer> fieldIndexes) throws SQLException {
+        final int columnCount = fieldIndexes.size();
+        for (int row = 0; row < rows.size(); row++) {
+            final Object[] values = rows.get(row);
+            for (int i = 0; i < columnCount; i++) {
+                ps.setObject(row * columnCount + i + 1, values[fieldIndexes.get(i)]);
+            }
+        }
+    }
+
     @Override
     public void onTrigger(ProcessContext context, ProcessSessionFactory sessionFactory) throws ProcessException {
 
@@ -716,20 +849,18 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
             }
         }
 
+        final String insertTableName = settings.quoteTableName
+                ? tableSchema.getQuotedIdentifierString() + tableName + tableSchema.getQuotedIdentifierString()
+                : tableName;
         final StringBuilder sqlBuilder = new StringBuilder();
         sqlBuilder.append("INSERT INTO ");
-        if (settings.quoteTableName) {
-            sqlBuilder.append(tableSchema.getQuotedIdentifierString())
-                    .append(tableName)
-                    .append(tableSchema.getQuotedIdentifierString());
-        } else {
-            sqlBuilder.append(tableName);
-        }
+        sqlBuilder.append(insertTableName);
         sqlBuilder.append(" (");
 
         // iterate over all of the fields in the record, building the SQL statement by adding the column names
         List<String> fieldNames = recordSchema.getFieldNames();
         final List<Integer> includedColumns = new ArrayList<>();
+        final List<String> includedColumnNames = new ArrayList<>();
         if (fieldNames != null) {
             int fieldCount = fieldNames.size();
             AtomicInteger fieldsFound = new AtomicInteger(0);
@@ -748,14 +879,12 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
                         sqlBuilder.append(", ");
                     }
 
-                    if (settings.escapeColumnNames) {
-                        sqlBuilder.append(tableSchema.getQuotedIdentifierString())
-                                .append(desc.getColumnName())
-                                .append(tableSchema.getQuotedIdentifierString());
-                    } else {
-                        sqlBuilder.append(desc.getColumnName());
-                    }
+                    final String columnName = settings.escapeColumnNames
+                            ? tableSchema.getQuotedIdentifierString() + desc.getColumnName() + tableSchema.getQuotedIdentifierString()
+                            : desc.getColumnName();
+                    sqlBuilder.append(columnName);
                     includedColumns.add(i);
+                    includedColumnNames.add(columnName);
                 }
             }
 
@@ -768,7 +897,7 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
                 throw new SQLDataException("None of the fields in the record map to the columns defined by the " + tableName + " table");
             }
         }
-        return new SqlAndIncludedColumns(sqlBuilder.toString(), includedColumns);
+        return new SqlAndIncludedColumns(sqlBuilder.toString(), includedColumns, insertTableName, includedColumnNames);
     }
 
     SqlAndIncludedColumns generateUpdate(final RecordSchema recordSchema, final String tableName, final String updateKeys,
@@ -1138,6 +1267,8 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
     static class SqlAndIncludedColumns {
         String sql;
         List<Integer> fieldIndexes;
+        String tableName;
+        List<String> columnNames;
 
         /**
          * Constructor
@@ -1146,8 +1277,22 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
          * @param fieldIndexes A List of record indexes. The index of the list is the location of the record field in the SQL prepared statement
          */
         public SqlAndIncludedColumns(String sql, List<Integer> fieldIndexes) {
+            this(sql, fieldIndexes, null, null);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param sql          The prepared SQL statement (including parameters notated by ? )
+         * @param fieldIndexes A List of record indexes. The index of the list is the location of the record field in the SQL prepared statement
+         * @param tableName    The (possibly quoted) name of the table the statement applies to
+         * @param columnNames  The (possibly quoted) names of the columns corresponding to the record indexes
+         */
+        public SqlAndIncludedColumns(String sql, List<Integer> fieldIndexes, String tableName, List<String> columnNames) {
             this.sql = sql;
             this.fieldIndexes = fieldIndexes;
+            this.tableName = tableName;
+            this.columnNames = columnNames;
         }
 
         public String getSql() {
@@ -1157,5 +1302,13 @@ public class PutDatabaseRecord extends AbstractSessionFactoryProcessor {
         public List<Integer> getFieldIndexes() {
             return fieldIndexes;
         }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
     }
 }
@@ -27,7 +27,10 @@ import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.ValidationContext;
+import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.dbcp.DBCPService;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.FragmentAttributes;
@@ -80,12 +83,18 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.regex.Matcher;
@@ -168,6 +177,18 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
             .allowableValues("true", "false")
             .defaultValue("false")
             .build();
+    static final PropertyDescriptor CONCURRENT_BATCHES = new PropertyDescriptor.Builder()
+            .name("putsql-concurrent-batches")
+            .displayName("Concurrent Batches")
+            .description("The maximum number of batches to execute concurrently, each on its own connection from the JDBC Connection Pool. When greater than 1, "
+                    + "the FlowFiles with the same SQL statement that are pulled by a single task (see Batch Size) are split into up to this many batches, which are "
+                    + "executed and committed independently of one another, so the order in which the statements are applied to the database is not preserved. "
+                    + "The connection pool must allow one more connection than this per concurrent task. Fragmented transactions are still executed as a single "
+                    + "transaction. Cannot be used with Obtain Generated Keys or Rollback On Failure.")
+            .required(true)
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .defaultValue("1")
+            .build();
 
     static final Relationship REL_SUCCESS = new Relationship.Builder()
             .name("success")
@@ -192,6 +213,12 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
 
     private static final Pattern LONG_PATTERN = Pattern.compile("^\\d{1,19}$");
 
+    static final String BATCHES_EXECUTED_COUNTER = "Batches Executed";
+    static final String BATCH_STATEMENTS_EXECUTED_COUNTER = "Batch Statements Executed";
+    static final String BATCH_EXECUTION_MILLIS_COUNTER = "Batch Execution Time (millis)";
+
+    private volatile ExecutorService batchExecutor;
+
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         final List<PropertyDescriptor> properties = new ArrayList<>();
@@ -200,10 +227,28 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
         properties.add(TRANSACTION_TIMEOUT);
         properties.add(BATCH_SIZE);
         properties.add(OBTAIN_GENERATED_KEYS);
+        properties.add(CONCURRENT_BATCHES);
         properties.add(RollbackOnFailure.ROLLBACK_ON_FAILURE);
         return properties;
     }
 
+    @Override
+    protected Collection<ValidationResult> customValidate(final ValidationContext validationContext) {
+        final Collection<ValidationResult> results = new ArrayList<>();
+        if (validationContext.getProperty(CONCURRENT_BATCHES).asInteger() > 1) {
+            if (validationContext.getProperty(OBTAIN_GENERATED_KEYS).asBoolean()) {
+                results.add(new ValidationResult.Builder().subject(CONCURRENT_BATCHES.getDisplayName()).valid(false)
+                        .explanation("concurrent batches cannot be used when " + OBTAIN_GENERATED_KEYS.getDisplayName() + " is true").build());
+            }
+            if (validationContext.getProperty(RollbackOnFailure.ROLLBACK_ON_FAILURE).asBoolean()) {
+                results.add(new ValidationResult.Builder().subject(CONCURRENT_BATCHES.getDisplayName()).valid(false)
+                        .explanation("concurrent batches are committed independently, so they cannot be used when "
+                                + RollbackOnFailure.ROLLBACK_ON_FAILURE.getDisplayName() + " is true").build());
+            }
+        }
+        return results;
+    }
+
     @Override
     public Set<Relationship> getRelationships() {
         final Set<Relationship> rels = new HashSet<>();
@@ -217,6 +262,7 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
         private boolean obtainKeys = false;
         private boolean fragmentedTransaction = false;
         private boolean originalAutoCommit = false;
+        private int concurrentBatches = 1;
         private final long startNanos = System.nanoTime();
 
         private FunctionContext(boolean rollbackOnFailure) {
@@ -226,6 +272,10 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
         private boolean isSupportBatching() {
             return !obtainKeys && !fragmentedTransaction;
         }
+
+        private boolean isConcurrentBatching() {
+            return isSupportBatching() && concurrentBatches > 1 && !isRollbackOnFailure();
+        }
     }
 
     private PutGroup<FunctionContext, Connection, StatementFlowFileEnclosure> process;
@@ -325,7 +375,8 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
         // 1. Support batching: An enclosure has multiple FlowFiles being executed in a batch operation
         // 2. Obtain keys: An enclosure has multiple FlowFiles, and each FlowFile is executed separately
         // 3. Fragmented transaction: One FlowFile per Enclosure?
-        if (fc.obtainKeys) {
+        // Concurrent batches bind the parameters on their own connections, so the FlowFiles are only grouped here.
+        if (fc.obtainKeys || fc.isConcurrentBatching()) {
             groupFlowFilesBySQL.apply(context, session, fc, conn, flowFiles, groups, sqlToEnclosure, result);
         } else if (fc.fragmentedTransaction) {
             groupFragmentedTransaction.apply(context, session, fc, conn, flowFiles, groups, sqlToEnclosure, result);
@@ -338,13 +389,18 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
 
     final PutGroup.PutFlowFiles<FunctionContext, Connection, StatementFlowFileEnclosure> putFlowFiles = (context, session, fc, conn, enclosure, result) -> {
 
-        if (fc.isSupportBatching()) {
+        if (fc.isConcurrentBatching()) {
+            executeConcurrentBatches(context, session, fc, enclosure, result);
+
+        } else if (fc.isSupportBatching()) {
 
             // We have PreparedStatement that have batches added to them.
             // We need to execute each batch and close the PreparedStatement.
             exceptionHandler.execute(fc, enclosure, input -> {
                 try (final PreparedStatement stmt = enclosure.getCachedStatement(conn)) {
+                    final long batchStartNanos = System.nanoTime();
                     stmt.executeBatch();
+                    adjustBatchCounters(session, enclosure.getFlowFiles().size(), System.nanoTime() - batchStartNanos);
                     result.routeTo(enclosure.getFlowFiles(), REL_SUCCESS);
                 }
             }, onBatchUpdateError(context, session, result));
@@ -398,6 +454,116 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
         }
     };
 
+    /**
+     * Splits the FlowFiles of the given enclosure into batches, executes and commits each batch on its own connection concurrently, and then
+     * routes the FlowFiles of each batch just as if the batch had been executed on the connection of the task.
+     */
+    private void executeConcurrentBatches(final ProcessContext context, final ProcessSession session, final FunctionContext fc,
+                                          final StatementFlowFileEnclosure enclosure, final RoutingResult result) {
+        final DBCPService dbcpService = context.getProperty(CONNECTION_POOL).asControllerService(DBCPService.class);
+        final List<FlowFile> flowFiles = enclosure.getFlowFiles();
+        final int batchCount = Math.min(fc.concurrentBatches, flowFiles.size());
+        final int batchSize = (flowFiles.size() + batchCount - 1) / batchCount;
+
+        final List<Future<ConcurrentBatch>> futures = new ArrayList<>(batchCount);
+        for (int start = 0; start < flowFiles.size(); start += batchSize) {
+            final List<FlowFile> batchFlowFiles = flowFiles.subList(start, Math.min(start + batchSize, flowFiles.size()));
+            futures.add(batchExecutor.submit(() -> executeBatch(dbcpService, enclosure.sql, batchFlowFiles)));
+        }
+
+        for (final Future<ConcurrentBatch> future : futures) {
+            final ConcurrentBatch batch;
+            try {
+                batch = future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessException("Interrupted while waiting for concurrent batches to be executed", e);
+            } catch (final ExecutionException e) {
+                throw new ProcessException("Failed to execute concurrent batch due to " + e.getCause(), e.getCause());
+            }
+
+            // FlowFiles whose parameters could not be set were not added to the batch
+            for (final Map.Entry<FlowFile, SQLException> parameterError : batch.parameterErrors.entrySet()) {
+                exceptionHandler.execute(fc, parameterError.getKey(), input -> {
+                    throw parameterError.getValue();
+                }, onFlowFileError(context, session, result));
+            }
+
+            if (batch.enclosure.getFlowFiles().isEmpty()) {
+                continue;
+            }
+            exceptionHandler.execute(fc, batch.enclosure, input -> {
+                if (batch.failure != null) {
+                    throw batch.failure;
+                }
+                adjustBatchCounters(session, input.getFlowFiles().size(), batch.executionNanos);
+                result.routeTo(input.getFlowFiles(), REL_SUCCESS);
+            }, onBatchUpdateError(context, session, result));
+        }
+    }
+
+    /**
+     * Executes the given FlowFiles as a single batch on a new connection. Statements that were executed are committed if the batch fails with a
+     * BatchUpdateException, consistent with those FlowFiles being routed to success.
+     */
+    private ConcurrentBatch executeBatch(final DBCPService dbcpService, final String sql, final List<FlowFile> flowFiles) {
+        final ConcurrentBatch batch = new ConcurrentBatch(sql);
+        try (final Connection conn = dbcpService.getConnection()) {
+            final boolean originalAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                try (final PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (final FlowFile flowFile : flowFiles) {
+                        try {
+                            setParameters(stmt, flowFile.getAttributes());
+                        } catch (final SQLException e) {
+                            batch.parameterErrors.put(flowFile, e);
+                            continue;
+                        }
+                        stmt.addBatch();
+                        batch.enclosure.addFlowFile(flowFile);
+                    }
+
+                    if (!batch.enclosure.getFlowFiles().isEmpty()) {
+                        final long batchStartNanos = System.nanoTime();
+                        stmt.executeBatch();
+                        batch.executionNanos = System.nanoTime() - batchStartNanos;
+                    }
+                } catch (final BatchUpdateException e) {
+                    batch.failure = e;
+                }
+                conn.commit();
+            } catch (final SQLException e) {
+                // Nothing in the batch was applied, so all FlowFiles whose parameters were set fail together
+                batch.fail(e, flowFiles);
+                try {
+                    conn.rollback();
+                } catch (final SQLException re) {
+                    getLogger().warn("Failed to rollback database connection due to {}", new Object[]{re}, re);
+                }
+            } finally {
+                if (originalAutoCommit) {
+                    try {
+                        conn.setAutoCommit(true);
+                    } catch (final SQLException se) {
+                        getLogger().warn("Failed to reset autocommit due to {}", new Object[]{se});
+                    }
+                }
+            }
+        } catch (final SQLException | ProcessException e) {
+            // Failed to obtain or configure the connection, so nothing was executed
+            batch.parameterErrors.clear();
+            batch.fail(e, flowFiles);
+        }
+        return batch;
+    }
+
+    private void adjustBatchCounters(final ProcessSession session, final int statementCount, final long executionNanos) {
+        session.adjustCounter(BATCHES_EXECUTED_COUNTER, 1L, false);
+        session.adjustCounter(BATCH_STATEMENTS_EXECUTED_COUNTER, statementCount, false);
+        session.adjustCounter(BATCH_EXECUTION_MILLIS_COUNTER, TimeUnit.NANOSECONDS.toMillis(executionNanos), false);
+    }
+
     private ExceptionHandler.OnError<FunctionContext, FlowFile> onFlowFileError(final ProcessContext context, final ProcessSession session, final RoutingResult result) {
         ExceptionHandler.OnError<FunctionContext, FlowFile> onFlowFileError = createOnError(context, session, result, REL_FAILURE, REL_RETRY);
         onFlowFileError = onFlowFileError.andThen((c, i, r, e) -> {
@@ -490,6 +656,22 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
         });
     }
 
+    @OnScheduled
+    public void createBatchExecutor(final ProcessContext context) {
+        final int concurrentBatches = context.getProperty(CONCURRENT_BATCHES).asInteger();
+        if (concurrentBatches > 1) {
+            batchExecutor = Executors.newFixedThreadPool(concurrentBatches);
+        }
+    }
+
+    @OnStopped
+    public void shutdownBatchExecutor() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+            batchExecutor = null;
+        }
+    }
+
     @OnScheduled
     public void constructProcess() {
         process = new PutGroup<>();
@@ -550,6 +732,7 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
         final Boolean rollbackOnFailure = context.getProperty(RollbackOnFailure.ROLLBACK_ON_FAILURE).asBoolean();
         final FunctionContext functionContext = new FunctionContext(rollbackOnFailure);
         functionContext.obtainKeys = context.getProperty(OBTAIN_GENERATED_KEYS).asBoolean();
+        functionContext.concurrentBatches = context.getProperty(CONCURRENT_BATCHES).asInteger();
         RollbackOnFailure.onTrigger(context, sessionFactory, functionContext, getLogger(), session -> process.onTrigger(context, session, functionContext));
     }
 
@@ -1146,4 +1329,24 @@ public class PutSQL extends AbstractSessionFactoryProcessor {
             return sql.equals(other.sql);
         }
     }
+
+    /**
+     * The outcome of a batch executed on its own connection
+     */
+    private static class ConcurrentBatch {
+        private final StatementFlowFileEnclosure enclosure;
+        private final Map<FlowFile, SQLException> parameterErrors = new LinkedHashMap<>();
+        private Exception failure;
+        private long executionNanos;
+
+        private ConcurrentBatch(final String sql) {
+            this.enclosure = new StatementFlowFileEnclosure(sql);
+        }
+
+        private void fail(final Exception e, final List<FlowFile> flowFiles) {
+            failure = e;
+            enclosure.getFlowFiles().clear();
+            flowFiles.stream().filter(flowFile -> !parameterErrors.containsKey(flowFile)).forEach(enclosure::addFlowFile);
+        }
+    }
 }
@@ -28,6 +28,7 @@ import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.state.Scope;
 import org.apache.nifi.components.state.StateManager;
@@ -63,12 +64,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
 import static org.apache.nifi.processors.standard.util.JdbcCommon.DEFAULT_PRECISION;
 import static org.apache.nifi.processors.standard.util.JdbcCommon.DEFAULT_SCALE;
+import static org.apache.nifi.processors.standard.util.JdbcCommon.FETCH_AHEAD_ROWS;
 import static org.apache.nifi.processors.standard.util.JdbcCommon.NORMALIZE_NAMES_FOR_AVRO;
 import static org.apache.nifi.processors.standard.util.JdbcCommon.USE_AVRO_LOGICAL_TYPES;
 
@@ -96,13 +100,14 @@ import static org.apache.nifi.processors.standard.util.JdbcCommon.USE_AVRO_LOGIC
                 + "will have the same value for the fragment.identifier attribute. This can then be used to correlate the results."),
         @WritesAttribute(attribute="fragment.count", description="If 'Max Rows Per Flow File' is set then this is the total number of  "
                 + "FlowFiles produced by a single ResultSet. This can be used in conjunction with the "
-                + "fragment.identifier attribute in order to know how many FlowFiles belonged to the same incoming ResultSet."),
+                + "fragment.identifier attribute in order to know how many FlowFiles belonged to the same incoming ResultSet. "
+                + "This attribute is not written if 'Output Batch Size' is set."),
         @WritesAttribute(attribute="fragment.index", description="If 'Max Rows Per Flow File' is set then the position of this FlowFile in the list of "
                 + "outgoing FlowFiles that were all derived from the same result set FlowFile. This can be "
                 + "used in conjunction with the fragment.identifier attribute to know which FlowFiles originated from the same query result set and in what order  "
                 + "FlowFiles were produced"),
         @WritesAttribute(attribute = "maxvalue.*", description = "Each attribute contains the observed maximum value of a specified 'Maximum-value Column'. The "
-                + "suffix of the attribute is the name of the column")})
+                + "suffix of the attribute is the name of the column. This attribute is not written if 'Output Batch Size' is set.")})
 @DynamicProperty(name = "Initial Max Value", value = "Attribute Expression Language", supportsExpressionLanguage = false, description = "Specifies an initial "
         + "max value for max value columns. Properties should be added in the format `initial.maxvalue.{max_value_column}`.")
 public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
@@ -142,6 +147,25 @@ public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
             .expressionLanguageSupported(true)
             .build();
 
+    public static final PropertyDescriptor OUTPUT_BATCH_SIZE = new PropertyDescriptor.Builder()
+            .name("qdbt-output-batch-size")
+            .displayName("Output Batch Size")
+            .description("The number of output FlowFiles to queue before committing the process session. When set to zero, the session will be committed when all result set rows "
+                    + "have been processed and the output FlowFiles are ready for transfer to the downstream relationship. For large result sets, this can cause a large burst of FlowFiles "
+                    + "to be transferred at the end of processor execution. If this property is set, then when the specified number of FlowFiles are ready for transfer, then the session will "
+                    + "be committed, thus releasing the FlowFiles to the downstream relationship. NOTE: The maxvalue.* and fragment.count attributes will not be set on FlowFiles when this "
+                    + "property is set, and the maximum observed values are only stored in state once the entire result set has been processed. Because the rows are not "
+                    + "ordered by the Maximum-value Columns, the state cannot safely be updated with each batch. If NiFi is stopped, or the state cannot be stored, before the "
+                    + "entire result set has been processed, the rows in the batches already committed are fetched and transferred again by the next execution, so "
+                    + "downstream processors may receive duplicates.")
+            .defaultValue("0")
+            .required(true)
+            .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+            .expressionLanguageSupported(true)
+            .build();
+
+    private volatile ExecutorService fetchExecutor;
+
     public QueryDatabaseTable() {
         final Set<Relationship> r = new HashSet<>();
         r.add(REL_SUCCESS);
@@ -157,6 +181,8 @@ public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
         pds.add(FETCH_SIZE);
         pds.add(MAX_ROWS_PER_FLOW_FILE);
         pds.add(MAX_FRAGMENTS);
+        pds.add(OUTPUT_BATCH_SIZE);
+        pds.add(FETCH_AHEAD_ROWS);
         pds.add(NORMALIZE_NAMES_FOR_AVRO);
         pds.add(USE_AVRO_LOGICAL_TYPES);
         pds.add(DEFAULT_PRECISION);
@@ -179,6 +205,18 @@ public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
     public void setup(final ProcessContext context) {
         maxValueProperties = getDefaultMaxValueProperties(context.getProperties());
         super.setup(context);
+
+        if (context.getProperty(FETCH_AHEAD_ROWS).evaluateAttributeExpressions().asInteger() > 0) {
+            fetchExecutor = Executors.newCachedThreadPool();
+        }
+    }
+
+    @OnStopped
+    public void shutdownFetchExecutor() {
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+            fetchExecutor = null;
+        }
     }
 
     @Override
@@ -199,6 +237,8 @@ public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
         final Integer maxFragments = context.getProperty(MAX_FRAGMENTS).isSet()
                 ? context.getProperty(MAX_FRAGMENTS).evaluateAttributeExpressions().asInteger()
                 : 0;
+        final Integer outputBatchSize = context.getProperty(OUTPUT_BATCH_SIZE).evaluateAttributeExpressions().asInteger();
+        final ExecutorService executor = fetchExecutor;
         final JdbcCommon.AvroConversionOptions options = JdbcCommon.AvroConversionOptions.builder()
                 .recordName(tableName)
                 .maxRows(maxRowsPerFlowFile)
@@ -206,6 +246,7 @@ public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
                 .useLogicalTypes(context.getProperty(USE_AVRO_LOGICAL_TYPES).asBoolean())
                 .defaultPrecision(context.getProperty(DEFAULT_PRECISION).evaluateAttributeExpressions().asInteger())
                 .defaultScale(context.getProperty(DEFAULT_SCALE).evaluateAttributeExpressions().asInteger())
+                .fetchAheadRows(context.getProperty(FETCH_AHEAD_ROWS).evaluateAttributeExpressions().asInteger())
                 .build();
 
         final StateManager stateManager = context.getStateManager();
@@ -286,7 +327,7 @@ public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
                             // Max values will be updated in the state property map by the callback
                             final MaxValueResultSetRowCollector maxValCollector = new MaxValueResultSetRowCollector(tableName, statePropertyMap, dbAdapter);
                             try {
-                                nrOfRows.set(JdbcCommon.convertToAvroStream(resultSet, out, options, maxValCollector));
+                                nrOfRows.set(JdbcCommon.convertToAvroStream(resultSet, out, options, maxValCollector, executor));
                             } catch (SQLException | RuntimeException e) {
                                 throw new ProcessException("Error during database query or conversion of records to Avro.", e);
                             }
@@ -323,9 +364,18 @@ public class QueryDatabaseTable extends AbstractDatabaseFetchProcessor {
                     if (maxFragments > 0 && fragmentIndex >= maxFragments) {
                         break;
                     }
+
+                    // If we've reached the batch size, send out the flow files
+                    if (outputBatchSize > 0 && resultSetFlowFiles.size() >= outputBatchSize) {
+                        session.transfer(resultSetFlowFiles, REL_SUCCESS);
+                        session.commit();
+                        resultSetFlowFiles.clear();
+                    }
                 }
 
-                for (int i = 0; i < resultSetFlowFiles.size(); i++) {
+                // The maximum values and total fragment count are only known for the whole result set, so they cannot be
+                // added to FlowFiles that have already been committed
+                for (int i = 0; outputBatchSize == 0 && i < resultSetFlowFiles.size(); i++) {
                     // Add maximum values as attributes
                     for (Map.Entry<String, String> entry : statePropertyMap.entrySet()) {
                         // Get just the column name from the key
@@ -45,6 +45,7 @@ import org.apache.nifi.processor.io.StreamCallback;
 import org.apache.nifi.processor.util.FlowFileFilters;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.processors.standard.util.NLKBufferedReader;
+import org.apache.nifi.processors.standard.util.StreamingRegexMatcher;
 import org.apache.nifi.stream.io.StreamUtils;
 import org.apache.nifi.util.StopWatch;
 
@@ -54,6 +55,8 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -81,6 +84,7 @@ public class ReplaceText extends AbstractProcessor {
     // Constants
     public static final String LINE_BY_LINE = "Line-by-Line";
     public static final String ENTIRE_TEXT = "Entire text";
+    public static final String STREAMING = "Streaming";
     public static final String prependValue = "Prepend";
     public static final String appendValue = "Append";
     public static final String regexReplaceValue = "Regex Replace";
@@ -142,6 +146,7 @@ public class ReplaceText extends AbstractProcessor {
             + "the FlowFile will be routed to 'failure'. "
             + "In 'Line-by-Line' Mode, if a single line is larger than this value, the FlowFile will be routed to 'failure'. A default value "
             + "of 1 MB is provided, primarily for 'Entire Text' mode. In 'Line-by-Line' Mode, a value such as 8 KB or 16 KB is suggested. "
+            + "In 'Streaming' Mode, this is the maximum number of characters that a single match may span. "
             + "This value is ignored if the <Replacement Strategy> property is set to one of: Append, Prepend, Always Replace")
         .required(true)
         .addValidator(StandardValidators.DATA_SIZE_VALIDATOR)
@@ -157,8 +162,12 @@ public class ReplaceText extends AbstractProcessor {
     public static final PropertyDescriptor EVALUATION_MODE = new PropertyDescriptor.Builder()
         .name("Evaluation Mode")
         .description("Run the 'Replacement Strategy' against each line separately (Line-by-Line) or buffer the entire file into memory (Entire Text) "
-            + "and run against that.")
-        .allowableValues(LINE_BY_LINE, ENTIRE_TEXT)
+            + "and run against that. Streaming runs against the entire file without buffering it, by reading it through a window of twice the Maximum "
+            + "Buffer Size, so that files of any size may be processed with constant memory. In Streaming mode, the 'Literal Replace' and 'Regex Replace' "
+            + "strategies will not find matches that are longer than the Maximum Buffer Size, lookbehind may see at most "
+            + StreamingRegexMatcher.DEFAULT_LOOKBEHIND_LENGTH + " characters before a match, and back-references in the Replacement Value that are "
+            + "evaluated using the Expression Language refer to the first match. Other strategies behave as they do in Entire text mode.")
+        .allowableValues(LINE_BY_LINE, ENTIRE_TEXT, STREAMING)
         .defaultValue(ENTIRE_TEXT)
         .required(true)
         .build();
@@ -246,7 +255,9 @@ public class ReplaceText extends AbstractProcessor {
 
         final String evaluateMode = context.getProperty(EVALUATION_MODE).getValue();
         final byte[] buffer;
-        if (replacementStrategy.equalsIgnoreCase(regexReplaceValue) || replacementStrategy.equalsIgnoreCase(literalReplaceValue)) {
+        if (evaluateMode.equalsIgnoreCase(STREAMING)) {
+            buffer = null;
+        } else if (replacementStrategy.equalsIgnoreCase(regexReplaceValue) || replacementStrategy.equalsIgnoreCase(literalReplaceValue)) {
             buffer = new byte[maxBufferSize];
         } else {
             buffer = null;
@@ -345,7 +356,7 @@ public class ReplaceText extends AbstractProcessor {
             final String replacementValue = context.getProperty(REPLACEMENT_VALUE).evaluateAttributeExpressions(flowFile).getValue();
             final StringBuilder lineEndingBuilder = new StringBuilder(2);
 
-            if (evaluateMode.equalsIgnoreCase(ENTIRE_TEXT)) {
+            if (!evaluateMode.equalsIgnoreCase(LINE_BY_LINE)) {
                 flowFile = session.write(flowFile, new StreamCallback() {
                     @Override
                     public void process(final InputStream in, final OutputStream out) throws IOException {
@@ -397,7 +408,7 @@ public class ReplaceText extends AbstractProcessor {
         public FlowFile replace(FlowFile flowFile, final ProcessSession session, final ProcessContext context, final String evaluateMode, final Charset charset, final int maxBufferSize) {
             final String replacementValue = context.getProperty(REPLACEMENT_VALUE).evaluateAttributeExpressions(flowFile).getValue();
 
-            if (evaluateMode.equalsIgnoreCase(ENTIRE_TEXT)) {
+            if (!evaluateMode.equalsIgnoreCase(LINE_BY_LINE)) {
                 flowFile = session.write(flowFile, new StreamCallback() {
                     @Override
                     public void process(final InputStream in, final OutputStream out) throws IOException {
@@ -435,7 +446,7 @@ public class ReplaceText extends AbstractProcessor {
         public FlowFile replace(FlowFile flowFile, final ProcessSession session, final ProcessContext context, final String evaluateMode, final Charset charset, final int maxBufferSize) {
             final String replacementValue = context.getProperty(REPLACEMENT_VALUE).evaluateAttributeExpressions(flowFile).getValue();
 
-            if (evaluateMode.equalsIgnoreCase(ENTIRE_TEXT)) {
+            if (!evaluateMode.equalsIgnoreCase(LINE_BY_LINE)) {
                 flowFile = session.write(flowFile, new StreamCallback() {
                     @Override
                     public void process(final InputStream in, final OutputStream out) throws IOException {
@@ -524,7 +535,42 @@ public class ReplaceText extends AbstractProcessor {
 
             final int flowFileSize = (int) flowFile.getSize();
             FlowFile updatedFlowFile;
-            if (evaluateMode.equalsIgnoreCase(ENTIRE_TEXT)) {
+            if (evaluateMode.equalsIgnoreCase(STREAMING)) {
+                updatedFlowFile = session.write(flowFile, new StreamCallback() {
+                    @Override
+                    public void process(final InputStream in, final OutputStream out) throws IOException {
+                        final Reader reader = new InputStreamReader(in, charset);
+                        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset));
+                        new StreamingRegexMatcher(searchPattern, maxBufferSize).process(reader, new StreamingRegexMatcher.MatchHandler() {
+                            // As in Entire text mode, the Replacement Value is evaluated using the capturing groups of the first match
+                            private String replacementFinal;
+
+                            @Override
+                            public void unmatched(final CharSequence text, final int start, final int end) throws IOException {
+                                writer.append(text, start, end);
+                            }
+
+                            @Override
+                            public boolean matched(final Matcher matcher) throws IOException {
+                                if (replacementFinal == null) {
+                                    additionalAttrs.clear();
+                                    for (int i = 1; i <= matcher.groupCount(); i++) {
+                                        additionalAttrs.put("$" + i, matcher.group(i));
+                                    }
+
+                                    String replacement = context.getProperty(REPLACEMENT_VALUE).evaluateAttributeExpressions(flowFile, additionalAttrs, escapeBackRefDecorator).getValue();
+                                    replacement = escapeLiteralBackReferences(replacement, numCapturingGroups);
+                                    replacementFinal = normalizeReplacementString(replacement);
+                                }
+
+                                StreamingRegexMatcher.appendReplacement(matcher, replacementFinal, writer);
+                                return true;
+                            }
+                        });
+                        writer.flush();
+                    }
+                });
+            } else if (evaluateMode.equalsIgnoreCase(ENTIRE_TEXT)) {
                 session.read(flowFile, new InputStreamCallback() {
                     @Override
                     public void process(final InputStream in) throws IOException {
@@ -621,7 +667,31 @@ public class ReplaceText extends AbstractProcessor {
             final String searchValue = context.getProperty(SEARCH_VALUE).evaluateAttributeExpressions(flowFile, quotedAttributeDecorator).getValue();
 
             final int flowFileSize = (int) flowFile.getSize();
-            if (evaluateMode.equalsIgnoreCase(ENTIRE_TEXT)) {
+            if (evaluateMode.equalsIgnoreCase(STREAMING)) {
+                final Pattern searchPattern = Pattern.compile(searchValue, Pattern.LITERAL);
+                final String quotedReplacement = Matcher.quoteReplacement(replacementValue);
+                final int maxMatchLength = Math.max(maxBufferSize, searchValue.length());
+                flowFile = session.write(flowFile, new StreamCallback() {
+                    @Override
+                    public void process(final InputStream in, final OutputStream out) throws IOException {
+                        final Reader reader = new InputStreamReader(in, charset);
+                        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset));
+                        new StreamingRegexMatcher(searchPattern, maxMatchLength).process(reader, new StreamingRegexMatcher.MatchHandler() {
+                            @Override
+                            public void unmatched(final CharSequence text, final int start, final int end) throws IOException {
+                                writer.append(text, start, end);
+                            }
+
+                            @Override
+                            public boolean matched(final Matcher matcher) throws IOException {
+                                StreamingRegexMatcher.appendReplacement(matcher, quotedReplacement, writer);
+                                return true;
+                            }
+                        });
+                        writer.flush();
+                    }
+                });
+            } else if (evaluateMode.equalsIgnoreCase(ENTIRE_TEXT)) {
                 flowFile = session.write(flowFile, new StreamCallback() {
                     @Override
                     public void process(final InputStream in, final OutputStream out) throws IOException {
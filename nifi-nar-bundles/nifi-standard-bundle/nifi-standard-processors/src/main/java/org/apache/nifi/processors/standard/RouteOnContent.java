@@ -51,6 +51,7 @@ import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.MultiPatternMatcher;
 import org.apache.nifi.stream.io.StreamUtils;
 
 @EventDriven
@@ -105,6 +106,12 @@ public class RouteOnContent extends AbstractProcessor {
     private final AtomicReference<Set<Relationship>> relationships = new AtomicReference<>();
     private List<PropertyDescriptor> properties;
 
+    /**
+     * The Regular Expressions as most recently evaluated and compiled, which are reused for as long as the user-defined properties
+     * evaluate to the same values
+     */
+    private final AtomicReference<CompiledPatterns> compiledPatterns = new AtomicReference<>();
+
     @Override
     protected void init(final ProcessorInitializationContext context) {
         final Set<Relationship> relationships = new HashSet<>();
@@ -178,6 +185,7 @@ public class RouteOnContent extends AbstractProcessor {
 
         final Charset charset = Charset.forName(context.getProperty(CHARACTER_SET).getValue());
         final byte[] buffer = new byte[context.getProperty(BUFFER_SIZE).asDataSize(DataUnit.B).intValue()];
+        final boolean matchAll = context.getProperty(MATCH_REQUIREMENT).getValue().equalsIgnoreCase(MATCH_ALL);
         for (final FlowFile flowFile : flowFiles) {
             final Set<Relationship> destinations = new HashSet<>();
             flowFileDestinationMap.put(flowFile, destinations);
@@ -192,25 +200,24 @@ public class RouteOnContent extends AbstractProcessor {
 
             final String contentString = new String(buffer, 0, bufferedByteCount.get(), charset);
 
+            final Map<Relationship, String> regexes = new HashMap<>();
             for (final PropertyDescriptor descriptor : context.getProperties().keySet()) {
                 if (!descriptor.isDynamic()) {
                     continue;
                 }
 
                 final String regex = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile, quoteDecorator).getValue();
-                final Pattern pattern = Pattern.compile(regex);
-                final boolean matches;
-                if (context.getProperty(MATCH_REQUIREMENT).getValue().equalsIgnoreCase(MATCH_ALL)) {
-                    matches = pattern.matcher(contentString).matches();
-                } else {
-                    matches = pattern.matcher(contentString).find();
-                }
+                regexes.put(new Relationship.Builder().name(descriptor.getName()).build(), regex);
+            }
 
-                if (matches) {
-                    final Relationship relationship = new Relationship.Builder().name(descriptor.getName()).build();
-                    destinations.add(relationship);
-                }
+            // All of the Regular Expressions are evaluated together, so that content that matches none of them is scanned once
+            CompiledPatterns patterns = compiledPatterns.get();
+            if (patterns == null || patterns.isMatchAll() != matchAll || !patterns.getRegexes().equals(regexes)) {
+                patterns = new CompiledPatterns(regexes, matchAll);
+                compiledPatterns.set(patterns);
             }
+
+            destinations.addAll(patterns.getMatcher().findMatches(contentString, false));
         }
 
         for (final Map.Entry<FlowFile, Set<Relationship>> entry : flowFileDestinationMap.entrySet()) {
@@ -241,4 +248,33 @@ public class RouteOnContent extends AbstractProcessor {
             }
         }
     }
+
+    private static class CompiledPatterns {
+        private final Map<Relationship, String> regexes;
+        private final boolean matchAll;
+        private final MultiPatternMatcher<Relationship> matcher;
+
+        public CompiledPatterns(final Map<Relationship, String> regexes, final boolean matchAll) {
+            this.regexes = regexes;
+            this.matchAll = matchAll;
+
+            final Map<Relationship, Pattern> patterns = new HashMap<>(regexes.size());
+            for (final Map.Entry<Relationship, String> entry : regexes.entrySet()) {
+                patterns.put(entry.getKey(), Pattern.compile(entry.getValue()));
+            }
+            this.matcher = MultiPatternMatcher.forRegularExpressions(patterns, matchAll);
+        }
+
+        public Map<Relationship, String> getRegexes() {
+            return regexes;
+        }
+
+        public boolean isMatchAll() {
+            return matchAll;
+        }
+
+        public MultiPatternMatcher<Relationship> getMatcher() {
+            return matcher;
+        }
+    }
 }
@@ -63,6 +63,8 @@ import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.MultiPatternMatcher;
+import org.apache.nifi.processors.standard.util.MultiPatternMatcher.MatchType;
 import org.apache.nifi.processors.standard.util.NLKBufferedReader;
 
 
@@ -202,6 +204,12 @@ public class RouteText extends AbstractProcessor {
     private volatile Map<Relationship, PropertyValue> propertyMap = new HashMap<>();
     private volatile Pattern groupingRegex = null;
 
+    /**
+     * The user-defined properties as most recently evaluated and compiled, which are reused for as long as the properties evaluate to
+     * the same values
+     */
+    private final AtomicReference<CompiledRules> compiledRules = new AtomicReference<>();
+
     @Override
     protected void init(final ProcessorInitializationContext context) {
         final Set<Relationship> set = new HashSet<>();
@@ -295,6 +303,7 @@ public class RouteText extends AbstractProcessor {
         }
 
         this.propertyMap = newPropertyMap;
+        this.compiledRules.set(null);
     }
 
     @Override
@@ -363,26 +372,30 @@ public class RouteText extends AbstractProcessor {
 
         final boolean compileRegex = matchStrategy.equals(matchesRegularExpressionValue) || matchStrategy.equals(containsRegularExpressionValue);
         final boolean usePropValue = matchStrategy.equals(satisfiesExpression);
+        final boolean stopAtFirstMatch = ROUTE_TO_MATCHED_WHEN_ANY_PROPERTY_MATCHES.getValue().equals(routeStrategy);
 
-        // Build up a Map of Relationship to object, where the object is the
-        // thing that each line is compared against
-        final Map<Relationship, Object> propValueMap;
+        // When using an Expression Language, each line is compared against each PropertyValue in turn. Otherwise, the
+        // values of all of the properties are compiled together so that each line is scanned as few times as possible.
         final Map<Relationship, PropertyValue> propMap = this.propertyMap;
+        final Map<Relationship, Object> propValueMap;
+        final MultiPatternMatcher<Relationship> ruleMatcher;
         if (usePropValue) {
-            // If we are using an Expression Language we want a Map where the value is the
-            // PropertyValue, so we can just use the 'propMap' - no need to copy it.
             propValueMap = (Map) propMap;
+            ruleMatcher = null;
         } else {
-            propValueMap = new HashMap<>(propMap.size());
+            final Map<Relationship, String> values = new HashMap<>(propMap.size());
             for (final Map.Entry<Relationship, PropertyValue> entry : propMap.entrySet()) {
-                final String value = entry.getValue().evaluateAttributeExpressions(originalFlowFile).getValue();
+                values.put(entry.getKey(), entry.getValue().evaluateAttributeExpressions(originalFlowFile).getValue());
+            }
 
-                Pattern compiledRegex = null;
-                if (compileRegex) {
-                    compiledRegex = ignoreCase ? Pattern.compile(value, Pattern.CASE_INSENSITIVE) : Pattern.compile(value);
-                }
-                propValueMap.put(entry.getKey(), compileRegex ? compiledRegex : value);
+            CompiledRules rules = compiledRules.get();
+            if (rules == null || !rules.getValues().equals(values)) {
+                rules = new CompiledRules(values, compileRules(values, matchStrategy, compileRegex, ignoreCase));
+                compiledRules.set(rules);
             }
+
+            propValueMap = (Map) values;
+            ruleMatcher = rules.getMatcher();
         }
 
         final Map<Relationship, Map<Group, FlowFile>> flowFileMap = new HashMap<>();
@@ -426,29 +439,34 @@ public class RouteText extends AbstractProcessor {
                         variables.put("line", line);
                         variables.put("lineNo", String.valueOf(++lineCount));
 
-                        int propertiesThatMatchedLine = 0;
-                        for (final Map.Entry<Relationship, Object> entry : propValueMap.entrySet()) {
-                            boolean lineMatchesProperty = lineMatches(matchLine, entry.getValue(), context.getProperty(MATCH_STRATEGY).getValue(), ignoreCase, originalFlowFile, variables);
-                            if (lineMatchesProperty) {
-                                propertiesThatMatchedLine++;
+                        final Collection<Relationship> matchingRelationships;
+                        if (ruleMatcher == null) {
+                            matchingRelationships = new ArrayList<>();
+                            for (final Map.Entry<Relationship, Object> entry : propValueMap.entrySet()) {
+                                boolean lineMatchesProperty = lineMatches(matchLine, entry.getValue(), matchStrategy, ignoreCase, originalFlowFile, variables);
+                                if (lineMatchesProperty) {
+                                    matchingRelationships.add(entry.getKey());
+                                }
+
+                                // break as soon as possible to avoid calculating things we don't need to calculate.
+                                if (lineMatchesProperty && stopAtFirstMatch) {
+                                    break;
+                                }
+
+                                if (!lineMatchesProperty && ROUTE_TO_MATCHED_WHEN_ALL_PROPERTIES_MATCH.getValue().equals(routeStrategy)) {
+                                    break;
+                                }
                             }
+                        } else {
+                            matchingRelationships = ruleMatcher.findMatches(matchLine, stopAtFirstMatch);
+                        }
 
-                            if (lineMatchesProperty && ROUTE_TO_MATCHING_PROPERTY_NAME.getValue().equals(routeStrategy)) {
-                                // route each individual line to each Relationship that matches. This one matches.
-                                final Relationship relationship = entry.getKey();
-
-                                final Group group = getGroup(matchLine, groupPattern);
+                        final int propertiesThatMatchedLine = matchingRelationships.size();
+                        if (propertiesThatMatchedLine > 0 && ROUTE_TO_MATCHING_PROPERTY_NAME.getValue().equals(routeStrategy)) {
+                            // route each individual line to each Relationship that matches.
+                            final Group group = getGroup(matchLine, groupPattern);
+                            for (final Relationship relationship : matchingRelationships) {
                                 appendLine(session, flowFileMap, relationship, originalFlowFile, line, charset, group);
-                                continue;
-                            }
-
-                            // break as soon as possible to avoid calculating things we don't need to calculate.
-                            if (lineMatchesProperty && ROUTE_TO_MATCHED_WHEN_ANY_PROPERTY_MATCHES.getValue().equals(routeStrategy)) {
-                                break;
-                            }
-
-                            if (!lineMatchesProperty && ROUTE_TO_MATCHED_WHEN_ALL_PROPERTIES_MATCH.getValue().equals(routeStrategy)) {
-                                break;
                             }
                         }
 
@@ -502,6 +520,36 @@ public class RouteText extends AbstractProcessor {
     }
 
 
+    private static MultiPatternMatcher<Relationship> compileRules(final Map<Relationship, String> values, final String matchStrategy,
+        final boolean compileRegex, final boolean ignoreCase) {
+        if (compileRegex) {
+            final Map<Relationship, Pattern> patterns = new HashMap<>(values.size());
+            for (final Map.Entry<Relationship, String> entry : values.entrySet()) {
+                patterns.put(entry.getKey(), ignoreCase ? Pattern.compile(entry.getValue(), Pattern.CASE_INSENSITIVE) : Pattern.compile(entry.getValue()));
+            }
+            return MultiPatternMatcher.forRegularExpressions(patterns, matchStrategy.equals(matchesRegularExpressionValue));
+        }
+
+        final MatchType matchType;
+        switch (matchStrategy) {
+            case startsWithValue:
+                matchType = MatchType.STARTS_WITH;
+                break;
+            case endsWithValue:
+                matchType = MatchType.ENDS_WITH;
+                break;
+            case containsValue:
+                matchType = MatchType.CONTAINS;
+                break;
+            case equalsValue:
+                matchType = MatchType.EQUALS;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown Matching Strategy: " + matchStrategy);
+        }
+        return MultiPatternMatcher.forLiterals(values, matchType, ignoreCase);
+    }
+
     private Group getGroup(final String line, final Pattern groupPattern) {
         if (groupPattern == null) {
             return EMPTY_GROUP;
@@ -585,6 +633,24 @@ public class RouteText extends AbstractProcessor {
     }
 
 
+    private static class CompiledRules {
+        private final Map<Relationship, String> values;
+        private final MultiPatternMatcher<Relationship> matcher;
+
+        public CompiledRules(final Map<Relationship, String> values, final MultiPatternMatcher<Relationship> matcher) {
+            this.values = values;
+            this.matcher = matcher;
+        }
+
+        public Map<Relationship, String> getValues() {
+            return values;
+        }
+
+        public MultiPatternMatcher<Relationship> getMatcher() {
+            return matcher;
+        }
+    }
+
     private static class Group {
         private final List<String> capturedValues;
 
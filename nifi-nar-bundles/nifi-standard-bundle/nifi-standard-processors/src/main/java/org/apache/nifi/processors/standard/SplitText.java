@@ -31,6 +31,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.io.IOUtils;
@@ -96,6 +98,16 @@ public class SplitText extends AbstractProcessor {
     public static final String FRAGMENT_COUNT = FragmentAttributes.FRAGMENT_COUNT.key();
     public static final String SEGMENT_ORIGINAL_FILENAME = FragmentAttributes.SEGMENT_ORIGINAL_FILENAME.key();
 
+    // attribute keys recording the progress of a FlowFile that is split in batches; removed once all splits are released
+    static final String CONTINUATION_FRAGMENT_ID = "split.text.continuation.fragment.identifier";
+    static final String CONTINUATION_FRAGMENT_COUNT = "split.text.continuation.fragment.count";
+    static final String CONTINUATION_FRAGMENT_INDEX = "split.text.continuation.fragment.index";
+    static final String CONTINUATION_OFFSET = "split.text.continuation.offset";
+    static final String CONTINUATION_HEADER_LENGTH = "split.text.continuation.header.length";
+    static final String CONTINUATION_HEADER_TRIMMED_LENGTH = "split.text.continuation.header.trimmed.length";
+    private static final Set<String> CONTINUATION_ATTRIBUTES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(CONTINUATION_FRAGMENT_ID,
+            CONTINUATION_FRAGMENT_COUNT, CONTINUATION_FRAGMENT_INDEX, CONTINUATION_OFFSET, CONTINUATION_HEADER_LENGTH, CONTINUATION_HEADER_TRIMMED_LENGTH)));
+
     public static final PropertyDescriptor LINE_SPLIT_COUNT = new PropertyDescriptor.Builder()
             .name("Line Split Count")
             .description("The number of lines that will be added to each split file, excluding header lines. " +
@@ -136,6 +148,16 @@ public class SplitText extends AbstractProcessor {
             .allowableValues("true", "false")
             .defaultValue("true")
             .build();
+    public static final PropertyDescriptor MAX_SPLITS_PER_SESSION = new PropertyDescriptor.Builder()
+            .name("Maximum Splits Per Session")
+            .description("The maximum number of split files to release each time the processor is triggered. If an input file results in more splits, "
+                    + "the input file is returned to the incoming queue after each batch of splits is released, and the next batch is released "
+                    + "the next time that it is processed. The input file is routed to 'original' once all of its splits have been released. "
+                    + "This bounds the amount of heap needed to split very large files and allows the first splits to be processed downstream "
+                    + "before the last splits are created. If not set, all splits of an input file are released at once.")
+            .required(false)
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .build();
 
     public static final Relationship REL_ORIGINAL = new Relationship.Builder()
             .name("original")
@@ -159,7 +181,8 @@ public class SplitText extends AbstractProcessor {
                 FRAGMENT_MAX_SIZE,
                 HEADER_LINE_COUNT,
                 HEADER_MARKER,
-                REMOVE_TRAILING_NEWLINES
+                REMOVE_TRAILING_NEWLINES,
+                MAX_SPLITS_PER_SESSION
         }));
 
         relationships = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(new Relationship[]{
@@ -179,6 +202,8 @@ public class SplitText extends AbstractProcessor {
 
     private volatile String headerMarker;
 
+    private volatile Integer maxSplitsPerSession;
+
     @Override
     public Set<Relationship> getRelationships() {
         return relationships;
@@ -193,10 +218,15 @@ public class SplitText extends AbstractProcessor {
         this.lineCount = context.getProperty(LINE_SPLIT_COUNT).asInteger();
         this.headerLineCount = context.getProperty(HEADER_LINE_COUNT).asInteger();
         this.headerMarker = context.getProperty(HEADER_MARKER).getValue();
+        this.maxSplitsPerSession = context.getProperty(MAX_SPLITS_PER_SESSION).asInteger();
     }
 
     /**
-     * Will split the incoming stream releasing all splits as FlowFile at once.
+     * Will split the incoming stream releasing all splits as FlowFile at once,
+     * or, if {@link #MAX_SPLITS_PER_SESSION} is set and exceeded, releasing the
+     * first batch of splits and returning the incoming FlowFile to the queue so
+     * that the remaining splits are released in subsequent batches (see
+     * {@link #resumeSplitting(ProcessSession, FlowFile)}).
      */
     @Override
     public void onTrigger(ProcessContext context, ProcessSession processSession) throws ProcessException {
@@ -204,9 +234,16 @@ public class SplitText extends AbstractProcessor {
         if (sourceFlowFile == null) {
             return;
         }
+        if (sourceFlowFile.getAttribute(CONTINUATION_FRAGMENT_ID) != null) {
+            this.resumeSplitting(processSession, sourceFlowFile);
+            return;
+        }
+        final Integer maxSplits = this.maxSplitsPerSession;
         AtomicBoolean error = new AtomicBoolean();
         List<SplitInfo> computedSplitsInfo = new ArrayList<>();
         AtomicReference<SplitInfo> headerSplitInfoRef = new AtomicReference<>();
+        AtomicLong resumeOffset = new AtomicLong(-1);
+        AtomicInteger splitCount = new AtomicInteger();
         processSession.read(sourceFlowFile, new InputStreamCallback() {
             @Override
             public void process(InputStream in) throws IOException {
@@ -233,14 +270,22 @@ public class SplitText extends AbstractProcessor {
                     getLogger().error(e.getMessage() + " Routing to failure.", e);
                 }
 
-                // Compute and collect fragments representing the individual splits
+                // Compute and collect fragments representing the individual splits. If the number of splits is bounded,
+                // only the first batch is collected, but the remaining splits are still counted to determine fragment.count
                 if (!error.get()) {
                     if (headerSplitInfoRef.get() != null) {
                         startOffset = headerSplitInfoRef.get().length;
                     }
                     long preAccumulatedLength = startOffset;
                     while ((splitInfo = SplitText.this.nextSplit(demarcator, startOffset, SplitText.this.lineCount, splitInfo, preAccumulatedLength)) != null) {
-                        computedSplitsInfo.add(splitInfo);
+                        if (maxSplits == null || computedSplitsInfo.size() < maxSplits) {
+                            computedSplitsInfo.add(splitInfo);
+                        } else if (resumeOffset.get() < 0) {
+                            resumeOffset.set(startOffset);
+                        }
+                        if (maxSplits != null && SplitText.this.isEmitted(splitInfo, headerSplitInfoRef.get())) {
+                            splitCount.incrementAndGet();
+                        }
                         startOffset += splitInfo.length;
                     }
                     long stop = System.nanoTime();
@@ -253,17 +298,102 @@ public class SplitText extends AbstractProcessor {
 
         if (error.get()){
             processSession.transfer(sourceFlowFile, REL_FAILURE);
-        } else {
+        } else if (resumeOffset.get() < 0) {
             final String fragmentId = UUID.randomUUID().toString();
-            List<FlowFile> splitFlowFiles = this.generateSplitFlowFiles(fragmentId, sourceFlowFile, headerSplitInfoRef.get(), computedSplitsInfo, processSession);
+            List<FlowFile> splitFlowFiles = this.generateSplitFlowFiles(fragmentId, sourceFlowFile, headerSplitInfoRef.get(), computedSplitsInfo, processSession, 1, null);
             final FlowFile originalFlowFile = FragmentAttributes.copyAttributesToOriginal(processSession, sourceFlowFile, fragmentId, splitFlowFiles.size());
             processSession.transfer(originalFlowFile, REL_ORIGINAL);
             if (!splitFlowFiles.isEmpty()) {
                 processSession.transfer(splitFlowFiles, REL_SPLITS);
             }
+        } else {
+            final String fragmentId = UUID.randomUUID().toString();
+            final SplitInfo headerSplitInfo = headerSplitInfoRef.get();
+            List<FlowFile> splitFlowFiles = this.generateSplitFlowFiles(fragmentId, sourceFlowFile, headerSplitInfo, computedSplitsInfo, processSession, 1, splitCount.get());
+
+            final Map<String, String> continuationAttributes = new HashMap<>();
+            continuationAttributes.put(CONTINUATION_FRAGMENT_ID, fragmentId);
+            continuationAttributes.put(CONTINUATION_FRAGMENT_COUNT, String.valueOf(splitCount.get()));
+            continuationAttributes.put(CONTINUATION_FRAGMENT_INDEX, String.valueOf(splitFlowFiles.size() + 1));
+            continuationAttributes.put(CONTINUATION_OFFSET, String.valueOf(resumeOffset.get()));
+            if (headerSplitInfo != null) {
+                continuationAttributes.put(CONTINUATION_HEADER_LENGTH, String.valueOf(headerSplitInfo.length));
+                continuationAttributes.put(CONTINUATION_HEADER_TRIMMED_LENGTH, String.valueOf(headerSplitInfo.trimmedLength));
+            }
+            final FlowFile continuedFlowFile = processSession.putAllAttributes(sourceFlowFile, continuationAttributes);
+            processSession.transfer(continuedFlowFile);
+            if (!splitFlowFiles.isEmpty()) {
+                processSession.transfer(splitFlowFiles, REL_SPLITS);
+            }
         }
     }
 
+    /**
+     * Releases the next batch of splits of a FlowFile whose splitting was
+     * started by a previous invocation of this processor, resuming at the
+     * offset recorded in its continuation attributes. The header, if any, is
+     * not recomputed but taken from the continuation attributes as well.
+     */
+    private void resumeSplitting(ProcessSession processSession, FlowFile sourceFlowFile) {
+        final Integer maxSplits = this.maxSplitsPerSession;
+        final String fragmentId = sourceFlowFile.getAttribute(CONTINUATION_FRAGMENT_ID);
+        final int fragmentCount = Integer.parseInt(sourceFlowFile.getAttribute(CONTINUATION_FRAGMENT_COUNT));
+        final int fragmentIndex = Integer.parseInt(sourceFlowFile.getAttribute(CONTINUATION_FRAGMENT_INDEX));
+        final long offset = Long.parseLong(sourceFlowFile.getAttribute(CONTINUATION_OFFSET));
+        final String headerLength = sourceFlowFile.getAttribute(CONTINUATION_HEADER_LENGTH);
+        final SplitInfo headerSplitInfo = headerLength == null ? null
+                : new SplitInfo(0, Long.parseLong(headerLength), Long.parseLong(sourceFlowFile.getAttribute(CONTINUATION_HEADER_TRIMMED_LENGTH)), 0, null);
+
+        // Read the remainder through a clone starting at the offset, so that the content repository positions the
+        // stream at the offset instead of the already split content being read again for every batch
+        final FlowFile remainderFlowFile = processSession.clone(sourceFlowFile, offset, sourceFlowFile.getSize() - offset);
+        List<SplitInfo> computedSplitsInfo = new ArrayList<>();
+        AtomicLong resumeOffset = new AtomicLong(-1);
+        processSession.read(remainderFlowFile, new InputStreamCallback() {
+            @Override
+            public void process(InputStream in) throws IOException {
+                TextLineDemarcator demarcator = new TextLineDemarcator(in);
+                long startOffset = offset;
+                long preAccumulatedLength = headerSplitInfo == null ? 0 : headerSplitInfo.length;
+                SplitInfo splitInfo = null;
+                while ((splitInfo = SplitText.this.nextSplit(demarcator, startOffset, SplitText.this.lineCount, splitInfo, preAccumulatedLength)) != null) {
+                    if (maxSplits != null && computedSplitsInfo.size() >= maxSplits) {
+                        resumeOffset.set(startOffset);
+                        break;
+                    }
+                    computedSplitsInfo.add(splitInfo);
+                    startOffset += splitInfo.length;
+                }
+            }
+        });
+        processSession.remove(remainderFlowFile);
+
+        List<FlowFile> splitFlowFiles = this.generateSplitFlowFiles(fragmentId, sourceFlowFile, headerSplitInfo, computedSplitsInfo, processSession, fragmentIndex, fragmentCount);
+        if (resumeOffset.get() < 0) {
+            sourceFlowFile = processSession.removeAllAttributes(sourceFlowFile, CONTINUATION_ATTRIBUTES);
+            final FlowFile originalFlowFile = FragmentAttributes.copyAttributesToOriginal(processSession, sourceFlowFile, fragmentId, fragmentCount);
+            processSession.transfer(originalFlowFile, REL_ORIGINAL);
+        } else {
+            final Map<String, String> continuationAttributes = new HashMap<>();
+            continuationAttributes.put(CONTINUATION_FRAGMENT_INDEX, String.valueOf(fragmentIndex + splitFlowFiles.size()));
+            continuationAttributes.put(CONTINUATION_OFFSET, String.valueOf(resumeOffset.get()));
+            sourceFlowFile = processSession.putAllAttributes(sourceFlowFile, continuationAttributes);
+            processSession.transfer(sourceFlowFile);
+        }
+        if (!splitFlowFiles.isEmpty()) {
+            processSession.transfer(splitFlowFiles, REL_SPLITS);
+        }
+    }
+
+    /**
+     * Determines whether a FlowFile will be generated for the given split (see
+     * {@link #generateSplitFlowFiles(String, FlowFile, SplitInfo, List, ProcessSession, int, Integer)}).
+     */
+    private boolean isEmitted(SplitInfo computedSplitInfo, SplitInfo headerSplitInfo) {
+        long length = this.removeTrailingNewLines ? computedSplitInfo.trimmedLength : computedSplitInfo.length;
+        return headerSplitInfo != null || length > 0;
+    }
+
     @Override
     protected Collection<ValidationResult> customValidate(ValidationContext validationContext) {
         List<ValidationResult> results = new ArrayList<>();
@@ -283,9 +413,11 @@ public class SplitText extends AbstractProcessor {
      * Generates the list of {@link FlowFile}s representing splits. If
      * {@link SplitInfo} provided as an argument to this operation is not null
      * it signifies the header information and its contents will be included in
-     * each and every computed split.
+     * each and every computed split. If the fragment count is not provided, it
+     * is determined from the splits that were generated.
      */
-    private List<FlowFile> generateSplitFlowFiles(String fragmentId, FlowFile sourceFlowFile, SplitInfo splitInfo, List<SplitInfo> computedSplitsInfo, ProcessSession processSession){
+    private List<FlowFile> generateSplitFlowFiles(String fragmentId, FlowFile sourceFlowFile, SplitInfo splitInfo, List<SplitInfo> computedSplitsInfo,
+            ProcessSession processSession, int firstFragmentIndex, Integer fragmentCount) {
         List<FlowFile> splitFlowFiles = new ArrayList<>();
         FlowFile headerFlowFile = null;
         long headerCrlfLength = 0;
@@ -293,7 +425,7 @@ public class SplitText extends AbstractProcessor {
             headerFlowFile = processSession.clone(sourceFlowFile, splitInfo.startOffset, splitInfo.length);
             headerCrlfLength = splitInfo.trimmedLength;
         }
-        int fragmentIndex = 1; // set to 1 to preserve the existing behavior *only*. Perhaps should be deprecated to follow the 0,1,2... scheme
+        int fragmentIndex = firstFragmentIndex; // starts at 1 to preserve the existing behavior *only*. Perhaps should be deprecated to follow the 0,1,2... scheme
 
         if ((computedSplitsInfo.size() == 0) && (headerFlowFile != null)) {
             FlowFile splitFlowFile = processSession.clone(sourceFlowFile, 0, headerFlowFile.getSize() - headerCrlfLength);
@@ -323,8 +455,9 @@ public class SplitText extends AbstractProcessor {
                 }
             }
             // Update fragment.count with real split count (i.e. don't count files for which there was no clone)
+            final String count = String.valueOf(fragmentCount == null ? fragmentIndex - 1 : fragmentCount); // -1 because the index starts at 1 (see above)
             for (FlowFile splitFlowFile : splitFlowFiles) {
-                splitFlowFile = processSession.putAttribute(splitFlowFile, FRAGMENT_COUNT, String.valueOf(fragmentIndex - 1)); // -1 because the index starts at 1 (see above)
+                splitFlowFile = processSession.putAttribute(splitFlowFile, FRAGMENT_COUNT, count);
             }
         }
 
@@ -367,6 +500,10 @@ public class SplitText extends AbstractProcessor {
         attributes.put(FRAGMENT_ID, splitId);
         attributes.put(FRAGMENT_INDEX, String.valueOf(splitIndex));
         attributes.put(SEGMENT_ORIGINAL_FILENAME, origFileName);
+        // splits of a continued FlowFile must not look like continuations themselves to a downstream SplitText
+        if (splitFlowFile.getAttribute(CONTINUATION_FRAGMENT_ID) != null) {
+            splitFlowFile = processSession.removeAllAttributes(splitFlowFile, CONTINUATION_ATTRIBUTES);
+        }
         return processSession.putAllAttributes(splitFlowFile, attributes);
     }
 
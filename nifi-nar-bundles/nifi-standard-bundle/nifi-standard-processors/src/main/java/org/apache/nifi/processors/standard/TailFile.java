@@ -44,6 +44,7 @@ import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.processors.standard.util.DirectoryWatcher;
 import org.apache.nifi.stream.io.NullOutputStream;
 import org.apache.nifi.stream.io.StreamUtils;
 
@@ -59,16 +60,24 @@ import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -226,6 +235,18 @@ public class TailFile extends AbstractProcessor {
             .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
             .build();
 
+    static final PropertyDescriptor READER_THREADS = new PropertyDescriptor.Builder()
+            .name("tailfile-reader-threads")
+            .displayName("Reader Threads")
+            .description("Only used in Multiple files mode. When greater than 1, the files to tail are read in parallel by this many threads, "
+                    + "and the base directory is watched for changes so that only the files that have been written to are read. The data read "
+                    + "from all of the files is committed at once, and each execution stops reading files once about 32 MB has been read. Cannot be used "
+                    + "with a Rolling Filename Pattern.")
+            .required(true)
+            .defaultValue("1")
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .build();
+
     static final Relationship REL_SUCCESS = new Relationship.Builder()
             .name("success")
             .description("All FlowFiles are routed to this Relationship.")
@@ -235,6 +256,20 @@ public class TailFile extends AbstractProcessor {
     private volatile AtomicLong lastLookup = new AtomicLong(0L);
     private volatile AtomicBoolean isMultiChanging = new AtomicBoolean(false);
 
+    // the maximum number of bytes read from a file at a time when files are read in parallel, so that the memory used is bounded
+    private static final int MAX_PARALLEL_READ_BYTES = 1024 * 1024;
+
+    // the number of bytes after which no further files are read in parallel by an execution, as the data read from all files is held
+    // in memory until the session is committed; the files that are not read are read by the next execution
+    private static final long MAX_PARALLEL_READ_BYTES_PER_TRIGGER = 32L * 1024 * 1024;
+
+    private volatile ExecutorService readerPool;
+    private volatile DirectoryWatcher directoryWatcher;
+    private volatile Map<Path, String> tailFilesByPath = new HashMap<>();
+    private volatile boolean readAllFiles = true;
+    // files that had more data available than was read when last read in parallel
+    private final Set<String> filesWithMoreData = new HashSet<>();
+
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         final List<PropertyDescriptor> properties = new ArrayList<>();
@@ -248,6 +283,7 @@ public class TailFile extends AbstractProcessor {
         properties.add(ROLLING_STRATEGY);
         properties.add(LOOKUP_FREQUENCY);
         properties.add(MAXIMUM_AGE);
+        properties.add(READER_THREADS);
         return properties;
     }
 
@@ -277,6 +313,11 @@ public class TailFile extends AbstractProcessor {
                             .explanation(path + " is not a directory.").build());
             }
 
+            if (context.getProperty(READER_THREADS).asInteger() > 1 && context.getProperty(ROLLING_FILENAME_PATTERN).isSet()) {
+                results.add(new ValidationResult.Builder().subject(READER_THREADS.getDisplayName()).valid(false)
+                        .explanation("files that have rolled over are recovered one file at a time, so reader threads cannot be used with a Rolling Filename Pattern").build());
+            }
+
             if(context.getProperty(ROLLING_STRATEGY).getValue().equals(CHANGING_NAME.getValue())) {
                 String freq = context.getProperty(LOOKUP_FREQUENCY).getValue();
                 if(freq == null) {
@@ -315,6 +356,11 @@ public class TailFile extends AbstractProcessor {
         // set last lookup to now
         lastLookup.set(new Date().getTime());
 
+        final int readerThreads = context.getProperty(READER_THREADS).asInteger();
+        if (isMultiChanging.get() && readerThreads > 1 && readerPool == null) {
+            readerPool = Executors.newFixedThreadPool(readerThreads);
+        }
+
         // maxAge
         long maxAge = context.getProperty(MAXIMUM_AGE).getValue() == null ? Long.MAX_VALUE : context.getProperty(MAXIMUM_AGE).asTimePeriod(TimeUnit.MILLISECONDS);
 
@@ -331,6 +377,10 @@ public class TailFile extends AbstractProcessor {
         }
 
 
+        if (readerPool != null) {
+            watchFilesToTail(context, filesToTail);
+        }
+
         final Scope scope = getStateScope(context);
         final StateMap stateMap = context.getStateManager().getState(scope);
 
@@ -415,8 +465,54 @@ public class TailFile extends AbstractProcessor {
     }
 
     private void recoverState(final ProcessContext context, final List<String> filesToTail, final Map<String, String> map) throws IOException {
-        for (String file : filesToTail) {
-            recoverState(context, map, file);
+        final ExecutorService pool = readerPool;
+        if (pool == null) {
+            for (String file : filesToTail) {
+                recoverState(context, map, file);
+            }
+            return;
+        }
+
+        // recovering the state of a file verifies the checksum of the data already consumed, which is done for the files in parallel
+        final List<Future<Void>> futures = new ArrayList<>(filesToTail.size());
+        for (final String file : filesToTail) {
+            futures.add(pool.submit(() -> {
+                recoverState(context, map, file);
+                return null;
+            }));
+        }
+
+        for (final Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while recovering the state of the files to tail", e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Failed to recover the state of the files to tail", e.getCause());
+            }
+        }
+    }
+
+    private void watchFilesToTail(final ProcessContext context, final List<String> filesToTail) {
+        final Map<Path, String> filesByPath = new HashMap<>(filesToTail.size());
+        for (final String file : filesToTail) {
+            filesByPath.put(Paths.get(file).toAbsolutePath().normalize(), file);
+        }
+        tailFilesByPath = filesByPath;
+        // the files found by a lookup may have been written to before they were watched
+        readAllFiles = true;
+
+        if (directoryWatcher == null) {
+            final String baseDirectory = context.getProperty(BASE_DIRECTORY).evaluateAttributeExpressions().getValue();
+            try {
+                directoryWatcher = new DirectoryWatcher(Paths.get(baseDirectory).toAbsolutePath().normalize(), context.getProperty(RECURSIVE).asBoolean());
+            } catch (final IOException e) {
+                getLogger().warn("Unable to watch {} for changes due to {}; all files to tail will be read on every run", new Object[]{baseDirectory, e});
+            }
         }
     }
 
@@ -554,6 +650,24 @@ public class TailFile extends AbstractProcessor {
         states.get(filePath).setState(new TailFileState(filePath, null, null, 0L, 0L, 0L, null, ByteBuffer.allocate(65536)));
     }
 
+    @OnStopped
+    public void stopReaders() {
+        if (readerPool != null) {
+            readerPool.shutdownNow();
+            readerPool = null;
+        }
+
+        if (directoryWatcher != null) {
+            try {
+                directoryWatcher.close();
+            } catch (final IOException e) {
+                getLogger().warn("Failed to stop watching for changes due to {}", new Object[]{e});
+            }
+            directoryWatcher = null;
+        }
+        filesWithMoreData.clear();
+    }
+
     @OnStopped
     public void cleanup() {
         for (TailFileObject tfo : states.values()) {
@@ -599,6 +713,10 @@ public class TailFile extends AbstractProcessor {
             context.yield();
             return;
         }
+        if (readerPool != null) {
+            processTailFilesInParallel(context, session);
+            return;
+        }
         for (String tailFile : states.keySet()) {
             processTailFile(context, session, tailFile);
         }
@@ -735,18 +853,8 @@ public class TailFile extends AbstractProcessor {
             session.remove(flowFile);
             getLogger().debug("No data to consume; removed created FlowFile");
         } else {
-            // determine filename for FlowFile by using <base filename of log file>.<initial offset>-<final offset>.<extension>
-            final String tailFilename = file.getName();
-            final String baseName = StringUtils.substringBeforeLast(tailFilename, ".");
-            final String flowFileName;
-            if (baseName.length() < tailFilename.length()) {
-                flowFileName = baseName + "." + position + "-" + positionHolder.get() + "." + StringUtils.substringAfterLast(tailFilename, ".");
-            } else {
-                flowFileName = baseName + "." + position + "-" + positionHolder.get();
-            }
-
             final Map<String, String> attributes = new HashMap<>(3);
-            attributes.put(CoreAttributes.FILENAME.key(), flowFileName);
+            attributes.put(CoreAttributes.FILENAME.key(), getFlowFileName(file, position, positionHolder.get()));
             attributes.put(CoreAttributes.MIME_TYPE.key(), "text/plain");
             attributes.put("tailfile.original.path", tailFile);
             flowFile = session.putAllAttributes(flowFile, attributes);
@@ -774,6 +882,378 @@ public class TailFile extends AbstractProcessor {
         persistState(tfo, context);
     }
 
+    /**
+     * Determines the filename for a FlowFile by using &lt;base filename of log file&gt;.&lt;initial offset&gt;-&lt;final offset&gt;.&lt;extension&gt;
+     */
+    private static String getFlowFileName(final File file, final long startPosition, final long endPosition) {
+        final String tailFilename = file.getName();
+        final String baseName = StringUtils.substringBeforeLast(tailFilename, ".");
+        if (baseName.length() < tailFilename.length()) {
+            return baseName + "." + startPosition + "-" + endPosition + "." + StringUtils.substringAfterLast(tailFilename, ".");
+        } else {
+            return baseName + "." + startPosition + "-" + endPosition;
+        }
+    }
+
+    /**
+     * Reads the files that have been written to since they were last read, using the reader threads, and creates a FlowFile for
+     * the lines read from each file. The session is committed, and the state of all of the files persisted, once for all files.
+     * The reader threads do not update the state of the files, which is updated only once the session has been committed, so that
+     * the lines read are read again if the session cannot be committed.
+     */
+    private void processTailFilesInParallel(final ProcessContext context, final ProcessSession session) {
+        final List<String> filesToRead = new ArrayList<>(getFilesToRead());
+        if (filesToRead.isEmpty()) {
+            context.yield();
+            return;
+        }
+
+        final AtomicLong remainingBytes = new AtomicLong(MAX_PARALLEL_READ_BYTES_PER_TRIGGER);
+        final Set<String> filesNotRead = Collections.synchronizedSet(new HashSet<>());
+        final List<Callable<TailedData>> readers = new ArrayList<>(filesToRead.size());
+        for (final String tailFile : filesToRead) {
+            readers.add(() -> {
+                if (remainingBytes.get() <= 0L) {
+                    filesNotRead.add(tailFile);
+                    return null;
+                }
+
+                final TailedData data = readTailFile(context, tailFile);
+                if (data != null) {
+                    remainingBytes.addAndGet(-data.lines.length);
+                }
+                return data;
+            });
+        }
+
+        final List<Future<TailedData>> futures;
+        try {
+            futures = readerPool.invokeAll(readers);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            filesWithMoreData.addAll(filesToRead);
+            return;
+        }
+
+        final List<TailedData> tailedData = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            final TailedData data;
+            try {
+                data = futures.get(i).get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rollbackTailedData(tailedData);
+                filesWithMoreData.addAll(filesToRead);
+                return;
+            } catch (final ExecutionException e) {
+                getLogger().error("Failed to read from file to tail due to {}", new Object[]{e.getCause()}, e.getCause());
+                // the reader may have moved past the position in the state, so it is opened again at that position by the next read
+                closeReader(states.get(filesToRead.get(i)));
+                continue;
+            }
+
+            if (data != null) {
+                tailedData.add(data);
+            }
+        }
+        filesWithMoreData.addAll(filesNotRead);
+
+        try {
+            int flowFilesCreated = 0;
+            for (final TailedData data : tailedData) {
+                if (data.moreData) {
+                    filesWithMoreData.add(data.tailFile);
+                }
+                if (data.lines.length == 0) {
+                    continue;
+                }
+
+                FlowFile flowFile = session.create();
+                flowFile = session.write(flowFile, out -> out.write(data.lines));
+
+                final long endPosition = data.startPosition + data.lines.length;
+                final Map<String, String> attributes = new HashMap<>(3);
+                attributes.put(CoreAttributes.FILENAME.key(), getFlowFileName(data.file, data.startPosition, endPosition));
+                attributes.put(CoreAttributes.MIME_TYPE.key(), "text/plain");
+                attributes.put("tailfile.original.path", data.tailFile);
+                flowFile = session.putAllAttributes(flowFile, attributes);
+
+                session.getProvenanceReporter().receive(flowFile, data.file.toURI().toString(), "FlowFile contains bytes " + data.startPosition + " through " + endPosition + " of source file",
+                        TimeUnit.NANOSECONDS.toMillis(data.readNanos));
+                session.transfer(flowFile, REL_SUCCESS);
+                flowFilesCreated++;
+            }
+
+            if (flowFilesCreated == 0) {
+                getLogger().debug("No data to consume; created no FlowFiles");
+                context.yield();
+            }
+
+            // We must commit session before persisting state in order to avoid data loss on restart
+            session.commit();
+        } catch (final RuntimeException e) {
+            rollbackTailedData(tailedData);
+            for (final TailedData data : tailedData) {
+                filesWithMoreData.add(data.tailFile);
+            }
+            throw e;
+        }
+
+        final Map<String, String> updatedState = new HashMap<>();
+        for (final TailedData data : tailedData) {
+            final TailFileObject tfo = states.get(data.tailFile);
+            commitTailedData(tfo, data);
+            updatedState.putAll(tfo.getState().toStateMap(tfo.getFilenameIndex()));
+        }
+        if (!updatedState.isEmpty()) {
+            persistState(updatedState, context);
+        }
+    }
+
+    /**
+     * Updates the state of the file that the given data was read from, once the data has been committed to the session.
+     */
+    private void commitTailedData(final TailFileObject tfo, final TailedData data) {
+        final TailFileState newState = data.state;
+        if (newState.getReader() != tfo.getState().getReader()) {
+            cleanReader(tfo);
+        }
+
+        if (data.lines.length > 0) {
+            newState.getChecksum().update(data.lines, 0, data.lines.length);
+        }
+        tfo.setState(newState);
+        tfo.setTailFileChanged(false);
+        // without a Rolling Filename Pattern there are no rolled over files to recover
+        tfo.setExpectedRecoveryChecksum(null);
+    }
+
+    /**
+     * Discards the data read from the files to tail, moving the reader of each file back to the position in its state, or closing
+     * readers that were opened for the data, so that the data is read again.
+     */
+    private void rollbackTailedData(final List<TailedData> tailedData) {
+        for (final TailedData data : tailedData) {
+            final TailFileObject tfo = states.get(data.tailFile);
+            final FileChannel reader = data.state.getReader();
+            if (reader != tfo.getState().getReader()) {
+                closeQuietly(reader, data.file);
+                continue;
+            }
+
+            try {
+                reader.position(tfo.getState().getPosition());
+            } catch (final IOException ioe) {
+                getLogger().warn("Failed to reposition reader for {} due to {}", new Object[]{data.file, ioe});
+                closeReader(tfo);
+            }
+        }
+    }
+
+    /**
+     * Closes the reader of the given file to tail, keeping the rest of its state, so that the file is opened again at the position in
+     * the state by the next read.
+     */
+    private void closeReader(final TailFileObject tfo) {
+        final TailFileState state = tfo.getState();
+        cleanReader(tfo);
+        tfo.setState(new TailFileState(state.getFilename(), state.getFile(), null, state.getPosition(), state.getTimestamp(), state.getLength(),
+                state.getChecksum(), state.getBuffer()));
+    }
+
+    private void closeQuietly(final FileChannel reader, final File file) {
+        try {
+            reader.close();
+        } catch (final IOException ioe) {
+            getLogger().warn("Failed to close reader for {} due to {}", new Object[]{file, ioe});
+        }
+    }
+
+    private Set<String> getFilesToRead() {
+        final Set<String> filesToRead = new HashSet<>(filesWithMoreData);
+        filesWithMoreData.clear();
+
+        Set<Path> changedPaths = null;
+        if (directoryWatcher != null) {
+            try {
+                changedPaths = directoryWatcher.pollChangedPaths();
+            } catch (final IOException e) {
+                getLogger().warn("Failed to watch for changes due to {}; will read all files to tail", new Object[]{e});
+            }
+        }
+
+        if (readAllFiles || changedPaths == null) {
+            readAllFiles = false;
+            filesToRead.addAll(states.keySet());
+        } else {
+            final Map<Path, String> filesByPath = tailFilesByPath;
+            for (final Path changedPath : changedPaths) {
+                final String tailFile = filesByPath.get(changedPath.normalize());
+                if (tailFile != null && states.containsKey(tailFile)) {
+                    filesToRead.add(tailFile);
+                }
+            }
+        }
+
+        return filesToRead;
+    }
+
+    /**
+     * Reads the lines that have been written to the given file since it was last read, without using the session or updating the state
+     * of the file, so that files can be read in parallel. The data read holds the state of the file once the lines are consumed, which
+     * is applied by {@link #commitTailedData(TailFileObject, TailedData)} after the session is committed. The checksum in that state is
+     * updated with the lines read only at that point, since it may be shared with the current state.
+     *
+     * @return the lines read, or null if the file could not be read
+     */
+    private TailedData readTailFile(final ProcessContext context, final String tailFile) throws IOException {
+        final long startNanos = System.nanoTime();
+        final TailFileObject tfo = states.get(tailFile);
+
+        TailFileState state = tfo.getState();
+        if (tfo.isTailFileChanged()) {
+            final String recoverPosition = context.getProperty(START_POSITION).getValue();
+            if (START_CURRENT_FILE.getValue().equals(recoverPosition)) {
+                state = new TailFileState(tailFile, null, null, 0L, 0L, 0L, null, state.getBuffer());
+            } else if (START_CURRENT_TIME.getValue().equals(recoverPosition)) {
+                final File file = new File(tailFile);
+                final Checksum checksum = new CRC32();
+                final long position = file.length();
+                final long timestamp = file.lastModified();
+
+                try (final InputStream fis = new FileInputStream(file);
+                        final CheckedInputStream in = new CheckedInputStream(fis, checksum)) {
+                    StreamUtils.copy(in, new NullOutputStream(), position);
+                }
+
+                final FileChannel fileChannel = createReader(file, position);
+                if (fileChannel == null) {
+                    return null;
+                }
+                state = new TailFileState(tailFile, file, fileChannel, position, timestamp, file.length(), checksum, state.getBuffer());
+            }
+        }
+
+        File file = state.getFile();
+        FileChannel reader = state.getReader();
+        Checksum checksum = state.getChecksum() == null ? new CRC32() : state.getChecksum();
+        long position = state.getPosition();
+        long timestamp = state.getTimestamp();
+        long length = state.getLength();
+
+        if (file == null || reader == null) {
+            file = new File(tailFile);
+            reader = createReader(file, position);
+            if (reader == null) {
+                return null;
+            }
+        }
+
+        // Check if file has rotated; the reader in the current state is closed once the data read is committed
+        if (timestamp <= file.lastModified() && length > file.length()) {
+            if (reader != tfo.getState().getReader()) {
+                closeQuietly(reader, file);
+            }
+
+            position = 0L;
+            checksum = new CRC32();
+            reader = createReader(file, position);
+            if (reader == null) {
+                return null;
+            }
+        }
+
+        final TailedData data;
+        try {
+            data = readCompleteLines(tailFile, file, reader, state.getBuffer());
+        } catch (final IOException e) {
+            // the reader in the current state is closed by the caller, so that it is opened again at the position in the state
+            if (reader != tfo.getState().getReader()) {
+                closeQuietly(reader, file);
+            }
+            throw e;
+        }
+        if (data.lines.length > 0) {
+            position += data.lines.length;
+            timestamp = Math.max(state.getTimestamp(), file.lastModified());
+            length = file.length();
+        }
+
+        data.state = new TailFileState(tailFile, file, reader, position, timestamp, length, checksum, state.getBuffer());
+        data.readNanos = System.nanoTime() - startNanos;
+        return data;
+    }
+
+    /**
+     * Reads the complete lines available from the given FileChannel, up to about {@link #MAX_PARALLEL_READ_BYTES}, leaving the
+     * FileChannel positioned after the last complete line. A line that is longer than the maximum is read in full.
+     */
+    private TailedData readCompleteLines(final String tailFile, final File file, final FileChannel reader, final ByteBuffer buffer) throws IOException {
+        final long startPosition = reader.position();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        boolean endOfFile = false;
+        int limit = MAX_PARALLEL_READ_BYTES;
+        byte[] data;
+        int end;
+        while (true) {
+            while (!endOfFile && baos.size() < limit) {
+                buffer.clear();
+                if (reader.read(buffer) == -1) {
+                    endOfFile = true;
+                } else {
+                    baos.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+                }
+            }
+
+            data = baos.toByteArray();
+            end = getEndOfLastLine(data);
+            if (end > 0 || endOfFile) {
+                break;
+            }
+            limit += MAX_PARALLEL_READ_BYTES;
+        }
+
+        // Ensure the incomplete line is read again once it is complete
+        reader.position(startPosition + end);
+        final byte[] lines = end == data.length ? data : Arrays.copyOf(data, end);
+        return new TailedData(tailFile, file, startPosition, lines, !endOfFile);
+    }
+
+    /**
+     * Returns the length of the data up to and including the end of the last complete line, which ends with a new-line character, or with a
+     * carriage return that is followed by a character other than new-line.
+     */
+    private static int getEndOfLastLine(final byte[] data) {
+        for (int i = data.length - 1; i >= 0; i--) {
+            if (data[i] == '\n' || (data[i] == '\r' && i + 1 < data.length)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The lines read from a file to tail by a reader thread, which are handed off to the thread that creates the FlowFiles.
+     */
+    private static class TailedData {
+        private final String tailFile;
+        private final File file;
+        private final long startPosition;
+        private final byte[] lines;
+        private final boolean moreData;
+        private TailFileState state;
+        private long readNanos;
+
+        private TailedData(final String tailFile, final File file, final long startPosition, final byte[] lines, final boolean moreData) {
+            this.tailFile = tailFile;
+            this.file = file;
+            this.startPosition = startPosition;
+            this.lines = lines;
+            this.moreData = moreData;
+        }
+    }
+
     /**
      * Read new lines from the given FileChannel, copying it to the given Output
      * Stream. The Checksum is used in order to later determine whether or not
@@ -16,6 +16,8 @@
  */
 package org.apache.nifi.processors.standard.db;
 
+import java.util.List;
+
 /**
  * Interface for RDBMS/JDBC-specific code.
  */
@@ -37,4 +39,56 @@ public interface DatabaseAdapter {
      * @return A String containing a SQL SELECT statement with the given clauses applied
      */
     String getSelectStatement(String tableName, String columnNames, String whereClause, String orderByClause, Long limit, Long offset);
+
+    /**
+     * Returns the maximum number of rows that may be inserted by a single statement returned by {@link #getInsertStatement(String, List, int)}. A value of 1
+     * indicates that the database does not support inserting multiple rows with a single statement, in which case rows are inserted one statement at a time.
+     *
+     * @param columnCount The number of columns to be inserted for each row
+     * @return The maximum number of rows for a single INSERT statement
+     */
+    default int getMaxRowsPerInsert(int columnCount) {
+        return 1;
+    }
+
+    /**
+     * Returns a SQL INSERT statement that inserts the given number of rows, with a parameter (notated by ?) for each column of each row. The parameters
+     * are ordered by row and then by column.
+     *
+     * @param tableName   The name of the table to insert rows into
+     * @param columnNames The names of the columns to insert
+     * @param rowCount    The number of rows to insert
+     * @return A String containing a SQL INSERT statement for the given number of rows
+     */
+    default String getInsertStatement(String tableName, List<String> columnNames, int rowCount) {
+        if (tableName == null || tableName.isEmpty()) {
+            throw new IllegalArgumentException("Table name cannot be null or empty");
+        }
+        if (columnNames == null || columnNames.isEmpty()) {
+            throw new IllegalArgumentException("Column names cannot be null or empty");
+        }
+        if (rowCount < 1) {
+            throw new IllegalArgumentException("Row count must be positive");
+        }
+
+        final StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columnNames.size(); i++) {
+            row.append(i == 0 ? "?" : ",?");
+        }
+        row.append(")");
+
+        final StringBuilder query = new StringBuilder("INSERT INTO ");
+        query.append(tableName);
+        query.append(" (");
+        query.append(String.join(", ", columnNames));
+        query.append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                query.append(",");
+            }
+            query.append(row);
+        }
+
+        return query.toString();
+    }
 }
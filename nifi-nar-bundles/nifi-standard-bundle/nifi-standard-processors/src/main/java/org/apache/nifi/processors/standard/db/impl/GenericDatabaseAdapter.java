@@ -23,6 +23,11 @@ import org.apache.nifi.processors.standard.db.DatabaseAdapter;
  * A generic database adapter that generates ANSI SQL.
  */
 public class GenericDatabaseAdapter implements DatabaseAdapter {
+
+    // Multi-row VALUES lists are limited to keep statements within the parameter limits of common databases (e.g. 32767 for PostgreSQL)
+    private static final int MAX_INSERT_ROWS = 1000;
+    private static final int MAX_INSERT_PARAMETERS = 32767;
+
     @Override
     public String getName() {
         return "Generic";
@@ -66,4 +71,9 @@ public class GenericDatabaseAdapter implements DatabaseAdapter {
 
         return query.toString();
     }
+
+    @Override
+    public int getMaxRowsPerInsert(int columnCount) {
+        return Math.max(1, Math.min(MAX_INSERT_ROWS, MAX_INSERT_PARAMETERS / Math.max(1, columnCount)));
+    }
 }
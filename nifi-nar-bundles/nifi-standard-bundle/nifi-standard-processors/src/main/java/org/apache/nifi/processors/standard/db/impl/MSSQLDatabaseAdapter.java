@@ -23,6 +23,11 @@ import org.apache.nifi.processors.standard.db.DatabaseAdapter;
  * A database adapter that generates MS SQL Compatible SQL.
  */
 public class MSSQLDatabaseAdapter implements DatabaseAdapter {
+
+    // A table value constructor may hold at most 1000 rows, and a request may have at most 2100 parameters (some are kept free for the driver)
+    private static final int MAX_INSERT_ROWS = 1000;
+    private static final int MAX_INSERT_PARAMETERS = 2000;
+
     @Override
     public String getName() {
         return "MS SQL 2012+";
@@ -79,4 +84,9 @@ public class MSSQLDatabaseAdapter implements DatabaseAdapter {
 
         return query.toString();
     }
+
+    @Override
+    public int getMaxRowsPerInsert(int columnCount) {
+        return Math.max(1, Math.min(MAX_INSERT_ROWS, MAX_INSERT_PARAMETERS / Math.max(1, columnCount)));
+    }
 }
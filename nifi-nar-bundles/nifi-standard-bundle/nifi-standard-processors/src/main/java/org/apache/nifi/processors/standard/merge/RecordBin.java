@@ -17,6 +17,7 @@
 
 package org.apache.nifi.processors.standard.merge;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
@@ -51,6 +52,9 @@ public class RecordBin {
     public static final String MERGE_COUNT_ATTRIBUTE = "merge.count";
     public static final String MERGE_BIN_AGE_ATTRIBUTE = "merge.bin.age";
 
+    // Record Writers tend to write a field at a time, so the merged content is buffered before it reaches the Content Repository
+    private static final int WRITE_BUFFER_SIZE = 65536;
+
     private final ComponentLog logger;
     private final ProcessSession session;
     private final RecordSetWriterFactory writerFactory;
@@ -133,7 +137,7 @@ public class RecordBin {
                     final OutputStream rawOut = session.write(merged);
                     logger.debug("Created OutputStream using session {} for {}", new Object[] {session, this});
 
-                    this.out = new ByteCountingOutputStream(rawOut);
+                    this.out = new ByteCountingOutputStream(new BufferedOutputStream(rawOut, WRITE_BUFFER_SIZE));
 
                     recordWriter = writerFactory.createWriter(logger, record.getSchema(), out);
                     recordWriter.beginRecordSet();
@@ -23,6 +23,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -51,7 +53,8 @@ public class RecordBinManager {
     private final int maxBinCount;
 
     private final AtomicLong maxBinAgeNanos = new AtomicLong(Long.MAX_VALUE);
-    private final Map<String, List<RecordBin>> groupBinMap = new HashMap<>(); // guarded by lock
+    // reads are lock-free; adding and removing lists of bins is guarded by lock
+    private final ConcurrentMap<String, List<RecordBin>> groupBinMap = new ConcurrentHashMap<>();
     private final Lock lock = new ReentrantLock();
 
     private final AtomicInteger binCount = new AtomicInteger(0);
@@ -115,19 +118,12 @@ public class RecordBinManager {
     public void add(final String groupIdentifier, final FlowFile flowFile, final RecordReader reader, final ProcessSession session, final boolean block)
         throws IOException, MalformedRecordException, SchemaNotFoundException {
 
-        final List<RecordBin> currentBins;
-        lock.lock();
-        try {
-            // Create a new List<RecordBin> if none exists for this Group ID. We use a CopyOnWriteArrayList here because
-            // we need to traverse the list in a couple of places and just below here, we call bin.offer() (which is very expensive)
-            // while traversing the List, so we don't want to do this within a synchronized block. If we end up seeing poor performance
-            // from this, we could look at instead using a Synchronized List and instead of calling bin.offer() while iterating allow for some
-            // sort of bin.tryLock() and have that lock only if the flowfile should be added. Then if it returns true, we can stop iterating
-            // and perform the expensive part and then ensure that we always unlock
-            currentBins = groupBinMap.computeIfAbsent(groupIdentifier, grpId -> new CopyOnWriteArrayList<>());
-        } finally {
-            lock.unlock();
-        }
+        // The bins for the group are looked up without obtaining the lock, as this happens for every FlowFile. We use a CopyOnWriteArrayList
+        // because we need to traverse the list in a couple of places and just below here, we call bin.offer() (which is very expensive)
+        // while traversing the List, so we don't want to do this within a synchronized block. If another thread removes the List from the Map
+        // while we are traversing it, its bins are all complete and will not accept the FlowFile, so we fall through to creating a new bin,
+        // which is registered while holding the lock.
+        final List<RecordBin> currentBins = groupBinMap.getOrDefault(groupIdentifier, Collections.emptyList());
 
         RecordBin acceptedBin = null;
         for (final RecordBin bin : currentBins) {
@@ -285,7 +281,7 @@ public class RecordBinManager {
                 binCount.addAndGet(-removedCount);
 
                 if (list.isEmpty()) {
-                    groupBinMap.remove(key);
+                    groupBinMap.remove(key, list);
                 }
             }
         } finally {
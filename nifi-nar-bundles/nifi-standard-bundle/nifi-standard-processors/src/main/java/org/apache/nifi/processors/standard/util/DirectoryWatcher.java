@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * Watches a directory, and optionally all of its subdirectories, for changes using a {@link WatchService}, which is backed by
+ * inotify on Linux. Rather than reporting the individual changes, the watcher reports the directories in which something changed,
+ * so that only those directories need to be listed again.
+ * </p>
+ *
+ * <p>
+ * Subdirectories that are created while watching are registered as they are reported. Since files may be created in a new
+ * subdirectory before it is registered, the new subdirectory and all directories beneath it are reported as changed.
+ * </p>
+ *
+ * <p>
+ * NOTE: Not intended for multi-thread usage hence not Thread-safe.
+ * </p>
+ */
+public class DirectoryWatcher implements Closeable {
+
+    private final WatchService watchService;
+    private final boolean recurse;
+
+    /**
+     * @param root the directory to watch
+     * @param recurse whether to watch all of the subdirectories of the root directory as well
+     * @throws IOException if unable to watch the directory
+     */
+    public DirectoryWatcher(final Path root, final boolean recurse) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.recurse = recurse;
+        try {
+            register(root, new HashSet<>());
+        } catch (final IOException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the directories in which a change has been reported since the last call, without waiting for changes.
+     *
+     * @return the changed directories, or null if changes were lost because too many occurred, in which case all directories
+     *         must be considered changed
+     * @throws IOException if unable to watch a new subdirectory
+     */
+    public Set<Path> pollChangedDirectories() throws IOException {
+        final Set<Path> changed = new HashSet<>();
+        return poll(changed, new HashSet<>()) ? changed : null;
+    }
+
+    /**
+     * Returns the files and directories that have been created or modified since the last call, without waiting for changes.
+     * The files within a subdirectory that is created while watching are not reported, as they may have been created before the
+     * subdirectory was registered.
+     *
+     * @return the created or modified paths, or null if changes were lost because too many occurred, in which case all files
+     *         must be considered changed
+     * @throws IOException if unable to watch a new subdirectory
+     */
+    public Set<Path> pollChangedPaths() throws IOException {
+        final Set<Path> changed = new HashSet<>();
+        return poll(new HashSet<>(), changed) ? changed : null;
+    }
+
+    private boolean poll(final Set<Path> changedDirectories, final Set<Path> changedPaths) throws IOException {
+        boolean overflow = false;
+
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            final Path directory = (Path) key.watchable();
+            changedDirectories.add(directory);
+
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+
+                final Path child = directory.resolve((Path) event.context());
+                changedPaths.add(child);
+                if (recurse && event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                    register(child, changedDirectories);
+                }
+            }
+
+            // a key that is no longer valid belongs to a directory that was deleted
+            key.reset();
+        }
+
+        return !overflow;
+    }
+
+    private void register(final Path directory, final Set<Path> registered) throws IOException {
+        if (!recurse) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            registered.add(directory);
+            return;
+        }
+
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                registered.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+                // the directory may have been removed or be unreadable, in which case there is nothing to watch
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
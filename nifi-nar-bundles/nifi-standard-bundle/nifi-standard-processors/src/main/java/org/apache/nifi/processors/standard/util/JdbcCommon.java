@@ -46,6 +46,7 @@ import static java.sql.Types.VARCHAR;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -56,6 +57,14 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import org.apache.avro.LogicalTypes;
@@ -144,6 +153,27 @@ public class JdbcCommon {
             .required(true)
             .build();
 
+    public static final PropertyDescriptor FETCH_AHEAD_ROWS = new PropertyDescriptor.Builder()
+            .name("dbf-fetch-ahead-rows")
+            .displayName("Fetch-Ahead Rows")
+            .description("The maximum number of rows that may be fetched from the result set ahead of the rows being written as Avro records. "
+                    + "If greater than zero, rows are fetched from the database on a separate thread from the one that encodes them as Avro, "
+                    + "so that the database driver and the Avro encoding work in parallel. If zero, rows are fetched and encoded on the same thread.")
+            .defaultValue("0")
+            .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+            .expressionLanguageSupported(true)
+            .required(true)
+            .build();
+
+    // How long the writing thread waits for a row before checking whether the fetching thread has failed
+    private static final long FETCH_POLL_MILLIS = 100L;
+
+    // How long the writing thread waits for the fetching thread to stop once it has been cancelled
+    private static final long FETCH_STOP_MILLIS = 10000L;
+
+    // Marks the end of the rows handed from the fetching thread to the writing thread
+    private static final GenericRecord END_OF_ROWS = new GenericData.Record(SchemaBuilder.record("EndOfRows").fields().endRecord());
+
 
     public static long convertToAvroStream(final ResultSet rs, final OutputStream outStream, boolean convertNames) throws SQLException, IOException {
         return convertToAvroStream(rs, outStream, null, null, convertNames);
@@ -176,14 +206,17 @@ public class JdbcCommon {
         private final boolean useLogicalTypes;
         private final int defaultPrecision;
         private final int defaultScale;
+        private final int fetchAheadRows;
 
-        private AvroConversionOptions(String recordName, int maxRows, boolean convertNames, boolean useLogicalTypes, int defaultPrecision, int defaultScale) {
+        private AvroConversionOptions(String recordName, int maxRows, boolean convertNames, boolean useLogicalTypes, int defaultPrecision, int defaultScale,
+                int fetchAheadRows) {
             this.recordName = recordName;
             this.maxRows = maxRows;
             this.convertNames = convertNames;
             this.useLogicalTypes = useLogicalTypes;
             this.defaultPrecision = defaultPrecision;
             this.defaultScale = defaultScale;
+            this.fetchAheadRows = fetchAheadRows;
         }
 
         public static Builder builder() {
@@ -197,6 +230,7 @@ public class JdbcCommon {
             private boolean useLogicalTypes = false;
             private int defaultPrecision = DEFAULT_PRECISION_VALUE;
             private int defaultScale = DEFAULT_SCALE_VALUE;
+            private int fetchAheadRows = 0;
 
             /**
              * Specify a priori record name to use if it cannot be determined from the result set.
@@ -231,163 +265,289 @@ public class JdbcCommon {
                 return this;
             }
 
+            /**
+             * Specify how many rows may be fetched ahead of the rows being written. Fetching ahead requires an ExecutorService to be given
+             * when converting the result set; if zero, or no ExecutorService is given, rows are fetched and written on the calling thread.
+             */
+            public Builder fetchAheadRows(int fetchAheadRows) {
+                this.fetchAheadRows = fetchAheadRows;
+                return this;
+            }
+
             public AvroConversionOptions build() {
-                return new AvroConversionOptions(recordName, maxRows, convertNames, useLogicalTypes, defaultPrecision, defaultScale);
+                return new AvroConversionOptions(recordName, maxRows, convertNames, useLogicalTypes, defaultPrecision, defaultScale, fetchAheadRows);
             }
         }
     }
 
     public static long convertToAvroStream(final ResultSet rs, final OutputStream outStream, final AvroConversionOptions options, final ResultSetRowCallback callback)
             throws SQLException, IOException {
+        return convertToAvroStream(rs, outStream, options, callback, null);
+    }
+
+    /**
+     * Converts the rows of the result set to Avro records, written to the given stream as an Avro data file. If the options specify a number
+     * of rows to fetch ahead and an ExecutorService is given, the rows are fetched from the result set and converted to Avro values on a thread
+     * of the ExecutorService while the calling thread encodes them, with at most the given number of rows held in between.
+     *
+     * @param rs the result set to convert
+     * @param outStream the stream to write the Avro data file to
+     * @param options the conversion options
+     * @param callback a callback that is invoked for each row before it is converted, on the thread that fetches the rows; may be null
+     * @param executor the ExecutorService on which to fetch rows ahead of the rows being written; may be null
+     * @return the number of rows converted
+     * @throws SQLException if unable to read from the result set
+     * @throws IOException if unable to write to the stream
+     */
+    public static long convertToAvroStream(final ResultSet rs, final OutputStream outStream, final AvroConversionOptions options, final ResultSetRowCallback callback,
+            final ExecutorService executor) throws SQLException, IOException {
         final Schema schema = createSchema(rs, options);
-        final GenericRecord rec = new GenericData.Record(schema);
 
         final DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
         try (final DataFileWriter<GenericRecord> dataFileWriter = new DataFileWriter<>(datumWriter)) {
             dataFileWriter.create(schema, outStream);
 
+            if (options.fetchAheadRows > 0 && executor != null) {
+                return convertFetchingAhead(rs, dataFileWriter, schema, options, callback, executor);
+            }
+
+            final GenericRecord rec = new GenericData.Record(schema);
             final ResultSetMetaData meta = rs.getMetaData();
-            final int nrOfColumns = meta.getColumnCount();
             long nrOfRows = 0;
             while (rs.next()) {
                 if (callback != null) {
                     callback.processRow(rs);
                 }
-                for (int i = 1; i <= nrOfColumns; i++) {
-                    final int javaSqlType = meta.getColumnType(i);
-                    final Schema fieldSchema = schema.getFields().get(i - 1).schema();
-
-                    // Need to handle CLOB and BLOB before getObject() is called, due to ResultSet's maximum portability statement
-                    if (javaSqlType == CLOB) {
-                        Clob clob = rs.getClob(i);
-                        if (clob != null) {
-                            long numChars = clob.length();
-                            char[] buffer = new char[(int) numChars];
-                            InputStream is = clob.getAsciiStream();
-                            int index = 0;
-                            int c = is.read();
-                            while (c > 0) {
-                                buffer[index++] = (char) c;
-                                c = is.read();
-                            }
-                            rec.put(i - 1, new String(buffer));
-                            clob.free();
-                        } else {
-                            rec.put(i - 1, null);
-                        }
-                        continue;
+                populateRecord(rs, meta, schema, rec, options);
+                dataFileWriter.append(rec);
+                nrOfRows += 1;
+
+                if (options.maxRows > 0 && nrOfRows == options.maxRows)
+                    break;
+            }
+
+            return nrOfRows;
+        }
+    }
+
+    private static long convertFetchingAhead(final ResultSet rs, final DataFileWriter<GenericRecord> dataFileWriter, final Schema schema,
+            final AvroConversionOptions options, final ResultSetRowCallback callback, final ExecutorService executor) throws SQLException, IOException {
+        final BlockingQueue<GenericRecord> rows = new ArrayBlockingQueue<>(options.fetchAheadRows);
+        final CountDownLatch fetchStopped = new CountDownLatch(1);
+        final AtomicBoolean fetchStarted = new AtomicBoolean(false);
+
+        final Future<Long> fetch = executor.submit(() -> {
+            if (!fetchStarted.compareAndSet(false, true)) {
+                // the writing thread gave up before the fetch started, so the result set may already be closed
+                return 0L;
+            }
+            try {
+                final ResultSetMetaData meta = rs.getMetaData();
+                long nrOfRows = 0;
+                while (rs.next()) {
+                    if (callback != null) {
+                        callback.processRow(rs);
+                    }
+                    // each row needs its own record, as it is handed to another thread
+                    final GenericRecord rec = new GenericData.Record(schema);
+                    populateRecord(rs, meta, schema, rec, options);
+                    rows.put(rec);
+                    nrOfRows += 1;
+
+                    if (options.maxRows > 0 && nrOfRows == options.maxRows) {
+                        break;
                     }
+                }
 
-                    if (javaSqlType == BLOB) {
-                        Blob blob = rs.getBlob(i);
-                        if (blob != null) {
-                            long numChars = blob.length();
-                            byte[] buffer = new byte[(int) numChars];
-                            InputStream is = blob.getBinaryStream();
-                            int index = 0;
-                            int c = is.read();
-                            while (c > 0) {
-                                buffer[index++] = (byte) c;
-                                c = is.read();
-                            }
-                            ByteBuffer bb = ByteBuffer.wrap(buffer);
-                            rec.put(i - 1, bb);
-                            blob.free();
-                        } else {
-                            rec.put(i - 1, null);
-                        }
-                        continue;
+                rows.put(END_OF_ROWS);
+                return nrOfRows;
+            } finally {
+                fetchStopped.countDown();
+            }
+        });
+
+        try {
+            while (true) {
+                final GenericRecord rec = rows.poll(FETCH_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (rec == END_OF_ROWS) {
+                    break;
+                }
+                if (rec != null) {
+                    dataFileWriter.append(rec);
+                } else if (fetch.isDone() && rows.isEmpty()) {
+                    // the fetch failed before reaching the end of the rows; the failure is thrown below
+                    break;
+                }
+            }
+
+            return fetch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rows to be fetched from the result set");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to fetch rows from the result set", cause);
+        } finally {
+            // do not return until the fetch has stopped, so that the result set is not used once the caller closes it; a fetch that
+            // has not started yet never runs, so there is nothing to wait for
+            if (fetchStarted.compareAndSet(false, true)) {
+                fetch.cancel(false);
+            } else {
+                fetch.cancel(true);
+                // the wait is bounded, so an interrupt, including the one that may have ended the writing, is restored once it is over
+                boolean interrupted = Thread.interrupted();
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FETCH_STOP_MILLIS);
+                while (true) {
+                    try {
+                        fetchStopped.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        break;
+                    } catch (final InterruptedException e) {
+                        interrupted = true;
                     }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
 
-                    final Object value = rs.getObject(i);
-
-                    if (value == null) {
-                        rec.put(i - 1, null);
-
-                    } else if (javaSqlType == BINARY || javaSqlType == VARBINARY || javaSqlType == LONGVARBINARY || javaSqlType == ARRAY) {
-                        // bytes requires little bit different handling
-                        byte[] bytes = rs.getBytes(i);
-                        ByteBuffer bb = ByteBuffer.wrap(bytes);
-                        rec.put(i - 1, bb);
-
-                    } else if (value instanceof Byte) {
-                        // tinyint(1) type is returned by JDBC driver as java.sql.Types.TINYINT
-                        // But value is returned by JDBC as java.lang.Byte
-                        // (at least H2 JDBC works this way)
-                        // direct put to avro record results:
-                        // org.apache.avro.AvroRuntimeException: Unknown datum type java.lang.Byte
-                        rec.put(i - 1, ((Byte) value).intValue());
-                    } else if(value instanceof Short) {
-                        //MS SQL returns TINYINT as a Java Short, which Avro doesn't understand.
-                        rec.put(i - 1, ((Short) value).intValue());
-                    } else if (value instanceof BigDecimal) {
-                        if (options.useLogicalTypes) {
-                            // Delegate mapping to AvroTypeUtil in order to utilize logical types.
-                            rec.put(i - 1, AvroTypeUtil.convertToAvroObject(value, fieldSchema));
-                        } else {
-                            // As string for backward compatibility.
-                            rec.put(i - 1, value.toString());
-                        }
+    private static void populateRecord(final ResultSet rs, final ResultSetMetaData meta, final Schema schema, final GenericRecord rec, final AvroConversionOptions options)
+            throws SQLException, IOException {
+        final int nrOfColumns = meta.getColumnCount();
+        for (int i = 1; i <= nrOfColumns; i++) {
+            final int javaSqlType = meta.getColumnType(i);
+            final Schema fieldSchema = schema.getFields().get(i - 1).schema();
+
+            // Need to handle CLOB and BLOB before getObject() is called, due to ResultSet's maximum portability statement
+            if (javaSqlType == CLOB) {
+                Clob clob = rs.getClob(i);
+                if (clob != null) {
+                    long numChars = clob.length();
+                    char[] buffer = new char[(int) numChars];
+                    InputStream is = clob.getAsciiStream();
+                    int index = 0;
+                    int c = is.read();
+                    while (c > 0) {
+                        buffer[index++] = (char) c;
+                        c = is.read();
+                    }
+                    rec.put(i - 1, new String(buffer));
+                    clob.free();
+                } else {
+                    rec.put(i - 1, null);
+                }
+                continue;
+            }
 
-                    } else if (value instanceof BigInteger) {
-                        // Check the precision of the BIGINT. Some databases allow arbitrary precision (> 19), but Avro won't handle that.
-                        // It the SQL type is BIGINT and the precision is between 0 and 19 (inclusive); if so, the BigInteger is likely a
-                        // long (and the schema says it will be), so try to get its value as a long.
-                        // Otherwise, Avro can't handle BigInteger as a number - it will throw an AvroRuntimeException
-                        // such as: "Unknown datum type: java.math.BigInteger: 38". In this case the schema is expecting a string.
-                        if (javaSqlType == BIGINT) {
-                            int precision = meta.getPrecision(i);
-                            if (precision < 0 || precision > MAX_DIGITS_IN_BIGINT) {
-                                rec.put(i - 1, value.toString());
-                            } else {
-                                try {
-                                    rec.put(i - 1, ((BigInteger) value).longValueExact());
-                                } catch (ArithmeticException ae) {
-                                    // Since the value won't fit in a long, convert it to a string
-                                    rec.put(i - 1, value.toString());
-                                }
-                            }
-                        } else {
-                            rec.put(i - 1, value.toString());
-                        }
+            if (javaSqlType == BLOB) {
+                Blob blob = rs.getBlob(i);
+                if (blob != null) {
+                    long numChars = blob.length();
+                    byte[] buffer = new byte[(int) numChars];
+                    InputStream is = blob.getBinaryStream();
+                    int index = 0;
+                    int c = is.read();
+                    while (c > 0) {
+                        buffer[index++] = (byte) c;
+                        c = is.read();
+                    }
+                    ByteBuffer bb = ByteBuffer.wrap(buffer);
+                    rec.put(i - 1, bb);
+                    blob.free();
+                } else {
+                    rec.put(i - 1, null);
+                }
+                continue;
+            }
 
-                    } else if (value instanceof Number || value instanceof Boolean) {
-                        if (javaSqlType == BIGINT) {
-                            int precision = meta.getPrecision(i);
-                            if (precision < 0 || precision > MAX_DIGITS_IN_BIGINT) {
-                                rec.put(i - 1, value.toString());
-                            } else {
-                                rec.put(i - 1, value);
-                            }
-                        } else {
-                            rec.put(i - 1, value);
-                        }
+            final Object value = rs.getObject(i);
+
+            if (value == null) {
+                rec.put(i - 1, null);
+
+            } else if (javaSqlType == BINARY || javaSqlType == VARBINARY || javaSqlType == LONGVARBINARY || javaSqlType == ARRAY) {
+                // bytes requires little bit different handling
+                byte[] bytes = rs.getBytes(i);
+                ByteBuffer bb = ByteBuffer.wrap(bytes);
+                rec.put(i - 1, bb);
+
+            } else if (value instanceof Byte) {
+                // tinyint(1) type is returned by JDBC driver as java.sql.Types.TINYINT
+                // But value is returned by JDBC as java.lang.Byte
+                // (at least H2 JDBC works this way)
+                // direct put to avro record results:
+                // org.apache.avro.AvroRuntimeException: Unknown datum type java.lang.Byte
+                rec.put(i - 1, ((Byte) value).intValue());
+            } else if(value instanceof Short) {
+                //MS SQL returns TINYINT as a Java Short, which Avro doesn't understand.
+                rec.put(i - 1, ((Short) value).intValue());
+            } else if (value instanceof BigDecimal) {
+                if (options.useLogicalTypes) {
+                    // Delegate mapping to AvroTypeUtil in order to utilize logical types.
+                    rec.put(i - 1, AvroTypeUtil.convertToAvroObject(value, fieldSchema));
+                } else {
+                    // As string for backward compatibility.
+                    rec.put(i - 1, value.toString());
+                }
 
-                    } else if (value instanceof Date) {
-                        if (options.useLogicalTypes) {
-                            // Delegate mapping to AvroTypeUtil in order to utilize logical types.
-                            rec.put(i - 1, AvroTypeUtil.convertToAvroObject(value, fieldSchema));
-                        } else {
-                            // As string for backward compatibility.
+            } else if (value instanceof BigInteger) {
+                // Check the precision of the BIGINT. Some databases allow arbitrary precision (> 19), but Avro won't handle that.
+                // It the SQL type is BIGINT and the precision is between 0 and 19 (inclusive); if so, the BigInteger is likely a
+                // long (and the schema says it will be), so try to get its value as a long.
+                // Otherwise, Avro can't handle BigInteger as a number - it will throw an AvroRuntimeException
+                // such as: "Unknown datum type: java.math.BigInteger: 38". In this case the schema is expecting a string.
+                if (javaSqlType == BIGINT) {
+                    int precision = meta.getPrecision(i);
+                    if (precision < 0 || precision > MAX_DIGITS_IN_BIGINT) {
+                        rec.put(i - 1, value.toString());
+                    } else {
+                        try {
+                            rec.put(i - 1, ((BigInteger) value).longValueExact());
+                        } catch (ArithmeticException ae) {
+                            // Since the value won't fit in a long, convert it to a string
                             rec.put(i - 1, value.toString());
                         }
+                    }
+                } else {
+                    rec.put(i - 1, value.toString());
+                }
 
-                    } else {
-                        // The different types that we support are numbers (int, long, double, float),
-                        // as well as boolean values and Strings. Since Avro doesn't provide
-                        // timestamp types, we want to convert those to Strings. So we will cast anything other
-                        // than numbers or booleans to strings by using the toString() method.
+            } else if (value instanceof Number || value instanceof Boolean) {
+                if (javaSqlType == BIGINT) {
+                    int precision = meta.getPrecision(i);
+                    if (precision < 0 || precision > MAX_DIGITS_IN_BIGINT) {
                         rec.put(i - 1, value.toString());
+                    } else {
+                        rec.put(i - 1, value);
                     }
+                } else {
+                    rec.put(i - 1, value);
                 }
-                dataFileWriter.append(rec);
-                nrOfRows += 1;
 
-                if (options.maxRows > 0 && nrOfRows == options.maxRows)
-                    break;
-            }
+            } else if (value instanceof Date) {
+                if (options.useLogicalTypes) {
+                    // Delegate mapping to AvroTypeUtil in order to utilize logical types.
+                    rec.put(i - 1, AvroTypeUtil.convertToAvroObject(value, fieldSchema));
+                } else {
+                    // As string for backward compatibility.
+                    rec.put(i - 1, value.toString());
+                }
 
-            return nrOfRows;
+            } else {
+                // The different types that we support are numbers (int, long, double, float),
+                // as well as boolean values and Strings. Since Avro doesn't provide
+                // timestamp types, we want to convert those to Strings. So we will cast anything other
+                // than numbers or booleans to strings by using the toString() method.
+                rec.put(i - 1, value.toString());
+            }
         }
     }
 
@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.nifi.util.search.SearchTerm;
+import org.apache.nifi.util.search.ahocorasick.AhoCorasick;
+import org.apache.nifi.util.search.ahocorasick.SearchState;
+
+/**
+ * <p>
+ * Evaluates a number of rules against a piece of text at once, determining which of the rules the text satisfies without evaluating each
+ * rule separately wherever possible. Each rule is associated with a reference, such as the Relationship to route matching text to.
+ * </p>
+ *
+ * <p>
+ * Literal rules are combined into a single Aho-Corasick automaton, so that the text is scanned once however many rules there are, and
+ * equality rules are looked up in a hash table. Regular Expressions are combined into a single alternation that is evaluated first, so
+ * that text that matches none of the Regular Expressions is scanned once. When the alternation matches, the Regular Expression that it
+ * matched is known to match and the remaining Regular Expressions are evaluated individually. Regular Expressions that cannot be combined
+ * without changing their meaning, such as those that contain back references, are always evaluated individually.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ * </p>
+ *
+ * @param <T> the type of the reference that is associated with each rule
+ */
+public class MultiPatternMatcher<T> {
+
+    /**
+     * How the text is compared against each rule
+     */
+    public enum MatchType {
+        STARTS_WITH,
+        ENDS_WITH,
+        CONTAINS,
+        EQUALS,
+        MATCHES_REGULAR_EXPRESSION,
+        CONTAINS_REGULAR_EXPRESSION
+    }
+
+    private static final Pattern UNCOMBINABLE_REGEX = Pattern.compile("\\\\[1-9]|\\\\k<|\\\\Q");
+
+    private final MatchType matchType;
+    private final boolean ignoreCase;
+
+    // literal rules
+    private final Map<String, List<T>> literals;
+    private final List<T> emptyLiteralReferences;
+    private final AhoCorasick<List<T>> search;
+    private final int maxLiteralLength;
+
+    // regular expression rules
+    private final Map<T, Pattern> patterns;
+    private final Pattern combinedPattern;
+    private final Map<Integer, T> combinedGroupReferences;
+
+    /**
+     * Creates a matcher for rules whose values are literal text
+     *
+     * @param values the value of each rule, keyed by the rule's reference
+     * @param matchType how the text is compared against the values, which must not be a Regular Expression type
+     * @param ignoreCase whether to ignore case when comparing the text against the values
+     * @param <T> the type of the references
+     * @return the matcher
+     */
+    public static <T> MultiPatternMatcher<T> forLiterals(final Map<T, String> values, final MatchType matchType, final boolean ignoreCase) {
+        if (matchType == MatchType.MATCHES_REGULAR_EXPRESSION || matchType == MatchType.CONTAINS_REGULAR_EXPRESSION) {
+            throw new IllegalArgumentException("Match type " + matchType + " requires Regular Expressions");
+        }
+        return new MultiPatternMatcher<>(values, matchType, ignoreCase);
+    }
+
+    /**
+     * Creates a matcher for rules whose values are Regular Expressions
+     *
+     * @param patterns the Regular Expression of each rule, keyed by the rule's reference
+     * @param matchEntireText <code>true</code> if a Regular Expression must match the entire text, <code>false</code> if it need only be
+     *            found within the text
+     * @param <T> the type of the references
+     * @return the matcher
+     */
+    public static <T> MultiPatternMatcher<T> forRegularExpressions(final Map<T, Pattern> patterns, final boolean matchEntireText) {
+        return new MultiPatternMatcher<>(patterns, matchEntireText);
+    }
+
+    private MultiPatternMatcher(final Map<T, String> values, final MatchType matchType, final boolean ignoreCase) {
+        this.matchType = matchType;
+        this.ignoreCase = ignoreCase;
+        this.patterns = null;
+        this.combinedPattern = null;
+        this.combinedGroupReferences = null;
+
+        final Map<String, List<T>> literals = new HashMap<>();
+        final List<T> emptyLiteralReferences = new ArrayList<>();
+        for (final Map.Entry<T, String> entry : values.entrySet()) {
+            final String value = ignoreCase ? entry.getValue().toLowerCase() : entry.getValue();
+            if (value.isEmpty() && matchType != MatchType.EQUALS) {
+                // every text starts with, ends with and contains the empty string
+                emptyLiteralReferences.add(entry.getKey());
+                continue;
+            }
+
+            List<T> references = literals.get(value);
+            if (references == null) {
+                references = new ArrayList<>(1);
+                literals.put(value, references);
+            }
+            references.add(entry.getKey());
+        }
+        this.literals = literals;
+        this.emptyLiteralReferences = emptyLiteralReferences;
+
+        int maxLiteralLength = 0;
+        if (matchType == MatchType.EQUALS || literals.isEmpty()) {
+            this.search = null;
+        } else {
+            // Each distinct literal is a single term that refers to all of the rules that share it
+            final Set<SearchTerm<List<T>>> terms = new HashSet<>();
+            for (final Map.Entry<String, List<T>> entry : literals.entrySet()) {
+                final byte[] termBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                terms.add(new SearchTerm<>(termBytes, false, entry.getValue()));
+                maxLiteralLength = Math.max(maxLiteralLength, termBytes.length);
+            }
+
+            this.search = new AhoCorasick<>();
+            this.search.initializeDictionary(terms);
+        }
+        this.maxLiteralLength = maxLiteralLength;
+    }
+
+    private MultiPatternMatcher(final Map<T, Pattern> patterns, final boolean matchEntireText) {
+        this.matchType = matchEntireText ? MatchType.MATCHES_REGULAR_EXPRESSION : MatchType.CONTAINS_REGULAR_EXPRESSION;
+        this.ignoreCase = false;
+        this.literals = null;
+        this.emptyLiteralReferences = null;
+        this.search = null;
+        this.maxLiteralLength = 0;
+        this.patterns = new LinkedHashMap<>(patterns);
+
+        // Wrap each Regular Expression in a capturing group, so that the alternative that matched can be identified
+        final StringBuilder combined = new StringBuilder();
+        final Map<Integer, T> combinedGroupReferences = new HashMap<>();
+        Integer flags = null;
+        int groupIndex = 1;
+        boolean combinable = patterns.size() > 1;
+        for (final Map.Entry<T, Pattern> entry : patterns.entrySet()) {
+            final Pattern pattern = entry.getValue();
+            if (flags == null) {
+                flags = pattern.flags();
+            }
+            if (pattern.flags() != flags || (flags & (Pattern.LITERAL | Pattern.COMMENTS)) != 0 || UNCOMBINABLE_REGEX.matcher(pattern.pattern()).find()) {
+                combinable = false;
+                break;
+            }
+
+            if (combined.length() > 0) {
+                combined.append('|');
+            }
+            combined.append('(').append(pattern.pattern()).append(')');
+            combinedGroupReferences.put(groupIndex, entry.getKey());
+            groupIndex += 1 + pattern.matcher("").groupCount();
+        }
+
+        Pattern combinedPattern = null;
+        if (combinable) {
+            try {
+                combinedPattern = Pattern.compile(combined.toString(), flags);
+                if (combinedPattern.matcher("").groupCount() != groupIndex - 1) {
+                    combinedPattern = null;
+                }
+            } catch (final PatternSyntaxException e) {
+                // e.g., two of the Regular Expressions define a named group with the same name
+                combinedPattern = null;
+            }
+        }
+        this.combinedPattern = combinedPattern;
+        this.combinedGroupReferences = combinedPattern == null ? Collections.<Integer, T> emptyMap() : combinedGroupReferences;
+    }
+
+    /**
+     * Determines which rules the given text satisfies
+     *
+     * @param text the text to evaluate
+     * @param stopAtFirstMatch <code>true</code> if only whether any rule matches is of interest, in which case at most one reference is returned
+     * @return the references of the rules that the text satisfies
+     */
+    public Set<T> findMatches(final String text, final boolean stopAtFirstMatch) {
+        if (patterns != null) {
+            return findRegularExpressionMatches(text, stopAtFirstMatch);
+        }
+
+        final Set<T> matches = new LinkedHashSet<>();
+        final String subject = ignoreCase ? text.toLowerCase() : text;
+        if (matchType == MatchType.EQUALS) {
+            final List<T> references = literals.get(subject);
+            if (references != null) {
+                matches.addAll(stopAtFirstMatch ? references.subList(0, 1) : references);
+            }
+            return matches;
+        }
+
+        if (!emptyLiteralReferences.isEmpty()) {
+            matches.addAll(stopAtFirstMatch ? emptyLiteralReferences.subList(0, 1) : emptyLiteralReferences);
+            if (stopAtFirstMatch) {
+                return matches;
+            }
+        }
+        if (search == null) {
+            return matches;
+        }
+
+        // A prefix or suffix can be no longer than the longest literal, so only that much of the text needs to be scanned
+        final byte[] bytes = subject.getBytes(StandardCharsets.UTF_8);
+        final int offset;
+        final int length;
+        switch (matchType) {
+            case STARTS_WITH:
+                offset = 0;
+                length = Math.min(bytes.length, maxLiteralLength);
+                break;
+            case ENDS_WITH:
+                length = Math.min(bytes.length, maxLiteralLength);
+                offset = bytes.length - length;
+                break;
+            default:
+                offset = 0;
+                length = bytes.length;
+                break;
+        }
+
+        final boolean findAll = !stopAtFirstMatch || matchType != MatchType.CONTAINS;
+        final SearchState<List<T>> state;
+        try {
+            state = search.search(new ByteArrayInputStream(bytes, offset, length), findAll);
+        } catch (final IOException e) {
+            // cannot happen when reading from a byte array
+            throw new IllegalStateException(e);
+        }
+
+        for (final Map.Entry<SearchTerm<List<T>>, List<Long>> result : state.getResults().entrySet()) {
+            final SearchTerm<List<T>> term = result.getKey();
+
+            // the positions are those of the end of each occurrence of the term
+            final boolean matched;
+            switch (matchType) {
+                case STARTS_WITH:
+                    matched = result.getValue().contains((long) term.size());
+                    break;
+                case ENDS_WITH:
+                    matched = result.getValue().contains((long) length);
+                    break;
+                default:
+                    matched = true;
+                    break;
+            }
+
+            if (matched) {
+                if (stopAtFirstMatch) {
+                    matches.add(term.getReference().get(0));
+                    return matches;
+                }
+                matches.addAll(term.getReference());
+            }
+        }
+
+        return matches;
+    }
+
+    private Set<T> findRegularExpressionMatches(final String text, final boolean stopAtFirstMatch) {
+        final Set<T> matches = new LinkedHashSet<>();
+        final boolean matchEntireText = matchType == MatchType.MATCHES_REGULAR_EXPRESSION;
+
+        T knownMatch = null;
+        if (combinedPattern != null) {
+            final Matcher matcher = combinedPattern.matcher(text);
+            if (!(matchEntireText ? matcher.matches() : matcher.find())) {
+                // If no alternative matches, none of the Regular Expressions matches
+                return matches;
+            }
+
+            for (final Map.Entry<Integer, T> entry : combinedGroupReferences.entrySet()) {
+                if (matcher.start(entry.getKey()) >= 0) {
+                    knownMatch = entry.getValue();
+                    break;
+                }
+            }
+
+            if (knownMatch != null) {
+                matches.add(knownMatch);
+                if (stopAtFirstMatch) {
+                    return matches;
+                }
+            }
+        }
+
+        for (final Map.Entry<T, Pattern> entry : patterns.entrySet()) {
+            if (entry.getKey().equals(knownMatch)) {
+                continue;
+            }
+
+            final Matcher matcher = entry.getValue().matcher(text);
+            if (matchEntireText ? matcher.matches() : matcher.find()) {
+                matches.add(entry.getKey());
+                if (stopAtFirstMatch) {
+                    return matches;
+                }
+            }
+        }
+
+        return matches;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * An OutputStream that splits the data written to it into fixed-size blocks and compresses each block independently on an
+ * {@link ExecutorService}, writing the compressed blocks to the underlying stream in order.
+ * </p>
+ *
+ * <p>
+ * Each block is compressed into a complete stream of the compression format, so the output is a concatenation of compressed streams. This is
+ * valid for formats that define concatenation, such as gzip (multiple members), bzip2 and xz, and is read back by any decompressor that
+ * supports concatenated streams. Because blocks do not share a dictionary, the output is slightly larger than that of a single stream.
+ * </p>
+ *
+ * <p>
+ * At most the given number of blocks are held in memory at once, whether waiting to be compressed or waiting to be written, so the memory
+ * used is bounded regardless of the amount of data written.
+ * </p>
+ *
+ * <p>
+ * NOTE: Not intended for multi-thread usage hence not Thread-safe.
+ * </p>
+ */
+public class ParallelCompressionOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final BlockCompressor compressor;
+    private final int blockSize;
+    private final int maxBlocksInFlight;
+
+    private final Deque<Future<byte[]>> blocksInFlight = new ArrayDeque<>();
+    private byte[] block;
+    private int blockLength = 0;
+    private boolean blockWritten = false;
+    private boolean closed = false;
+
+    /**
+     * @param out the stream to write the compressed blocks to
+     * @param executor the executor to compress the blocks on
+     * @param compressor compresses a single block into a complete compressed stream
+     * @param blockSize the number of bytes of uncompressed data in each block
+     * @param maxBlocksInFlight the maximum number of blocks that are compressed or awaiting writing at any one time
+     */
+    public ParallelCompressionOutputStream(final OutputStream out, final ExecutorService executor, final BlockCompressor compressor, final int blockSize,
+        final int maxBlocksInFlight) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        if (maxBlocksInFlight < 1) {
+            throw new IllegalArgumentException("Maximum number of blocks in flight must be positive");
+        }
+
+        this.out = out;
+        this.executor = executor;
+        this.compressor = compressor;
+        this.blockSize = blockSize;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if (blockLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int toCopy = Math.min(remaining, blockSize - blockLength);
+            System.arraycopy(b, offset, block, blockLength, toCopy);
+            blockLength += toCopy;
+            offset += toCopy;
+            remaining -= toCopy;
+
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes all of the blocks that have been submitted for compression to the underlying stream and flushes it. Data that does not yet fill a
+     * block is not compressed until the block is filled or the stream is closed, so that flushing does not affect the size of the blocks.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!blocksInFlight.isEmpty()) {
+            writeOldestBlock();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try {
+            // An empty stream still produces one block, so that the output is a valid compressed stream
+            if (blockLength > 0 || !blockWritten) {
+                submitBlock();
+            }
+            while (!blocksInFlight.isEmpty()) {
+                writeOldestBlock();
+            }
+            out.flush();
+        } finally {
+            closed = true;
+            for (final Future<byte[]> future : blocksInFlight) {
+                future.cancel(true);
+            }
+            blocksInFlight.clear();
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        while (blocksInFlight.size() >= maxBlocksInFlight) {
+            writeOldestBlock();
+        }
+
+        final byte[] data = block;
+        final int length = blockLength;
+        blocksInFlight.addLast(executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(32, length / 2));
+                compressor.compress(data, length, baos);
+                return baos.toByteArray();
+            }
+        }));
+
+        block = new byte[blockSize];
+        blockLength = 0;
+        blockWritten = true;
+    }
+
+    private void writeOldestBlock() throws IOException {
+        final Future<byte[]> future = blocksInFlight.removeFirst();
+        final byte[] compressed;
+        try {
+            compressed = future.get();
+        } catch (final InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for block to be compressed");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to compress block", cause);
+        }
+
+        out.write(compressed);
+    }
+
+    /**
+     * Compresses a single block of data
+     */
+    public interface BlockCompressor {
+
+        /**
+         * Compresses the given data into a complete compressed stream
+         *
+         * @param data the buffer containing the data to compress
+         * @param length the number of bytes of the buffer to compress
+         * @param out the stream to write the compressed stream to
+         * @throws IOException if unable to compress the data
+         */
+        void compress(byte[] data, int length, OutputStream out) throws IOException;
+    }
+}
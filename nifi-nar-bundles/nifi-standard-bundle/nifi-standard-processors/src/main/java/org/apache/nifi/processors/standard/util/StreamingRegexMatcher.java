@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * Finds the matches of a {@link Pattern} in text that is read from a {@link Reader}, holding only a bounded window of the text in memory
+ * regardless of how long the text is.
+ * </p>
+ *
+ * <p>
+ * The text is read into a window that holds twice the maximum match length. A match that is found in the window is only reported once the
+ * regular expression engine indicates that more text could not have changed it (see {@link Matcher#hitEnd()} and
+ * {@link Matcher#requireEnd()}), or once it is known to start far enough from the end of the window. Text that is far enough from the end
+ * of the window that no match could start in it is then released, keeping a number of characters before the first unreleased character so
+ * that lookbehind, word boundaries and line anchors see the same text that they would if the entire text were held in memory.
+ * </p>
+ *
+ * <p>
+ * As a result, the matches that are found are the same as those that {@link Matcher#find()} would find in the entire text, provided that
+ * no match is longer than the maximum match length and no lookbehind looks further back than the lookbehind length. Matches that are
+ * longer may not be found, and anchors that refer to the beginning of the input, such as <code>^</code> without
+ * {@link Pattern#MULTILINE} or <code>\A</code>, only match at the beginning of the text.
+ * </p>
+ *
+ * <p>
+ * NOTE: Not intended for multi-thread usage hence not Thread-safe.
+ * </p>
+ */
+public class StreamingRegexMatcher {
+
+    public static final int DEFAULT_LOOKBEHIND_LENGTH = 1024;
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final Pattern pattern;
+    private final int maxMatchLength;
+    private final int lookbehindLength;
+
+    public StreamingRegexMatcher(final Pattern pattern, final int maxMatchLength) {
+        this(pattern, maxMatchLength, DEFAULT_LOOKBEHIND_LENGTH);
+    }
+
+    public StreamingRegexMatcher(final Pattern pattern, final int maxMatchLength, final int lookbehindLength) {
+        if (maxMatchLength < 1) {
+            throw new IllegalArgumentException("Maximum match length must be positive");
+        }
+        if (lookbehindLength < 1) {
+            throw new IllegalArgumentException("Lookbehind length must be positive");
+        }
+        this.pattern = pattern;
+        this.maxMatchLength = maxMatchLength;
+        this.lookbehindLength = lookbehindLength;
+    }
+
+    /**
+     * Reads all of the text from the given reader, passing each match and the text between matches to the given handler, in order
+     *
+     * @param reader the reader to read the text from
+     * @param handler the handler to pass the text to
+     * @throws IOException if unable to read the text or if thrown by the handler
+     */
+    public void process(final Reader reader, final MatchHandler handler) throws IOException {
+        final StringBuilder window = new StringBuilder();
+        final char[] readBuffer = new char[READ_BUFFER_SIZE];
+        final long windowLength = 2L * maxMatchLength;
+
+        int emitPosition = 0; // the first character that has not been passed to the handler
+        int searchPosition = 0; // the position at which to search for the next match
+        boolean endOfInput = false;
+
+        while (true) {
+            while (!endOfInput && window.length() - emitPosition < windowLength) {
+                final int read = reader.read(readBuffer);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    window.append(readBuffer, 0, read);
+                }
+            }
+
+            // No match that starts before the safe position can extend beyond the window
+            final int safePosition = endOfInput ? window.length() : Math.max(emitPosition, window.length() - maxMatchLength);
+
+            final Matcher matcher = pattern.matcher(window);
+            while (searchPosition <= window.length() && matcher.find(searchPosition)) {
+                final boolean complete = endOfInput || matcher.start() < safePosition || (!matcher.hitEnd() && !matcher.requireEnd());
+                if (!complete) {
+                    break;
+                }
+
+                if (matcher.start() > emitPosition) {
+                    handler.unmatched(window, emitPosition, matcher.start());
+                }
+                if (!handler.matched(matcher)) {
+                    return;
+                }
+
+                // As with Matcher.find(), the search following an empty match starts at the next character
+                emitPosition = matcher.end();
+                searchPosition = matcher.end() == matcher.start() ? matcher.end() + 1 : matcher.end();
+            }
+
+            if (endOfInput) {
+                if (window.length() > emitPosition) {
+                    handler.unmatched(window, emitPosition, window.length());
+                }
+                return;
+            }
+
+            if (safePosition > emitPosition) {
+                handler.unmatched(window, emitPosition, safePosition);
+                emitPosition = safePosition;
+                searchPosition = Math.max(searchPosition, safePosition);
+            }
+
+            final int discard = emitPosition - lookbehindLength;
+            if (discard > 0) {
+                window.delete(0, discard);
+                emitPosition -= discard;
+                searchPosition -= discard;
+            }
+        }
+    }
+
+    /**
+     * Appends the given replacement for the current match of the given matcher, interpreting group references and escapes in the same way
+     * as {@link Matcher#appendReplacement(StringBuffer, String)} does but without appending any of the text that precedes the match
+     *
+     * @param matcher the matcher whose current match is to be replaced
+     * @param replacement the replacement string
+     * @param out the destination for the replacement
+     * @throws IOException if unable to append to the destination
+     */
+    public static void appendReplacement(final Matcher matcher, final String replacement, final Appendable out) throws IOException {
+        int cursor = 0;
+        while (cursor < replacement.length()) {
+            char nextChar = replacement.charAt(cursor);
+            if (nextChar == '\\') {
+                cursor++;
+                if (cursor == replacement.length()) {
+                    throw new IllegalArgumentException("character to be escaped is missing");
+                }
+                out.append(replacement.charAt(cursor));
+                cursor++;
+            } else if (nextChar == '$') {
+                cursor++;
+                if (cursor == replacement.length()) {
+                    throw new IllegalArgumentException("Illegal group reference: group index is missing");
+                }
+                nextChar = replacement.charAt(cursor);
+
+                final String group;
+                if (nextChar == '{') {
+                    cursor++;
+                    final StringBuilder groupName = new StringBuilder();
+                    while (cursor < replacement.length() && replacement.charAt(cursor) != '}') {
+                        groupName.append(replacement.charAt(cursor));
+                        cursor++;
+                    }
+                    if (cursor == replacement.length()) {
+                        throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+                    }
+                    cursor++;
+                    group = matcher.group(groupName.toString());
+                } else {
+                    int groupNumber = nextChar - '0';
+                    if (groupNumber < 0 || groupNumber > 9) {
+                        throw new IllegalArgumentException("Illegal group reference");
+                    }
+                    cursor++;
+
+                    // Use as many digits as refer to an existing group
+                    while (cursor < replacement.length()) {
+                        final int nextDigit = replacement.charAt(cursor) - '0';
+                        if (nextDigit < 0 || nextDigit > 9) {
+                            break;
+                        }
+                        final int newGroupNumber = groupNumber * 10 + nextDigit;
+                        if (matcher.groupCount() < newGroupNumber) {
+                            break;
+                        }
+                        groupNumber = newGroupNumber;
+                        cursor++;
+                    }
+                    group = matcher.group(groupNumber);
+                }
+
+                if (group != null) {
+                    out.append(group);
+                }
+            } else {
+                out.append(nextChar);
+                cursor++;
+            }
+        }
+    }
+
+    /**
+     * Receives the text that is read by a {@link StreamingRegexMatcher}
+     */
+    public interface MatchHandler {
+
+        /**
+         * Receives text that is not part of any match
+         *
+         * @param text the text, which is only valid until this method returns
+         * @param start the index of the first character of the unmatched text
+         * @param end the index after the last character of the unmatched text
+         * @throws IOException if unable to handle the text
+         */
+        void unmatched(CharSequence text, int start, int end) throws IOException;
+
+        /**
+         * Receives a match
+         *
+         * @param matcher the matcher whose current match is to be handled, which is only valid until this method returns
+         * @return <code>true</code> to continue finding matches, <code>false</code> to stop reading the text
+         * @throws IOException if unable to handle the match
+         */
+        boolean matched(Matcher matcher) throws IOException;
+    }
+}
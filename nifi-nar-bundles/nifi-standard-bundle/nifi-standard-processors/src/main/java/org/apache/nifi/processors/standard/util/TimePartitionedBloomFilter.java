@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+/**
+ * <p>
+ * A Bloom filter of identifiers that grows as identifiers are added and forgets identifiers once they have aged off.
+ * </p>
+ *
+ * <p>
+ * Time is divided into generations, each covering an equal part of the age-off duration, and each identifier is added to the
+ * generation in which it was added. A generation is discarded once all of its identifiers are older than the age-off duration, so an
+ * identifier is remembered for at least the age-off duration and at most one more generation. If there is no age-off duration, there is
+ * only ever one generation.
+ * </p>
+ *
+ * <p>
+ * Each generation starts with a filter sized for its share of the expected number of identifiers. When that filter is full, another filter
+ * of twice the size and half the false positive probability is added to the generation, so that the false positive probability stays
+ * within the configured bound however many identifiers are added.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public class TimePartitionedBloomFilter {
+
+    private final long ageOffMillis;
+    private final long generationMillis;
+    private final long generationCapacity;
+    private final double generationFalsePositiveProbability;
+
+    private final LinkedList<Generation> generations = new LinkedList<>();
+
+    /**
+     * @param expectedInsertions the number of distinct identifiers that are expected to be added within the age-off duration, or in total if
+     *            there is no age-off duration
+     * @param falsePositiveProbability the maximum probability that an identifier that was not added is reported as having been added
+     * @param ageOffMillis the amount of time for which to remember an identifier, or a value less than 1 to remember identifiers until the
+     *            filter is discarded
+     * @param partitions the number of generations to divide the age-off duration into
+     */
+    public TimePartitionedBloomFilter(final long expectedInsertions, final double falsePositiveProbability, final long ageOffMillis, final int partitions) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveProbability <= 0D || falsePositiveProbability >= 1D) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+        }
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must be positive");
+        }
+
+        this.ageOffMillis = ageOffMillis;
+        if (ageOffMillis > 0) {
+            this.generationMillis = Math.max(1L, ageOffMillis / partitions);
+            this.generationCapacity = Math.max(1L, expectedInsertions / partitions);
+
+            // An identifier is checked against every live generation, of which there may be one more than the number of partitions
+            this.generationFalsePositiveProbability = falsePositiveProbability / (partitions + 1);
+        } else {
+            this.generationMillis = Long.MAX_VALUE;
+            this.generationCapacity = expectedInsertions;
+            this.generationFalsePositiveProbability = falsePositiveProbability;
+        }
+    }
+
+    /**
+     * @param identifier the identifier to check
+     * @param now the current time, in milliseconds
+     * @return <code>true</code> if the identifier has probably been added within the age-off duration, <code>false</code> if it definitely has not
+     */
+    public synchronized boolean mightContain(final String identifier, final long now) {
+        ageOff(now);
+        for (final Generation generation : generations) {
+            if (generation.mightContain(identifier)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the given identifier unless it has probably been added within the age-off duration
+     *
+     * @param identifier the identifier to add
+     * @param now the current time, in milliseconds
+     * @return <code>true</code> if the identifier was added, <code>false</code> if it has probably been added already
+     */
+    public synchronized boolean putIfAbsent(final String identifier, final long now) {
+        if (mightContain(identifier, now)) {
+            return false;
+        }
+
+        Generation current = generations.peekLast();
+        if (current == null || now - current.startMillis >= generationMillis) {
+            current = new Generation(now);
+            generations.addLast(current);
+        }
+
+        current.put(identifier);
+        return true;
+    }
+
+    /**
+     * @return the number of generations that are currently held
+     */
+    public synchronized int getGenerationCount() {
+        return generations.size();
+    }
+
+    /**
+     * @return the total number of identifiers added to the generations that are currently held
+     */
+    public synchronized long getInsertionCount() {
+        long count = 0L;
+        for (final Generation generation : generations) {
+            count += generation.insertions;
+        }
+        return count;
+    }
+
+    private void ageOff(final long now) {
+        if (ageOffMillis <= 0) {
+            return;
+        }
+
+        final Iterator<Generation> itr = generations.iterator();
+        while (itr.hasNext()) {
+            final Generation generation = itr.next();
+            if (generation.startMillis + generationMillis + ageOffMillis > now) {
+                break;
+            }
+            itr.remove();
+        }
+    }
+
+    private class Generation {
+        private final long startMillis;
+        private final List<BloomFilter<CharSequence>> filters = new ArrayList<>();
+        private long capacity;
+        private double falsePositiveProbability;
+        private long currentInsertions;
+        private long insertions;
+
+        Generation(final long startMillis) {
+            this.startMillis = startMillis;
+
+            // The false positive probabilities of the filters form a geometric series that sums to the generation's probability
+            this.capacity = generationCapacity;
+            this.falsePositiveProbability = generationFalsePositiveProbability / 2D;
+            filters.add(createFilter());
+        }
+
+        private BloomFilter<CharSequence> createFilter() {
+            return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), (int) Math.min(capacity, Integer.MAX_VALUE), falsePositiveProbability);
+        }
+
+        boolean mightContain(final String identifier) {
+            for (final BloomFilter<CharSequence> filter : filters) {
+                if (filter.mightContain(identifier)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void put(final String identifier) {
+            if (currentInsertions >= capacity) {
+                capacity = capacity * 2;
+                falsePositiveProbability = falsePositiveProbability / 2D;
+                filters.add(createFilter());
+                currentInsertions = 0L;
+            }
+
+            filters.get(filters.size() - 1).put(identifier);
+            currentInsertions++;
+            insertions++;
+        }
+    }
+}
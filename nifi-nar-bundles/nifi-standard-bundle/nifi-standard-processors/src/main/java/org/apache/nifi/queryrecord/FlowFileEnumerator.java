@@ -18,6 +18,7 @@
 package org.apache.nifi.queryrecord;
 
 import java.io.InputStream;
+import java.util.Set;
 
 import org.apache.calcite.linq4j.Enumerator;
 import org.apache.nifi.flowfile.FlowFile;
@@ -34,6 +35,7 @@ public class FlowFileEnumerator<InternalType> implements Enumerator<Object> {
     private final ComponentLog logger;
     private final RecordReaderFactory recordParserFactory;
     private final int[] fields;
+    private final Set<String> projectedFields;
 
     private InputStream rawIn;
     private Object currentRow;
@@ -41,11 +43,21 @@ public class FlowFileEnumerator<InternalType> implements Enumerator<Object> {
     private int recordsRead = 0;
 
     public FlowFileEnumerator(final ProcessSession session, final FlowFile flowFile, final ComponentLog logger, final RecordReaderFactory parserFactory, final int[] fields) {
+        this(session, flowFile, logger, parserFactory, fields, null);
+    }
+
+    /**
+     * @param projectedFields the names of the fields that are referenced by <code>fields</code>, which are passed to the Record Reader so that
+     *            it may avoid parsing any other field, or <code>null</code> if all fields should be read
+     */
+    public FlowFileEnumerator(final ProcessSession session, final FlowFile flowFile, final ComponentLog logger, final RecordReaderFactory parserFactory, final int[] fields,
+        final Set<String> projectedFields) {
         this.session = session;
         this.flowFile = flowFile;
         this.recordParserFactory = parserFactory;
         this.logger = logger;
         this.fields = fields;
+        this.projectedFields = projectedFields;
         reset();
     }
 
@@ -132,7 +144,7 @@ public class FlowFileEnumerator<InternalType> implements Enumerator<Object> {
         rawIn = session.read(flowFile);
 
         try {
-            recordParser = recordParserFactory.createRecordReader(flowFile, rawIn, logger);
+            recordParser = recordParserFactory.createRecordReader(flowFile, rawIn, logger, projectedFields);
         } catch (final Exception e) {
             throw new ProcessException("Failed to reset stream", e);
         }
@@ -20,7 +20,9 @@ import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.calcite.adapter.java.JavaTypeFactory;
 import org.apache.calcite.linq4j.AbstractEnumerable;
@@ -96,7 +98,7 @@ public class FlowFileTable<S, E> extends AbstractTable implements QueryableTable
             @Override
             @SuppressWarnings({"unchecked", "rawtypes"})
             public Enumerator<Object> enumerator() {
-                return new FlowFileEnumerator(session, flowFile, logger, recordParserFactory, fields) {
+                return new FlowFileEnumerator(session, flowFile, logger, recordParserFactory, fields, getProjectedFieldNames(fields)) {
                     @Override
                     protected void onFinish() {
                         final int recordCount = getRecordsRead();
@@ -109,6 +111,19 @@ public class FlowFileTable<S, E> extends AbstractTable implements QueryableTable
         };
     }
 
+    private Set<String> getProjectedFieldNames(final int[] fields) {
+        if (fields == null || recordSchema == null) {
+            return null;
+        }
+
+        final Set<String> fieldNames = new HashSet<>();
+        for (final int field : fields) {
+            fieldNames.add(recordSchema.getField(field).getFieldName());
+        }
+
+        return fieldNames;
+    }
+
     public int getRecordsRead() {
         return maxRecordsRead;
     }
@@ -253,4 +253,34 @@ public class TestCompressContent {
 
         runner.getFlowFilesForRelationship(CompressContent.REL_FAILURE).get(0).assertContentEquals(data);
     }
+
+    @Test
+    public void testParallelCompress() throws Exception {
+        for (final String format : new String[] {CompressContent.COMPRESSION_FORMAT_GZIP, CompressContent.COMPRESSION_FORMAT_BZIP2,
+            CompressContent.COMPRESSION_FORMAT_XZ_LZMA2}) {
+
+            final TestRunner compressRunner = TestRunners.newTestRunner(CompressContent.class);
+            compressRunner.setProperty(CompressContent.MODE, CompressContent.MODE_COMPRESS);
+            compressRunner.setProperty(CompressContent.COMPRESSION_FORMAT, format);
+            compressRunner.setProperty(CompressContent.COMPRESSION_THREADS, "4");
+            compressRunner.setProperty(CompressContent.PARALLEL_BLOCK_SIZE, "1 KB");
+
+            compressRunner.enqueue(Paths.get("src/test/resources/CompressedData/SampleFile.txt"));
+            compressRunner.enqueue(new byte[0]);
+            compressRunner.run(2);
+            compressRunner.assertAllFlowFilesTransferred(CompressContent.REL_SUCCESS, 2);
+
+            final TestRunner decompressRunner = TestRunners.newTestRunner(CompressContent.class);
+            decompressRunner.setProperty(CompressContent.MODE, CompressContent.MODE_DECOMPRESS);
+            decompressRunner.setProperty(CompressContent.COMPRESSION_FORMAT, format);
+            for (final MockFlowFile compressed : compressRunner.getFlowFilesForRelationship(CompressContent.REL_SUCCESS)) {
+                decompressRunner.enqueue(compressed.toByteArray());
+            }
+            decompressRunner.run(2);
+
+            decompressRunner.assertAllFlowFilesTransferred(CompressContent.REL_SUCCESS, 2);
+            decompressRunner.getFlowFilesForRelationship(CompressContent.REL_SUCCESS).get(0).assertContentEquals(Paths.get("src/test/resources/CompressedData/SampleFile.txt"));
+            decompressRunner.getFlowFilesForRelationship(CompressContent.REL_SUCCESS).get(1).assertContentEquals(new byte[0]);
+        }
+    }
 }
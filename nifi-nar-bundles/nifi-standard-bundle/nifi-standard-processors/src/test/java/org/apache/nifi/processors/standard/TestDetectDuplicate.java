@@ -18,6 +18,7 @@ package org.apache.nifi.processors.standard;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -145,6 +146,45 @@ public class TestDetectDuplicate {
         runner.assertTransferCount(DetectDuplicate.REL_FAILURE, 0);
     }
 
+    @Test
+    public void testBloomFilter() {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        runner.setProperty(DetectDuplicate.DETECTION_MODE, DetectDuplicate.MODE_BLOOM_FILTER.getValue());
+        runner.setProperty(DetectDuplicate.BLOOM_FILTER_EXPECTED_ENTRIES, "1000");
+        runner.setProperty(DetectDuplicate.AGE_OFF_DURATION, "48 hours");
+        runner.assertValid();
+
+        for (int i = 0; i < 100; i++) {
+            runner.enqueue(new byte[]{}, Collections.singletonMap("hash.value", String.valueOf(i)));
+        }
+        runner.run(100);
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_NON_DUPLICATE, 100);
+        runner.clearTransferState();
+
+        // the filter is retained while the processor is stopped
+        runner.enqueue(new byte[]{}, Collections.singletonMap("hash.value", "50"));
+        runner.run();
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_DUPLICATE, 1);
+        runner.getFlowFilesForRelationship(DetectDuplicate.REL_DUPLICATE).get(0).assertAttributeNotExists(DetectDuplicate.ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME);
+        runner.clearTransferState();
+
+        runner.setProperty(DetectDuplicate.CACHE_IDENTIFIER, "false");
+        runner.enqueue(new byte[]{}, Collections.singletonMap("hash.value", "not-cached"));
+        runner.enqueue(new byte[]{}, Collections.singletonMap("hash.value", "not-cached"));
+        runner.run(2);
+        runner.assertAllFlowFilesTransferred(DetectDuplicate.REL_NON_DUPLICATE, 2);
+    }
+
+    @Test
+    public void testDistributedCacheServiceRequired() {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        runner.assertNotValid();
+        runner.setProperty(DetectDuplicate.DETECTION_MODE, DetectDuplicate.MODE_BLOOM_FILTER.getValue());
+        runner.assertValid();
+        runner.setProperty(DetectDuplicate.BLOOM_FILTER_FALSE_POSITIVE_PROBABILITY, "1");
+        runner.assertNotValid();
+    }
+
     @Test
     public void testDuplicateNoCacheWithAgeOff() throws InitializationException, InterruptedException {
 
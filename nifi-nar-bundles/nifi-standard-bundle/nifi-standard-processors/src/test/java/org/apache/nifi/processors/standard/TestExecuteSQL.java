@@ -36,6 +36,7 @@ import org.apache.avro.io.DatumReader;
 import org.apache.nifi.controller.AbstractControllerService;
 import org.apache.nifi.dbcp.DBCPService;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processors.standard.util.JdbcCommon;
 import org.apache.nifi.processors.standard.util.TestJdbcHugeStream;
 import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.util.MockFlowFile;
@@ -143,6 +144,13 @@ public class TestExecuteSQL {
         invokeOnTrigger(1, QUERY_WITH_EL, true, true); // 1 second max time
     }
 
+    @Test
+    public void testFetchAhead() throws InitializationException, ClassNotFoundException, SQLException, IOException {
+        runner.setProperty(ExecuteSQL.FETCH_SIZE, "500");
+        runner.setProperty(JdbcCommon.FETCH_AHEAD_ROWS, "1000");
+        invokeOnTrigger(null, QUERY_WITH_EL, true, true);
+    }
+
     @Test
     public void testWithNullIntColumn() throws SQLException {
         // remove previous test database, if any
@@ -448,4 +448,33 @@ public class TestExtractText {
         // Validation should fail because nothing will match
         testRunner.run();
     }
+
+    @Test
+    public void testStreamingEvaluation() throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("filler line ").append(i).append("\n");
+        }
+        sb.append("id=12345\nid=67890\n");
+
+        final TestRunner testRunner = TestRunners.newTestRunner(new ExtractText());
+        testRunner.setProperty("regex.result", "id=(\\d+)");
+        testRunner.setProperty(ExtractText.MAX_BUFFER_SIZE, "32 B");
+        testRunner.setProperty(ExtractText.ENABLE_REPEATING_CAPTURE_GROUP, "true");
+
+        // Without streaming, the match is beyond the buffered part of the content
+        testRunner.enqueue(sb.toString().getBytes("UTF-8"));
+        testRunner.run();
+        testRunner.assertAllFlowFilesTransferred(ExtractText.REL_NO_MATCH, 1);
+        testRunner.clearTransferState();
+
+        testRunner.setProperty(ExtractText.STREAMING_EVALUATION, "true");
+        testRunner.enqueue(sb.toString().getBytes("UTF-8"));
+        testRunner.run();
+        testRunner.assertAllFlowFilesTransferred(ExtractText.REL_MATCH, 1);
+        final MockFlowFile out = testRunner.getFlowFilesForRelationship(ExtractText.REL_MATCH).get(0);
+        out.assertAttributeEquals("regex.result", "12345");
+        out.assertAttributeEquals("regex.result.1", "12345");
+        out.assertAttributeEquals("regex.result.2", "67890");
+    }
 }
@@ -483,6 +483,105 @@ public class TestGenerateTableFetch {
         runner.clearTransferState();
     }
 
+    @Test
+    public void testColumnValuesForPartitioning() throws ClassNotFoundException, SQLException, InitializationException, IOException {
+
+        // load test data to database
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table TEST_QUERY_DB_TABLE");
+        } catch (final SQLException sqle) {
+            // Ignore this error, probably a "table does not exist" since Derby doesn't yet support DROP IF EXISTS [DERBY-4842]
+        }
+
+        stmt.execute("create table TEST_QUERY_DB_TABLE (id integer not null, bucket integer not null)");
+        for (int i = 0; i < 100; i++) {
+            stmt.execute("insert into TEST_QUERY_DB_TABLE (id, bucket) VALUES (" + i + ", 0)");
+        }
+
+        runner.setProperty(GenerateTableFetch.TABLE_NAME, "TEST_QUERY_DB_TABLE");
+        runner.setIncomingConnection(false);
+        runner.setProperty(GenerateTableFetch.MAX_VALUE_COLUMN_NAMES, "ID");
+        runner.setProperty(GenerateTableFetch.PARTITION_SIZE, "25");
+        runner.setProperty(GenerateTableFetch.COLUMN_FOR_VALUE_PARTITIONING, "ID");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(GenerateTableFetch.REL_SUCCESS, 4);
+        final String[] expectedQueries = {
+                "SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID <= 99 AND ID < 25 ORDER BY ID",
+                "SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID <= 99 AND ID >= 25 AND ID < 50 ORDER BY ID",
+                "SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID <= 99 AND ID >= 50 AND ID < 75 ORDER BY ID",
+                "SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID <= 99 AND ID >= 75 ORDER BY ID"};
+        for (int i = 0; i < expectedQueries.length; i++) {
+            final MockFlowFile flowFile = runner.getFlowFilesForRelationship(GenerateTableFetch.REL_SUCCESS).get(i);
+            flowFile.assertContentEquals(expectedQueries[i]);
+            flowFile.assertAttributeNotExists("generatetablefetch.offset");
+            assertEquals(25, countRows(stmt, expectedQueries[i]));
+        }
+        runner.clearTransferState();
+
+        // Add new rows, only the new range of values is partitioned
+        for (int i = 100; i < 150; i++) {
+            stmt.execute("insert into TEST_QUERY_DB_TABLE (id, bucket) VALUES (" + i + ", 0)");
+        }
+        runner.run();
+        runner.assertAllFlowFilesTransferred(GenerateTableFetch.REL_SUCCESS, 2);
+        runner.getFlowFilesForRelationship(GenerateTableFetch.REL_SUCCESS).get(0)
+                .assertContentEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID > 99 AND ID <= 149 AND ID < 125 ORDER BY ID");
+        runner.getFlowFilesForRelationship(GenerateTableFetch.REL_SUCCESS).get(1)
+                .assertContentEquals("SELECT * FROM TEST_QUERY_DB_TABLE WHERE ID > 99 AND ID <= 149 AND ID >= 125 ORDER BY ID");
+        runner.clearTransferState();
+    }
+
+    @Test
+    public void testColumnValuesForPartitioningWithNulls() throws ClassNotFoundException, SQLException, InitializationException, IOException {
+
+        // load test data to database
+        final Connection con = ((DBCPService) runner.getControllerService("dbcp")).getConnection();
+        Statement stmt = con.createStatement();
+
+        try {
+            stmt.execute("drop table TEST_QUERY_DB_TABLE");
+        } catch (final SQLException sqle) {
+            // Ignore this error, probably a "table does not exist" since Derby doesn't yet support DROP IF EXISTS [DERBY-4842]
+        }
+
+        stmt.execute("create table TEST_QUERY_DB_TABLE (id integer not null, score integer)");
+        for (int i = 0; i < 13; i++) {
+            stmt.execute("insert into TEST_QUERY_DB_TABLE (id, score) VALUES (" + i + ", " + (i < 10 ? String.valueOf(i) : "null") + ")");
+        }
+
+        runner.setProperty(GenerateTableFetch.TABLE_NAME, "TEST_QUERY_DB_TABLE");
+        runner.setIncomingConnection(false);
+        runner.setProperty(GenerateTableFetch.PARTITION_SIZE, "5");
+        runner.setProperty(GenerateTableFetch.COLUMN_FOR_VALUE_PARTITIONING, "SCORE");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(GenerateTableFetch.REL_SUCCESS, 3);
+        final String[] expectedQueries = {
+                "SELECT * FROM TEST_QUERY_DB_TABLE WHERE SCORE < 5",
+                "SELECT * FROM TEST_QUERY_DB_TABLE WHERE SCORE >= 5",
+                "SELECT * FROM TEST_QUERY_DB_TABLE WHERE SCORE IS NULL"};
+        final int[] expectedRows = {5, 5, 3};
+        for (int i = 0; i < expectedQueries.length; i++) {
+            runner.getFlowFilesForRelationship(GenerateTableFetch.REL_SUCCESS).get(i).assertContentEquals(expectedQueries[i]);
+            assertEquals(expectedRows[i], countRows(stmt, expectedQueries[i]));
+        }
+        runner.clearTransferState();
+    }
+
+    private static int countRows(final Statement stmt, final String query) throws SQLException {
+        int count = 0;
+        try (final ResultSet resultSet = stmt.executeQuery(query)) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Test
     public void testMultiplePartitionsIncomingFlowFiles() throws ClassNotFoundException, SQLException, InitializationException, IOException {
 
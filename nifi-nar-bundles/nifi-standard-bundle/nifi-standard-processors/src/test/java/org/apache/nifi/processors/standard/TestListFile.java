@@ -555,6 +555,141 @@ public class TestListFile {
         assertEquals(1, successFiles2.size());
     }
 
+    @Test
+    public void testRecurseWithScanThreads() throws Exception {
+        final long now = getTestModifiedTime();
+
+        final List<File> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final File subdir = new File(TESTDIR + "/subdir" + i + "/nested" + i);
+            assertTrue(subdir.mkdirs());
+            for (final File dir : new File[] {subdir, subdir.getParentFile()}) {
+                final File file = new File(dir, dir.getName() + ".txt");
+                assertTrue(file.createNewFile());
+                assertTrue(file.setLastModified(now));
+                expected.add(file);
+            }
+        }
+
+        runner.setProperty(ListFile.DIRECTORY, testDir.getAbsolutePath());
+        runner.setProperty(ListFile.RECURSE, "true");
+        runner.setProperty(ListFile.SCAN_THREADS, "4");
+        runNext();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, expected.size());
+
+        final Set<String> listed = runner.getFlowFilesForRelationship(ListFile.REL_SUCCESS).stream()
+            .map(mff -> mff.getAttribute(CoreAttributes.ABSOLUTE_PATH.key()) + mff.getAttribute(CoreAttributes.FILENAME.key()))
+            .collect(Collectors.toSet());
+        assertEquals(expected.stream().map(File::getAbsolutePath).collect(Collectors.toSet()), listed);
+    }
+
+    @Test
+    public void testTrackingEntities() throws Exception {
+        final long now = getTestModifiedTime();
+
+        final File file1 = new File(TESTDIR + "/file1.txt");
+        assertTrue(file1.createNewFile());
+        assertTrue(file1.setLastModified(now));
+
+        runner.setProperty(ListFile.DIRECTORY, testDir.getAbsolutePath());
+        runner.setProperty(AbstractListProcessor.LISTING_STRATEGY, AbstractListProcessor.BY_ENTITIES.getValue());
+        runner.setProperty(AbstractListProcessor.ENTITY_INDEX_DIRECTORY, new File("target/test/index").getAbsolutePath());
+        runner.setProperty(ListFile.LISTING_MODE, ListFile.LISTING_MODE_WATCH.getValue());
+        runner.assertNotValid();
+        runner.setProperty(ListFile.LISTING_MODE, ListFile.LISTING_MODE_FULL_SCAN.getValue());
+
+        runNext();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 1);
+
+        // a file moved in with an older timestamp is listed, as is a file that is modified
+        final File file2 = new File(TESTDIR + "/file2.txt");
+        assertTrue(file2.createNewFile());
+        assertTrue(file2.setLastModified(now - 60_000L));
+        try (final FileOutputStream out = new FileOutputStream(file1)) {
+            out.write(1);
+        }
+        assertTrue(file1.setLastModified(now));
+
+        runNext();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 2);
+
+        runNext();
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 0);
+    }
+
+    @Test
+    public void testWatchForChanges() throws Exception {
+        final long lagMillis = AbstractListProcessor.LISTING_LAG_MILLIS.get(TimeUnit.SECONDS) * 2;
+
+        final File file1 = new File(TESTDIR + "/file1.txt");
+        assertTrue(file1.createNewFile());
+        assertTrue(file1.setLastModified(getTestModifiedTime()));
+
+        runner.setProperty(ListFile.DIRECTORY, testDir.getAbsolutePath());
+        runner.setProperty(ListFile.RECURSE, "true");
+        runner.setProperty(ListFile.LISTING_MODE, ListFile.LISTING_MODE_WATCH.getValue());
+
+        // the first listing scans all of the directories
+        Thread.sleep(lagMillis);
+        runner.run(1, false, true);
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ListFile.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "file1.txt");
+
+        // a file in a new subdirectory is found by listing the changed directories
+        final File subdir = new File(TESTDIR + "/subdir1/subdir2");
+        assertTrue(subdir.mkdirs());
+        final File file2 = new File(subdir, "file2.txt");
+        assertTrue(file2.createNewFile());
+        assertTrue(file2.setLastModified(getTestModifiedTime() + 1000L));
+
+        runner.clearTransferState();
+        Thread.sleep(lagMillis);
+        runner.run(1, false, false);
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 1);
+        final MockFlowFile flowFile = runner.getFlowFilesForRelationship(ListFile.REL_SUCCESS).get(0);
+        flowFile.assertAttributeEquals(CoreAttributes.FILENAME.key(), "file2.txt");
+        flowFile.assertAttributeEquals(CoreAttributes.PATH.key(), "subdir1" + File.separator + "subdir2" + File.separator);
+
+        // nothing changed
+        runner.clearTransferState();
+        Thread.sleep(lagMillis);
+        runner.run(1, true, false);
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 0);
+    }
+
+    @Test
+    public void testWatchForChangesOfMissingDirectory() throws Exception {
+        final long lagMillis = AbstractListProcessor.LISTING_LAG_MILLIS.get(TimeUnit.SECONDS) * 2;
+
+        // the directory does not exist yet, which results in empty listings
+        final File subdir = new File(TESTDIR + "/subdir1");
+        runner.setProperty(ListFile.DIRECTORY, testDir.getAbsolutePath() + "/${literal('subdir1')}");
+        runner.setProperty(ListFile.LISTING_MODE, ListFile.LISTING_MODE_WATCH.getValue());
+        runner.run(1, false, true);
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 0);
+
+        // once the directory is created, its files are listed and changes are watched
+        assertTrue(subdir.mkdirs());
+        final File file1 = new File(subdir, "file1.txt");
+        assertTrue(file1.createNewFile());
+        assertTrue(file1.setLastModified(getTestModifiedTime()));
+
+        Thread.sleep(lagMillis);
+        runner.run(1, false, false);
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ListFile.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "file1.txt");
+
+        final File file2 = new File(subdir, "file2.txt");
+        assertTrue(file2.createNewFile());
+        assertTrue(file2.setLastModified(getTestModifiedTime() + 1000L));
+
+        runner.clearTransferState();
+        Thread.sleep(lagMillis);
+        runner.run(1, true, false);
+        runner.assertAllFlowFilesTransferred(ListFile.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ListFile.REL_SUCCESS).get(0).assertAttributeEquals(CoreAttributes.FILENAME.key(), "file2.txt");
+    }
+
     @Test
     public void testReadable() throws Exception {
         final long now = getTestModifiedTime();
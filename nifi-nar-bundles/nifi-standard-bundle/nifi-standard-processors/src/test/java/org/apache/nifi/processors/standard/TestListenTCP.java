@@ -107,6 +107,22 @@ public class TestListenTCP {
         mockFlowFile2.assertContentEquals("This is message 4\nThis is message 5");
     }
 
+    @Test
+    public void testListenTCPBatchingMessagesSplitAcrossWrites() throws IOException, InterruptedException {
+        runner.setProperty(ListenTCP.MAX_BATCH_SIZE, "10");
+
+        final List<String> messages = new ArrayList<>();
+        messages.add("This is mess");
+        messages.add("age 1\n\nThis is message 2\nThis is");
+        messages.add(" message 3\nThis is message 4\n");
+
+        runTCP(messages, 4, 1, null);
+
+        final MockFlowFile mockFlowFile = runner.getFlowFilesForRelationship(ListenTCP.REL_SUCCESS).get(0);
+        mockFlowFile.assertContentEquals("This is message 1\nThis is message 2\nThis is message 3\nThis is message 4");
+        Assert.assertEquals(4L, runner.getCounterValue("Messages Received").longValue());
+    }
+
     @Test
     public void testTLSClientAuthRequiredAndClientCertProvided() throws InitializationException, IOException, InterruptedException,
             UnrecoverableKeyException, CertificateException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
@@ -200,6 +216,11 @@ public class TestListenTCP {
 
     protected void runTCP(final List<String> messages, final int expectedTransferred, final SSLContext sslContext)
             throws IOException, InterruptedException {
+        runTCP(messages, messages.size(), expectedTransferred, sslContext);
+    }
+
+    protected void runTCP(final List<String> messages, final int expectedQueued, final int expectedTransferred, final SSLContext sslContext)
+            throws IOException, InterruptedException {
 
         Socket socket = null;
         try {
@@ -232,13 +253,13 @@ public class TestListenTCP {
             // number of messages ready before proceeding, we want to guarantee they are all there
             // before onTrigger gets a chance to run
             long startTimeQueueSizeCheck = System.currentTimeMillis();
-            while (proc.getQueueSize() < messages.size()
+            while (proc.getQueueSize() < expectedQueued
                     && (System.currentTimeMillis() - startTimeQueueSizeCheck < responseTimeout)) {
                 Thread.sleep(100);
             }
 
             // want to fail here if the queue size isn't what we expect
-            Assert.assertEquals(messages.size(), proc.getQueueSize());
+            Assert.assertEquals(expectedQueued, proc.getQueueSize());
 
             // call onTrigger until we processed all the frames, or a certain amount of time passes
             int numTransferred = 0;
@@ -21,8 +21,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.annotation.lifecycle.OnScheduled;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSessionFactory;
+import org.apache.nifi.processor.util.listen.ListenerProperties;
 import org.apache.nifi.processor.util.listen.dispatcher.ChannelDispatcher;
+import org.apache.nifi.processor.util.listen.dispatcher.DatagramChannelDispatcher;
+import org.apache.nifi.processor.util.listen.dispatcher.DatagramChannelDispatcherGroup;
 import org.apache.nifi.processor.util.listen.event.StandardEvent;
+import org.apache.nifi.processor.util.listen.event.StandardEventFactory;
 import org.apache.nifi.processor.util.listen.response.ChannelResponder;
 import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventType;
@@ -31,6 +35,7 @@ import org.apache.nifi.util.TestRunner;
 import org.apache.nifi.util.TestRunners;
 import org.junit.AfterClass;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -42,6 +47,7 @@ import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
@@ -88,6 +94,76 @@ public class TestListenUDP {
         runner.assertNotValid();
     }
 
+    @Test
+    public void testMultipleReceiversValidation() {
+        runner.setProperty(ListenUDP.PORT, "1");
+        runner.setProperty(ListenerProperties.UDP_RECEIVERS, "2");
+        if (DatagramChannelDispatcher.isReusePortSupported()) {
+            runner.assertValid();
+        } else {
+            runner.assertNotValid();
+        }
+    }
+
+    @Test
+    public void testMultipleReceivers() throws IOException, InterruptedException {
+        Assume.assumeTrue("SO_REUSEPORT is not supported on this platform", DatagramChannelDispatcher.isReusePortSupported());
+        runner.setProperty(ListenerProperties.UDP_RECEIVERS, "3");
+
+        final List<String> messages = getMessages(15);
+        run(new DatagramSocket(), messages, messages.size(), messages.size());
+        runner.assertAllFlowFilesTransferred(ListenUDP.REL_SUCCESS, messages.size());
+        verifyFlowFiles(runner.getFlowFilesForRelationship(ListenUDP.REL_SUCCESS));
+
+        long received = 0L;
+        for (int i = 1; i <= 3; i++) {
+            final Long receiverCount = runner.getCounterValue("Receiver " + i + " Datagrams Received");
+            received += receiverCount == null ? 0L : receiverCount;
+        }
+        Assert.assertEquals(messages.size(), received);
+    }
+
+    @Test
+    public void testReceiverGroupCounters() throws IOException, InterruptedException {
+        // a group with a single receiver does not need SO_REUSEPORT
+        proc = new SingleReceiverGroupListenUDP();
+        runner = TestRunners.newTestRunner(proc);
+        runner.setProperty(ListenUDP.PORT, String.valueOf(port));
+        runner.setProperty(ListenUDP.MAX_MESSAGE_QUEUE_SIZE, "5");
+
+        final DatagramSocket socket = new DatagramSocket();
+        try {
+            final ProcessSessionFactory processSessionFactory = runner.getProcessSessionFactory();
+            final ProcessContext context = runner.getProcessContext();
+            proc.onScheduled(context);
+
+            final InetSocketAddress destination = new InetSocketAddress("localhost", proc.getDispatcherPort());
+            for (final String message : getMessages(8)) {
+                final byte[] buffer = message.getBytes(StandardCharsets.UTF_8);
+                socket.send(new DatagramPacket(buffer, buffer.length, destination));
+                Thread.sleep(10);
+            }
+
+            // the receiver gives up on each datagram that does not fit in the queue after a short wait
+            final long timeout = System.currentTimeMillis() + 10000;
+            while (proc.getQueueSize() < 5 && System.currentTimeMillis() < timeout) {
+                Thread.sleep(100);
+            }
+            Thread.sleep(1000);
+
+            for (int i = 0; i < 5; i++) {
+                proc.onTrigger(context, processSessionFactory);
+            }
+        } finally {
+            proc.onUnscheduled();
+            IOUtils.closeQuietly(socket);
+        }
+
+        runner.assertAllFlowFilesTransferred(ListenUDP.REL_SUCCESS, 5);
+        Assert.assertEquals(Long.valueOf(5), runner.getCounterValue("Receiver 1 Datagrams Received"));
+        Assert.assertEquals(Long.valueOf(3), runner.getCounterValue("Receiver 1 Datagrams Dropped"));
+    }
+
     @Test
     public void testDefaultBehavior() throws IOException, InterruptedException {
         final List<String> messages = getMessages(15);
@@ -307,6 +383,18 @@ public class TestListenUDP {
         }
     }
 
+    // Extend ListenUDP to receive through a DatagramChannelDispatcherGroup without requiring SO_REUSEPORT
+    private static class SingleReceiverGroupListenUDP extends ListenUDP {
+
+        @Override
+        protected ChannelDispatcher createDispatcher(ProcessContext context, BlockingQueue<StandardEvent> events) throws IOException {
+            final DatagramChannelDispatcher<?> dispatcher = new DatagramChannelDispatcher<>(new StandardEventFactory(),
+                    createBufferPool(1, 1024), events, getLogger(), null, null);
+            return new DatagramChannelDispatcherGroup(Collections.<DatagramChannelDispatcher<?>>singletonList(dispatcher), "TestListenUDP");
+        }
+
+    }
+
     // Extend ListenUDP to mock the ChannelDispatcher and allow us to return staged events
     private static class MockListenUDP extends ListenUDP {
 
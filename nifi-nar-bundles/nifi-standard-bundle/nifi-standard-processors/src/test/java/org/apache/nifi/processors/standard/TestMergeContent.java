@@ -535,6 +535,82 @@ public class TestMergeContent {
         bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/plain-text");
     }
 
+    @Test
+    public void testStreamingBinaryConcatWithTextDelimiters() throws IOException, InterruptedException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MAX_BIN_AGE, "1 sec");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.STREAMING_MERGE, "true");
+        runner.setProperty(MergeContent.DELIMITER_STRATEGY, MergeContent.DELIMITER_STRATEGY_TEXT);
+        runner.setProperty(MergeContent.HEADER, "@");
+        runner.setProperty(MergeContent.DEMARCATOR, "#");
+        runner.setProperty(MergeContent.FOOTER, "$");
+
+        createFlowFiles(runner);
+        runner.run();
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        bundle.assertContentEquals("@Hello#, #World!$".getBytes("UTF-8"));
+        bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/plain-text");
+        bundle.assertAttributeEquals(MergeContent.MERGE_COUNT_ATTRIBUTE, "3");
+    }
+
+    @Test
+    public void testStreamingBinaryConcatMultipleBins() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.STREAMING_MERGE, "true");
+        runner.setProperty(MergeContent.CORRELATION_ATTRIBUTE_NAME, "group");
+        runner.setProperty(MergeContent.MIN_ENTRIES, "2");
+        runner.setProperty(MergeContent.MAX_ENTRIES, "2");
+        runner.setProperty(MergeContent.MAX_SIZE, "10 B");
+        runner.setProperty(MergeContent.DELIMITER_STRATEGY, MergeContent.DELIMITER_STRATEGY_TEXT);
+        runner.setProperty(MergeContent.DEMARCATOR, "${group}");
+
+        final Map<String, String> groupA = new HashMap<>();
+        groupA.put("group", "a");
+        final Map<String, String> groupB = new HashMap<>();
+        groupB.put("group", "b");
+
+        runner.enqueue("1".getBytes("UTF-8"), groupA);
+        runner.enqueue("2".getBytes("UTF-8"), groupB);
+        runner.enqueue("3".getBytes("UTF-8"), groupA);
+        runner.enqueue("4".getBytes("UTF-8"), groupB);
+        // too large for any bin, so it is merged on its own once its bin is complete
+        runner.enqueue("0123456789AB".getBytes("UTF-8"), groupA);
+        runner.run(3);
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 3);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 5);
+
+        final Set<String> merged = new HashSet<>();
+        for (final MockFlowFile bundle : runner.getFlowFilesForRelationship(MergeContent.REL_MERGED)) {
+            merged.add(new String(bundle.toByteArray(), "UTF-8"));
+        }
+        assertEquals(new HashSet<>(Arrays.asList("1a3", "2b4", "0123456789AB")), merged);
+    }
+
+    @Test
+    public void testStreamingMergeValidation() {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.STREAMING_MERGE, "true");
+        runner.assertValid();
+
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_ZIP);
+        runner.assertNotValid();
+
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.MERGE_STRATEGY, MergeContent.MERGE_STRATEGY_DEFRAGMENT);
+        runner.assertNotValid();
+    }
+
     @Test
     public void testSimpleBinaryConcatWithTextDelimitersHeaderOnly() throws IOException, InterruptedException {
         final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
@@ -19,13 +19,20 @@ package org.apache.nifi.processors.standard;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.nifi.reporting.InitializationException;
+import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.CommaSeparatedRecordReader;
 import org.apache.nifi.serialization.record.MockRecordWriter;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.TestRunner;
 import org.apache.nifi.util.TestRunners;
@@ -108,6 +115,63 @@ public class TestMergeRecord {
             .count());
     }
 
+    // Verify that FlowFiles are grouped by both schema and correlation attribute.
+    @Test
+    public void testDifferentSchemaWithCorrelation() {
+        runner.setProperty(MergeRecord.MIN_RECORDS, "2");
+        runner.setProperty(MergeRecord.MAX_RECORDS, "2");
+        runner.setProperty(MergeRecord.CORRELATION_ATTRIBUTE_NAME, "correlationId");
+
+        final Map<String, String> first = new HashMap<>();
+        first.put("correlationId", "1");
+        final Map<String, String> second = new HashMap<>();
+        second.put("correlationId", "12");
+
+        runner.enqueue("Name, Age\nJohn, 35", first);
+        runner.enqueue("Name, Age\nJane, 34", second);
+        runner.enqueue("Name, Color\nJane, Red", first);
+        runner.enqueue("Name, Age\nJack, 33", first);
+        runner.enqueue("Name, Color\nJohn, Blue", first);
+
+        runner.run(1, false, true);
+
+        runner.assertTransferCount(MergeRecord.REL_MERGED, 2);
+        runner.assertTransferCount(MergeRecord.REL_ORIGINAL, 4);
+        assertEquals(1, ((MergeRecord) runner.getProcessor()).getBinCount());
+
+        final List<MockFlowFile> mffs = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED);
+        assertEquals(1L, mffs.stream()
+            .filter(ff -> "header\nJohn,35\nJack,33\n".equals(new String(ff.toByteArray())))
+            .count());
+        assertEquals(1L, mffs.stream()
+            .filter(ff -> "header\nJane,Red\nJohn,Blue\n".equals(new String(ff.toByteArray())))
+            .count());
+
+        runner.run(1, true, false);
+    }
+
+    @Test
+    public void testSchemaTextBuiltOncePerSchemaInstance() {
+        final AtomicInteger schemaTextRequests = new AtomicInteger(0);
+        final List<RecordField> fields = Collections.singletonList(new RecordField("name", RecordFieldType.STRING.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields) {
+            @Override
+            public Optional<String> getSchemaText() {
+                schemaTextRequests.incrementAndGet();
+                return super.getSchemaText();
+            }
+        };
+
+        final MergeRecord processor = (MergeRecord) runner.getProcessor();
+        final MockFlowFile flowFile = new MockFlowFile(1L);
+        final String groupId = processor.getGroupId(runner.getProcessContext(), flowFile, schema, null);
+        assertEquals(groupId, processor.getGroupId(runner.getProcessContext(), flowFile, schema, null));
+        assertEquals(1, schemaTextRequests.get());
+
+        // a different instance of the same schema is still grouped with it
+        assertEquals(groupId, processor.getGroupId(runner.getProcessContext(), flowFile, new SimpleRecordSchema(fields), null));
+    }
+
     @Test
     public void testFailureToParse() {
         runner.setProperty(MergeRecord.MIN_RECORDS, "2");
@@ -228,6 +228,79 @@ public class TestPutSQL {
 
     }
 
+    @Test
+    public void testConcurrentBatches() throws InitializationException, ProcessException, SQLException, IOException {
+        final TestRunner runner = TestRunners.newTestRunner(PutSQL.class);
+        runner.addControllerService("dbcp", service);
+        runner.enableControllerService(service);
+        runner.setProperty(PutSQL.CONNECTION_POOL, "dbcp");
+        runner.setProperty(PutSQL.CONCURRENT_BATCHES, "3");
+        runner.setProperty(PutSQL.BATCH_SIZE, "100");
+
+        recreateTable("PERSONS", createPersons);
+
+        final byte[] data = "INSERT INTO PERSONS (ID, NAME, CODE) VALUES (?, 'Mark', ?)".getBytes();
+        for (int i = 1; i <= 50; i++) {
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put("sql.args.1.type", String.valueOf(Types.INTEGER));
+            attributes.put("sql.args.1.value", String.valueOf(i));
+            attributes.put("sql.args.2.type", String.valueOf(Types.INTEGER));
+            // every tenth FlowFile has a value that cannot be converted to the parameter type
+            attributes.put("sql.args.2.value", i % 10 == 0 ? "hello" : "84");
+            runner.enqueue(data, attributes);
+        }
+        runner.run();
+
+        runner.assertTransferCount(PutSQL.REL_FAILURE, 5);
+        runner.assertTransferCount(PutSQL.REL_SUCCESS, 45);
+        assertEquals(45L, runner.getCounterValue(PutSQL.BATCH_STATEMENTS_EXECUTED_COUNTER).longValue());
+        assertEquals(3L, runner.getCounterValue(PutSQL.BATCHES_EXECUTED_COUNTER).longValue());
+
+        try (final Connection conn = service.getConnection()) {
+            try (final Statement stmt = conn.createStatement()) {
+                final ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM PERSONS");
+                assertTrue(rs.next());
+                assertEquals(45, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentBatchesWithBadStatement() throws InitializationException, ProcessException, SQLException, IOException {
+        final TestRunner runner = TestRunners.newTestRunner(PutSQL.class);
+        runner.addControllerService("dbcp", service);
+        runner.enableControllerService(service);
+        runner.setProperty(PutSQL.CONNECTION_POOL, "dbcp");
+        runner.setProperty(PutSQL.CONCURRENT_BATCHES, "2");
+
+        recreateTable("PERSONS", createPersons);
+
+        runner.enqueue("INSERT INTO PERSONS (ID, NAME, CODE) VALUES (1, 'Mark', 84)".getBytes());
+        runner.enqueue("INSERT INTO PERSONS".getBytes()); // intentionally wrong syntax
+        runner.enqueue("INSERT INTO PERSONS (ID, NAME, CODE) VALUES (2, 'Tom', 3)".getBytes());
+        runner.run();
+
+        runner.assertTransferCount(PutSQL.REL_FAILURE, 1);
+        runner.assertTransferCount(PutSQL.REL_SUCCESS, 2);
+    }
+
+    @Test
+    public void testConcurrentBatchesValidation() throws InitializationException {
+        final TestRunner runner = TestRunners.newTestRunner(PutSQL.class);
+        runner.addControllerService("dbcp", service);
+        runner.enableControllerService(service);
+        runner.setProperty(PutSQL.CONNECTION_POOL, "dbcp");
+        runner.setProperty(PutSQL.CONCURRENT_BATCHES, "2");
+        runner.assertValid();
+
+        runner.setProperty(PutSQL.OBTAIN_GENERATED_KEYS, "true");
+        runner.assertNotValid();
+
+        runner.setProperty(PutSQL.OBTAIN_GENERATED_KEYS, "false");
+        runner.setProperty(RollbackOnFailure.ROLLBACK_ON_FAILURE, "true");
+        runner.assertNotValid();
+    }
+
     @Test
     public void testFailInMiddleWithBadParameterTypeRollbackOnFailure() throws InitializationException, ProcessException, SQLException, IOException {
         final TestRunner runner = TestRunners.newTestRunner(PutSQL.class);
@@ -1224,6 +1224,65 @@ public class TestReplaceText {
         out.assertContentEquals("WO$1R$2D");
     }
 
+    @Test
+    public void testStreamingMatchesEntireText() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sb.append("line ").append(i).append(": key=value").append(i % 7).append("\n");
+        }
+        final String content = sb.toString();
+
+        final TestRunner entireTextRunner = TestRunners.newTestRunner(new ReplaceText());
+        entireTextRunner.setValidateExpressionUsage(false);
+        entireTextRunner.setProperty(ReplaceText.SEARCH_VALUE, "key=(value\\d)");
+        entireTextRunner.setProperty(ReplaceText.REPLACEMENT_VALUE, "$1=key");
+        entireTextRunner.setProperty(ReplaceText.EVALUATION_MODE, ReplaceText.ENTIRE_TEXT);
+        entireTextRunner.enqueue(content);
+        entireTextRunner.run();
+        entireTextRunner.assertAllFlowFilesTransferred(ReplaceText.REL_SUCCESS, 1);
+        final String expected = new String(entireTextRunner.getFlowFilesForRelationship(ReplaceText.REL_SUCCESS).get(0).toByteArray(), StandardCharsets.UTF_8);
+
+        // A buffer far smaller than the content is only a bound on the length of a match
+        final TestRunner runner = TestRunners.newTestRunner(new ReplaceText());
+        runner.setValidateExpressionUsage(false);
+        runner.setProperty(ReplaceText.SEARCH_VALUE, "key=(value\\d)");
+        runner.setProperty(ReplaceText.REPLACEMENT_VALUE, "$1=key");
+        runner.setProperty(ReplaceText.EVALUATION_MODE, ReplaceText.STREAMING);
+        runner.setProperty(ReplaceText.MAX_BUFFER_SIZE, "64 B");
+        runner.enqueue(content);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ReplaceText.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ReplaceText.REL_SUCCESS).get(0).assertContentEquals(expected);
+    }
+
+    @Test
+    public void testStreamingLiteralReplace() {
+        final TestRunner runner = TestRunners.newTestRunner(new ReplaceText());
+        runner.setValidateExpressionUsage(false);
+        runner.setProperty(ReplaceText.SEARCH_VALUE, "a.b");
+        runner.setProperty(ReplaceText.REPLACEMENT_VALUE, "$1");
+        runner.setProperty(ReplaceText.REPLACEMENT_STRATEGY, ReplaceText.LITERAL_REPLACE);
+        runner.setProperty(ReplaceText.EVALUATION_MODE, ReplaceText.STREAMING);
+        runner.setProperty(ReplaceText.MAX_BUFFER_SIZE, "1 B");
+        runner.enqueue("a.b axb a.ba.b");
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ReplaceText.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ReplaceText.REL_SUCCESS).get(0).assertContentEquals("$1 axb $1$1");
+    }
+
+    @Test
+    public void testStreamingAppend() {
+        final TestRunner runner = TestRunners.newTestRunner(new ReplaceText());
+        runner.setValidateExpressionUsage(false);
+        runner.setProperty(ReplaceText.REPLACEMENT_VALUE, "!");
+        runner.setProperty(ReplaceText.REPLACEMENT_STRATEGY, ReplaceText.APPEND);
+        runner.setProperty(ReplaceText.EVALUATION_MODE, ReplaceText.STREAMING);
+        runner.enqueue("a\nb\n");
+        runner.run();
+        runner.assertAllFlowFilesTransferred(ReplaceText.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(ReplaceText.REL_SUCCESS).get(0).assertContentEquals("a\nb\n!");
+    }
+
     private String translateNewLines(final File file) throws IOException {
         return translateNewLines(file.toPath());
     }
@@ -24,6 +24,7 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -633,6 +634,45 @@ public class TestRouteText {
         outUnmatched.assertContentEquals("not match".getBytes("UTF-8"));
     }
 
+    @Test
+    public void testManyRules() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new RouteText());
+        runner.setProperty(RouteText.MATCH_STRATEGY, RouteText.CONTAINS);
+        for (int i = 0; i < 200; i++) {
+            runner.setProperty("rule" + i, "code=" + i + ";");
+        }
+        runner.setProperty("duplicate", "code=7;");
+
+        runner.enqueue("a code=7;\nb code=199; and code=0;\nc code=200;\n".getBytes("UTF-8"));
+        runner.run();
+
+        runner.assertTransferCount("rule7", 1);
+        runner.assertTransferCount("duplicate", 1);
+        runner.assertTransferCount("rule0", 1);
+        runner.assertTransferCount("rule199", 1);
+        runner.assertTransferCount("rule1", 0);
+        runner.assertTransferCount("unmatched", 1);
+        runner.assertTransferCount("original", 1);
+        runner.getFlowFilesForRelationship("rule0").get(0).assertContentEquals("b code=199; and code=0;\n");
+        runner.getFlowFilesForRelationship("duplicate").get(0).assertContentEquals("a code=7;\n");
+        runner.getFlowFilesForRelationship("unmatched").get(0).assertContentEquals("c code=200;\n");
+    }
+
+    @Test
+    public void testRulesUseFlowFileAttributes() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new RouteText());
+        runner.setProperty(RouteText.MATCH_STRATEGY, RouteText.STARTS_WITH);
+        runner.setProperty("simple", "${prefix}");
+
+        runner.enqueue("abc\nxyz".getBytes("UTF-8"), Collections.singletonMap("prefix", "ab"));
+        runner.enqueue("abc\nxyz".getBytes("UTF-8"), Collections.singletonMap("prefix", "xy"));
+        runner.run(2);
+
+        runner.assertTransferCount("simple", 2);
+        runner.getFlowFilesForRelationship("simple").get(0).assertContentEquals("abc\n");
+        runner.getFlowFilesForRelationship("simple").get(1).assertContentEquals("xyz");
+    }
+
     @Test
     public void testRouteOnPropertiesStartsWindowsNewLine() throws IOException {
         final TestRunner runner = TestRunners.newTestRunner(new RouteText());
@@ -871,6 +871,98 @@ public class TestSplitText {
         splitsWithoutHeader.get(1).assertContentEquals("\n\n4");
     }
 
+    @Test
+    public void testMaxSplitsPerSession() throws IOException {
+        final TestRunner unboundedRunner = TestRunners.newTestRunner(new SplitText());
+        unboundedRunner.setProperty(SplitText.HEADER_MARKER, "Head");
+        unboundedRunner.setProperty(SplitText.LINE_SPLIT_COUNT, "3");
+        unboundedRunner.setProperty(SplitText.FRAGMENT_MAX_SIZE, "40 B");
+        unboundedRunner.enqueue(TEST_INPUT_DATA);
+        unboundedRunner.run();
+        final List<MockFlowFile> expectedSplits = unboundedRunner.getFlowFilesForRelationship(SplitText.REL_SPLITS);
+
+        final TestRunner runner = TestRunners.newTestRunner(new SplitText());
+        runner.setProperty(SplitText.HEADER_MARKER, "Head");
+        runner.setProperty(SplitText.LINE_SPLIT_COUNT, "3");
+        runner.setProperty(SplitText.FRAGMENT_MAX_SIZE, "40 B");
+        runner.setProperty(SplitText.MAX_SPLITS_PER_SESSION, "2");
+        runner.enqueue(TEST_INPUT_DATA);
+
+        // the input is returned to the queue after each batch of splits
+        runner.run();
+        runner.assertTransferCount(SplitText.REL_SPLITS, 2);
+        runner.assertTransferCount(SplitText.REL_ORIGINAL, 0);
+        runner.assertQueueNotEmpty();
+
+        final int batches = (expectedSplits.size() + 1) / 2;
+        runner.run(batches - 1);
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(SplitText.REL_FAILURE, 0);
+        runner.assertTransferCount(SplitText.REL_ORIGINAL, 1);
+        runner.assertTransferCount(SplitText.REL_SPLITS, expectedSplits.size());
+
+        final List<MockFlowFile> splits = runner.getFlowFilesForRelationship(SplitText.REL_SPLITS);
+        final MockFlowFile original = runner.getFlowFilesForRelationship(SplitText.REL_ORIGINAL).get(0);
+        original.assertAttributeEquals(SplitText.FRAGMENT_COUNT, String.valueOf(expectedSplits.size()));
+        original.assertAttributeNotExists(SplitText.CONTINUATION_OFFSET);
+        original.assertAttributeNotExists(SplitText.CONTINUATION_FRAGMENT_ID);
+        for (int i = 0; i < expectedSplits.size(); i++) {
+            final MockFlowFile expected = expectedSplits.get(i);
+            final MockFlowFile split = splits.get(i);
+            split.assertContentEquals(expected.toByteArray());
+            split.assertAttributeEquals(SplitText.FRAGMENT_INDEX, expected.getAttribute(SplitText.FRAGMENT_INDEX));
+            split.assertAttributeEquals(SplitText.FRAGMENT_COUNT, expected.getAttribute(SplitText.FRAGMENT_COUNT));
+            split.assertAttributeEquals(SplitText.SPLIT_LINE_COUNT, expected.getAttribute(SplitText.SPLIT_LINE_COUNT));
+            split.assertAttributeEquals(SplitText.FRAGMENT_ID, original.getAttribute(SplitText.FRAGMENT_ID));
+            assertNoContinuationAttributes(split);
+        }
+    }
+
+    @Test
+    public void testSplitsOfContinuedFlowFileCanBeSplitAgain() {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 20; i++) {
+            input.append("line").append(i).append('\n');
+        }
+
+        final TestRunner firstRunner = TestRunners.newTestRunner(new SplitText());
+        firstRunner.setProperty(SplitText.LINE_SPLIT_COUNT, "5");
+        firstRunner.setProperty(SplitText.MAX_SPLITS_PER_SESSION, "2");
+        firstRunner.enqueue(input.toString());
+        firstRunner.run(2);
+        firstRunner.assertQueueEmpty();
+        firstRunner.assertTransferCount(SplitText.REL_SPLITS, 4);
+
+        final TestRunner secondRunner = TestRunners.newTestRunner(new SplitText());
+        secondRunner.setProperty(SplitText.LINE_SPLIT_COUNT, "1");
+        for (final MockFlowFile split : firstRunner.getFlowFilesForRelationship(SplitText.REL_SPLITS)) {
+            assertNoContinuationAttributes(split);
+            secondRunner.enqueue(split.toByteArray(), split.getAttributes());
+        }
+        secondRunner.run(4);
+        secondRunner.assertQueueEmpty();
+        secondRunner.assertTransferCount(SplitText.REL_FAILURE, 0);
+        secondRunner.assertTransferCount(SplitText.REL_ORIGINAL, 4);
+        secondRunner.assertTransferCount(SplitText.REL_SPLITS, 20);
+
+        final List<MockFlowFile> splits = secondRunner.getFlowFilesForRelationship(SplitText.REL_SPLITS);
+        for (int i = 0; i < splits.size(); i++) {
+            final MockFlowFile split = splits.get(i);
+            split.assertContentEquals("line" + (i + 1));
+            split.assertAttributeEquals(SplitText.FRAGMENT_INDEX, String.valueOf(i % 5 + 1));
+            split.assertAttributeEquals(SplitText.FRAGMENT_COUNT, "5");
+        }
+    }
+
+    private void assertNoContinuationAttributes(final MockFlowFile flowFile) {
+        flowFile.assertAttributeNotExists(SplitText.CONTINUATION_FRAGMENT_ID);
+        flowFile.assertAttributeNotExists(SplitText.CONTINUATION_FRAGMENT_COUNT);
+        flowFile.assertAttributeNotExists(SplitText.CONTINUATION_FRAGMENT_INDEX);
+        flowFile.assertAttributeNotExists(SplitText.CONTINUATION_OFFSET);
+        flowFile.assertAttributeNotExists(SplitText.CONTINUATION_HEADER_LENGTH);
+        flowFile.assertAttributeNotExists(SplitText.CONTINUATION_HEADER_TRIMMED_LENGTH);
+    }
+
     @Test
     public void testWithEmptyHeaderLines() {
         final TestRunner splitRunner = TestRunners.newTestRunner(new SplitText());
@@ -30,16 +30,23 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.nifi.components.state.Scope;
 import org.apache.nifi.components.state.StateMap;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processors.standard.TailFile.TailFileState;
 import org.apache.nifi.state.MockStateManager;
 import org.apache.nifi.util.MockFlowFile;
@@ -113,6 +120,7 @@ public class TestTailFile {
         }
 
         processor.cleanup();
+        processor.stopReaders();
     }
 
     @Test
@@ -791,6 +799,119 @@ public class TestTailFile {
         assertTrue(runner.getFlowFilesForRelationship(TailFile.REL_SUCCESS).stream().anyMatch(mockFlowFile -> mockFlowFile.isContentEqual("1\n")));
     }
 
+    @Test
+    public void testMultipleFilesWithReaderThreads() throws IOException, InterruptedException {
+        final File directory = new File("target/testReaderThreads");
+        FileUtils.deleteDirectory(directory);
+        assertTrue(directory.mkdirs());
+
+        final RandomAccessFile[] rafs = new RandomAccessFile[5];
+        for (int i = 0; i < rafs.length; i++) {
+            rafs[i] = new RandomAccessFile(new File(directory, "reader-" + i + ".log"), "rw");
+        }
+
+        try {
+            runner.setProperty(TailFile.MODE, TailFile.MODE_MULTIFILE);
+            runner.setProperty(TailFile.BASE_DIRECTORY, directory.getPath());
+            runner.setProperty(TailFile.FILENAME, "reader-\\d\\.log");
+            runner.setProperty(TailFile.READER_THREADS, "4");
+            runner.setProperty(TailFile.ROLLING_FILENAME_PATTERN, "${filename}.?");
+            runner.assertNotValid();
+            runner.removeProperty(TailFile.ROLLING_FILENAME_PATTERN);
+            runner.assertValid();
+
+            for (final RandomAccessFile readerRaf : rafs) {
+                readerRaf.write("a\n".getBytes());
+            }
+            runner.run(1, false, true);
+            runner.assertAllFlowFilesTransferred(TailFile.REL_SUCCESS, 5);
+            runner.getFlowFilesForRelationship(TailFile.REL_SUCCESS).forEach(flowFile -> flowFile.assertContentEquals("a\n"));
+            runner.clearTransferState();
+
+            // only complete lines are consumed, from the files that have been written to
+            rafs[0].write("partial".getBytes());
+            rafs[1].write("b\nc".getBytes());
+            runUntilTransferred(1);
+            runner.assertAllFlowFilesTransferred(TailFile.REL_SUCCESS, 1);
+            final MockFlowFile flowFile = runner.getFlowFilesForRelationship(TailFile.REL_SUCCESS).get(0);
+            flowFile.assertContentEquals("b\n");
+            flowFile.assertAttributeEquals("filename", "reader-1.2-4.log");
+            runner.clearTransferState();
+
+            rafs[0].write("\n".getBytes());
+            runUntilTransferred(1);
+            runner.assertAllFlowFilesTransferred(TailFile.REL_SUCCESS, 1);
+            runner.getFlowFilesForRelationship(TailFile.REL_SUCCESS).get(0).assertContentEquals("partial\n");
+            runner.clearTransferState();
+
+            runner.run(1, true, false);
+            runner.assertAllFlowFilesTransferred(TailFile.REL_SUCCESS, 0);
+
+            final StateMap stateMap = runner.getStateManager().getState(Scope.LOCAL);
+            for (int i = 0; i < rafs.length; i++) {
+                final String prefix = TailFile.MAP_PREFIX + processor.getState().get(new File(directory, "reader-" + i + ".log").getPath()).getFilenameIndex() + ".";
+                assertEquals(i == 0 ? "10" : i == 1 ? "4" : "2", stateMap.get(prefix + "position"));
+            }
+        } finally {
+            for (final RandomAccessFile readerRaf : rafs) {
+                readerRaf.close();
+            }
+        }
+    }
+
+    @Test
+    public void testReaderThreadsReadAgainWhenCommitFails() throws IOException {
+        final AtomicBoolean failCommit = new AtomicBoolean(true);
+        processor = new TailFile() {
+            @Override
+            public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+                final ProcessSession failingSession = (ProcessSession) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ProcessSession.class},
+                    (proxy, method, args) -> {
+                        if (failCommit.get() && method.getName().equals("commit")) {
+                            throw new ProcessException("Intentional commit failure");
+                        }
+                        try {
+                            return method.invoke(session, args);
+                        } catch (final InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+                super.onTrigger(context, failingSession);
+            }
+        };
+        runner = TestRunners.newTestRunner(processor);
+        runner.setProperty(TailFile.MODE, TailFile.MODE_MULTIFILE);
+        runner.setProperty(TailFile.BASE_DIRECTORY, "target");
+        runner.setProperty(TailFile.FILENAME, "log.txt");
+        runner.setProperty(TailFile.READER_THREADS, "2");
+
+        raf.write("hello\n".getBytes());
+        try {
+            runner.run(1, false, true);
+            fail("Expected the commit to fail");
+        } catch (final AssertionError e) {
+            assertTrue(e.getCause() instanceof ProcessException);
+        }
+        runner.assertAllFlowFilesTransferred(TailFile.REL_SUCCESS, 0);
+        assertNull(runner.getStateManager().getState(Scope.LOCAL).get(TailFile.MAP_PREFIX + "0.position"));
+
+        // the lines that were not committed are read again
+        failCommit.set(false);
+        raf.write("world\n".getBytes());
+        runner.run(1, true, false);
+        runner.assertAllFlowFilesTransferred(TailFile.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(TailFile.REL_SUCCESS).get(0).assertContentEquals("hello\nworld\n");
+        assertEquals("12", runner.getStateManager().getState(Scope.LOCAL).get(TailFile.MAP_PREFIX + "0.position"));
+    }
+
+    private void runUntilTransferred(final int count) throws InterruptedException {
+        // changes are reported by the file system asynchronously
+        for (int i = 0; i < 50 && runner.getFlowFilesForRelationship(TailFile.REL_SUCCESS).size() < count; i++) {
+            Thread.sleep(100L);
+            runner.run(1, false, false);
+        }
+    }
+
     @Test
     public void testMultipleFilesChangingNameStrategy() throws IOException, InterruptedException {
         runner.setProperty(TailFile.START_POSITION, TailFile.START_CURRENT_FILE);
@@ -20,6 +20,8 @@ import org.apache.nifi.processors.standard.db.DatabaseAdapter;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 public class TestMSSQLDatabaseAdapter {
     final DatabaseAdapter db = new MSSQLDatabaseAdapter();
 
@@ -81,4 +83,16 @@ public class TestMSSQLDatabaseAdapter {
         String expected3 = "SELECT some(set),of(columns),that,might,contain,methods,a.* FROM database.tablename WHERE methods='strange' ORDER BY contain OFFSET 123456 ROWS FETCH NEXT 10000 ROWS ONLY";
         Assert.assertEquals(sql3,expected3);
     }
+
+    @Test
+    public void testInsertStatement() throws Exception {
+        String sql1 = db.getInsertStatement("database.tablename", Arrays.asList("id", "[name]"), 3);
+        String expected1 = "INSERT INTO database.tablename (id, [name]) VALUES (?,?),(?,?),(?,?)";
+        Assert.assertEquals(expected1, sql1);
+
+        // Limited by the number of rows in a table value constructor and by the number of parameters
+        Assert.assertEquals(1000, db.getMaxRowsPerInsert(2));
+        Assert.assertEquals(200, db.getMaxRowsPerInsert(10));
+        Assert.assertEquals(1, db.getMaxRowsPerInsert(5000));
+    }
 }
@@ -1448,6 +1448,90 @@ public abstract class TestInvokeHttpCommon {
         Assert.assertEquals("chunked",header);
     }
 
+    @Test
+    public void testMaxInFlightRequests() throws Exception {
+        addHandler(new GetOrHeadHandler());
+
+        runner.setProperty(InvokeHTTP.PROP_URL, url + "/status/${status}");
+        runner.setProperty(InvokeHTTP.PROP_MAX_IN_FLIGHT_REQUESTS, "4");
+
+        for (int i = 0; i < 10; i++) {
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put("Foo", "Bar");
+            attributes.put("status", i % 2 == 0 ? "200" : "500");
+            runner.enqueue("Hello".getBytes("UTF-8"), attributes);
+        }
+
+        // each task takes up to 4 FlowFiles, so 3 tasks send all 10 requests
+        runner.run(3);
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(InvokeHTTP.REL_SUCCESS_REQ, 5);
+        runner.assertTransferCount(InvokeHTTP.REL_RESPONSE, 5);
+        runner.assertTransferCount(InvokeHTTP.REL_RETRY, 5);
+        runner.assertTransferCount(InvokeHTTP.REL_NO_RETRY, 0);
+        runner.assertTransferCount(InvokeHTTP.REL_FAILURE, 0);
+        runner.assertPenalizeCount(5);
+
+        for (final MockFlowFile bundle : runner.getFlowFilesForRelationship(InvokeHTTP.REL_RESPONSE)) {
+            bundle.assertContentEquals("/status/200".getBytes("UTF-8"));
+            bundle.assertAttributeEquals(InvokeHTTP.STATUS_CODE, "200");
+            bundle.assertAttributeEquals("Foo", "Bar");
+        }
+        for (final MockFlowFile bundle : runner.getFlowFilesForRelationship(InvokeHTTP.REL_RETRY)) {
+            bundle.assertContentEquals("Hello".getBytes("UTF-8"));
+            bundle.assertAttributeEquals(InvokeHTTP.STATUS_CODE, "500");
+            bundle.assertAttributeEquals(InvokeHTTP.RESPONSE_BODY, "/status/500");
+        }
+    }
+
+    @Test
+    public void testPostWithMaxInFlightRequests() throws Exception {
+        addHandler(new MutativeMethodHandler(MutativeMethod.POST));
+
+        runner.setProperty(InvokeHTTP.PROP_METHOD, "POST");
+        runner.setProperty(InvokeHTTP.PROP_URL, url + "/post");
+        runner.setProperty(InvokeHTTP.PROP_MAX_IN_FLIGHT_REQUESTS, "3");
+        runner.setProperty(InvokeHTTP.PROP_HTTP2_ENABLED, "false");
+
+        createFlowFiles(runner);
+        createFlowFiles(runner);
+        createFlowFiles(runner);
+
+        runner.run();
+        runner.assertTransferCount(InvokeHTTP.REL_SUCCESS_REQ, 3);
+        runner.assertTransferCount(InvokeHTTP.REL_RESPONSE, 3);
+        runner.assertTransferCount(InvokeHTTP.REL_RETRY, 0);
+        runner.assertTransferCount(InvokeHTTP.REL_NO_RETRY, 0);
+        runner.assertTransferCount(InvokeHTTP.REL_FAILURE, 0);
+
+        for (final MockFlowFile bundle : runner.getFlowFilesForRelationship(InvokeHTTP.REL_SUCCESS_REQ)) {
+            bundle.assertContentEquals("Hello".getBytes("UTF-8"));
+            bundle.assertAttributeEquals(InvokeHTTP.STATUS_CODE, "200");
+            bundle.assertAttributeEquals(InvokeHTTP.STATUS_MESSAGE, "OK");
+        }
+    }
+
+    @Test
+    public void testConnectFailWithMaxInFlightRequests() throws Exception {
+        runner.setProperty(InvokeHTTP.PROP_URL, "http://localhost:445/doesnotExist");
+        runner.setProperty(InvokeHTTP.PROP_MAX_IN_FLIGHT_REQUESTS, "2");
+
+        createFlowFiles(runner);
+        createFlowFiles(runner);
+
+        runner.run();
+        runner.assertTransferCount(InvokeHTTP.REL_SUCCESS_REQ, 0);
+        runner.assertTransferCount(InvokeHTTP.REL_RESPONSE, 0);
+        runner.assertTransferCount(InvokeHTTP.REL_FAILURE, 2);
+        runner.assertPenalizeCount(2);
+
+        for (final MockFlowFile bundle : runner.getFlowFilesForRelationship(InvokeHTTP.REL_FAILURE)) {
+            bundle.assertContentEquals("Hello".getBytes("UTF-8"));
+            bundle.assertAttributeExists(InvokeHTTP.EXCEPTION_CLASS);
+        }
+    }
+
 
     public static void createFlowFiles(final TestRunner testRunner) throws UnsupportedEncodingException {
         final Map<String, String> attributes = new HashMap<>();
@@ -29,6 +29,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.CharArrayReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -50,8 +51,12 @@ import java.text.SimpleDateFormat;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.stream.IntStream;
@@ -574,6 +579,104 @@ public class TestJdbcCommon {
         }
     }
 
+    @Test
+    public void testConvertToAvroStreamFetchingAhead() throws SQLException, IOException {
+        final ResultSetMetaData metadata = mock(ResultSetMetaData.class);
+        when(metadata.getColumnCount()).thenReturn(1);
+        when(metadata.getColumnType(1)).thenReturn(Types.INTEGER);
+        when(metadata.getColumnName(1)).thenReturn("id");
+        when(metadata.getTableName(1)).thenReturn("table");
+
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metadata);
+
+        final AtomicInteger counter = new AtomicInteger(0);
+        Mockito.doAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return counter.incrementAndGet() <= 120;
+            }
+        }).when(rs).next();
+        Mockito.doAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) throws Throwable {
+                return (long) counter.get();
+            }
+        }).when(rs).getObject(Mockito.anyInt());
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final JdbcCommon.AvroConversionOptions options = JdbcCommon.AvroConversionOptions.builder()
+                    .maxRows(50)
+                    .fetchAheadRows(4)
+                    .build();
+
+            // The rows are split across several calls, as when Max Rows Per Flow File is set
+            long expectedId = 1;
+            for (final long expectedRows : new long[] {50, 50, 20, 0}) {
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                assertEquals(expectedRows, JdbcCommon.convertToAvroStream(rs, baos, options, null, executor));
+
+                final DatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
+                try (final DataFileStream<GenericRecord> dataFileReader = new DataFileStream<>(new ByteArrayInputStream(baos.toByteArray()), datumReader)) {
+                    while (dataFileReader.hasNext()) {
+                        assertEquals(expectedId++, dataFileReader.next().get("id"));
+                    }
+                }
+            }
+            assertEquals(121L, expectedId);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testConvertToAvroStreamFetchingAheadInterruptedBeforeFetchStarts() throws Exception {
+        final ResultSetMetaData metadata = mock(ResultSetMetaData.class);
+        when(metadata.getColumnCount()).thenReturn(1);
+        when(metadata.getColumnType(1)).thenReturn(Types.INTEGER);
+        when(metadata.getColumnName(1)).thenReturn("id");
+        when(metadata.getTableName(1)).thenReturn("table");
+
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metadata);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch releaseExecutor = new CountDownLatch(1);
+        try {
+            // keep the only thread of the executor busy, so that the fetch is still queued when the writing thread is interrupted
+            executor.submit(() -> {
+                releaseExecutor.await();
+                return null;
+            });
+
+            final JdbcCommon.AvroConversionOptions options = JdbcCommon.AvroConversionOptions.builder()
+                    .fetchAheadRows(4)
+                    .build();
+            final AtomicReference<Throwable> thrown = new AtomicReference<>();
+            final Thread writer = new Thread(() -> {
+                try {
+                    JdbcCommon.convertToAvroStream(rs, new ByteArrayOutputStream(), options, null, executor);
+                } catch (final Throwable t) {
+                    thrown.set(t);
+                }
+            });
+            writer.start();
+            writer.interrupt();
+            writer.join();
+            assertTrue(thrown.get() instanceof InterruptedIOException);
+
+            // the fetch never runs once the writing thread has returned
+            releaseExecutor.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            Mockito.verify(rs, Mockito.never()).next();
+        } finally {
+            releaseExecutor.countDown();
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testConvertToAvroStreamForDateTimeAsString() throws SQLException, IOException, ParseException {
         final JdbcCommon.AvroConversionOptions options = JdbcCommon.AvroConversionOptions
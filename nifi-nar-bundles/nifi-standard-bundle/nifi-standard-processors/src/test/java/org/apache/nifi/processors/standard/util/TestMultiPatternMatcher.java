@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.nifi.processors.standard.util.MultiPatternMatcher.MatchType;
+import org.junit.Test;
+
+public class TestMultiPatternMatcher {
+
+    private static Map<String, String> literals(final String... namesAndValues) {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            map.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static Map<String, Pattern> patterns(final String... namesAndRegexes) {
+        final Map<String, Pattern> map = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndRegexes.length; i += 2) {
+            map.put(namesAndRegexes[i], Pattern.compile(namesAndRegexes[i + 1]));
+        }
+        return map;
+    }
+
+    private static Set<String> set(final String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    @Test
+    public void testLiterals() {
+        final Map<String, String> rules = literals("a", "abc", "b", "bc", "c", "xyz", "d", "abc", "e", "");
+
+        final MultiPatternMatcher<String> contains = MultiPatternMatcher.forLiterals(rules, MatchType.CONTAINS, false);
+        assertEquals(set("a", "b", "d", "e"), contains.findMatches("__abc__", false));
+        assertEquals(set("e"), contains.findMatches("ABC", false));
+        assertEquals(1, contains.findMatches("abc", true).size());
+
+        final MultiPatternMatcher<String> startsWith = MultiPatternMatcher.forLiterals(rules, MatchType.STARTS_WITH, false);
+        assertEquals(set("b", "e"), startsWith.findMatches("bcabc", false));
+        assertEquals(set("a", "d", "e"), startsWith.findMatches("abcxyz", false));
+
+        final MultiPatternMatcher<String> endsWith = MultiPatternMatcher.forLiterals(rules, MatchType.ENDS_WITH, false);
+        assertEquals(set("a", "b", "d", "e"), endsWith.findMatches("xyzabc", false));
+        assertEquals(set("c", "e"), endsWith.findMatches("abcxyz", false));
+
+        final MultiPatternMatcher<String> equals = MultiPatternMatcher.forLiterals(rules, MatchType.EQUALS, true);
+        assertEquals(set("a", "d"), equals.findMatches("ABC", false));
+        assertEquals(set("e"), equals.findMatches("", false));
+        assertEquals(set(), equals.findMatches("abcd", false));
+    }
+
+    @Test
+    public void testLiteralsIgnoreCaseAndMultiByte() {
+        final Map<String, String> rules = literals("a", "Gr\u00fc\u00dfe", "b", "\u00dcSSE");
+        final MultiPatternMatcher<String> contains = MultiPatternMatcher.forLiterals(rules, MatchType.CONTAINS, true);
+        assertEquals(set("a"), contains.findMatches("viele GR\u00dc\u00dfE", false));
+
+        final MultiPatternMatcher<String> endsWith = MultiPatternMatcher.forLiterals(literals("a", "\u00fc"), MatchType.ENDS_WITH, false);
+        assertEquals(set("a"), endsWith.findMatches("\u00fcber \u00fc", false));
+        assertEquals(set(), endsWith.findMatches("\u00fc u", false));
+    }
+
+    @Test
+    public void testRegularExpressions() {
+        final Map<String, Pattern> rules = patterns("digits", "\\d+", "word", "[a-z]+", "pair", "(\\w)(\\w)", "named", "(?<first>x)y");
+
+        final MultiPatternMatcher<String> find = MultiPatternMatcher.forRegularExpressions(rules, false);
+        assertEquals(set("digits", "pair"), find.findMatches("12", false));
+        assertEquals(set("digits", "word", "pair", "named"), find.findMatches("123 xy", false));
+        assertEquals(set(), find.findMatches("!?", false));
+        assertEquals(1, find.findMatches("123 xy", true).size());
+
+        final MultiPatternMatcher<String> matches = MultiPatternMatcher.forRegularExpressions(rules, true);
+        assertEquals(set("word", "pair", "named"), matches.findMatches("xy", false));
+        assertEquals(set("word"), matches.findMatches("abc", false));
+        assertEquals(set(), matches.findMatches("abc1", false));
+    }
+
+    @Test
+    public void testUncombinableRegularExpressions() {
+        // back references, conflicting group names and differing flags are evaluated individually
+        final Map<String, Pattern> rules = patterns("repeat", "(\\w)\\1", "named", "(?<g>a)", "otherNamed", "(?<g>b)");
+        rules.put("insensitive", Pattern.compile("C", Pattern.CASE_INSENSITIVE));
+
+        final MultiPatternMatcher<String> find = MultiPatternMatcher.forRegularExpressions(rules, false);
+        assertEquals(set("repeat", "named"), find.findMatches("xaax", false));
+        assertEquals(set("otherNamed", "insensitive"), find.findMatches("bc", false));
+        assertTrue(find.findMatches("xyz", false).isEmpty());
+
+        final MultiPatternMatcher<String> duplicateNames = MultiPatternMatcher.forRegularExpressions(patterns("named", "(?<g>a)", "otherNamed", "(?<g>b)"), false);
+        assertEquals(set("named", "otherNamed"), duplicateNames.findMatches("ab", false));
+    }
+}
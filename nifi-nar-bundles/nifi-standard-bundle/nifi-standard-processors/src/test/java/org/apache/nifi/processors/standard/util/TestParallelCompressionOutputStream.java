@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestParallelCompressionOutputStream {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBlocksWrittenInOrder() throws IOException {
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        final AtomicInteger maxInFlight = new AtomicInteger(0);
+
+        // Copies each block after a random delay, so that blocks complete out of order
+        final ParallelCompressionOutputStream.BlockCompressor copier = (data, length, out) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            } catch (final InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            out.write(data, 0, length);
+        };
+
+        final byte[] data = new byte[10000];
+        new Random(1L).nextBytes(data);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final OutputStream out = new ParallelCompressionOutputStream(baos, executor, copier, 100, 3)) {
+            out.write(data, 0, 150);
+            out.write(data[150]);
+            out.write(data, 151, data.length - 151);
+        }
+
+        assertArrayEquals(data, baos.toByteArray());
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void testMultiMemberGzip() throws IOException {
+        final byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + i % 7);
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final OutputStream out = new ParallelCompressionOutputStream(baos, executor, (block, length, blockOut) -> {
+            try (final OutputStream gzipOut = new GZIPOutputStream(blockOut)) {
+                gzipOut.write(block, 0, length);
+            }
+        }, 8192, 8)) {
+            out.write(data);
+        }
+
+        try (final GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void testCompressionFailure() {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final OutputStream out = new ParallelCompressionOutputStream(baos, executor, (data, length, blockOut) -> {
+            throw new IOException("Intentional failure");
+        }, 10, 2)) {
+            out.write(new byte[100]);
+            fail("Expected compression failure");
+        } catch (final IOException e) {
+            assertEquals("Intentional failure", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class TestStreamingRegexMatcher {
+
+    private static String replaceAll(final String text, final String regex, final String replacement, final int maxMatchLength) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        new StreamingRegexMatcher(Pattern.compile(regex), maxMatchLength).process(new StringReader(text), new StreamingRegexMatcher.MatchHandler() {
+            @Override
+            public void unmatched(final CharSequence window, final int start, final int end) {
+                sb.append(window, start, end);
+            }
+
+            @Override
+            public boolean matched(final Matcher matcher) throws IOException {
+                StreamingRegexMatcher.appendReplacement(matcher, replacement, sb);
+                return true;
+            }
+        });
+        return sb.toString();
+    }
+
+    private static List<String> findAll(final String text, final String regex, final int maxMatchLength) throws IOException {
+        final List<String> matches = new ArrayList<>();
+        new StreamingRegexMatcher(Pattern.compile(regex), maxMatchLength).process(new StringReader(text), new StreamingRegexMatcher.MatchHandler() {
+            @Override
+            public void unmatched(final CharSequence window, final int start, final int end) {
+            }
+
+            @Override
+            public boolean matched(final Matcher matcher) {
+                matches.add(matcher.group());
+                return true;
+            }
+        });
+        return matches;
+    }
+
+    private static void assertSameAsEntireText(final String text, final String regex, final String replacement, final int maxMatchLength) throws IOException {
+        assertEquals(text.replaceAll(regex, replacement), replaceAll(text, regex, replacement, maxMatchLength));
+    }
+
+    private static String repeat(final String value, final int count) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testMatchesAcrossReads() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("item").append(i).append(i % 3 == 0 ? ";" : ",");
+        }
+        final String text = sb.toString();
+
+        assertSameAsEntireText(text, "item(\\d+);", "<$1>", 16);
+        assertSameAsEntireText(text, "(?<name>item)(\\d)", "${name}-$2", 5);
+        assertSameAsEntireText(text, "\\d+", "#", 8);
+    }
+
+    @Test
+    public void testGreedyMatchIsNotCutShort() throws IOException {
+        final String text = repeat("a", 100) + "b" + repeat("a", 37);
+        assertEquals(text.replaceAll("a+", "x"), replaceAll(text, "a+", "x", 100));
+
+        final List<String> matches = findAll(text, "a+", 100);
+        assertEquals(2, matches.size());
+        assertEquals(100, matches.get(0).length());
+        assertEquals(37, matches.get(1).length());
+    }
+
+    @Test
+    public void testEmptyMatches() throws IOException {
+        final String text = repeat("ab", 50);
+        assertSameAsEntireText(text, "x*", "-", 4);
+        assertSameAsEntireText(text, "\\b", "|", 4);
+        assertSameAsEntireText("", "x*", "-", 4);
+    }
+
+    @Test
+    public void testLookbehindAndAnchors() throws IOException {
+        final String text = repeat("key=value\nother=thing\n", 200);
+        assertSameAsEntireText(text, "(?<=key=)\\w+", "X", 8);
+        assertSameAsEntireText(text, "(?m)^other", "OTHER", 8);
+        assertSameAsEntireText(text, "(?m)\\w+$", "END", 16);
+        assertSameAsEntireText(text, "thing\\n\\z", "last", 8);
+    }
+
+    @Test
+    public void testReplacementEscapes() throws IOException {
+        assertSameAsEntireText("price: 10, 20", "(\\d)(\\d)", "\\$$2$1\\\\", 4);
+        assertSameAsEntireText(repeat("abcdefghijkl", 3), "(a)(b)(c)(d)(e)(f)(g)(h)(i)(j)(k)", "$11$10$1", 16);
+    }
+
+    @Test
+    public void testStopsWhenHandlerDeclines() throws IOException {
+        final List<String> matches = new ArrayList<>();
+        new StreamingRegexMatcher(Pattern.compile("\\d"), 4).process(new StringReader("a1b2c3"), new StreamingRegexMatcher.MatchHandler() {
+            @Override
+            public void unmatched(final CharSequence window, final int start, final int end) {
+            }
+
+            @Override
+            public boolean matched(final Matcher matcher) {
+                matches.add(matcher.group());
+                return matches.size() < 2;
+            }
+        });
+        assertEquals(2, matches.size());
+        assertEquals("2", matches.get(1));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processors.standard.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestTimePartitionedBloomFilter {
+
+    @Test
+    public void testAgeOff() {
+        final TimePartitionedBloomFilter filter = new TimePartitionedBloomFilter(1000, 0.01, 1000L, 10);
+        assertTrue(filter.putIfAbsent("a", 0L));
+        assertFalse(filter.putIfAbsent("a", 50L));
+        assertTrue(filter.putIfAbsent("b", 150L));
+        assertEquals(2, filter.getGenerationCount());
+
+        // an identifier is remembered for at least the age-off duration and at most one more generation
+        assertTrue(filter.mightContain("a", 1099L));
+        assertFalse(filter.mightContain("a", 1100L));
+        assertTrue(filter.mightContain("b", 1100L));
+        assertEquals(1, filter.getGenerationCount());
+
+        assertTrue(filter.putIfAbsent("a", 1100L));
+        assertFalse(filter.mightContain("b", 1250L));
+        assertTrue(filter.mightContain("a", 1250L));
+    }
+
+    @Test
+    public void testGrowsBeyondExpectedInsertions() {
+        final TimePartitionedBloomFilter filter = new TimePartitionedBloomFilter(1000, 0.01, -1L, 10);
+
+        int added = 0;
+        for (int i = 0; i < 20000; i++) {
+            if (filter.putIfAbsent("id-" + i, i)) {
+                added++;
+            }
+        }
+        assertEquals(1, filter.getGenerationCount());
+        assertEquals(added, filter.getInsertionCount());
+
+        // identifiers that were added are always found
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(filter.mightContain("id-" + i, 20000L));
+        }
+
+        // the false positive rate stays within the bound although 20 times the expected identifiers were added
+        assertTrue(added > 20000 * 0.99);
+        int falsePositives = 0;
+        for (int i = 0; i < 20000; i++) {
+            if (filter.mightContain("other-" + i, 20000L)) {
+                falsePositives++;
+            }
+        }
+        assertTrue("Too many false positives: " + falsePositives, falsePositives < 20000 * 0.02);
+    }
+}
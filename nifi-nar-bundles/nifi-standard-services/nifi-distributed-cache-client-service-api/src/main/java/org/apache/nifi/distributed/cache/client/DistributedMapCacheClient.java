@@ -17,6 +17,10 @@
 package org.apache.nifi.distributed.cache.client;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
@@ -117,6 +121,69 @@ public interface DistributedMapCacheClient extends ControllerService {
      */
     <K, V> V get(K key, Serializer<K> keySerializer, Deserializer<V> valueDeserializer) throws IOException;
 
+    /**
+     * Returns the values in the cache for the given keys. Implementations may retrieve all of the values
+     * in a single request; the default implementation calls {@link #get(Object, Serializer, Deserializer)}
+     * for each key.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param keys the keys to lookup in the map
+     * @param keySerializer key serializer
+     * @param valueDeserializer value deserializer
+     *
+     * @return a Map containing every given key, mapped to the value in the cache for that key, or to
+     * <code>null</code> if the cache does not contain the key
+     * @throws IOException if unable to communicate with the remote instance
+     */
+    default <K, V> Map<K, V> getAll(Set<K> keys, Serializer<K> keySerializer, Deserializer<V> valueDeserializer) throws IOException {
+        final Map<K, V> values = new LinkedHashMap<>();
+        for (final K key : keys) {
+            values.put(key, get(key, keySerializer, valueDeserializer));
+        }
+        return values;
+    }
+
+    /**
+     * Adds all of the specified keys and values to the cache, overwriting any values that are currently set.
+     * Implementations may send all of the entries in a single request; the default implementation calls
+     * {@link #put(Object, Object, Serializer, Serializer)} for each entry.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param entries the keys and values to set
+     * @param keySerializer the Serializer that will be used to serialize the keys into bytes
+     * @param valueSerializer the Serializer that will be used to serialize the values into bytes
+     *
+     * @throws IOException if unable to communicate with the remote instance
+     */
+    default <K, V> void putAll(Map<K, V> entries, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+        for (final Map.Entry<K, V> entry : entries.entrySet()) {
+            put(entry.getKey(), entry.getValue(), keySerializer, valueSerializer);
+        }
+    }
+
+    /**
+     * Determines which of the given keys are present in the cache. Implementations may check all of the keys
+     * in a single request; the default implementation calls {@link #containsKey(Object, Serializer)} for each key.
+     *
+     * @param <K> type of key
+     * @param keys the keys to check
+     * @param keySerializer key serializer
+     * @return the subset of the given keys that are present in the cache
+     *
+     * @throws IOException if unable to communicate with the remote instance
+     */
+    default <K> Set<K> containsKeys(Set<K> keys, Serializer<K> keySerializer) throws IOException {
+        final Set<K> contained = new LinkedHashSet<>();
+        for (final K key : keys) {
+            if (containsKey(key, keySerializer)) {
+                contained.add(key);
+            }
+        }
+        return contained;
+    }
+
     /**
      * Attempts to notify the server that we are finished communicating with it
      * and cleans up resources
@@ -19,9 +19,15 @@ package org.apache.nifi.distributed.cache.client;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -81,11 +87,33 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
         .defaultValue("30 secs")
         .build();
+    public static final PropertyDescriptor NEAR_CACHE_SIZE = new PropertyDescriptor.Builder()
+        .name("Near Cache Size")
+        .description("The maximum number of values that were read from the server to keep locally, so that repeated reads of the same key "
+                + "do not require a round trip to the server. The server notifies this client whenever a key that it keeps is changed, "
+                + "so a local value may be stale only until that notification arrives or until the Near Cache Expiration elapses. "
+                + "A value of 0 disables the near cache. Requires a DistributedMapCacheServer that supports protocol version 4.")
+        .required(true)
+        .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+        .defaultValue("0")
+        .build();
+    public static final PropertyDescriptor NEAR_CACHE_EXPIRATION = new PropertyDescriptor.Builder()
+        .name("Near Cache Expiration")
+        .description("The maximum amount of time to keep a value in the near cache, after which it is read from the server again. "
+                + "Ignored if the Near Cache Size is 0.")
+        .required(true)
+        .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
+        .defaultValue("1 min")
+        .build();
 
     private final BlockingQueue<CommsSession> queue = new LinkedBlockingQueue<>();
     private volatile ConfigurationContext configContext;
     private volatile boolean closed = false;
 
+    private volatile NearCache nearCache;
+    private volatile Subscription subscription;
+    private volatile boolean subscriptionUnsupported = false;
+
     @Override
     protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         final List<PropertyDescriptor> descriptors = new ArrayList<>();
@@ -93,12 +121,19 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         descriptors.add(PORT);
         descriptors.add(SSL_CONTEXT_SERVICE);
         descriptors.add(COMMUNICATIONS_TIMEOUT);
+        descriptors.add(NEAR_CACHE_SIZE);
+        descriptors.add(NEAR_CACHE_EXPIRATION);
         return descriptors;
     }
 
     @OnEnabled
     public void cacheConfig(final ConfigurationContext context) {
         this.configContext = context;
+
+        final int nearCacheSize = context.getProperty(NEAR_CACHE_SIZE).asInteger();
+        final long nearCacheExpirationNanos = context.getProperty(NEAR_CACHE_EXPIRATION).asTimePeriod(TimeUnit.NANOSECONDS);
+        this.nearCache = nearCacheSize > 0 ? new NearCache(nearCacheSize, nearCacheExpirationNanos) : null;
+        this.subscriptionUnsupported = false;
     }
 
     @OnStopped
@@ -108,6 +143,10 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public <K, V> boolean putIfAbsent(final K key, final V value, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) throws IOException {
+        if (getNearCacheValue(key, keySerializer) != null) {
+            return false;
+        }
+
         return withCommsSession(new CommsAction<Boolean>() {
             @Override
             public Boolean execute(final CommsSession session) throws IOException {
@@ -127,6 +166,7 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public <K, V> void put(final K key, final V value, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) throws IOException {
+        invalidateNearCache(key, keySerializer);
         withCommsSession(new CommsAction<Object>() {
             @Override
             public Object execute(final CommsSession session) throws IOException {
@@ -150,6 +190,10 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public <K> boolean containsKey(final K key, final Serializer<K> keySerializer) throws IOException {
+        if (getNearCacheValue(key, keySerializer) != null) {
+            return true;
+        }
+
         return withCommsSession(new CommsAction<Boolean>() {
             @Override
             public Boolean execute(final CommsSession session) throws IOException {
@@ -167,6 +211,17 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public <K, V> V getAndPutIfAbsent(final K key, final V value, final Serializer<K> keySerializer, final Serializer<V> valueSerializer, final Deserializer<V> valueDeserializer) throws IOException {
+        final Subscription currentSubscription = getSubscription();
+        if (currentSubscription != null) {
+            final byte[] keyBytes = serialize(key, keySerializer);
+            final byte[] cachedValue = nearCache.get(ByteBuffer.wrap(keyBytes));
+            if (cachedValue != null) {
+                return valueDeserializer.deserialize(cachedValue);
+            }
+
+            return valueDeserializer.deserialize(readThrough(currentSubscription, "getAndPutIfAbsent", keyBytes, serialize(value, valueSerializer)));
+        }
+
         return withCommsSession(new CommsAction<V>() {
             @Override
             public V execute(final CommsSession session) throws IOException {
@@ -187,6 +242,17 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public <K, V> V get(final K key, final Serializer<K> keySerializer, final Deserializer<V> valueDeserializer) throws IOException {
+        final Subscription currentSubscription = getSubscription();
+        if (currentSubscription != null) {
+            final byte[] keyBytes = serialize(key, keySerializer);
+            final byte[] cachedValue = nearCache.get(ByteBuffer.wrap(keyBytes));
+            if (cachedValue != null) {
+                return valueDeserializer.deserialize(cachedValue);
+            }
+
+            return valueDeserializer.deserialize(readThrough(currentSubscription, "get", keyBytes, null));
+        }
+
         return withCommsSession(new CommsAction<V>() {
             @Override
             public V execute(final CommsSession session) throws IOException {
@@ -206,6 +272,7 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public <K> boolean remove(final K key, final Serializer<K> serializer) throws IOException {
+        invalidateNearCache(key, serializer);
         return withCommsSession(new CommsAction<Boolean>() {
             @Override
             public Boolean execute(final CommsSession session) throws IOException {
@@ -224,6 +291,11 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public long removeByPattern(String regex) throws IOException {
+        final NearCache currentNearCache = nearCache;
+        if (currentNearCache != null) {
+            currentNearCache.clear();
+        }
+
         return withCommsSession(session -> {
             final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
             dos.writeUTF("removeByPattern");
@@ -262,6 +334,106 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         });
     }
 
+    @Override
+    public <K, V> Map<K, V> getAll(final Set<K> keys, final Serializer<K> keySerializer, final Deserializer<V> valueDeserializer) throws IOException {
+        if (keys.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        final Map<K, V> values = withCommsSession(session -> {
+            if (session.getProtocolVersion() < 3) {
+                return null;
+            }
+
+            final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+            dos.writeUTF("getAll");
+            dos.writeInt(keys.size());
+            for (final K key : keys) {
+                serialize(key, keySerializer, dos);
+            }
+            dos.flush();
+
+            // read response, which contains a value for each key in the order in which the keys were sent
+            final DataInputStream dis = new DataInputStream(session.getInputStream());
+            final Map<K, V> response = new LinkedHashMap<>();
+            for (final K key : keys) {
+                final byte[] responseBuffer = readLengthDelimitedResponse(dis);
+                response.put(key, valueDeserializer.deserialize(responseBuffer));
+            }
+            return response;
+        });
+
+        // Servers that do not support protocol version 3 require a request per key
+        return values == null ? AtomicDistributedMapCacheClient.super.getAll(keys, keySerializer, valueDeserializer) : values;
+    }
+
+    @Override
+    public <K, V> void putAll(final Map<K, V> entries, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        for (final K key : entries.keySet()) {
+            invalidateNearCache(key, keySerializer);
+        }
+
+        final Boolean success = withCommsSession(session -> {
+            if (session.getProtocolVersion() < 3) {
+                return null;
+            }
+
+            final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+            dos.writeUTF("putAll");
+            dos.writeInt(entries.size());
+            for (final Map.Entry<K, V> entry : entries.entrySet()) {
+                serialize(entry.getKey(), keySerializer, dos);
+                serialize(entry.getValue(), valueSerializer, dos);
+            }
+            dos.flush();
+
+            final DataInputStream dis = new DataInputStream(session.getInputStream());
+            return dis.readBoolean();
+        });
+
+        if (success == null) {
+            AtomicDistributedMapCacheClient.super.putAll(entries, keySerializer, valueSerializer);
+        } else if (!success) {
+            throw new IOException("Expected to receive confirmation of 'putAll' request but received unexpected response");
+        }
+    }
+
+    @Override
+    public <K> Set<K> containsKeys(final Set<K> keys, final Serializer<K> keySerializer) throws IOException {
+        if (keys.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+
+        final Set<K> contained = withCommsSession(session -> {
+            if (session.getProtocolVersion() < 3) {
+                return null;
+            }
+
+            final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+            dos.writeUTF("containsKeys");
+            dos.writeInt(keys.size());
+            for (final K key : keys) {
+                serialize(key, keySerializer, dos);
+            }
+            dos.flush();
+
+            final DataInputStream dis = new DataInputStream(session.getInputStream());
+            final Set<K> response = new LinkedHashSet<>();
+            for (final K key : keys) {
+                if (dis.readBoolean()) {
+                    response.add(key);
+                }
+            }
+            return response;
+        });
+
+        return contained == null ? AtomicDistributedMapCacheClient.super.containsKeys(keys, keySerializer) : contained;
+    }
+
     private void validateProtocolVersion(final CommsSession session, final int requiredProtocolVersion) {
         if (session.getProtocolVersion() < requiredProtocolVersion) {
             throw new UnsupportedOperationException("Remote cache server doesn't support protocol version " + requiredProtocolVersion);
@@ -270,6 +442,7 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     @Override
     public <K, V> boolean replace(AtomicCacheEntry<K, V, Long> entry, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+        invalidateNearCache(entry.getKey(), keySerializer);
         return withCommsSession(session -> {
             validateProtocolVersion(session, 2);
 
@@ -295,6 +468,132 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         return responseBuffer;
     }
 
+    /**
+     * Reads the value of the given key from the server, asking the server to track the key for the given subscription in the same
+     * round trip, and keeps the value in the near cache if the key is now tracked and the value was not invalidated in the meantime.
+     *
+     * @param subscription the subscription that invalidations for the key are pushed to
+     * @param action the request that responds with the length-delimited value of the key
+     * @param keyBytes the serialized key
+     * @param valueBytes the serialized value to send with the request, or <code>null</code> if the request has no value
+     * @return the serialized value that was read from the server
+     */
+    private byte[] readThrough(final Subscription subscription, final String action, final byte[] keyBytes, final byte[] valueBytes) throws IOException {
+        final NearCache currentNearCache = nearCache;
+        final ByteBuffer cacheKey = ByteBuffer.wrap(keyBytes);
+        final NearCache.Reservation reservation = currentNearCache.reserve(cacheKey);
+        try {
+            return withCommsSession(session -> {
+                final boolean track = session.getProtocolVersion() >= 4;
+                final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+                if (track) {
+                    dos.writeUTF("track");
+                    dos.writeLong(subscription.getSubscriberId());
+                    writeLengthDelimited(keyBytes, dos);
+                }
+
+                dos.writeUTF(action);
+                writeLengthDelimited(keyBytes, dos);
+                if (valueBytes != null) {
+                    writeLengthDelimited(valueBytes, dos);
+                }
+                dos.flush();
+
+                final DataInputStream dis = new DataInputStream(session.getInputStream());
+                final boolean tracked = track && dis.readBoolean();
+                final byte[] responseBuffer = readLengthDelimitedResponse(dis);
+                reservation.fill(tracked && responseBuffer.length > 0 ? responseBuffer : null);
+                return responseBuffer;
+            });
+        } finally {
+            // releases the reservation if the request failed; otherwise this has no effect
+            reservation.fill(null);
+
+            // an invalidation may have been missed if the subscription was lost while the value was being read
+            if (!subscription.isActive()) {
+                currentNearCache.invalidate(cacheKey);
+            }
+        }
+    }
+
+    private <K> byte[] getNearCacheValue(final K key, final Serializer<K> keySerializer) throws IOException {
+        if (getSubscription() == null) {
+            return null;
+        }
+
+        return nearCache.get(ByteBuffer.wrap(serialize(key, keySerializer)));
+    }
+
+    private <K> void invalidateNearCache(final K key, final Serializer<K> keySerializer) throws IOException {
+        final NearCache currentNearCache = nearCache;
+        if (currentNearCache != null) {
+            currentNearCache.invalidate(ByteBuffer.wrap(serialize(key, keySerializer)));
+        }
+    }
+
+    /**
+     * @return the active subscription for invalidations of the near cache, subscribing if necessary, or <code>null</code> if the near
+     *         cache is disabled, unsupported by the server, or the server could not be reached
+     */
+    private Subscription getSubscription() {
+        if (nearCache == null || subscriptionUnsupported || closed) {
+            return null;
+        }
+
+        Subscription currentSubscription = subscription;
+        if (currentSubscription != null && currentSubscription.isActive()) {
+            return currentSubscription;
+        }
+
+        synchronized (this) {
+            currentSubscription = subscription;
+            if (currentSubscription != null && currentSubscription.isActive()) {
+                return currentSubscription;
+            }
+
+            try {
+                currentSubscription = subscribe();
+            } catch (final IOException e) {
+                logger.warn("Failed to subscribe to invalidations from the cache server; values will not be read from the near cache", e);
+                currentSubscription = null;
+            }
+
+            subscription = currentSubscription;
+            return currentSubscription;
+        }
+    }
+
+    private Subscription subscribe() throws IOException {
+        final CommsSession session = openCommsSession();
+        try {
+            final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+            if (session.getProtocolVersion() < 4) {
+                logger.warn("Remote cache server doesn't support protocol version 4; near cache will not be used");
+                subscriptionUnsupported = true;
+                dos.writeUTF("close");
+                dos.flush();
+                session.close();
+                return null;
+            }
+
+            dos.writeUTF("subscribe");
+            dos.flush();
+
+            final DataInputStream dis = new DataInputStream(session.getInputStream());
+            final long subscriberId = dis.readLong();
+
+            // invalidations arrive only when keys change, so the connection may be idle for a long time
+            session.setTimeout(Integer.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+            final Subscription newSubscription = new Subscription(session, subscriberId);
+            newSubscription.start();
+            return newSubscription;
+        } catch (final IOException e) {
+            IOUtils.closeQuietly(session);
+            throw e;
+        }
+    }
+
     public CommsSession createCommsSession(final ConfigurationContext context) throws IOException {
         final String hostname = context.getProperty(HOSTNAME).getValue();
         final int port = context.getProperty(PORT).asInteger();
@@ -318,8 +617,12 @@ public class DistributedMapCacheClientService extends AbstractControllerService
             return session;
         }
 
-        session = createCommsSession(configContext);
-        final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(2, 1);
+        return openCommsSession();
+    }
+
+    private CommsSession openCommsSession() throws IOException {
+        final CommsSession session = createCommsSession(configContext);
+        final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(4, 3, 2, 1);
         try {
             ProtocolHandshake.initiateHandshake(session.getInputStream(), session.getOutputStream(), versionNegotiator);
             session.setProtocolVersion(versionNegotiator.getVersion());
@@ -339,6 +642,18 @@ public class DistributedMapCacheClientService extends AbstractControllerService
     public void close() throws IOException {
         this.closed = true;
 
+        final Subscription currentSubscription = subscription;
+        if (currentSubscription != null) {
+            currentSubscription.close();
+            subscription = null;
+        }
+
+        final NearCache currentNearCache = nearCache;
+        if (currentNearCache != null) {
+            logger.debug("Near cache for {} served {} hits and {} misses", getIdentifier(), currentNearCache.getHitCount(), currentNearCache.getMissCount());
+            currentNearCache.clear();
+        }
+
         CommsSession commsSession;
         while ((commsSession = queue.poll()) != null) {
             try (final DataOutputStream dos = new DataOutputStream(commsSession.getOutputStream())) {
@@ -368,6 +683,17 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         baos.writeTo(dos);
     }
 
+    private <T> byte[] serialize(final T value, final Serializer<T> serializer) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        serializer.serialize(value, baos);
+        return baos.toByteArray();
+    }
+
+    private void writeLengthDelimited(final byte[] bytes, final DataOutputStream dos) throws IOException {
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
     private <T> T withCommsSession(final CommsAction<T> action) throws IOException {
         if (closed) {
             throw new IllegalStateException("Client is closed");
@@ -393,4 +719,76 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         T execute(CommsSession commsSession) throws IOException;
     }
 
+    /**
+     * A dedicated connection on which the server pushes the keys that have changed since they were read into the near cache
+     */
+    private class Subscription implements Runnable {
+        private final CommsSession session;
+        private final long subscriberId;
+        private volatile boolean active = true;
+
+        Subscription(final CommsSession session, final long subscriberId) {
+            this.session = session;
+            this.subscriberId = subscriberId;
+        }
+
+        long getSubscriberId() {
+            return subscriberId;
+        }
+
+        boolean isActive() {
+            return active;
+        }
+
+        void start() {
+            final Thread thread = new Thread(this, "Near Cache Invalidation Listener for " + DistributedMapCacheClientService.this);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            final NearCache currentNearCache = nearCache;
+            try {
+                final DataInputStream dis = new DataInputStream(session.getInputStream());
+                while (active) {
+                    final byte[] keyBytes = readLengthDelimitedResponse(dis);
+                    currentNearCache.invalidate(ByteBuffer.wrap(keyBytes));
+                }
+            } catch (final EOFException e) {
+                if (active) {
+                    logger.warn("Cache server closed the near cache subscription; values will be read from the server again");
+                }
+            } catch (final IOException e) {
+                if (active) {
+                    logger.warn("Lost near cache subscription; values will be read from the server again", e);
+                }
+            } finally {
+                // Any invalidation that was missed must not leave a stale value behind
+                active = false;
+                currentNearCache.clear();
+                IOUtils.closeQuietly(session);
+            }
+        }
+
+        void close() {
+            if (!active) {
+                return;
+            }
+
+            active = false;
+            try {
+                // The server's response to the unsubscribe request is not read, as the connection is closed immediately
+                final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+                dos.writeUTF("unsubscribe");
+                dos.writeLong(subscriberId);
+                dos.writeUTF("close");
+                dos.flush();
+            } catch (final IOException e) {
+                logger.debug("Failed to unsubscribe from near cache invalidations", e);
+            }
+            IOUtils.closeQuietly(session);
+        }
+    }
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.client;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A bounded, least-recently-used local copy of serialized values that were read from the cache server, each of which
+ * expires after a fixed amount of time. Values are keyed on the serialized form of their keys.
+ * </p>
+ *
+ * <p>
+ * In order to avoid keeping a value that was superseded while it was being read from the server, a {@link Reservation} is
+ * made for a key before the value is requested, and the value is only kept if the reservation has not been invalidated by the
+ * time that the value is received.
+ * </p>
+ */
+class NearCache {
+
+    private final int maxEntries;
+    private final long expirationNanos;
+    private final Map<ByteBuffer, Entry> entries;
+
+    private final AtomicLong hitCount = new AtomicLong(0L);
+    private final AtomicLong missCount = new AtomicLong(0L);
+
+    NearCache(final int maxEntries, final long expirationNanos) {
+        this.maxEntries = maxEntries;
+        this.expirationNanos = expirationNanos;
+        this.entries = new LinkedHashMap<ByteBuffer, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, Entry> eldest) {
+                return size() > NearCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param key the serialized key
+     * @return the serialized value, or <code>null</code> if no unexpired value is kept for the key
+     */
+    synchronized byte[] get(final ByteBuffer key) {
+        final Entry entry = entries.get(key);
+        if (entry == null || entry.value == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        if (System.nanoTime() - entry.creationNanos > expirationNanos) {
+            entries.remove(key);
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Reserves the given key, to be filled with the value that is about to be read from the server
+     *
+     * @param key the serialized key
+     * @return the reservation
+     */
+    synchronized Reservation reserve(final ByteBuffer key) {
+        final Reservation reservation = new Reservation(key);
+        entries.put(key, reservation.entry);
+        return reservation;
+    }
+
+    /**
+     * Invalidates the value kept for the given key, along with any reservation for it
+     *
+     * @param key the serialized key
+     */
+    synchronized void invalidate(final ByteBuffer key) {
+        entries.remove(key);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    private static class Entry {
+        private final byte[] value;
+        private final long creationNanos;
+
+        Entry(final byte[] value, final long creationNanos) {
+            this.value = value;
+            this.creationNanos = creationNanos;
+        }
+    }
+
+    /**
+     * A placeholder for a value that is being read from the server
+     */
+    class Reservation {
+        private final ByteBuffer key;
+        private final Entry entry = new Entry(null, System.nanoTime());
+
+        private Reservation(final ByteBuffer key) {
+            this.key = key;
+        }
+
+        /**
+         * Keeps the given value if the reservation is still valid, or releases the reservation if the value is <code>null</code>
+         *
+         * @param value the serialized value that was read from the server, or <code>null</code> if it is not to be kept
+         */
+        void fill(final byte[] value) {
+            synchronized (NearCache.this) {
+                if (entries.get(key) != entry) {
+                    return;
+                }
+
+                if (value == null) {
+                    entries.remove(key);
+                } else {
+                    entries.put(key, new Entry(value, entry.creationNanos));
+                }
+            }
+        }
+    }
+}
@@ -38,6 +38,10 @@ public class ProtocolHandshake {
      * If the server doesn't support requested protocol version, HandshakeException will be thrown.</p>
      *
      * <p>DistributedMapCache version histories:<ul>
+     *     <li>4: Added invalidation subscriptions (subscribe, track and unsubscribe), which allow clients to keep a local copy
+     *     of the values that they read and to be notified when those values change.</li>
+     *     <li>3: Added multi-key operations (getAll, putAll and containsKeys). Requests may be pipelined: the server serves
+     *     the requests of a connection in the order they were sent and flushes the responses once no further requests are pending.</li>
      *     <li>2: Added atomic update operations (fetch and replace) using optimistic lock with revision number.</li>
      *     <li>1: Initial version.</li>
      * </ul></p>
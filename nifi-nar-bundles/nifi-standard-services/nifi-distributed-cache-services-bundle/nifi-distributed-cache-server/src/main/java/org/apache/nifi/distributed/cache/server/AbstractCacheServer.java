@@ -18,15 +18,30 @@ package org.apache.nifi.distributed.cache.server;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLContext;
 
@@ -43,22 +58,60 @@ import org.apache.nifi.remote.io.socket.ssl.SSLSocketChannelOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * <p>
+ * Base class for the cache servers. A single thread accepts connections and waits, using a {@link Selector}, for any of
+ * the connected clients to send a request. When a client has data available, its connection is handed to a bounded pool of
+ * worker threads, which serves requests from that client via {@link #listen(InputStream, OutputStream, int)} for as long as
+ * requests are pending and then returns the connection to the selector. Idle connections therefore do not occupy a thread, and
+ * are closed by the selecting thread once they have been idle for longer than the idle timeout.
+ * </p>
+ *
+ * <p>
+ * Clients may pipeline requests, i.e., send several requests before reading the responses. Requests from a single client are
+ * always served in the order that they were received, and responses are flushed to the client only once no further requests
+ * are pending.
+ * </p>
+ */
 public abstract class AbstractCacheServer implements CacheServer {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractCacheServer.class);
 
+    public static final int DEFAULT_MAX_WORKER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    // the maximum number of connections waiting for a worker thread; further connections with requests are closed
+    private static final int MAX_QUEUED_CONNECTIONS = 1000;
+
+    // how often the selecting thread looks for idle connections
+    private static final long IDLE_CHECK_MILLIS = 1000L;
+
     private final String identifier;
     private final int port;
     private final SSLContext sslContext;
+    private final int maxWorkerThreads;
+    private volatile long idleTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
     protected volatile boolean stopped = false;
-    private final Set<Thread> processInputThreads = new CopyOnWriteArraySet<>();
+
+    private final Set<ClientConnection> connections = new CopyOnWriteArraySet<>();
+    private final Queue<ClientConnection> resumableConnections = new ConcurrentLinkedQueue<>();
 
     private volatile ServerSocketChannel serverSocketChannel;
+    private volatile Selector selector;
+    private volatile ExecutorService workerPool;
 
     public AbstractCacheServer(final String identifier, final SSLContext sslContext, final int port) {
+        this(identifier, sslContext, port, DEFAULT_MAX_WORKER_THREADS);
+    }
+
+    public AbstractCacheServer(final String identifier, final SSLContext sslContext, final int port, final int maxWorkerThreads) {
+        if (maxWorkerThreads < 1) {
+            throw new IllegalArgumentException("Maximum number of worker threads must be at least 1");
+        }
+
         this.identifier = identifier;
         this.port = port;
         this.sslContext = sslContext;
+        this.maxWorkerThreads = maxWorkerThreads;
     }
 
     @Override
@@ -66,101 +119,167 @@ public abstract class AbstractCacheServer implements CacheServer {
         return serverSocketChannel == null ? this.port : serverSocketChannel.socket().getLocalPort();
     }
 
+    /**
+     * Sets how long a client may remain connected without sending a request before its connection is closed. Must be called
+     * before the server is started.
+     *
+     * @param idleTimeout the idle timeout
+     * @param timeUnit the unit of the idle timeout
+     */
+    void setIdleTimeout(final long idleTimeout, final TimeUnit timeUnit) {
+        this.idleTimeoutMillis = timeUnit.toMillis(idleTimeout);
+    }
+
     @Override
     public void start() throws IOException {
         serverSocketChannel = ServerSocketChannel.open();
-        serverSocketChannel.configureBlocking(true);
+        serverSocketChannel.configureBlocking(false);
         serverSocketChannel.bind(new InetSocketAddress(port));
 
-        final Runnable runnable = new Runnable() {
+        selector = Selector.open();
+        serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
 
-            @Override
-            public void run() {
-                while (true) {
-                    final SocketChannel socketChannel;
-                    try {
-                        socketChannel = serverSocketChannel.accept();
-                        logger.debug("Connected to {}", new Object[]{socketChannel});
-                    } catch (final IOException e) {
-                        if (!stopped) {
-                            logger.error("{} unable to accept connection from remote peer due to {}", this, e.toString());
-                            if (logger.isDebugEnabled()) {
-                                logger.error("", e);
-                            }
-                        }
-                        return;
-                    }
+        final AtomicInteger threadCounter = new AtomicInteger(0);
+        workerPool = new ThreadPoolExecutor(maxWorkerThreads, maxWorkerThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_CONNECTIONS), runnable -> {
+            final Thread workerThread = new Thread(runnable);
+            workerThread.setName("Distributed Cache Server Communications Thread-" + threadCounter.incrementAndGet() + ": " + identifier);
+            workerThread.setDaemon(true);
+            return workerThread;
+        });
 
-                    final Runnable processInputRunnable = new Runnable() {
-                        @Override
-                        public void run() {
-                            final InputStream rawInputStream;
-                            final OutputStream rawOutputStream;
-                            final String peer = socketChannel.socket().getInetAddress().getHostName();
-
-                            try {
-                                if (sslContext == null) {
-                                    rawInputStream = new SocketChannelInputStream(socketChannel);
-                                    rawOutputStream = new SocketChannelOutputStream(socketChannel);
-                                } else {
-                                    final SSLSocketChannel sslSocketChannel = new SSLSocketChannel(sslContext, socketChannel, false);
-                                    sslSocketChannel.connect();
-                                    rawInputStream = new SSLSocketChannelInputStream(sslSocketChannel);
-                                    rawOutputStream = new SSLSocketChannelOutputStream(sslSocketChannel);
-                                }
-                            } catch (IOException e) {
-                                logger.error("Cannot create input and/or output streams for {}", new Object[]{identifier}, e);
-                                if (logger.isDebugEnabled()) {
-                                    logger.error("", e);
-                                }
-                                try {
-                                    socketChannel.close();
-                                } catch (IOException swallow) {
-                                }
+        final Thread thread = new Thread(this::selectLoop);
+        thread.setDaemon(true);
+        thread.setName("Distributed Cache Server: " + identifier);
+        thread.start();
+    }
 
-                                return;
-                            }
-                            try (final InputStream in = new BufferedInputStream(rawInputStream);
-                                 final OutputStream out = new BufferedOutputStream(rawOutputStream)) {
+    private void selectLoop() {
+        long nextIdleCheck = System.currentTimeMillis() + IDLE_CHECK_MILLIS;
+        while (!stopped) {
+            try {
+                selector.select(IDLE_CHECK_MILLIS);
 
-                                final VersionNegotiator versionNegotiator = getVersionNegotiator();
+                // Start watching again for requests from clients whose previous requests have all been served
+                ClientConnection connection;
+                while ((connection = resumableConnections.poll()) != null) {
+                    connection.resume();
+                }
 
-                                ProtocolHandshake.receiveHandshake(in, out, versionNegotiator);
+                final Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    final SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
 
-                                boolean continueComms = true;
-                                while (continueComms) {
-                                    continueComms = listen(in, out, versionNegotiator.getVersion());
-                                }
-                                // client has issued 'close'
-                                logger.debug("Client issued close on {}", new Object[]{socketChannel});
-                            } catch (final SocketTimeoutException e) {
-                                logger.debug("30 sec timeout reached", e);
-                            } catch (final IOException | HandshakeException e) {
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            // Stop watching the connection until a worker thread has served all of its pending requests
+                            key.interestOps(0);
+                            final ClientConnection readyConnection = (ClientConnection) key.attachment();
+                            readyConnection.serving = true;
+                            try {
+                                workerPool.execute(() -> serve(readyConnection));
+                            } catch (final RejectedExecutionException ree) {
                                 if (!stopped) {
-                                    logger.error("{} unable to communicate with remote peer {} due to {}", new Object[]{this, peer, e.toString()});
-                                    if (logger.isDebugEnabled()) {
-                                        logger.error("", e);
-                                    }
+                                    logger.warn("{} has too many clients waiting to be served; closing connection to {}", this, readyConnection.getPeer());
                                 }
-                            } finally {
-                                processInputThreads.remove(Thread.currentThread());
+                                readyConnection.close();
                             }
                         }
-                    };
+                    } catch (final CancelledKeyException cke) {
+                        // connection was closed by a worker thread
+                    }
+                }
 
-                    final Thread processInputThread = new Thread(processInputRunnable);
-                    processInputThread.setName("Distributed Cache Server Communications Thread: " + identifier);
-                    processInputThread.setDaemon(true);
-                    processInputThread.start();
-                    processInputThreads.add(processInputThread);
+                final long now = System.currentTimeMillis();
+                if (now >= nextIdleCheck) {
+                    closeIdleConnections(now);
+                    nextIdleCheck = now + IDLE_CHECK_MILLIS;
+                }
+            } catch (final IOException | ClosedSelectorException e) {
+                if (!stopped) {
+                    logger.error("{} unable to accept connection from remote peer due to {}", this, e.toString());
+                    if (logger.isDebugEnabled()) {
+                        logger.error("", e);
+                    }
                 }
+                return;
             }
-        };
+        }
+    }
 
-        final Thread thread = new Thread(runnable);
-        thread.setDaemon(true);
-        thread.setName("Distributed Cache Server: " + identifier);
-        thread.start();
+    /**
+     * Closes the connections that are waiting for a request and have not received one within the idle timeout. Only called by the
+     * selecting thread, which is also the only thread that hands connections to, and takes them back from, the worker threads.
+     */
+    private void closeIdleConnections(final long now) {
+        for (final ClientConnection connection : connections) {
+            if (!connection.serving && now - connection.lastActivity > idleTimeoutMillis) {
+                logger.debug("Closing connection to {} as no request was received within {} millis", new Object[]{connection.socketChannel, idleTimeoutMillis});
+                connection.close();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        final SocketChannel socketChannel = serverSocketChannel.accept();
+        if (socketChannel == null) {
+            return;
+        }
+
+        logger.debug("Connected to {}", new Object[]{socketChannel});
+        socketChannel.configureBlocking(false);
+        final SelectionKey key = socketChannel.register(selector, SelectionKey.OP_READ);
+        final ClientConnection connection = new ClientConnection(socketChannel, key);
+        key.attach(connection);
+        connections.add(connection);
+    }
+
+    private void serve(final ClientConnection connection) {
+        final SocketChannel socketChannel = connection.socketChannel;
+
+        boolean resumed = false;
+        try {
+            if (connection.version < 0) {
+                connection.handshake();
+            }
+
+            boolean continueComms;
+            do {
+                do {
+                    continueComms = listen(connection.in, connection.out, connection.version);
+                } while (continueComms && connection.hasPendingData());
+
+                if (continueComms && !stopped) {
+                    connection.flush();
+                }
+                // the client may have sent further requests while the responses were sent, which the selector will not report
+                // if they have already been read into the SSL layer
+            } while (continueComms && !stopped && connection.hasPendingData());
+
+            if (continueComms && !stopped) {
+                resumableConnections.offer(connection);
+                selector.wakeup();
+                resumed = true;
+            } else {
+                // client has issued 'close'
+                logger.debug("Client issued close on {}", new Object[]{socketChannel});
+            }
+        } catch (final SocketTimeoutException e) {
+            logger.debug("Timed out waiting for request from {}", new Object[]{socketChannel}, e);
+        } catch (final IOException | HandshakeException e) {
+            if (!stopped) {
+                logger.error("{} unable to communicate with remote peer {} due to {}", new Object[]{this, connection.getPeer(), e.toString()});
+                if (logger.isDebugEnabled()) {
+                    logger.error("", e);
+                }
+            }
+        } finally {
+            if (!resumed) {
+                connection.close();
+            }
+        }
     }
 
     /**
@@ -179,19 +298,25 @@ public abstract class AbstractCacheServer implements CacheServer {
         if (serverSocketChannel != null && serverSocketChannel.isOpen()) {
             serverSocketChannel.close();
         }
-        // need to close out the created SocketChannels...this is done by interrupting
-        // the created threads that loop on listen().
-        for (Thread processInputThread : processInputThreads) {
-            processInputThread.interrupt();
-            int i = 0;
-            while (!processInputThread.isInterrupted() && i++ < 5) {
-                try {
-                    Thread.sleep(50); // allow thread to gracefully terminate
-                } catch (InterruptedException e) {
-                }
+
+        if (selector != null) {
+            selector.close();
+        }
+
+        // close out the connections to all clients, including any that are currently being served
+        for (final ClientConnection connection : connections) {
+            connection.close();
+        }
+
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+            try {
+                workerPool.awaitTermination(250, TimeUnit.MILLISECONDS); // allow threads to gracefully terminate
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
-        processInputThreads.clear();
+        resumableConnections.clear();
     }
 
     @Override
@@ -200,7 +325,8 @@ public abstract class AbstractCacheServer implements CacheServer {
     }
 
     /**
-     * Listens for incoming data and communicates with remote peer
+     * Listens for incoming data and communicates with remote peer. Data written to the given OutputStream is sent to the
+     * remote peer once there are no further requests pending from it, regardless of when the stream is flushed.
      *
      * @param in in
      * @param out out
@@ -209,4 +335,166 @@ public abstract class AbstractCacheServer implements CacheServer {
      * @throws IOException ex
      */
     protected abstract boolean listen(InputStream in, OutputStream out, int version) throws IOException;
+
+    /**
+     * Called once the connection to a client has been closed, so that any state that the server keeps for that client can be released
+     *
+     * @param out the stream that was provided to {@link #listen(InputStream, OutputStream, int)} for the client
+     */
+    protected void onDisconnect(final OutputStream out) {
+    }
+
+    /**
+     * Returns a stream that writes to the same client as the given stream, which was provided to
+     * {@link #listen(InputStream, OutputStream, int)}, but which sends data as soon as it is flushed. This allows a server to push
+     * messages to a client outside of the request/response cycle. Writers must synchronize on the returned stream, and each message
+     * should be written with a single call to {@link OutputStream#write(byte[])}.
+     *
+     * @param out the stream that was provided to listen
+     * @return a stream that sends data to the client when flushed
+     */
+    protected static OutputStream getImmediateOutputStream(final OutputStream out) {
+        return out instanceof DeferredFlushOutputStream ? ((DeferredFlushOutputStream) out).getWrapped() : out;
+    }
+
+    /**
+     * Writes to the buffered stream of a connection but ignores requests to flush it, as responses are flushed once all
+     * pending requests have been served.
+     */
+    private static class DeferredFlushOutputStream extends FilterOutputStream {
+        DeferredFlushOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        OutputStream getWrapped() {
+            return out;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            // the connection is closed by the server
+        }
+    }
+
+
+    /**
+     * The state of the connection to a single client. A connection is served by at most one worker thread at a time.
+     */
+    private class ClientConnection {
+        private final SocketChannel socketChannel;
+        private final SelectionKey key;
+
+        // accessed only by the selecting thread
+        private boolean serving = false;
+        private long lastActivity = System.currentTimeMillis();
+
+        private SSLSocketChannel sslSocketChannel;
+        private InputStream in;
+        private OutputStream bufferedOut;
+        private OutputStream out;
+        private int version = -1;
+
+        ClientConnection(final SocketChannel socketChannel, final SelectionKey key) {
+            this.socketChannel = socketChannel;
+            this.key = key;
+        }
+
+        void handshake() throws IOException, HandshakeException {
+            final InputStream rawInputStream;
+            final OutputStream rawOutputStream;
+            if (sslContext == null) {
+                rawInputStream = new SocketChannelInputStream(socketChannel);
+                rawOutputStream = new SocketChannelOutputStream(socketChannel);
+            } else {
+                sslSocketChannel = new SSLSocketChannel(sslContext, socketChannel, false);
+                sslSocketChannel.connect();
+                rawInputStream = new SSLSocketChannelInputStream(sslSocketChannel);
+                rawOutputStream = new SSLSocketChannelOutputStream(sslSocketChannel);
+            }
+
+            bufferedOut = new BufferedOutputStream(rawOutputStream);
+            in = new BufferedInputStream(new FilterInputStream(rawInputStream) {
+                // Any responses that are still buffered must be sent before we block waiting on the client,
+                // as the client may be waiting for those responses before it sends another request.
+                @Override
+                public int read() throws IOException {
+                    bufferedOut.flush();
+                    return super.read();
+                }
+
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    bufferedOut.flush();
+                    return super.read(b, off, len);
+                }
+            });
+            out = new DeferredFlushOutputStream(bufferedOut);
+
+            final VersionNegotiator versionNegotiator = getVersionNegotiator();
+            ProtocolHandshake.receiveHandshake(in, bufferedOut, versionNegotiator);
+            version = versionNegotiator.getVersion();
+        }
+
+        void flush() throws IOException {
+            bufferedOut.flush();
+        }
+
+        /**
+         * Indicates whether data from the client has already been received but not yet read. The selector only reports data that is
+         * waiting on the socket, so data that has been read into the buffers, including the SSL layer's buffers, must be checked
+         * before the connection is returned to the selector.
+         */
+        boolean hasPendingData() throws IOException {
+            if (in.available() > 0) {
+                return true;
+            }
+            return sslSocketChannel != null && sslSocketChannel.available() > 0;
+        }
+
+        void resume() {
+            serving = false;
+            lastActivity = System.currentTimeMillis();
+            try {
+                key.interestOps(SelectionKey.OP_READ);
+            } catch (final CancelledKeyException cke) {
+                close();
+            }
+        }
+
+        String getPeer() {
+            return socketChannel.socket().getInetAddress().getHostName();
+        }
+
+        void close() {
+            if (!connections.remove(this)) {
+                return;
+            }
+            key.cancel();
+
+            try {
+                if (in != null) {
+                    in.close();
+                }
+            } catch (final IOException ignored) {
+            }
+
+            try {
+                socketChannel.close();
+            } catch (final IOException ignored) {
+            }
+
+            if (out != null) {
+                onDisconnect(out);
+            }
+        }
+    }
 }
@@ -26,4 +26,9 @@ public interface CacheServer {
 
     int getPort();
 
+    /**
+     * @return a snapshot of the size and effectiveness of the cache that is served
+     */
+    CacheStatistics getStatistics();
+
 }
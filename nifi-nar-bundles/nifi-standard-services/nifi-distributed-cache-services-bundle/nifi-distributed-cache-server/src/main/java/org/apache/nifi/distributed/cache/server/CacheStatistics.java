@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server;
+
+/**
+ * A point-in-time snapshot of the size of a cache and of how effective it has been.
+ */
+public class CacheStatistics {
+
+    private final int entryCount;
+    private final long byteCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    public CacheStatistics(final int entryCount, final long byteCount, final long hitCount, final long missCount, final long evictionCount) {
+        this.entryCount = entryCount;
+        this.byteCount = byteCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the number of bytes occupied by the keys and values in the cache
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * @return the number of lookups that found an entry in the cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of lookups that did not find an entry in the cache
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of entries that have been evicted to make room for new entries
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics[entries=" + entryCount + ", bytes=" + byteCount + ", hits=" + hitCount + ", misses=" + missCount
+            + ", evictions=" + evictionCount + "]";
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.nifi.annotation.lifecycle.OnEnabled;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.AbstractControllerService;
 import org.apache.nifi.controller.ConfigurationContext;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.ssl.RestrictedSSLContextService;
 
@@ -55,6 +56,13 @@ public abstract class DistributedCacheServer extends AbstractControllerService {
         .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
         .defaultValue("10000")
         .build();
+    public static final PropertyDescriptor MAX_CACHE_SIZE = new PropertyDescriptor.Builder()
+        .name("Maximum Cache Size")
+        .description("The maximum amount of data, counting both keys and values, that the cache can hold. If not specified, "
+            + "the cache is limited only by the number of entries that it holds")
+        .required(false)
+        .addValidator(StandardValidators.DATA_SIZE_VALIDATOR)
+        .build();
     public static final PropertyDescriptor EVICTION_POLICY = new PropertyDescriptor.Builder()
         .name("Eviction Strategy")
         .description("Determines which strategy should be used to evict values from the cache to make room for new entries")
@@ -76,6 +84,7 @@ public abstract class DistributedCacheServer extends AbstractControllerService {
         final List<PropertyDescriptor> properties = new ArrayList<>();
         properties.add(PORT);
         properties.add(MAX_CACHE_ENTRIES);
+        properties.add(MAX_CACHE_SIZE);
         properties.add(EVICTION_POLICY);
         properties.add(PERSISTENCE_PATH);
         properties.add(SSL_CONTEXT_SERVICE);
@@ -93,6 +102,7 @@ public abstract class DistributedCacheServer extends AbstractControllerService {
     @OnDisabled
     public void shutdownServer() throws IOException {
         if (cacheServer != null) {
+            getLogger().info("Shutting down {}; cache statistics: {}", new Object[] {cacheServer, cacheServer.getStatistics()});
             cacheServer.stop();
         }
         cacheServer = null;
@@ -110,5 +120,23 @@ public abstract class DistributedCacheServer extends AbstractControllerService {
         return cacheServer == null ? -1 : cacheServer.getPort();
     }
 
+    /**
+     * @return the number of entries in the cache, along with the number of cache hits, misses and evictions since the server was started,
+     *         or <code>null</code> if the server has not been started
+     */
+    public CacheStatistics getStatistics() {
+        final CacheServer server = cacheServer;
+        return server == null ? null : server.getStatistics();
+    }
+
+    /**
+     * @param context the configuration context
+     * @return the maximum number of bytes that the cache may hold, or -1 if the cache is not limited by size
+     */
+    protected long getMaxCacheBytes(final ConfigurationContext context) {
+        final Double maxBytes = context.getProperty(MAX_CACHE_SIZE).asDataSize(DataUnit.B);
+        return maxBytes == null ? -1L : maxBytes.longValue();
+    }
+
     protected abstract CacheServer createCacheServer(ConfigurationContext context);
 }
@@ -37,6 +37,7 @@ public class DistributedSetCacheServer extends DistributedCacheServer {
         final String persistencePath = context.getProperty(PERSISTENCE_PATH).getValue();
         final SSLContextService sslContextService = context.getProperty(SSL_CONTEXT_SERVICE).asControllerService(SSLContextService.class);
         final int maxSize = context.getProperty(MAX_CACHE_ENTRIES).asInteger();
+        final long maxBytes = getMaxCacheBytes(context);
         final String evictionPolicyName = context.getProperty(EVICTION_POLICY).getValue();
 
         final SSLContext sslContext;
@@ -64,7 +65,7 @@ public class DistributedSetCacheServer extends DistributedCacheServer {
         try {
             final File persistenceDir = persistencePath == null ? null : new File(persistencePath);
 
-            return new SetCacheServer(getIdentifier(), sslContext, port, maxSize, evictionPolicy, persistenceDir);
+            return new SetCacheServer(getIdentifier(), sslContext, port, maxSize, maxBytes, evictionPolicy, persistenceDir);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
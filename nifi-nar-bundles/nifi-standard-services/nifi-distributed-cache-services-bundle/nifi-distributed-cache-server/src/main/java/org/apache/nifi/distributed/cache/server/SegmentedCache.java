@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * A concurrent cache of {@link CacheRecord}s, keyed on ByteBuffers. Keys are spread over a number of segments, each of
+ * which is guarded by its own lock, so that requests for different keys seldom contend with one another.
+ * </p>
+ *
+ * <p>
+ * Each segment links its records into the order in which they are to be evicted, and maintains that order in constant time
+ * as records are added and accessed: insertion order for {@link EvictionPolicy#FIFO FIFO}, access order for
+ * {@link EvictionPolicy#LRU LRU}, and a list of buckets of records with equal hit counts for {@link EvictionPolicy#LFU LFU}.
+ * Records with equal hit counts are evicted in the order in which they reached that count.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by the number of records that it holds and, optionally, by the number of bytes that their keys and values
+ * occupy. Both bounds are divided evenly among the segments, and records are only evicted from the segment that a new record is
+ * added to. Small caches use a single segment so that they evict in exactly the order given by their policy.
+ * </p>
+ *
+ * @param <R> the type of record held by the cache
+ */
+public class SegmentedCache<R extends CacheRecord> {
+
+    static final int MIN_ENTRIES_PER_SEGMENT = 1024;
+    static final int MAX_SEGMENTS = 64;
+
+    private final List<Segment<R>> segments;
+    private final int segmentMask;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxEntries the maximum number of records that the cache can hold
+     * @param maxBytes the maximum number of bytes that the keys and values of the records may occupy, or a value less than 1 for no limit
+     * @param evictionPolicy determines which records are evicted to make room for new records
+     */
+    public SegmentedCache(final int maxEntries, final long maxBytes, final EvictionPolicy evictionPolicy) {
+        this(maxEntries, maxBytes, evictionPolicy, getSegmentCount(maxEntries));
+    }
+
+    SegmentedCache(final int maxEntries, final long maxBytes, final EvictionPolicy evictionPolicy, final int segmentCount) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum number of entries must be positive but was " + maxEntries);
+        }
+        if (Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("Number of segments must be a power of 2 but was " + segmentCount);
+        }
+
+        segments = new ArrayList<>(segmentCount);
+        segmentMask = segmentCount - 1;
+
+        for (int i = 0; i < segmentCount; i++) {
+            final int segmentEntries = maxEntries / segmentCount + (i < maxEntries % segmentCount ? 1 : 0);
+            final long segmentBytes = maxBytes < 1 ? Long.MAX_VALUE : Math.max(1L, maxBytes / segmentCount);
+            segments.add(new Segment<>(this, evictionPolicy, Math.max(1, segmentEntries), segmentBytes));
+        }
+    }
+
+    private static int getSegmentCount(final int maxEntries) {
+        final int segmentCount = Integer.highestOneBit(Math.max(1, maxEntries / MIN_ENTRIES_PER_SEGMENT));
+        return Math.min(MAX_SEGMENTS, segmentCount);
+    }
+
+    private Segment<R> getSegment(final ByteBuffer key) {
+        final int hash = key.hashCode();
+        return segments.get((hash ^ (hash >>> 16)) & segmentMask);
+    }
+
+    /**
+     * Performs the given action while holding the lock of the segment that the given key belongs to. Compound operations,
+     * such as 'put if absent' or 'replace if unchanged', must be performed this way in order to be atomic. The action
+     * must only access the given key.
+     *
+     * @param key the key to operate on
+     * @param action the action to perform
+     * @param <T> the type of result returned by the action
+     * @return the result of the action
+     */
+    public <T> T atomically(final ByteBuffer key, final Function<Segment<R>, T> action) {
+        final Segment<R> segment = getSegment(key);
+        segment.lock.lock();
+        try {
+            return action.apply(segment);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all records whose key matches the given filter, locking one segment at a time.
+     *
+     * @param keyFilter determines which records to remove
+     * @return the records that were removed
+     */
+    public List<R> removeIf(final Predicate<ByteBuffer> keyFilter) {
+        final List<R> removed = new ArrayList<>();
+        for (final Segment<R> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.removeIf(keyFilter, removed);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (final Segment<R> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.nodes.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return size;
+    }
+
+    public CacheStatistics getStatistics() {
+        int entryCount = 0;
+        long byteCount = 0L;
+        for (final Segment<R> segment : segments) {
+            segment.lock.lock();
+            try {
+                entryCount += segment.nodes.size();
+                byteCount += segment.byteCount;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return new CacheStatistics(entryCount, byteCount, hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * A portion of the cache that is guarded by a single lock. The methods of a Segment may only be called from within
+     * {@link SegmentedCache#atomically(ByteBuffer, Function)}.
+     *
+     * @param <R> the type of record held by the segment
+     */
+    public static final class Segment<R extends CacheRecord> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<ByteBuffer, Node<R>> nodes = new HashMap<>();
+
+        private final SegmentedCache<R> cache;
+        private final EvictionPolicy evictionPolicy;
+        private final int maxEntries;
+        private final long maxBytes;
+
+        // The buckets are ordered from the first to be evicted to the last. LFU uses one bucket per distinct hit count,
+        // whereas FIFO and LRU keep all records in a single bucket.
+        private Bucket<R> firstBucket;
+        private long byteCount;
+
+        private Segment(final SegmentedCache<R> cache, final EvictionPolicy evictionPolicy, final int maxEntries, final long maxBytes) {
+            this.cache = cache;
+            this.evictionPolicy = evictionPolicy;
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Returns the record for the given key without counting it as a hit
+         *
+         * @param key the key
+         * @return the record for the key, or <code>null</code> if there is none
+         */
+        public R get(final ByteBuffer key) {
+            final Node<R> node = nodes.get(key);
+            return node == null ? null : node.record;
+        }
+
+        /**
+         * Returns the record for the given key, counting it as a hit or miss and updating the eviction order accordingly
+         *
+         * @param key the key
+         * @return the record for the key, or <code>null</code> if there is none
+         */
+        public R hit(final ByteBuffer key) {
+            final Node<R> node = nodes.get(key);
+            if (node == null) {
+                cache.missCount.increment();
+                return null;
+            }
+
+            cache.hitCount.increment();
+            node.record.hit();
+
+            switch (evictionPolicy) {
+                case LRU:
+                    unlink(node);
+                    link(node, firstBucket);
+                    break;
+                case LFU: {
+                    final Bucket<R> current = node.bucket;
+                    final int hits = current.hits + 1;
+                    Bucket<R> next = current.next;
+                    if (next == null || next.hits != hits) {
+                        next = new Bucket<>(hits);
+                        insertAfter(current, next);
+                    }
+                    unlink(node);
+                    link(node, next);
+                    break;
+                }
+                default:
+                    break;
+            }
+
+            return node.record;
+        }
+
+        /**
+         * Adds the given record, replacing any record that already exists for the key, and evicts as many records as are
+         * necessary to keep the segment within its bounds. The new record itself is never evicted, even if it alone exceeds
+         * the maximum number of bytes.
+         *
+         * @param key the key
+         * @param record the record to add
+         * @param bytes the number of bytes occupied by the key and value of the record
+         * @param evicted the list to add any evicted records to
+         * @return the record that was replaced, or <code>null</code> if there was none
+         */
+        public R put(final ByteBuffer key, final R record, final long bytes, final List<R> evicted) {
+            final R existing = remove(key);
+
+            while (!nodes.isEmpty() && (nodes.size() >= maxEntries || byteCount + bytes > maxBytes)) {
+                final Node<R> victim = firstBucket.head;
+                removeNode(victim);
+                cache.evictionCount.increment();
+                evicted.add(victim.record);
+            }
+
+            final Node<R> node = new Node<>(key, record, bytes);
+            nodes.put(key, node);
+            byteCount += bytes;
+
+            if (evictionPolicy == EvictionPolicy.LFU) {
+                Bucket<R> bucket = firstBucket;
+                if (bucket == null || bucket.hits != 0) {
+                    bucket = new Bucket<>(0);
+                    insertFirst(bucket);
+                }
+                link(node, bucket);
+            } else {
+                if (firstBucket == null) {
+                    insertFirst(new Bucket<>(0));
+                }
+                link(node, firstBucket);
+            }
+
+            return existing;
+        }
+
+        /**
+         * Removes the record for the given key
+         *
+         * @param key the key
+         * @return the record that was removed, or <code>null</code> if there was none
+         */
+        public R remove(final ByteBuffer key) {
+            final Node<R> node = nodes.get(key);
+            if (node == null) {
+                return null;
+            }
+
+            removeNode(node);
+            return node.record;
+        }
+
+        private void removeIf(final Predicate<ByteBuffer> keyFilter, final List<R> removed) {
+            final Iterator<Node<R>> itr = nodes.values().iterator();
+            while (itr.hasNext()) {
+                final Node<R> node = itr.next();
+                if (keyFilter.test(node.key)) {
+                    itr.remove();
+                    unlink(node);
+                    byteCount -= node.bytes;
+                    removed.add(node.record);
+                }
+            }
+        }
+
+        private void removeNode(final Node<R> node) {
+            nodes.remove(node.key);
+            unlink(node);
+            byteCount -= node.bytes;
+        }
+
+        private void link(final Node<R> node, final Bucket<R> bucket) {
+            node.bucket = bucket;
+            node.prev = bucket.tail;
+            node.next = null;
+            if (bucket.tail == null) {
+                bucket.head = node;
+            } else {
+                bucket.tail.next = node;
+            }
+            bucket.tail = node;
+        }
+
+        private void unlink(final Node<R> node) {
+            final Bucket<R> bucket = node.bucket;
+            if (node.prev == null) {
+                bucket.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                bucket.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.bucket = null;
+
+            if (bucket.head == null && evictionPolicy == EvictionPolicy.LFU) {
+                removeBucket(bucket);
+            }
+        }
+
+        private void insertFirst(final Bucket<R> bucket) {
+            bucket.next = firstBucket;
+            if (firstBucket != null) {
+                firstBucket.prev = bucket;
+            }
+            firstBucket = bucket;
+        }
+
+        private void insertAfter(final Bucket<R> existing, final Bucket<R> bucket) {
+            bucket.prev = existing;
+            bucket.next = existing.next;
+            if (existing.next != null) {
+                existing.next.prev = bucket;
+            }
+            existing.next = bucket;
+        }
+
+        private void removeBucket(final Bucket<R> bucket) {
+            if (bucket.prev == null) {
+                if (firstBucket == bucket) {
+                    firstBucket = bucket.next;
+                }
+            } else {
+                bucket.prev.next = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.prev = bucket.prev;
+            }
+            bucket.prev = null;
+            bucket.next = null;
+        }
+    }
+
+    private static final class Node<R> {
+        private final ByteBuffer key;
+        private final R record;
+        private final long bytes;
+
+        private Bucket<R> bucket;
+        private Node<R> prev;
+        private Node<R> next;
+
+        private Node(final ByteBuffer key, final R record, final long bytes) {
+            this.key = key;
+            this.record = record;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class Bucket<R> {
+        private final int hits;
+
+        private Node<R> head;
+        private Node<R> tail;
+        private Bucket<R> prev;
+        private Bucket<R> next;
+
+        private Bucket(final int hits) {
+            this.hits = hits;
+        }
+    }
+}
@@ -26,30 +26,41 @@ import java.nio.ByteBuffer;
 import javax.net.ssl.SSLContext;
 
 import org.apache.nifi.distributed.cache.server.set.PersistentSetCache;
+import org.apache.nifi.distributed.cache.server.set.SegmentedSetCache;
 import org.apache.nifi.distributed.cache.server.set.SetCache;
 import org.apache.nifi.distributed.cache.server.set.SetCacheResult;
-import org.apache.nifi.distributed.cache.server.set.SimpleSetCache;
 import org.apache.nifi.stream.io.DataOutputStream;
 
 public class SetCacheServer extends AbstractCacheServer {
 
     private final SetCache cache;
+    private final SegmentedSetCache segmentedCache;
 
     public SetCacheServer(final String identifier, final SSLContext sslContext, final int port, final int maxSize,
             final EvictionPolicy evictionPolicy, final File persistencePath) throws IOException {
+        this(identifier, sslContext, port, maxSize, -1L, evictionPolicy, persistencePath);
+    }
+
+    public SetCacheServer(final String identifier, final SSLContext sslContext, final int port, final int maxSize, final long maxBytes,
+            final EvictionPolicy evictionPolicy, final File persistencePath) throws IOException {
         super(identifier, sslContext, port);
 
-        final SetCache simpleCache = new SimpleSetCache(identifier, maxSize, evictionPolicy);
+        this.segmentedCache = new SegmentedSetCache(identifier, maxSize, maxBytes, evictionPolicy);
 
         if (persistencePath == null) {
-            this.cache = simpleCache;
+            this.cache = segmentedCache;
         } else {
-            final PersistentSetCache persistentCache = new PersistentSetCache(identifier, persistencePath, simpleCache);
+            final PersistentSetCache persistentCache = new PersistentSetCache(identifier, persistencePath, segmentedCache);
             persistentCache.restore();
             this.cache = persistentCache;
         }
     }
 
+    @Override
+    public CacheStatistics getStatistics() {
+        return segmentedCache.getStatistics();
+    }
+
     @Override
     protected boolean listen(final InputStream in, final OutputStream out, final int version) throws IOException {
         final DataInputStream dis = new DataInputStream(in);
@@ -43,6 +43,7 @@ public class DistributedMapCacheServer extends DistributedCacheServer {
         final String persistencePath = context.getProperty(PERSISTENCE_PATH).getValue();
         final SSLContextService sslContextService = context.getProperty(SSL_CONTEXT_SERVICE).asControllerService(SSLContextService.class);
         final int maxSize = context.getProperty(MAX_CACHE_ENTRIES).asInteger();
+        final long maxBytes = getMaxCacheBytes(context);
         final String evictionPolicyName = context.getProperty(EVICTION_POLICY).getValue();
 
         final SSLContext sslContext;
@@ -70,14 +71,15 @@ public class DistributedMapCacheServer extends DistributedCacheServer {
         try {
             final File persistenceDir = persistencePath == null ? null : new File(persistencePath);
 
-            return createMapCacheServer(port, maxSize, sslContext, evictionPolicy, persistenceDir);
+            return createMapCacheServer(port, maxSize, maxBytes, sslContext, evictionPolicy, persistenceDir);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    protected MapCacheServer createMapCacheServer(int port, int maxSize, SSLContext sslContext, EvictionPolicy evictionPolicy, File persistenceDir) throws IOException {
-        return new MapCacheServer(getIdentifier(), sslContext, port, maxSize, evictionPolicy, persistenceDir);
+    protected MapCacheServer createMapCacheServer(int port, int maxSize, long maxBytes, SSLContext sslContext, EvictionPolicy evictionPolicy, File persistenceDir)
+            throws IOException {
+        return new MapCacheServer(getIdentifier(), sslContext, port, maxSize, maxBytes, evictionPolicy, persistenceDir);
     }
 
 }
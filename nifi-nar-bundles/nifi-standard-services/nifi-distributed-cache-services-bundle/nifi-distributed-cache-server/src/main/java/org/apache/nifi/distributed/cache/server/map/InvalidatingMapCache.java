@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server.map;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A {@link MapCache} that notifies subscribed clients whenever a key that they have read is modified, removed or evicted, so that
+ * the clients may keep a local copy of the values that they read frequently.
+ * </p>
+ *
+ * <p>
+ * A client subscribes on a dedicated connection, which is then used only to push invalidations to the client. The client then
+ * asks for each key that it intends to keep locally to be tracked, and it is sent the key once the next time that the key changes,
+ * after which the key is no longer tracked for that client. Each invalidation is sent as the length of the key followed by the key.
+ * </p>
+ *
+ * <p>
+ * Invalidations are queued for each subscriber and sent by a background thread, so that a slow client does not hold up the
+ * request that changed the key. A subscriber that falls more than {@link #MAX_PENDING_INVALIDATIONS} invalidations behind, or
+ * that cannot be written to, is dropped and its connection closed, so that the client discards the values that it has kept.
+ * </p>
+ */
+public class InvalidatingMapCache implements MapCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidatingMapCache.class);
+
+    static final int MAX_PENDING_INVALIDATIONS = 10000;
+
+    private final MapCache wrapped;
+
+    private final AtomicLong subscriberIdGenerator = new AtomicLong(0L);
+    private final ConcurrentMap<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ByteBuffer, Set<Long>> trackedKeys = new ConcurrentHashMap<>();
+    private final ExecutorService notifier;
+
+    public InvalidatingMapCache(final MapCache cacheToWrap) {
+        this.wrapped = cacheToWrap;
+
+        final AtomicInteger threadCounter = new AtomicInteger(0);
+        this.notifier = Executors.newCachedThreadPool(runnable -> {
+            final Thread notifierThread = new Thread(runnable);
+            notifierThread.setName("Distributed Cache Invalidation Thread-" + threadCounter.incrementAndGet());
+            notifierThread.setDaemon(true);
+            return notifierThread;
+        });
+    }
+
+    /**
+     * Registers a client that is to be notified of changes to the keys that it tracks
+     *
+     * @param out the stream to push invalidations to, which must send data as soon as it is flushed. Invalidations are written
+     *            while holding the lock of this stream.
+     * @return the identifier of the subscriber
+     */
+    public long subscribe(final OutputStream out) {
+        final long subscriberId = subscriberIdGenerator.incrementAndGet();
+        subscribers.put(subscriberId, new Subscriber(subscriberId, out));
+        return subscriberId;
+    }
+
+    /**
+     * Removes the given subscriber and stops tracking any keys on its behalf
+     *
+     * @param subscriberId the identifier of the subscriber
+     * @return <code>true</code> if the subscriber was registered
+     */
+    public boolean unsubscribe(final long subscriberId) {
+        final Subscriber subscriber = subscribers.remove(subscriberId);
+        if (subscriber == null) {
+            return false;
+        }
+
+        untrackAll(subscriberId);
+        return true;
+    }
+
+    /**
+     * Removes any subscribers that push invalidations to the given stream. This is to be called when the client's connection is closed.
+     *
+     * @param out the stream that was given to {@link #subscribe(OutputStream)}
+     */
+    public void unsubscribe(final OutputStream out) {
+        for (final Subscriber subscriber : subscribers.values()) {
+            if (subscriber.out == out) {
+                unsubscribe(subscriber.id);
+            }
+        }
+    }
+
+    /**
+     * Requests that the given subscriber be notified the next time that the given key changes. Keys that are not in the cache are not
+     * tracked, as clients only keep values that they have read.
+     *
+     * @param subscriberId the identifier of the subscriber
+     * @param key the key to track
+     * @return <code>true</code> if the key is now tracked, <code>false</code> if the subscriber is unknown or the key is not in the cache
+     * @throws IOException if unable to determine whether the key is in the cache
+     */
+    public boolean track(final long subscriberId, final ByteBuffer key) throws IOException {
+        if (!subscribers.containsKey(subscriberId)) {
+            return false;
+        }
+
+        // Register before checking that the key exists, so that a concurrent change is either seen by the check or
+        // results in an invalidation being sent.
+        trackedKeys.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriberId);
+        if (wrapped.containsKey(key) && subscribers.containsKey(subscriberId)) {
+            return true;
+        }
+
+        // the key is not in the cache, or the subscriber was removed concurrently and may already have been purged
+        untrack(subscriberId, key);
+        return false;
+    }
+
+    int getTrackedKeyCount() {
+        return trackedKeys.size();
+    }
+
+    private void untrack(final long subscriberId, final ByteBuffer key) {
+        trackedKeys.computeIfPresent(key, (k, ids) -> {
+            ids.remove(subscriberId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void untrackAll(final long subscriberId) {
+        for (final ByteBuffer key : trackedKeys.keySet()) {
+            untrack(subscriberId, key);
+        }
+    }
+
+    private void invalidate(final ByteBuffer key) {
+        final Set<Long> subscriberIds = trackedKeys.remove(key);
+        if (subscriberIds == null) {
+            return;
+        }
+
+        final byte[] keyBytes = new byte[key.remaining()];
+        key.duplicate().get(keyBytes);
+
+        final byte[] message = ByteBuffer.allocate(4 + keyBytes.length).putInt(keyBytes.length).put(keyBytes).array();
+        for (final Long subscriberId : subscriberIds) {
+            final Subscriber subscriber = subscribers.get(subscriberId);
+            if (subscriber != null) {
+                subscriber.enqueue(message);
+            }
+        }
+    }
+
+    private void invalidate(final Collection<MapCacheRecord> records) {
+        for (final MapCacheRecord record : records) {
+            invalidate(record.getKey());
+        }
+    }
+
+    private MapPutResult invalidate(final ByteBuffer key, final MapPutResult putResult) {
+        if (putResult.isSuccessful()) {
+            invalidate(key);
+            invalidate(putResult.getEvictedRecords());
+        }
+        return putResult;
+    }
+
+    @Override
+    public MapPutResult putIfAbsent(final ByteBuffer key, final ByteBuffer value) throws IOException {
+        return invalidate(key, wrapped.putIfAbsent(key, value));
+    }
+
+    @Override
+    public MapPutResult put(final ByteBuffer key, final ByteBuffer value) throws IOException {
+        return invalidate(key, wrapped.put(key, value));
+    }
+
+    @Override
+    public boolean containsKey(final ByteBuffer key) throws IOException {
+        return wrapped.containsKey(key);
+    }
+
+    @Override
+    public ByteBuffer get(final ByteBuffer key) throws IOException {
+        return wrapped.get(key);
+    }
+
+    @Override
+    public MapCacheRecord fetch(final ByteBuffer key) throws IOException {
+        return wrapped.fetch(key);
+    }
+
+    @Override
+    public MapPutResult replace(final MapCacheRecord record) throws IOException {
+        return invalidate(record.getKey(), wrapped.replace(record));
+    }
+
+    @Override
+    public ByteBuffer remove(final ByteBuffer key) throws IOException {
+        final ByteBuffer removed = wrapped.remove(key);
+        if (removed != null) {
+            invalidate(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public Map<ByteBuffer, ByteBuffer> removeByPattern(final String regex) throws IOException {
+        final Map<ByteBuffer, ByteBuffer> removed = wrapped.removeByPattern(regex);
+        if (removed != null) {
+            for (final ByteBuffer key : removed.keySet()) {
+                invalidate(key);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+        notifier.shutdownNow();
+        subscribers.clear();
+        trackedKeys.clear();
+        wrapped.shutdown();
+    }
+
+    /**
+     * A subscribed client and the invalidations that have yet to be sent to it. At most one thread sends to a subscriber at a time.
+     */
+    private class Subscriber {
+        private final long id;
+        private final OutputStream out;
+        private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger(0);
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+        private volatile boolean dropped = false;
+        private volatile boolean closed = false;
+
+        Subscriber(final long id, final OutputStream out) {
+            this.id = id;
+            this.out = out;
+        }
+
+        void enqueue(final byte[] message) {
+            if (pendingCount.incrementAndGet() > MAX_PENDING_INVALIDATIONS) {
+                logger.warn("Subscriber {} has fallen more than {} invalidations behind; removing subscription", id, MAX_PENDING_INVALIDATIONS);
+                drop();
+            } else {
+                pending.offer(message);
+            }
+            scheduleSend();
+        }
+
+        /**
+         * Removes a subscriber that can no longer be kept up to date. Its connection is then closed so that the client finds
+         * that its subscription has been lost and discards the values that it has kept.
+         */
+        private void drop() {
+            dropped = true;
+            unsubscribe(id);
+        }
+
+        private void scheduleSend() {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                notifier.execute(this::sendPending);
+            } catch (final RejectedExecutionException ree) {
+                // the cache has been shut down
+                sending.set(false);
+            }
+        }
+
+        private void sendPending() {
+            try {
+                if (dropped) {
+                    close();
+                } else if (subscribers.get(id) != this) {
+                    // the client unsubscribed and is no longer interested
+                    pending.clear();
+                } else {
+                    send();
+                }
+            } finally {
+                sending.set(false);
+            }
+
+            // pick up anything that was queued after the last message was taken but before the flag was cleared
+            if (!pending.isEmpty() || (dropped && !closed)) {
+                scheduleSend();
+            }
+        }
+
+        private void send() {
+            try {
+                synchronized (out) {
+                    byte[] message;
+                    while ((message = pending.poll()) != null) {
+                        pendingCount.decrementAndGet();
+                        out.write(message);
+                    }
+                    out.flush();
+                }
+            } catch (final IOException e) {
+                logger.debug("Failed to notify subscriber {} of change; removing subscription", id, e);
+                drop();
+            }
+        }
+
+        private void close() {
+            pending.clear();
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            try {
+                out.close();
+            } catch (final IOException ignored) {
+            }
+        }
+    }
+}
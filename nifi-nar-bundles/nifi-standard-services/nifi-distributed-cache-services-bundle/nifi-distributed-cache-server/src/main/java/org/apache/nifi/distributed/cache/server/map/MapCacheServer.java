@@ -23,11 +23,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.net.ssl.SSLContext;
 
 import org.apache.nifi.distributed.cache.server.AbstractCacheServer;
+import org.apache.nifi.distributed.cache.server.CacheStatistics;
 import org.apache.nifi.distributed.cache.server.EvictionPolicy;
 import org.apache.nifi.remote.StandardVersionNegotiator;
 import org.apache.nifi.remote.VersionNegotiator;
@@ -35,20 +38,28 @@ import org.apache.nifi.remote.VersionNegotiator;
 public class MapCacheServer extends AbstractCacheServer {
 
     private final MapCache cache;
+    private final SegmentedMapCache segmentedCache;
+    private final InvalidatingMapCache invalidatingCache;
 
     public MapCacheServer(final String identifier, final SSLContext sslContext, final int port, final int maxSize,
             final EvictionPolicy evictionPolicy, final File persistencePath) throws IOException {
+        this(identifier, sslContext, port, maxSize, -1L, evictionPolicy, persistencePath);
+    }
+
+    public MapCacheServer(final String identifier, final SSLContext sslContext, final int port, final int maxSize, final long maxBytes,
+            final EvictionPolicy evictionPolicy, final File persistencePath) throws IOException {
         super(identifier, sslContext, port);
 
-        final MapCache simpleCache = new SimpleMapCache(identifier, maxSize, evictionPolicy);
+        this.segmentedCache = new SegmentedMapCache(identifier, maxSize, maxBytes, evictionPolicy);
 
         if (persistencePath == null) {
-            this.cache = simpleCache;
+            this.invalidatingCache = new InvalidatingMapCache(segmentedCache);
         } else {
-            final PersistentMapCache persistentCache = new PersistentMapCache(identifier, persistencePath, simpleCache);
+            final PersistentMapCache persistentCache = new PersistentMapCache(identifier, persistencePath, segmentedCache);
             persistentCache.restore();
-            this.cache = persistentCache;
+            this.invalidatingCache = new InvalidatingMapCache(persistentCache);
         }
+        this.cache = invalidatingCache;
     }
 
     /**
@@ -56,7 +67,12 @@ public class MapCacheServer extends AbstractCacheServer {
      * for details of each version enhancements.
      */
     protected StandardVersionNegotiator getVersionNegotiator() {
-        return new StandardVersionNegotiator(2, 1);
+        return new StandardVersionNegotiator(4, 3, 2, 1);
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        return segmentedCache.getStatistics();
     }
 
     @Override
@@ -158,6 +174,72 @@ public class MapCacheServer extends AbstractCacheServer {
                 dos.writeBoolean(result.isSuccessful());
                 break;
             }
+            case "containsKeys": {
+                validateProtocolVersion(action, version, 3);
+                // read the entire request before responding so that a large request cannot fill the socket buffers in both directions
+                final List<byte[]> keys = readValues(dis);
+                for (final byte[] key : keys) {
+                    dos.writeBoolean(cache.containsKey(ByteBuffer.wrap(key)));
+                }
+                break;
+            }
+            case "getAll": {
+                validateProtocolVersion(action, version, 3);
+                final List<byte[]> keys = readValues(dis);
+                for (final byte[] key : keys) {
+                    final ByteBuffer existingValue = cache.get(ByteBuffer.wrap(key));
+                    if (existingValue == null) {
+                        dos.writeInt(0);
+                    } else {
+                        final byte[] byteArray = existingValue.array();
+                        dos.writeInt(byteArray.length);
+                        dos.write(byteArray);
+                    }
+                }
+                break;
+            }
+            case "putAll": {
+                validateProtocolVersion(action, version, 3);
+                final int entryCount = dis.readInt();
+                for (int i = 0; i < entryCount; i++) {
+                    final byte[] key = readValue(dis);
+                    final byte[] value = readValue(dis);
+                    cache.put(ByteBuffer.wrap(key), ByteBuffer.wrap(value));
+                }
+                dos.writeBoolean(true);
+                break;
+            }
+            case "subscribe": {
+                validateProtocolVersion(action, version, 4);
+                // Hold the stream while subscribing so that the identifier precedes any invalidation sent to the client
+                final OutputStream subscriberOut = getImmediateOutputStream(out);
+                synchronized (subscriberOut) {
+                    final long subscriberId = invalidatingCache.subscribe(subscriberOut);
+                    dos.writeLong(subscriberId);
+                    dos.flush();
+                    subscriberOut.flush();
+                }
+                break;
+            }
+            case "unsubscribe": {
+                validateProtocolVersion(action, version, 4);
+                final long subscriberId = dis.readLong();
+                // The connection being unsubscribed may be the subscription itself, so take the same lock as the invalidations sent to it
+                final OutputStream responseOut = getImmediateOutputStream(out);
+                synchronized (responseOut) {
+                    dos.writeBoolean(invalidatingCache.unsubscribe(subscriberId));
+                    dos.flush();
+                    responseOut.flush();
+                }
+                break;
+            }
+            case "track": {
+                validateProtocolVersion(action, version, 4);
+                final long subscriberId = dis.readLong();
+                final byte[] key = readValue(dis);
+                dos.writeBoolean(invalidatingCache.track(subscriberId, ByteBuffer.wrap(key)));
+                break;
+            }
             default: {
                 throw new IOException("Illegal Request");
             }
@@ -169,6 +251,11 @@ public class MapCacheServer extends AbstractCacheServer {
         return true;
     }
 
+    @Override
+    protected void onDisconnect(final OutputStream out) {
+        invalidatingCache.unsubscribe(getImmediateOutputStream(out));
+    }
+
     @Override
     public void stop() throws IOException {
         try {
@@ -185,6 +272,21 @@ public class MapCacheServer extends AbstractCacheServer {
         }
     }
 
+    private void validateProtocolVersion(final String action, final int version, final int requiredProtocolVersion) throws IOException {
+        if (version < requiredProtocolVersion) {
+            throw new IOException("Request '" + action + "' requires protocol version " + requiredProtocolVersion + " but version " + version + " was negotiated");
+        }
+    }
+
+    private List<byte[]> readValues(final DataInputStream dis) throws IOException {
+        final int count = dis.readInt();
+        final List<byte[]> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readValue(dis));
+        }
+        return values;
+    }
+
     private byte[] readValue(final DataInputStream dis) throws IOException {
         final int numBytes = dis.readInt();
         final byte[] buffer = new byte[numBytes];
@@ -16,18 +16,25 @@
  */
 package org.apache.nifi.distributed.cache.server.map;
 
+import java.util.Collections;
+import java.util.List;
+
 public class MapPutResult {
 
     private final boolean successful;
     private final MapCacheRecord record;
     private final MapCacheRecord existing;
-    private final MapCacheRecord evicted;
+    private final List<MapCacheRecord> evicted;
 
     public MapPutResult(boolean successful, MapCacheRecord record, MapCacheRecord existing, MapCacheRecord evicted) {
+        this(successful, record, existing, evicted == null ? Collections.emptyList() : Collections.singletonList(evicted));
+    }
+
+    public MapPutResult(boolean successful, MapCacheRecord record, MapCacheRecord existing, List<MapCacheRecord> evicted) {
         this.successful = successful;
         this.record = record;
         this.existing = existing;
-        this.evicted = evicted;
+        this.evicted = evicted == null ? Collections.emptyList() : evicted;
     }
 
     public boolean isSuccessful() {
@@ -42,7 +49,17 @@ public class MapPutResult {
         return existing;
     }
 
+    /**
+     * @return the first record that was evicted to make room for the new record, or <code>null</code> if none was evicted
+     */
     public MapCacheRecord getEvicted() {
+        return evicted.isEmpty() ? null : evicted.get(0);
+    }
+
+    /**
+     * @return all of the records that were evicted to make room for the new record
+     */
+    public List<MapCacheRecord> getEvictedRecords() {
         return evicted;
     }
 }
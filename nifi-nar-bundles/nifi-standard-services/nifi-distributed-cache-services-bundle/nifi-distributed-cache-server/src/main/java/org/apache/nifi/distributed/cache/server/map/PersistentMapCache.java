@@ -74,8 +74,7 @@ public class PersistentMapCache implements MapCache {
             final List<MapWaliRecord> records = new ArrayList<>();
             records.add(record);
 
-            final MapCacheRecord evicted = putResult.getEvicted();
-            if ( evicted != null ) {
+            for (final MapCacheRecord evicted : putResult.getEvictedRecords()) {
                 records.add(new MapWaliRecord(UpdateType.DELETE, evicted.getKey(), evicted.getValue()));
             }
 
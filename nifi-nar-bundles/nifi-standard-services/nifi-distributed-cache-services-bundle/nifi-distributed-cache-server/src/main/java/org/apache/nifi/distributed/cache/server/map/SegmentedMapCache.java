@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.nifi.distributed.cache.server.CacheStatistics;
+import org.apache.nifi.distributed.cache.server.EvictionPolicy;
+import org.apache.nifi.distributed.cache.server.SegmentedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MapCache} that is backed by a {@link SegmentedCache}, so that requests for different keys may be served concurrently
+ * and eviction takes constant time regardless of the size of the cache.
+ */
+public class SegmentedMapCache implements MapCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedMapCache.class);
+
+    private final SegmentedCache<MapCacheRecord> cache;
+    private final String serviceIdentifier;
+
+    public SegmentedMapCache(final String serviceIdentifier, final int maxSize, final long maxBytes, final EvictionPolicy evictionPolicy) {
+        this.cache = new SegmentedCache<>(maxSize, maxBytes, evictionPolicy);
+        this.serviceIdentifier = serviceIdentifier;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedMapCache[service id=" + serviceIdentifier + "]";
+    }
+
+    public CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    private MapPutResult put(final SegmentedCache.Segment<MapCacheRecord> segment, final ByteBuffer key, final ByteBuffer value, final MapCacheRecord existing) {
+        final long revision = existing == null ? 0 : existing.getRevision() + 1;
+        final MapCacheRecord record = new MapCacheRecord(key, value, revision);
+
+        final List<MapCacheRecord> evicted = new ArrayList<>(1);
+        segment.put(key, record, key.remaining() + value.remaining(), evicted);
+
+        if (logger.isDebugEnabled()) {
+            for (final MapCacheRecord evictedRecord : evicted) {
+                logger.debug("Evicting key {} from cache", new String(evictedRecord.getKey().array(), StandardCharsets.UTF_8));
+            }
+        }
+
+        return new MapPutResult(true, record, existing, evicted);
+    }
+
+    @Override
+    public MapPutResult putIfAbsent(final ByteBuffer key, final ByteBuffer value) {
+        return cache.atomically(key, segment -> {
+            final MapCacheRecord existing = segment.hit(key);
+            if (existing != null) {
+                return new MapPutResult(false, existing, existing, (MapCacheRecord) null);
+            }
+
+            return put(segment, key, value, null);
+        });
+    }
+
+    @Override
+    public MapPutResult put(final ByteBuffer key, final ByteBuffer value) {
+        return cache.atomically(key, segment -> put(segment, key, value, segment.get(key)));
+    }
+
+    @Override
+    public boolean containsKey(final ByteBuffer key) {
+        return cache.atomically(key, segment -> segment.hit(key) != null);
+    }
+
+    @Override
+    public ByteBuffer get(final ByteBuffer key) {
+        final MapCacheRecord record = fetch(key);
+        return record == null ? null : record.getValue();
+    }
+
+    @Override
+    public MapCacheRecord fetch(final ByteBuffer key) {
+        return cache.atomically(key, segment -> segment.hit(key));
+    }
+
+    @Override
+    public ByteBuffer remove(final ByteBuffer key) {
+        final MapCacheRecord record = cache.atomically(key, segment -> segment.remove(key));
+        return record == null ? null : record.getValue();
+    }
+
+    @Override
+    public Map<ByteBuffer, ByteBuffer> removeByPattern(final String regex) {
+        final Pattern pattern = Pattern.compile(regex);
+
+        // Key must be backed by something that array() returns a byte[] that can be converted into a String via the default charset
+        final List<MapCacheRecord> removedRecords = cache.removeIf(key -> pattern.matcher(new String(key.array())).matches());
+
+        final Map<ByteBuffer, ByteBuffer> removedMap = new HashMap<>();
+        for (final MapCacheRecord record : removedRecords) {
+            removedMap.put(record.getKey(), record.getValue());
+        }
+        return removedMap;
+    }
+
+    @Override
+    public MapPutResult replace(final MapCacheRecord inputRecord) {
+        final ByteBuffer key = inputRecord.getKey();
+        return cache.atomically(key, segment -> {
+            final MapCacheRecord existing = segment.hit(key);
+            if (existing != null && inputRecord.getRevision() != existing.getRevision()) {
+                // The key has been updated by other operation.
+                return new MapPutResult(false, inputRecord, existing, (MapCacheRecord) null);
+            }
+
+            return put(segment, key, inputRecord.getValue(), existing);
+        });
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+    }
+}
@@ -96,7 +96,7 @@ public class SimpleMapCache implements MapCache {
             record.hit();
             inverseCacheMap.put(record, key);
 
-            return new MapPutResult(false, record, record, null);
+            return new MapPutResult(false, record, record, (MapCacheRecord) null);
         } finally {
             writeLock.unlock();
         }
@@ -239,7 +239,7 @@ public class SimpleMapCache implements MapCache {
             final MapCacheRecord existing = fetch(key);
             if (existing != null && inputRecord.getRevision() != existing.getRevision()) {
                 // The key has been updated by other operation.
-                return new MapPutResult(false, inputRecord, existing, null);
+                return new MapPutResult(false, inputRecord, existing, (MapCacheRecord) null);
             }
 
             return put(key, value, existing);
@@ -81,8 +81,7 @@ public class PersistentSetCache implements SetCache {
             final List<SetRecord> records = new ArrayList<>();
             records.add(record);
 
-            final SetCacheRecord evictedRecord = addResult.getEvictedRecord();
-            if (evictedRecord != null) {
+            for (final SetCacheRecord evictedRecord : addResult.getEvictedRecords()) {
                 records.add(new SetRecord(UpdateType.DELETE, evictedRecord.getValue()));
             }
 
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server.set;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.nifi.distributed.cache.server.CacheStatistics;
+import org.apache.nifi.distributed.cache.server.EvictionPolicy;
+import org.apache.nifi.distributed.cache.server.SegmentedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link SetCache} that is backed by a {@link SegmentedCache}, so that requests for different values may be served concurrently
+ * and eviction takes constant time regardless of the size of the cache.
+ */
+public class SegmentedSetCache implements SetCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedSetCache.class);
+
+    private final SegmentedCache<SetCacheRecord> cache;
+    private final String serviceIdentifier;
+
+    public SegmentedSetCache(final String serviceIdentifier, final int maxSize, final long maxBytes, final EvictionPolicy evictionPolicy) {
+        this.cache = new SegmentedCache<>(maxSize, maxBytes, evictionPolicy);
+        this.serviceIdentifier = serviceIdentifier;
+    }
+
+    public CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    @Override
+    public SetCacheResult addIfAbsent(final ByteBuffer value) {
+        return cache.atomically(value, segment -> {
+            final SetCacheRecord record = segment.hit(value);
+            if (record != null) {
+                return new SetCacheResult(false, record, (SetCacheRecord) null);
+            }
+
+            final SetCacheRecord newRecord = new SetCacheRecord(value);
+            final List<SetCacheRecord> evicted = new ArrayList<>(1);
+            segment.put(value, newRecord, value.remaining(), evicted);
+
+            if (logger.isDebugEnabled()) {
+                for (final SetCacheRecord evictedRecord : evicted) {
+                    logger.debug("Evicting value {} from cache", new String(evictedRecord.getValue().array(), StandardCharsets.UTF_8));
+                }
+            }
+
+            return new SetCacheResult(true, newRecord, evicted);
+        });
+    }
+
+    @Override
+    public SetCacheResult contains(final ByteBuffer value) {
+        final SetCacheRecord record = cache.atomically(value, segment -> segment.hit(value));
+        return new SetCacheResult(record != null, record, (SetCacheRecord) null);
+    }
+
+    @Override
+    public SetCacheResult remove(final ByteBuffer value) {
+        final SetCacheRecord record = cache.atomically(value, segment -> segment.remove(value));
+        return new SetCacheResult(record != null, record, (SetCacheRecord) null);
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedSetCache[service id=" + serviceIdentifier + "]";
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+    }
+}
@@ -16,16 +16,23 @@
  */
 package org.apache.nifi.distributed.cache.server.set;
 
+import java.util.Collections;
+import java.util.List;
+
 public class SetCacheResult {
 
     private final boolean result;
     private final SetCacheRecord stats;
-    private final SetCacheRecord evictedRecord;
+    private final List<SetCacheRecord> evictedRecords;
 
     public SetCacheResult(final boolean result, final SetCacheRecord stats, final SetCacheRecord evictedRecord) {
+        this(result, stats, evictedRecord == null ? Collections.emptyList() : Collections.singletonList(evictedRecord));
+    }
+
+    public SetCacheResult(final boolean result, final SetCacheRecord stats, final List<SetCacheRecord> evictedRecords) {
         this.result = result;
         this.stats = stats;
-        this.evictedRecord = evictedRecord;
+        this.evictedRecords = evictedRecords == null ? Collections.emptyList() : evictedRecords;
     }
 
     public boolean getResult() {
@@ -36,7 +43,17 @@ public class SetCacheResult {
         return stats;
     }
 
+    /**
+     * @return the first record that was evicted to make room for the new record, or <code>null</code> if none was evicted
+     */
     public SetCacheRecord getEvictedRecord() {
-        return evictedRecord;
+        return evictedRecords.isEmpty() ? null : evictedRecords.get(0);
+    }
+
+    /**
+     * @return all of the records that were evicted to make room for the new record
+     */
+    public List<SetCacheRecord> getEvictedRecords() {
+        return evictedRecords;
     }
 }
@@ -77,7 +77,7 @@ public class SimpleSetCache implements SetCache {
             record.hit();
             inverseCacheMap.put(record, value);
 
-            return new SetCacheResult(false, record, null);
+            return new SetCacheResult(false, record, (SetCacheRecord) null);
         }
     }
 
@@ -85,14 +85,14 @@ public class SimpleSetCache implements SetCache {
     public synchronized SetCacheResult contains(final ByteBuffer value) {
         final SetCacheRecord record = cache.get(value);
         if (record == null) {
-            return new SetCacheResult(false, null, null);
+            return new SetCacheResult(false, null, (SetCacheRecord) null);
         } else {
             // We have to remove the record and add it again in order to cause the Map to stay sorted
             inverseCacheMap.remove(record);
             record.hit();
             inverseCacheMap.put(record, value);
 
-            return new SetCacheResult(true, record, null);
+            return new SetCacheResult(true, record, (SetCacheRecord) null);
         }
     }
 
@@ -100,10 +100,10 @@ public class SimpleSetCache implements SetCache {
     public synchronized SetCacheResult remove(final ByteBuffer value) {
         final SetCacheRecord record = cache.remove(value);
         if (record == null) {
-            return new SetCacheResult(false, null, null);
+            return new SetCacheResult(false, null, (SetCacheRecord) null);
         } else {
             inverseCacheMap.remove(record);
-            return new SetCacheResult(true, record, null);
+            return new SetCacheResult(true, record, (SetCacheRecord) null);
         }
     }
 
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.nifi.distributed.cache.server.set.SetCacheRecord;
+import org.junit.Test;
+
+public class TestSegmentedCache {
+
+    private static ByteBuffer buffer(final String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> put(final SegmentedCache<SetCacheRecord> cache, final String value) {
+        final ByteBuffer key = buffer(value);
+        final List<SetCacheRecord> evicted = new ArrayList<>();
+        cache.atomically(key, segment -> segment.put(key, new SetCacheRecord(key), key.remaining(), evicted));
+
+        final List<String> evictedValues = new ArrayList<>();
+        for (final SetCacheRecord record : evicted) {
+            evictedValues.add(new String(record.getValue().array(), StandardCharsets.UTF_8));
+        }
+        return evictedValues;
+    }
+
+    private static SetCacheRecord hit(final SegmentedCache<SetCacheRecord> cache, final String value) {
+        final ByteBuffer key = buffer(value);
+        return cache.atomically(key, segment -> segment.hit(key));
+    }
+
+    private static List<String> list(final String... values) {
+        final List<String> list = new ArrayList<>();
+        for (final String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Test
+    public void testFifo() {
+        final SegmentedCache<SetCacheRecord> cache = new SegmentedCache<>(3, -1L, EvictionPolicy.FIFO);
+        put(cache, "a");
+        put(cache, "b");
+        put(cache, "c");
+        hit(cache, "a");
+
+        assertEquals(list("a"), put(cache, "d"));
+        assertEquals(list("b"), put(cache, "e"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testLru() {
+        final SegmentedCache<SetCacheRecord> cache = new SegmentedCache<>(3, -1L, EvictionPolicy.LRU);
+        put(cache, "a");
+        put(cache, "b");
+        put(cache, "c");
+        hit(cache, "a");
+        hit(cache, "b");
+
+        assertEquals(list("c"), put(cache, "d"));
+        assertEquals(list("a"), put(cache, "e"));
+        assertNotNull(hit(cache, "b"));
+        assertNull(hit(cache, "c"));
+    }
+
+    @Test
+    public void testLfu() {
+        final SegmentedCache<SetCacheRecord> cache = new SegmentedCache<>(3, -1L, EvictionPolicy.LFU);
+        put(cache, "a");
+        put(cache, "b");
+        put(cache, "c");
+        hit(cache, "a");
+        hit(cache, "a");
+        hit(cache, "b");
+        hit(cache, "c");
+
+        // b and c have one hit each; b reached that count first
+        assertEquals(list("b"), put(cache, "d"));
+        assertEquals(list("d"), put(cache, "e"));
+        hit(cache, "e");
+        hit(cache, "e");
+        hit(cache, "e");
+        assertEquals(list("c"), put(cache, "f"));
+        assertEquals(list("f"), put(cache, "g"));
+        assertEquals(3, hit(cache, "a").getHitCount());
+    }
+
+    @Test
+    public void testByteBound() {
+        final SegmentedCache<SetCacheRecord> cache = new SegmentedCache<>(100, 10L, EvictionPolicy.FIFO);
+        put(cache, "aaaa");
+        put(cache, "bbbb");
+        assertEquals(list("aaaa", "bbbb"), put(cache, "ccccccc"));
+        assertEquals(list(), put(cache, "ddd"));
+
+        // an entry larger than the bound is still cached
+        assertEquals(list("ccccccc", "ddd"), put(cache, "eeeeeeeeeeee"));
+        assertEquals(1, cache.size());
+        assertEquals(12L, cache.getStatistics().getByteCount());
+    }
+
+    @Test
+    public void testStatistics() {
+        final SegmentedCache<SetCacheRecord> cache = new SegmentedCache<>(2, -1L, EvictionPolicy.LRU);
+        put(cache, "a");
+        put(cache, "b");
+        hit(cache, "a");
+        hit(cache, "x");
+        put(cache, "c");
+
+        final ByteBuffer key = buffer("a");
+        cache.atomically(key, segment -> segment.remove(key));
+
+        final CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getEntryCount());
+        assertEquals(1L, statistics.getByteCount());
+        assertEquals(1L, statistics.getHitCount());
+        assertEquals(1L, statistics.getMissCount());
+        assertEquals(1L, statistics.getEvictionCount());
+    }
+
+    @Test
+    public void testSegmentsBoundTotalSize() throws Exception {
+        final SegmentedCache<SetCacheRecord> cache = new SegmentedCache<>(10000, -1L, EvictionPolicy.LRU);
+        assertTrue(cache.getSegmentCount() > 1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        put(cache, thread + "-" + i);
+                        hit(cache, thread + "-" + (i / 2));
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final CacheStatistics statistics = cache.getStatistics();
+        assertTrue(statistics.getEntryCount() <= 10000);
+        assertEquals(40000L, statistics.getEntryCount() + statistics.getEvictionCount());
+        assertEquals(40000L, statistics.getHitCount() + statistics.getMissCount());
+    }
+}
@@ -22,14 +22,23 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.ConnectException;
+import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.SerializationException;
 import org.apache.commons.lang3.SystemUtils;
@@ -40,11 +49,13 @@ import org.apache.nifi.distributed.cache.client.DistributedMapCacheClientService
 import org.apache.nifi.distributed.cache.client.DistributedSetCacheClientService;
 import org.apache.nifi.distributed.cache.client.Serializer;
 import org.apache.nifi.distributed.cache.client.exception.DeserializationException;
+import org.apache.nifi.distributed.cache.protocol.ProtocolHandshake;
 import org.apache.nifi.distributed.cache.server.map.DistributedMapCacheServer;
 import org.apache.nifi.distributed.cache.server.map.MapCacheServer;
 import org.apache.nifi.processor.Processor;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.remote.StandardVersionNegotiator;
+import org.apache.nifi.remote.VersionNegotiator;
 import org.apache.nifi.reporting.InitializationException;
 import org.apache.nifi.util.MockConfigurationContext;
 import org.apache.nifi.util.MockControllerServiceInitializationContext;
@@ -623,6 +634,197 @@ public class TestServerAndClient {
         server.shutdownServer();
     }
 
+    @Test
+    public void testBatchOperations() throws Exception {
+        /**
+         * This bypasses the test for build environments in OS X running Java 1.8 due to a JVM bug
+         * See:  https://issues.apache.org/jira/browse/NIFI-437
+         */
+        Assume.assumeFalse("test is skipped due to build environment being OS X with JDK 1.8. See https://issues.apache.org/jira/browse/NIFI-437",
+                SystemUtils.IS_OS_MAC && SystemUtils.IS_JAVA_1_8);
+
+        LOGGER.info("Testing " + Thread.currentThread().getStackTrace()[1].getMethodName());
+
+        final DistributedMapCacheServer server = new MapServer();
+        final TestRunner runner = TestRunners.newTestRunner(Mockito.mock(Processor.class));
+        runner.addControllerService("server", server);
+        runner.setProperty(server, DistributedCacheServer.MAX_CACHE_ENTRIES, "5000");
+        runner.enableControllerService(server);
+
+        final DistributedMapCacheClientService client = createMapClient(server.getPort());
+        final Serializer<String> stringSerializer = new StringSerializer();
+        final Deserializer<String> stringDeserializer = new StringDeserializer();
+
+        // use enough data that the request and response are larger than the socket buffers
+        final char[] padding = new char[1024];
+        Arrays.fill(padding, 'x');
+        final Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            entries.put("key-" + i, "value-" + i + new String(padding));
+        }
+        client.putAll(entries, stringSerializer, stringSerializer);
+
+        final Set<String> keys = new LinkedHashSet<>(entries.keySet());
+        keys.add("missing");
+
+        final Map<String, String> values = client.getAll(keys, stringSerializer, stringDeserializer);
+        assertEquals(keys, values.keySet());
+        assertNull(values.get("missing"));
+        for (final Map.Entry<String, String> entry : entries.entrySet()) {
+            assertEquals(entry.getValue(), values.get(entry.getKey()));
+        }
+
+        final Set<String> contained = client.containsKeys(keys, stringSerializer);
+        assertEquals(entries.keySet(), contained);
+
+        // single-key operations continue to work on the same connection
+        assertEquals(entries.get("key-5"), client.get("key-5", stringSerializer, stringDeserializer));
+
+        final CacheStatistics statistics = server.getStatistics();
+        assertEquals(2000, statistics.getEntryCount());
+        assertEquals(4001, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(0, statistics.getEvictionCount());
+
+        client.close();
+        server.shutdownServer();
+    }
+
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        /**
+         * This bypasses the test for build environments in OS X running Java 1.8 due to a JVM bug
+         * See:  https://issues.apache.org/jira/browse/NIFI-437
+         */
+        Assume.assumeFalse("test is skipped due to build environment being OS X with JDK 1.8. See https://issues.apache.org/jira/browse/NIFI-437",
+                SystemUtils.IS_OS_MAC && SystemUtils.IS_JAVA_1_8);
+
+        LOGGER.info("Testing " + Thread.currentThread().getStackTrace()[1].getMethodName());
+
+        final DistributedMapCacheServer server = new MapServer();
+        final TestRunner runner = TestRunners.newTestRunner(Mockito.mock(Processor.class));
+        runner.addControllerService("server", server);
+        runner.enableControllerService(server);
+
+        try (final Socket socket = new Socket("localhost", server.getPort())) {
+            socket.setSoTimeout(30000);
+            final DataInputStream dis = new DataInputStream(socket.getInputStream());
+            final DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
+
+            final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(3);
+            ProtocolHandshake.initiateHandshake(dis, dos, versionNegotiator);
+            assertEquals(3, versionNegotiator.getVersion());
+
+            // send all requests before reading any of the responses
+            final byte[] key = "pipelined".getBytes(StandardCharsets.UTF_8);
+            final byte[] value = "value".getBytes(StandardCharsets.UTF_8);
+            dos.writeUTF("containsKey");
+            dos.writeInt(key.length);
+            dos.write(key);
+            dos.writeUTF("put");
+            dos.writeInt(key.length);
+            dos.write(key);
+            dos.writeInt(value.length);
+            dos.write(value);
+            dos.writeUTF("get");
+            dos.writeInt(key.length);
+            dos.write(key);
+            dos.flush();
+
+            assertFalse(dis.readBoolean());
+            assertTrue(dis.readBoolean());
+            final byte[] response = new byte[dis.readInt()];
+            dis.readFully(response);
+            assertEquals("value", new String(response, StandardCharsets.UTF_8));
+
+            dos.writeUTF("close");
+            dos.flush();
+        }
+
+        server.shutdownServer();
+    }
+
+    @Test
+    public void testIdleConnectionClosed() throws Exception {
+        LOGGER.info("Testing " + Thread.currentThread().getStackTrace()[1].getMethodName());
+
+        final SetCacheServer server = new SetCacheServer("idle", null, 0, 10, EvictionPolicy.FIFO, null);
+        server.setIdleTimeout(200, TimeUnit.MILLISECONDS);
+        server.start();
+        try {
+            final Socket socket = new Socket("localhost", server.getPort());
+            socket.setSoTimeout(30000);
+            try (final DataInputStream dis = new DataInputStream(socket.getInputStream());
+                 final DataOutputStream dos = new DataOutputStream(socket.getOutputStream())) {
+                final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(1);
+                ProtocolHandshake.initiateHandshake(dis, dos, versionNegotiator);
+
+                // the server closes the connection, as the client sends no request
+                assertEquals(-1, dis.read());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testNearCache() throws Exception {
+        /**
+         * This bypasses the test for build environments in OS X running Java 1.8 due to a JVM bug
+         * See:  https://issues.apache.org/jira/browse/NIFI-437
+         */
+        Assume.assumeFalse("test is skipped due to build environment being OS X with JDK 1.8. See https://issues.apache.org/jira/browse/NIFI-437",
+                SystemUtils.IS_OS_MAC && SystemUtils.IS_JAVA_1_8);
+
+        LOGGER.info("Testing " + Thread.currentThread().getStackTrace()[1].getMethodName());
+
+        final DistributedMapCacheServer server = new MapServer();
+        final TestRunner runner = TestRunners.newTestRunner(Mockito.mock(Processor.class));
+        runner.addControllerService("server", server);
+        runner.enableControllerService(server);
+
+        final DistributedMapCacheClientService writer = createMapClient(server.getPort(), 100);
+        final DistributedMapCacheClientService reader = createMapClient(server.getPort(), 100);
+        final Serializer<String> stringSerializer = new StringSerializer();
+        final Deserializer<String> stringDeserializer = new StringDeserializer();
+
+        writer.put("key", "value1", stringSerializer, stringSerializer);
+        assertEquals("value1", reader.get("key", stringSerializer, stringDeserializer));
+
+        // repeated reads are served locally
+        final long hits = server.getStatistics().getHitCount();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("value1", reader.get("key", stringSerializer, stringDeserializer));
+            assertTrue(reader.containsKey("key", stringSerializer));
+        }
+        assertEquals(hits, server.getStatistics().getHitCount());
+
+        // missing keys are not kept
+        assertNull(reader.get("missing", stringSerializer, stringDeserializer));
+        writer.put("missing", "found", stringSerializer, stringSerializer);
+        assertEquals("found", reader.get("missing", stringSerializer, stringDeserializer));
+
+        // a change made by another client is pushed to the reader
+        writer.put("key", "value2", stringSerializer, stringSerializer);
+        final long timeout = System.currentTimeMillis() + 10000L;
+        String value = reader.get("key", stringSerializer, stringDeserializer);
+        while (!"value2".equals(value) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10L);
+            value = reader.get("key", stringSerializer, stringDeserializer);
+        }
+        assertEquals("value2", value);
+
+        // a change made by the reader itself is seen immediately
+        reader.put("key", "value3", stringSerializer, stringSerializer);
+        assertEquals("value3", reader.get("key", stringSerializer, stringDeserializer));
+        assertTrue(reader.remove("key", stringSerializer));
+        assertNull(reader.get("key", stringSerializer, stringDeserializer));
+
+        writer.close();
+        reader.close();
+        server.shutdownServer();
+    }
+
     @Test
     public void testBackwardCompatibility() throws Exception {
         /**
@@ -639,8 +841,9 @@ public class TestServerAndClient {
         // Create a server that only supports protocol version 1.
         final DistributedMapCacheServer server = new MapServer() {
             @Override
-            protected MapCacheServer createMapCacheServer(int port, int maxSize, SSLContext sslContext, EvictionPolicy evictionPolicy, File persistenceDir) throws IOException {
-                return new MapCacheServer(getIdentifier(), sslContext, port, maxSize, evictionPolicy, persistenceDir) {
+            protected MapCacheServer createMapCacheServer(int port, int maxSize, long maxBytes, SSLContext sslContext, EvictionPolicy evictionPolicy, File persistenceDir)
+                    throws IOException {
+                return new MapCacheServer(getIdentifier(), sslContext, port, maxSize, maxBytes, evictionPolicy, persistenceDir) {
                     @Override
                     protected StandardVersionNegotiator getVersionNegotiator() {
                         return new StandardVersionNegotiator(1);
@@ -674,6 +877,14 @@ public class TestServerAndClient {
 
         assertTrue(client.containsKey(key, stringSerializer));
 
+        // Version 3 batch operations fall back to a request per key
+        client.putAll(Collections.singletonMap("other", "value3"), stringSerializer, stringSerializer);
+        final Map<String, String> values = client.getAll(new LinkedHashSet<>(Arrays.asList(key, "other", "missing")), stringSerializer, stringDeserializer);
+        assertEquals("value1", values.get(key));
+        assertEquals("value3", values.get("other"));
+        assertNull(values.get("missing"));
+        assertEquals(2, client.containsKeys(new LinkedHashSet<>(Arrays.asList(key, "other", "missing")), stringSerializer).size());
+
         try {
             client.fetch(key, stringSerializer, stringDeserializer);
             fail("Version 2 operations should NOT work.");
@@ -714,6 +925,10 @@ public class TestServerAndClient {
     }
 
     private DistributedMapCacheClientService createMapClient(final int port) throws InitializationException {
+        return createMapClient(port, 0);
+    }
+
+    private DistributedMapCacheClientService createMapClient(final int port, final int nearCacheSize) throws InitializationException {
         final DistributedMapCacheClientService client = new DistributedMapCacheClientService();
         final MockControllerServiceInitializationContext clientInitContext = new MockControllerServiceInitializationContext(client, "client");
         client.initialize(clientInitContext);
@@ -721,6 +936,7 @@ public class TestServerAndClient {
         final Map<PropertyDescriptor, String> clientProperties = new HashMap<>();
         clientProperties.put(DistributedMapCacheClientService.HOSTNAME, "localhost");
         clientProperties.put(DistributedMapCacheClientService.PORT, String.valueOf(port));
+        clientProperties.put(DistributedMapCacheClientService.NEAR_CACHE_SIZE, String.valueOf(nearCacheSize));
         final MockConfigurationContext clientContext = new MockConfigurationContext(clientProperties, clientInitContext.getControllerServiceLookup());
         client.cacheConfig(clientContext);
 
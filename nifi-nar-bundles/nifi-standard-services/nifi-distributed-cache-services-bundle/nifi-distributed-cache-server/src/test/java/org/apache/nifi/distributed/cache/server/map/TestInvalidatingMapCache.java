@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server.map;
+
+import org.apache.nifi.distributed.cache.server.EvictionPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestInvalidatingMapCache {
+
+    private InvalidatingMapCache cache;
+
+    @Before
+    public void setup() {
+        cache = new InvalidatingMapCache(new SimpleMapCache("service-id", 100, EvictionPolicy.LRU));
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        cache.shutdown();
+    }
+
+    @Test
+    public void testUnsubscribeForgetsTrackedKeys() throws Exception {
+        final ByteBuffer key1 = ByteBuffer.wrap("key1".getBytes());
+        final ByteBuffer key2 = ByteBuffer.wrap("key2".getBytes());
+        cache.put(key1, ByteBuffer.wrap("value1".getBytes()));
+        cache.put(key2, ByteBuffer.wrap("value2".getBytes()));
+
+        final long subscriberId = cache.subscribe(new ByteArrayOutputStream());
+        assertTrue(cache.track(subscriberId, key1));
+        assertTrue(cache.track(subscriberId, key2));
+        assertFalse(cache.track(subscriberId, ByteBuffer.wrap("missing".getBytes())));
+        assertEquals(2, cache.getTrackedKeyCount());
+
+        assertTrue(cache.unsubscribe(subscriberId));
+        assertEquals(0, cache.getTrackedKeyCount());
+        assertFalse(cache.unsubscribe(subscriberId));
+        assertFalse(cache.track(subscriberId, key1));
+    }
+
+    @Test
+    public void testDisconnectForgetsTrackedKeys() throws Exception {
+        final ByteBuffer key = ByteBuffer.wrap("key".getBytes());
+        cache.put(key, ByteBuffer.wrap("value".getBytes()));
+
+        final OutputStream disconnectedOut = new ByteArrayOutputStream();
+        final long disconnectedId = cache.subscribe(disconnectedOut);
+        final long connectedId = cache.subscribe(new ByteArrayOutputStream());
+        assertTrue(cache.track(disconnectedId, key));
+        assertTrue(cache.track(connectedId, key));
+
+        cache.unsubscribe(disconnectedOut);
+        assertFalse(cache.unsubscribe(disconnectedId));
+        assertEquals(1, cache.getTrackedKeyCount());
+
+        assertTrue(cache.unsubscribe(connectedId));
+        assertEquals(0, cache.getTrackedKeyCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testSlowSubscriberDoesNotBlockWriter() throws Exception {
+        final ByteBuffer key = ByteBuffer.wrap("key".getBytes());
+        cache.put(key, ByteBuffer.wrap("value1".getBytes()));
+
+        final CountDownLatch writeStarted = new CountDownLatch(1);
+        final CountDownLatch releaseWrite = new CountDownLatch(1);
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        final OutputStream blockingOut = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                writeStarted.countDown();
+                try {
+                    releaseWrite.await();
+                } catch (final InterruptedException e) {
+                    throw new IOException(e);
+                }
+                received.write(b, off, len);
+            }
+        };
+
+        final long subscriberId = cache.subscribe(blockingOut);
+        assertTrue(cache.track(subscriberId, key));
+
+        // the put returns although the subscriber's stream is blocked
+        cache.put(key, ByteBuffer.wrap("value2".getBytes()));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(cache.track(subscriberId, key));
+        cache.put(key, ByteBuffer.wrap("value3".getBytes()));
+        assertEquals(0, received.size());
+
+        releaseWrite.countDown();
+        final byte[] invalidation = ByteBuffer.allocate(4 + 3).putInt(3).put("key".getBytes()).array();
+        final byte[] expected = ByteBuffer.allocate(2 * invalidation.length).put(invalidation).put(invalidation).array();
+        while (received.size() < expected.length) {
+            Thread.sleep(10L);
+        }
+        assertArrayEquals(expected, received.toByteArray());
+    }
+}
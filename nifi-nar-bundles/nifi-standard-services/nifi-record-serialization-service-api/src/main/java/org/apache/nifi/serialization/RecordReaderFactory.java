@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>
@@ -56,4 +57,37 @@ public interface RecordReaderFactory extends ControllerService {
      */
     RecordReader createRecordReader(Map<String, String> variables, InputStream in, ComponentLog logger) throws MalformedRecordException, IOException, SchemaNotFoundException;
 
+    /**
+     * Create a RecordReader instance to read records from specified InputStream, indicating that the caller will only access the fields
+     * with the given names. Implementations may use this knowledge to avoid parsing or converting the values of any other field, in which
+     * case those values will not be present in the Records that are returned. The default implementation ignores the projection and
+     * calls {@link #createRecordReader(Map, InputStream, ComponentLog)}.
+     *
+     * @param variables A map contains variables which is used to resolve Record Schema via Expression Language dynamically.
+     *                 This can be null or empty.
+     * @param in InputStream containing Records. This can be null or empty stream.
+     * @param logger A logger bind to a component
+     * @param projectedFields the names of the fields that will be accessed, or <code>null</code> if all fields may be accessed
+     * @return Created RecordReader instance
+     */
+    default RecordReader createRecordReader(Map<String, String> variables, InputStream in, ComponentLog logger, Set<String> projectedFields)
+        throws MalformedRecordException, IOException, SchemaNotFoundException {
+        return createRecordReader(variables, in, logger);
+    }
+
+    /**
+     * Create a RecordReader instance to read only the given fields from specified InputStream.
+     * This method calls {@link #createRecordReader(Map, InputStream, ComponentLog, Set)} with Attributes of the specified FlowFile.
+     *
+     * @param flowFile Attributes of this FlowFile are used to resolve Record Schema via Expression Language dynamically. This can be null.
+     * @param in InputStream containing Records. This can be null or empty stream.
+     * @param logger A logger bind to a component
+     * @param projectedFields the names of the fields that will be accessed, or <code>null</code> if all fields may be accessed
+     * @return Created RecordReader instance
+     */
+    default RecordReader createRecordReader(FlowFile flowFile, InputStream in, ComponentLog logger, Set<String> projectedFields)
+        throws MalformedRecordException, IOException, SchemaNotFoundException {
+        return createRecordReader(flowFile == null ? Collections.emptyMap() : flowFile.getAttributes(), in, logger, projectedFields);
+    }
+
 }
@@ -67,7 +67,7 @@ public class AvroReader extends SchemaRegistryService implements RecordReaderFac
     @Override
     protected SchemaAccessStrategy getSchemaAccessStrategy(String strategy, SchemaRegistry schemaRegistry, ConfigurationContext context) {
         if (EMBEDDED_AVRO_SCHEMA.getValue().equals(strategy)) {
-            return new EmbeddedAvroSchemaAccessStrategy();
+            return new EmbeddedAvroSchemaAccessStrategy(getSchemaCache());
         } else {
             return super.getSchemaAccessStrategy(strategy, schemaRegistry, context);
         }
@@ -86,7 +86,7 @@ public class AvroReader extends SchemaRegistryService implements RecordReaderFac
     public RecordReader createRecordReader(final Map<String, String> variables, final InputStream in, final ComponentLog logger) throws MalformedRecordException, IOException, SchemaNotFoundException {
         final String schemaAccessStrategy = getConfigurationContext().getProperty(getSchemaAcessStrategyDescriptor()).getValue();
         if (EMBEDDED_AVRO_SCHEMA.getValue().equals(schemaAccessStrategy)) {
-            return new AvroReaderWithEmbeddedSchema(in);
+            return new AvroReaderWithEmbeddedSchema(in, getSchemaCache());
         } else {
             final RecordSchema recordSchema = getSchema(variables, in, null);
 
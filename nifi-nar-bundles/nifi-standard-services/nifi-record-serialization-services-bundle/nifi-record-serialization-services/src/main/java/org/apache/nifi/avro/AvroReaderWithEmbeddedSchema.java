@@ -24,6 +24,8 @@ import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.nifi.schema.access.RecordSchemaCache;
+import org.apache.nifi.schema.access.SchemaNotFoundException;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.record.RecordSchema;
 
@@ -40,6 +42,13 @@ public class AvroReaderWithEmbeddedSchema extends AvroRecordReader {
         recordSchema = AvroTypeUtil.createSchema(avroSchema);
     }
 
+    public AvroReaderWithEmbeddedSchema(final InputStream in, final RecordSchemaCache schemaCache) throws IOException, SchemaNotFoundException {
+        this.in = in;
+        dataFileStream = new DataFileStream<>(in, new GenericDatumReader<GenericRecord>());
+        this.avroSchema = dataFileStream.getSchema();
+        recordSchema = schemaCache.get(avroSchema, () -> AvroTypeUtil.createSchema(avroSchema));
+    }
+
     @Override
     public void close() throws IOException {
         dataFileStream.close();
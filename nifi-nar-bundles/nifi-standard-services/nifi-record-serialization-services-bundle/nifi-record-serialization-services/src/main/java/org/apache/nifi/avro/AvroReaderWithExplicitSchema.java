@@ -66,6 +66,11 @@ public class AvroReaderWithExplicitSchema extends AvroRecordReader {
         return genericRecord;
     }
 
+    @Override
+    protected boolean isAvroRecordReused() {
+        return true;
+    }
+
     @Override
     public RecordSchema getSchema() throws MalformedRecordException {
         return recordSchema;
@@ -20,17 +20,33 @@ package org.apache.nifi.avro;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
-import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.SerializedForm;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class AvroRecordReader implements RecordReader {
 
     protected abstract GenericRecord nextAvroRecord() throws IOException;
 
+    /**
+     * @return <code>true</code> if the GenericRecord returned by {@link #nextAvroRecord()} may be modified by subsequent calls,
+     *         in which case it cannot be retained as the serialized form of the Record that is created from it
+     */
+    protected boolean isAvroRecordReused() {
+        return false;
+    }
+
+    private Record createRecord(final GenericRecord avroRecord, final RecordSchema schema) {
+        final Object[] values = AvroTypeUtil.convertAvroRecordToValues(avroRecord, schema);
+        final SerializedForm serializedForm = isAvroRecordReused() ? null : SerializedForm.of(avroRecord, AvroTypeUtil.AVRO_MIME_TYPE);
+        return new ArrayRecord(schema, values, null, null, serializedForm, false, false);
+    }
+
     @Override
     public Record nextRecord(final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
         GenericRecord record = nextAvroRecord();
@@ -38,9 +54,20 @@ public abstract class AvroRecordReader implements RecordReader {
             return null;
         }
 
+        return createRecord(record, getSchema());
+    }
+
+    @Override
+    public List<Record> nextBatch(final int maxRecords, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
         final RecordSchema schema = getSchema();
-        final Map<String, Object> values = AvroTypeUtil.convertAvroRecordToMap(record, schema);
-        return new MapRecord(schema, values);
+        final List<Record> batch = new ArrayList<>(Math.min(maxRecords, 1024));
+
+        GenericRecord record;
+        while (batch.size() < maxRecords && (record = nextAvroRecord()) != null) {
+            batch.add(createRecord(record, schema));
+        }
+
+        return batch;
     }
 
 }
@@ -27,6 +27,7 @@ import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.nifi.schema.access.RecordSchemaCache;
 import org.apache.nifi.schema.access.SchemaAccessStrategy;
 import org.apache.nifi.schema.access.SchemaField;
 import org.apache.nifi.schema.access.SchemaNotFoundException;
@@ -34,13 +35,25 @@ import org.apache.nifi.serialization.record.RecordSchema;
 
 public class EmbeddedAvroSchemaAccessStrategy implements SchemaAccessStrategy {
     private final Set<SchemaField> schemaFields = EnumSet.of(SchemaField.SCHEMA_TEXT, SchemaField.SCHEMA_TEXT_FORMAT);
+    private final RecordSchemaCache schemaCache;
+
+    public EmbeddedAvroSchemaAccessStrategy() {
+        this(null);
+    }
+
+    public EmbeddedAvroSchemaAccessStrategy(final RecordSchemaCache schemaCache) {
+        this.schemaCache = schemaCache;
+    }
 
     @Override
     public RecordSchema getSchema(Map<String, String> variables, final InputStream contentStream, final RecordSchema readSchema) throws SchemaNotFoundException, IOException {
         final DataFileStream<GenericRecord> dataFileStream = new DataFileStream<>(contentStream, new GenericDatumReader<GenericRecord>());
         final Schema avroSchema = dataFileStream.getSchema();
-        final RecordSchema recordSchema = AvroTypeUtil.createSchema(avroSchema);
-        return recordSchema;
+        if (schemaCache == null) {
+            return AvroTypeUtil.createSchema(avroSchema);
+        }
+
+        return schemaCache.get(avroSchema, () -> AvroTypeUtil.createSchema(avroSchema));
     }
 
     @Override
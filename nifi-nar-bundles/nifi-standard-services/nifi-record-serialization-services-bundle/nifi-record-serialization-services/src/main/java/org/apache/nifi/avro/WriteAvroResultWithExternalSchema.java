@@ -20,7 +20,9 @@ package org.apache.nifi.avro;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericDatumWriter;
@@ -73,11 +75,31 @@ public class WriteAvroResultWithExternalSchema extends AbstractRecordSetWriter {
             schemaAccessWriter.writeHeader(recordSchema, getOutputStream());
         }
 
-        final GenericRecord rec = AvroTypeUtil.createAvroRecord(record, avroSchema);
-        datumWriter.write(rec, encoder);
+        writeAvroRecord(record);
+        return schemaAccessWriter.getAttributes(recordSchema);
+    }
+
+    @Override
+    protected Map<String, String> writeRecords(final List<Record> records) throws IOException {
+        // Outside of a record set, each record is written with its own schema information
+        if (!isActiveRecordSet()) {
+            return super.writeRecords(records);
+        }
+
+        // The attributes are only needed once for the whole batch
+        for (final Record record : records) {
+            writeAvroRecord(record);
+        }
         return schemaAccessWriter.getAttributes(recordSchema);
     }
 
+    private void writeAvroRecord(final Record record) throws IOException {
+        // If the record was read from Avro with the same schema and has not been modified, write the original Avro record as-is
+        final Optional<GenericRecord> serialized = AvroTypeUtil.getSerializedAvroRecord(record, avroSchema);
+        final GenericRecord rec = serialized.isPresent() ? serialized.get() : AvroTypeUtil.createAvroRecord(record, avroSchema);
+        datumWriter.write(rec, encoder);
+    }
+
     @Override
     public void flush() throws IOException {
         encoder.flush();
@@ -86,6 +108,6 @@ public class WriteAvroResultWithExternalSchema extends AbstractRecordSetWriter {
 
     @Override
     public String getMimeType() {
-        return "application/avro-binary";
+        return AvroTypeUtil.AVRO_MIME_TYPE;
     }
 }
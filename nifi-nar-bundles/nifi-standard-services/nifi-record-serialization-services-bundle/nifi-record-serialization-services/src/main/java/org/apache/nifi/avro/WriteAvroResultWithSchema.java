@@ -20,7 +20,9 @@ package org.apache.nifi.avro;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.avro.Schema;
 import org.apache.avro.file.CodecFactory;
@@ -57,13 +59,26 @@ public class WriteAvroResultWithSchema extends AbstractRecordSetWriter {
 
     @Override
     public Map<String, String> writeRecord(final Record record) throws IOException {
-        final GenericRecord rec = AvroTypeUtil.createAvroRecord(record, schema);
-        dataFileWriter.append(rec);
+        dataFileWriter.append(toAvroRecord(record));
         return Collections.emptyMap();
     }
 
+    @Override
+    protected Map<String, String> writeRecords(final List<Record> records) throws IOException {
+        for (final Record record : records) {
+            dataFileWriter.append(toAvroRecord(record));
+        }
+        return Collections.emptyMap();
+    }
+
+    private GenericRecord toAvroRecord(final Record record) throws IOException {
+        // If the record was read from Avro with the same schema and has not been modified, write the original Avro record as-is
+        final Optional<GenericRecord> serialized = AvroTypeUtil.getSerializedAvroRecord(record, schema);
+        return serialized.isPresent() ? serialized.get() : AvroTypeUtil.createAvroRecord(record, schema);
+    }
+
     @Override
     public String getMimeType() {
-        return "application/avro-binary";
+        return AvroTypeUtil.AVRO_MIME_TYPE;
     }
 }
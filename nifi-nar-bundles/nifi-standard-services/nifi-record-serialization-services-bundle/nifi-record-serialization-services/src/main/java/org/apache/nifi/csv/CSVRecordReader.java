@@ -23,10 +23,13 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.text.DateFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.function.Supplier;
@@ -38,27 +41,48 @@ import org.apache.commons.io.input.BOMInputStream;
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.SerializedForm;
 import org.apache.nifi.serialization.record.util.DataTypeUtils;
 
 
 public class CSVRecordReader implements RecordReader {
+    private static final int UNKNOWN_FIELD = -1;
+    private static final int UNPROJECTED_FIELD = -2;
+
     private final CSVParser csvParser;
     private final RecordSchema schema;
 
     private final Supplier<DateFormat> LAZY_DATE_FORMAT;
     private final Supplier<DateFormat> LAZY_TIME_FORMAT;
     private final Supplier<DateFormat> LAZY_TIMESTAMP_FORMAT;
+    private final String dateFormat;
+    private final String timeFormat;
+    private final String timestampFormat;
 
     private List<String> rawFieldNames;
+    private int[] fieldIndices;
+    private boolean columnsMatchSchema;
+    private final Set<String> projectedFields;
 
     public CSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
         final String dateFormat, final String timeFormat, final String timestampFormat) throws IOException {
+        this(in, logger, schema, csvFormat, hasHeader, ignoreHeader, dateFormat, timeFormat, timestampFormat, null);
+    }
+
+    /**
+     * Creates a CSVRecordReader that populates only the given fields of the schema. The columns that correspond to any other field
+     * are neither converted nor retained in the Records that are returned.
+     */
+    public CSVRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema, final CSVFormat csvFormat, final boolean hasHeader, final boolean ignoreHeader,
+        final String dateFormat, final String timeFormat, final String timestampFormat, final Set<String> projectedFields) throws IOException {
 
         this.schema = schema;
+        this.projectedFields = projectedFields;
         final DateFormat df = dateFormat == null ? null : DataTypeUtils.getDateFormat(dateFormat);
         final DateFormat tf = timeFormat == null ? null : DataTypeUtils.getDateFormat(timeFormat);
         final DateFormat tsf = timestampFormat == null ? null : DataTypeUtils.getDateFormat(timestampFormat);
@@ -66,6 +90,9 @@ public class CSVRecordReader implements RecordReader {
         LAZY_DATE_FORMAT = () -> df;
         LAZY_TIME_FORMAT = () -> tf;
         LAZY_TIMESTAMP_FORMAT = () -> tsf;
+        this.dateFormat = dateFormat;
+        this.timeFormat = timeFormat;
+        this.timestampFormat = timestampFormat;
 
         final Reader reader = new InputStreamReader(new BOMInputStream(in));
 
@@ -88,41 +115,118 @@ public class CSVRecordReader implements RecordReader {
         final RecordSchema schema = getSchema();
 
         final List<String> rawFieldNames = getRawFieldNames();
-        final int numFieldNames = rawFieldNames.size();
+        final int[] fieldIndices = getFieldIndices();
 
         for (final CSVRecord csvRecord : csvParser) {
-            final Map<String, Object> values = new LinkedHashMap<>();
-            for (int i = 0; i < csvRecord.size(); i++) {
-                final String rawFieldName = numFieldNames <= i ? "unknown_field_index_" + i : rawFieldNames.get(i);
-                final String rawValue = csvRecord.get(i);
+            return createRecord(csvRecord, schema, rawFieldNames, fieldIndices, coerceTypes, dropUnknownFields);
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<Record> nextBatch(final int maxRecords, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        final RecordSchema schema = getSchema();
+
+        final List<String> rawFieldNames = getRawFieldNames();
+        final int[] fieldIndices = getFieldIndices();
+
+        final List<Record> batch = new ArrayList<>(Math.min(maxRecords, 1024));
+        final Iterator<CSVRecord> itr = csvParser.iterator();
+        while (batch.size() < maxRecords && itr.hasNext()) {
+            batch.add(createRecord(itr.next(), schema, rawFieldNames, fieldIndices, coerceTypes, dropUnknownFields));
+        }
+
+        return batch;
+    }
+
+    private Record createRecord(final CSVRecord csvRecord, final RecordSchema schema, final List<String> rawFieldNames, final int[] fieldIndices,
+        final boolean coerceTypes, final boolean dropUnknownFields) {
+        final int numFieldNames = rawFieldNames.size();
+
+        final Object[] values = new Object[schema.getFieldCount()];
+        final BitSet presentFields = new BitSet(values.length);
+        Map<String, Object> unknownValues = null;
+
+        for (int i = 0; i < csvRecord.size(); i++) {
+            final String rawFieldName = numFieldNames <= i ? "unknown_field_index_" + i : rawFieldNames.get(i);
+            final String rawValue = csvRecord.get(i);
 
-                final Optional<DataType> dataTypeOption = schema.getDataType(rawFieldName);
+            final int fieldIndex;
+            if (numFieldNames <= i) {
+                fieldIndex = projectedFields == null ? UNKNOWN_FIELD : UNPROJECTED_FIELD;
+            } else {
+                fieldIndex = fieldIndices[i];
+            }
+
+            if (fieldIndex == UNPROJECTED_FIELD) {
+                continue;
+            }
 
-                if (!dataTypeOption.isPresent() && dropUnknownFields) {
+            if (fieldIndex == UNKNOWN_FIELD) {
+                if (dropUnknownFields) {
                     continue;
                 }
 
-                final Object value;
-                if (coerceTypes && dataTypeOption.isPresent()) {
-                    value = convert(rawValue, dataTypeOption.get(), rawFieldName);
-                } else if (dataTypeOption.isPresent()) {
-                    // The CSV Reader is going to return all fields as Strings, because CSV doesn't have any way to
-                    // dictate a field type. As a result, we will use the schema that we have to attempt to convert
-                    // the value into the desired type if it's a simple type.
-                    value = convertSimpleIfPossible(rawValue, dataTypeOption.get(), rawFieldName);
-                } else {
-                    value = rawValue;
+                if (unknownValues == null) {
+                    unknownValues = new LinkedHashMap<>();
                 }
+                unknownValues.put(rawFieldName, rawValue);
+                continue;
+            }
 
-                values.put(rawFieldName, value);
+            final DataType dataType = schema.getField(fieldIndex).getDataType();
+            final Object value;
+            if (coerceTypes) {
+                value = convert(rawValue, dataType, rawFieldName);
+            } else {
+                // The CSV Reader is going to return all fields as Strings, because CSV doesn't have any way to
+                // dictate a field type. As a result, we will use the schema that we have to attempt to convert
+                // the value into the desired type if it's a simple type.
+                value = convertSimpleIfPossible(rawValue, dataType, rawFieldName);
             }
 
-            return new MapRecord(schema, values, coerceTypes, dropUnknownFields);
+            values[fieldIndex] = value;
+            presentFields.set(fieldIndex);
         }
 
-        return null;
+        // If the columns line up exactly with the fields of the schema, the parsed CSV record can serve as the serialized form
+        final SerializedForm serializedForm = columnsMatchSchema && csvRecord.size() == values.length
+            ? SerializedForm.of(new ParsedCSVRecord(csvRecord, dateFormat, timeFormat, timestampFormat), "text/csv") : null;
+        return new ArrayRecord(schema, values, presentFields, unknownValues, serializedForm, coerceTypes, dropUnknownFields);
     }
 
+    /**
+     * @return for each column of the CSV, the index of the corresponding field in the schema, {@link #UNKNOWN_FIELD} if the schema
+     *         does not contain a field for the column, or {@link #UNPROJECTED_FIELD} if the column should not be read at all
+     */
+    private int[] getFieldIndices() {
+        if (this.fieldIndices != null) {
+            return this.fieldIndices;
+        }
+
+        final List<String> rawFieldNames = getRawFieldNames();
+        final int[] indices = new int[rawFieldNames.size()];
+        for (int i = 0; i < indices.length; i++) {
+            final OptionalInt fieldIndex = schema.getFieldIndex(rawFieldNames.get(i));
+            if (!fieldIndex.isPresent()) {
+                indices[i] = projectedFields == null ? UNKNOWN_FIELD : UNPROJECTED_FIELD;
+            } else if (projectedFields == null || isProjected(schema.getField(fieldIndex.getAsInt()))) {
+                indices[i] = fieldIndex.getAsInt();
+            } else {
+                indices[i] = UNPROJECTED_FIELD;
+            }
+        }
+
+        boolean identityMapping = projectedFields == null && indices.length == schema.getFieldCount();
+        for (int i = 0; identityMapping && i < indices.length; i++) {
+            identityMapping = indices[i] == i;
+        }
+        this.columnsMatchSchema = identityMapping;
+
+        this.fieldIndices = indices;
+        return indices;
+    }
 
     private List<String> getRawFieldNames() {
         if (this.rawFieldNames != null) {
@@ -140,6 +244,20 @@ public class CSVRecordReader implements RecordReader {
     }
 
 
+    private boolean isProjected(final RecordField field) {
+        if (projectedFields.contains(field.getFieldName())) {
+            return true;
+        }
+
+        for (final String alias : field.getAliases()) {
+            if (projectedFields.contains(alias)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @Override
     public RecordSchema getSchema() {
         return schema;
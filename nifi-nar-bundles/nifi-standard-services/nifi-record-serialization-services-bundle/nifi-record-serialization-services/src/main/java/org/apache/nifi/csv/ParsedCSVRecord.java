@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.csv;
+
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * The serialized form of a Record that was read from CSV: the parsed CSV record, along with the formats with which the
+ * reader parsed its Date, Time and Timestamp values, so that a writer can tell whether the text of those values is
+ * already in the format that it would write.
+ */
+class ParsedCSVRecord {
+    private final CSVRecord csvRecord;
+    private final String dateFormat;
+    private final String timeFormat;
+    private final String timestampFormat;
+
+    ParsedCSVRecord(final CSVRecord csvRecord, final String dateFormat, final String timeFormat, final String timestampFormat) {
+        this.csvRecord = csvRecord;
+        this.dateFormat = dateFormat;
+        this.timeFormat = timeFormat;
+        this.timestampFormat = timestampFormat;
+    }
+
+    CSVRecord getCsvRecord() {
+        return csvRecord;
+    }
+
+    String getDateFormat() {
+        return dateFormat;
+    }
+
+    String getTimeFormat() {
+        return timeFormat;
+    }
+
+    String getTimestampFormat() {
+        return timestampFormat;
+    }
+}
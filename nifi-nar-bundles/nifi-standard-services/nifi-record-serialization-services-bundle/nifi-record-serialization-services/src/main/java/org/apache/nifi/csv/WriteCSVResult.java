@@ -20,8 +20,11 @@ package org.apache.nifi.csv;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -35,7 +38,9 @@ import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.RawRecordWriter;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.SerializedForm;
 
 public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSetWriter, RawRecordWriter {
     private final RecordSchema recordSchema;
@@ -45,7 +50,9 @@ public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSet
     private final String timestampFormat;
     private final CSVPrinter printer;
     private final Object[] fieldValues;
+    private final String[] fieldFormats;
     private final boolean includeHeaderLine;
+    private final Set<RecordFieldType> temporalFieldTypes = new HashSet<>();
     private boolean headerWritten = false;
     private String[] fieldNames;
 
@@ -65,6 +72,16 @@ public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSet
         printer = new CSVPrinter(streamWriter, formatWithHeader);
 
         fieldValues = new Object[recordSchema.getFieldCount()];
+        fieldFormats = new String[recordSchema.getFieldCount()];
+        for (int i = 0; i < fieldFormats.length; i++) {
+            final RecordField field = recordSchema.getField(i);
+            fieldFormats[i] = getFormat(field);
+
+            final RecordFieldType fieldType = field.getDataType().getFieldType();
+            if (fieldType == RecordFieldType.DATE || fieldType == RecordFieldType.TIME || fieldType == RecordFieldType.TIMESTAMP) {
+                temporalFieldTypes.add(fieldType);
+            }
+        }
     }
 
     private String getFormat(final RecordField field) {
@@ -138,16 +155,61 @@ public class WriteCSVResult extends AbstractRecordSetWriter implements RecordSet
         }
 
         includeHeaderIfNecessary(record, true);
+        printSchemaFields(record);
+        return schemaWriter.getAttributes(recordSchema);
+    }
 
-        int i = 0;
-        for (final RecordField recordField : recordSchema.getFields()) {
-            fieldValues[i++] = record.getAsString(recordField, getFormat(recordField));
+    @Override
+    protected Map<String, String> writeRecords(final List<Record> records) throws IOException {
+        if (records.isEmpty()) {
+            return schemaWriter.getAttributes(recordSchema);
+        }
+
+        if (!isActiveRecordSet()) {
+            schemaWriter.writeHeader(recordSchema, getOutputStream());
+        }
+
+        includeHeaderIfNecessary(records.get(0), true);
+        for (final Record record : records) {
+            printSchemaFields(record);
         }
 
-        printer.printRecord(fieldValues);
         return schemaWriter.getAttributes(recordSchema);
     }
 
+    private void printSchemaFields(final Record record) throws IOException {
+        // If the record was read from CSV with the same schema and formats and has not been modified, print the values that were parsed
+        final Optional<SerializedForm> serializedForm = record.getSerializedForm();
+        if (serializedForm.isPresent() && serializedForm.get().getMimeType().equals(getMimeType())) {
+            final Object serialized = serializedForm.get().getSerialized();
+            if (serialized instanceof ParsedCSVRecord) {
+                final ParsedCSVRecord parsed = (ParsedCSVRecord) serialized;
+                if (parsed.getCsvRecord().size() == fieldValues.length && isWrittenAsParsed(parsed)
+                    && (record.getSchema() == recordSchema || record.getSchema().equals(recordSchema))) {
+                    printer.printRecord(parsed.getCsvRecord());
+                    return;
+                }
+            }
+        }
+
+        final List<RecordField> fields = recordSchema.getFields();
+        for (int i = 0; i < fieldValues.length; i++) {
+            fieldValues[i] = record.getAsString(fields.get(i), fieldFormats[i]);
+        }
+
+        printer.printRecord(fieldValues);
+    }
+
+    /**
+     * @return whether the Date, Time and Timestamp fields of the schema were parsed with the formats that this writer writes them in,
+     *         in which case their text is already as this writer would write it
+     */
+    private boolean isWrittenAsParsed(final ParsedCSVRecord parsed) {
+        return (!temporalFieldTypes.contains(RecordFieldType.DATE) || Objects.equals(parsed.getDateFormat(), dateFormat))
+            && (!temporalFieldTypes.contains(RecordFieldType.TIME) || Objects.equals(parsed.getTimeFormat(), timeFormat))
+            && (!temporalFieldTypes.contains(RecordFieldType.TIMESTAMP) || Objects.equals(parsed.getTimestampFormat(), timestampFormat));
+    }
+
     @Override
     public WriteResult writeRawRecord(final Record record) throws IOException {
         // If we are not writing an active record set, then we need to ensure that we write the
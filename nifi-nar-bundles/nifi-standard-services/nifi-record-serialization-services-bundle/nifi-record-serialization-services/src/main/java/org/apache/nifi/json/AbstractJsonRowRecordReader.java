@@ -19,11 +19,14 @@ package org.apache.nifi.json;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
@@ -43,6 +46,7 @@ import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.JsonToken;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
 
 
 public abstract class AbstractJsonRowRecordReader implements RecordReader {
@@ -50,6 +54,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
     private final JsonParser jsonParser;
     private final boolean array;
     private final JsonNode firstJsonNode;
+    private final Set<String> projectedFields;
 
     private boolean firstObjectConsumed = false;
 
@@ -57,7 +62,18 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
     private static final ObjectMapper codec = new ObjectMapper();
 
     public AbstractJsonRowRecordReader(final InputStream in, final ComponentLog logger) throws IOException, MalformedRecordException {
+        this(in, logger, null);
+    }
+
+    /**
+     * @param in the stream to read JSON from
+     * @param logger the logger to use
+     * @param projectedFields the names of the fields of each top-level JSON object that should be read, or <code>null</code> to read all
+     *            fields. The values of any other field are skipped by the parser without being materialized.
+     */
+    public AbstractJsonRowRecordReader(final InputStream in, final ComponentLog logger, final Set<String> projectedFields) throws IOException, MalformedRecordException {
         this.logger = logger;
+        this.projectedFields = projectedFields;
 
         try {
             jsonParser = jsonFactory.createJsonParser(in);
@@ -72,7 +88,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
             }
 
             if (token == JsonToken.START_OBJECT) { // could be END_ARRAY also
-                firstJsonNode = jsonParser.readValueAsTree();
+                firstJsonNode = readJsonObject();
             } else {
                 firstJsonNode = null;
             }
@@ -90,6 +106,32 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
 
         final JsonNode nextNode = getNextJsonNode();
         final RecordSchema schema = getSchema();
+        return convertToRecord(nextNode, schema, coerceTypes, dropUnknownFields);
+    }
+
+    @Override
+    public List<Record> nextBatch(final int maxRecords, final boolean coerceTypes, final boolean dropUnknownFields) throws IOException, MalformedRecordException {
+        final RecordSchema schema = getSchema();
+        final List<Record> batch = new ArrayList<>(Math.min(maxRecords, 1024));
+
+        while (batch.size() < maxRecords) {
+            if (firstObjectConsumed && !array) {
+                break;
+            }
+
+            final Record record = convertToRecord(getNextJsonNode(), schema, coerceTypes, dropUnknownFields);
+            if (record == null) {
+                break;
+            }
+
+            batch.add(record);
+        }
+
+        return batch;
+    }
+
+    private Record convertToRecord(final JsonNode nextNode, final RecordSchema schema, final boolean coerceTypes, final boolean dropUnknownFields)
+        throws IOException, MalformedRecordException {
         try {
             return convertJsonNodeToRecord(nextNode, schema, coerceTypes, dropUnknownFields);
         } catch (final MalformedRecordException mre) {
@@ -194,7 +236,7 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
                 case END_OBJECT:
                     continue;
                 case START_OBJECT:
-                    return jsonParser.readValueAsTree();
+                    return readJsonObject();
                 case END_ARRAY:
                 case START_ARRAY:
                     return null;
@@ -205,11 +247,42 @@ public abstract class AbstractJsonRowRecordReader implements RecordReader {
     }
 
 
+    /**
+     * Reads the JSON object that the parser is currently positioned at. If the reader was given a projection,
+     * only the projected fields are read into the returned node; the parser skips over all other values.
+     */
+    private JsonNode readJsonObject() throws IOException {
+        if (projectedFields == null) {
+            return jsonParser.readValueAsTree();
+        }
+
+        final ObjectNode objectNode = codec.createObjectNode();
+        while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = jsonParser.getCurrentName();
+            jsonParser.nextToken();
+
+            if (projectedFields.contains(fieldName)) {
+                objectNode.put(fieldName, jsonParser.readValueAsTree());
+            } else {
+                jsonParser.skipChildren();
+            }
+        }
+
+        return objectNode;
+    }
+
     @Override
     public void close() throws IOException {
         jsonParser.close();
     }
 
+    /**
+     * @return <code>true</code> if only a subset of the fields of each JSON object is being read
+     */
+    protected boolean isProjected() {
+        return projectedFields != null;
+    }
+
     protected JsonParser getJsonParser() {
         return jsonParser;
     }
@@ -21,18 +21,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.DateFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.ArrayRecord;
 import org.apache.nifi.serialization.record.DataType;
-import org.apache.nifi.serialization.record.MapRecord;
 import org.apache.nifi.serialization.record.Record;
 import org.apache.nifi.serialization.record.RecordField;
 import org.apache.nifi.serialization.record.RecordFieldType;
@@ -56,7 +61,12 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
 
     public JsonTreeRowRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
         final String dateFormat, final String timeFormat, final String timestampFormat) throws IOException, MalformedRecordException {
-        super(in, logger);
+        this(in, logger, schema, dateFormat, timeFormat, timestampFormat, null);
+    }
+
+    public JsonTreeRowRecordReader(final InputStream in, final ComponentLog logger, final RecordSchema schema,
+        final String dateFormat, final String timeFormat, final String timestampFormat, final Set<String> projectedFields) throws IOException, MalformedRecordException {
+        super(in, logger, getProjectedNames(schema, projectedFields));
         this.schema = schema;
 
         final DateFormat df = dateFormat == null ? null : DataTypeUtils.getDateFormat(dateFormat);
@@ -69,6 +79,28 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
     }
 
 
+    /**
+     * Returns the names under which the projected fields may appear in the JSON, which includes the aliases of each projected field
+     */
+    private static Set<String> getProjectedNames(final RecordSchema schema, final Set<String> projectedFields) {
+        if (projectedFields == null) {
+            return null;
+        }
+
+        final Set<String> names = new HashSet<>();
+        for (final String projectedField : projectedFields) {
+            names.add(projectedField);
+
+            final Optional<RecordField> field = schema.getField(projectedField);
+            if (field.isPresent()) {
+                names.add(field.get().getFieldName());
+                names.addAll(field.get().getAliases());
+            }
+        }
+
+        return names;
+    }
+
     @Override
     protected Record convertJsonNodeToRecord(final JsonNode jsonNode, final RecordSchema schema, final boolean coerceTypes, final boolean dropUnknownFields)
         throws IOException, MalformedRecordException {
@@ -88,31 +120,54 @@ public class JsonTreeRowRecordReader extends AbstractJsonRowRecordReader {
     private Record convertJsonNodeToRecord(final JsonNode jsonNode, final RecordSchema schema, final String fieldNamePrefix,
             final boolean coerceTypes, final boolean dropUnknown) throws IOException, MalformedRecordException {
 
-        final Map<String, Object> values = new LinkedHashMap<>();
+        final Object[] values = new Object[schema.getFieldCount()];
+        final BitSet presentFields = new BitSet(values.length);
+        Map<String, Object> unknownValues = null;
+
         final Iterator<String> fieldNames = jsonNode.getFieldNames();
         while (fieldNames.hasNext()) {
             final String fieldName = fieldNames.next();
             final JsonNode childNode = jsonNode.get(fieldName);
 
-            final RecordField recordField = schema.getField(fieldName).orElse(null);
-            if (recordField == null && dropUnknown) {
+            final OptionalInt fieldIndex = schema.getFieldIndex(fieldName);
+            if (!fieldIndex.isPresent()) {
+                if (dropUnknown) {
+                    continue;
+                }
+
+                if (unknownValues == null) {
+                    unknownValues = new LinkedHashMap<>();
+                }
+                unknownValues.put(fieldName, getRawNodeValue(childNode, null));
                 continue;
             }
 
+            final int index = fieldIndex.getAsInt();
+            final RecordField recordField = schema.getField(index);
+
             final Object value;
-            if (coerceTypes && recordField != null) {
+            if (coerceTypes) {
                 final DataType desiredType = recordField.getDataType();
                 final String fullFieldName = fieldNamePrefix == null ? fieldName : fieldNamePrefix + fieldName;
                 value = convertField(childNode, fullFieldName, desiredType, dropUnknown);
             } else {
-                value = getRawNodeValue(childNode, recordField == null ? null : recordField.getDataType());
+                value = getRawNodeValue(childNode, recordField.getDataType());
             }
 
-            values.put(fieldName, value);
+            values[index] = value;
+            presentFields.set(index);
+        }
+
+        // If only some of the fields of a top-level object were read, the node does not represent the original JSON
+        final SerializedForm serializedForm;
+        if (fieldNamePrefix == null && isProjected()) {
+            serializedForm = null;
+        } else {
+            final Supplier<String> supplier = () -> jsonNode.toString();
+            serializedForm = SerializedForm.of(supplier, "application/json");
         }
 
-        final Supplier<String> supplier = () -> jsonNode.toString();
-        return new MapRecord(schema, values, SerializedForm.of(supplier, "application/json"), false, dropUnknown);
+        return new ArrayRecord(schema, values, presentFields, unknownValues, serializedForm, false, dropUnknown);
     }
 
 
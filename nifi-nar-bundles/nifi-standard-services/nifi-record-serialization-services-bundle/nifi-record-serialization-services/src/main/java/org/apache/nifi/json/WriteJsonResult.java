@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.text.DateFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -123,6 +124,24 @@ public class WriteJsonResult extends AbstractRecordSetWriter implements RecordSe
         return schemaAccess.getAttributes(recordSchema);
     }
 
+    @Override
+    protected Map<String, String> writeRecords(final List<Record> records) throws IOException {
+        if (records.isEmpty()) {
+            return schemaAccess.getAttributes(recordSchema);
+        }
+
+        if (!isActiveRecordSet()) {
+            generator.flush();
+            schemaAccess.writeHeader(recordSchema, getOutputStream());
+        }
+
+        for (final Record record : records) {
+            writeRecord(record, recordSchema, generator, g -> g.writeStartObject(), g -> g.writeEndObject(), true);
+        }
+
+        return schemaAccess.getAttributes(recordSchema);
+    }
+
     @Override
     public WriteResult writeRawRecord(final Record record) throws IOException {
         // If we are not writing an active record set, then we need to ensure that we write the
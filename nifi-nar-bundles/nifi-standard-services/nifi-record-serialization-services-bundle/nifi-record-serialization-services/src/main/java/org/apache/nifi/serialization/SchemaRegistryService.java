@@ -17,6 +17,7 @@
 
 package org.apache.nifi.serialization;
 
+import org.apache.nifi.annotation.lifecycle.OnDisabled;
 import org.apache.nifi.annotation.lifecycle.OnEnabled;
 import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
@@ -24,6 +25,7 @@ import org.apache.nifi.components.ValidationContext;
 import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.controller.AbstractControllerService;
 import org.apache.nifi.controller.ConfigurationContext;
+import org.apache.nifi.schema.access.RecordSchemaCache;
 import org.apache.nifi.schema.access.SchemaAccessStrategy;
 import org.apache.nifi.schema.access.SchemaAccessUtils;
 import org.apache.nifi.schema.access.SchemaField;
@@ -59,6 +61,9 @@ public abstract class SchemaRegistryService extends AbstractControllerService {
     private volatile SchemaAccessStrategy schemaAccessStrategy;
     private static InputStream EMPTY_INPUT_STREAM = new ByteArrayInputStream(new byte[0]);
 
+    // Cleared whenever the service is enabled or disabled, so that schemas do not outlive the configuration they were resolved with
+    private final RecordSchemaCache schemaCache = new RecordSchemaCache();
+
     private final List<AllowableValue> strategyList = Collections.unmodifiableList(Arrays.asList(
         SCHEMA_NAME_PROPERTY, SCHEMA_TEXT_PROPERTY, HWX_SCHEMA_REF_ATTRIBUTES, HWX_CONTENT_ENCODED_SCHEMA, CONFLUENT_ENCODED_SCHEMA));
 
@@ -91,6 +96,7 @@ public abstract class SchemaRegistryService extends AbstractControllerService {
     @OnEnabled
     public void storeSchemaAccessStrategy(final ConfigurationContext context) {
         this.configurationContext = context;
+        schemaCache.clear();
 
         final SchemaRegistry schemaRegistry = context.getProperty(SCHEMA_REGISTRY).asControllerService(SchemaRegistry.class);
 
@@ -99,6 +105,27 @@ public abstract class SchemaRegistryService extends AbstractControllerService {
         this.schemaAccessStrategy = getSchemaAccessStrategy(schemaAccess, schemaRegistry, context);
     }
 
+    @OnDisabled
+    public void clearSchemaCache() {
+        getLogger().info("Schema cache statistics: {}", new Object[] {schemaCache.getStatistics()});
+        schemaCache.clear();
+    }
+
+    /**
+     * @return the cache of schemas that are resolved from schema text or from a specific version in a Schema Registry
+     */
+    protected RecordSchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
+    /**
+     * @return the number of schemas that this service has cached, and the number of cache hits, misses and evictions since the
+     *         service was enabled
+     */
+    public Map<String, Long> getSchemaCacheStatistics() {
+        return schemaCache.getStatistics();
+    }
+
     @Override
     protected ConfigurationContext getConfigurationContext() {
         return configurationContext;
@@ -148,7 +175,7 @@ public abstract class SchemaRegistryService extends AbstractControllerService {
             return null;
         }
 
-        return SchemaAccessUtils.getSchemaAccessStrategy(strategy, schemaRegistry, context);
+        return SchemaAccessUtils.getSchemaAccessStrategy(strategy, schemaRegistry, context, getSchemaCache());
     }
 
     protected SchemaAccessStrategy getSchemaAccessStrategy(final String allowableValue, final SchemaRegistry schemaRegistry, final ValidationContext context) {
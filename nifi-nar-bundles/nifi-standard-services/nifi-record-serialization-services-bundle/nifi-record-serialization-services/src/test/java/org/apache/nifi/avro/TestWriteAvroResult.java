@@ -36,6 +36,7 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -66,6 +67,8 @@ public abstract class TestWriteAvroResult {
 
     protected abstract GenericRecord readRecord(InputStream in, Schema schema) throws IOException;
 
+    protected abstract List<GenericRecord> readRecords(InputStream in, Schema schema, int recordCount) throws IOException;
+
     protected void verify(final WriteResult writeResult) {
     }
 
@@ -194,6 +197,34 @@ public abstract class TestWriteAvroResult {
         }
     }
 
+    @Test
+    public void testWriteBatch() throws IOException {
+        final Schema schema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"person\", \"fields\": [{\"name\": \"name\", \"type\": \"string\"}]}");
+        final RecordSchema recordSchema = AvroTypeUtil.createSchema(schema);
+        final List<Record> records = Collections.unmodifiableList(Arrays.asList(
+            new MapRecord(recordSchema, Collections.<String, Object> singletonMap("name", "John")),
+            new MapRecord(recordSchema, Collections.<String, Object> singletonMap("name", "Jane"))));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final WriteResult writeResult;
+        try (final RecordSetWriter writer = createWriter(schema, baos)) {
+            writer.beginRecordSet();
+            writer.writeBatch(records);
+            writeResult = writer.finishRecordSet();
+        }
+
+        assertEquals(2, writeResult.getRecordCount());
+        verify(writeResult);
+
+        try (final InputStream in = new ByteArrayInputStream(baos.toByteArray())) {
+            final List<GenericRecord> avroRecords = readRecords(in, schema, 2);
+            assertEquals(2, avroRecords.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertMatch(records.get(i), avroRecords.get(i));
+            }
+        }
+    }
+
     protected void assertMatch(final Record record, final GenericRecord avroRecord) {
         for (final String fieldName : record.getSchema().getFieldNames()) {
             Object avroValue = avroRecord.get(fieldName);
@@ -20,6 +20,8 @@ package org.apache.nifi.avro;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.avro.Schema;
 import org.apache.avro.file.CodecFactory;
@@ -46,4 +48,16 @@ public class TestWriteAvroResultWithSchema extends TestWriteAvroResult {
 
         return avroRecord;
     }
+
+    @Override
+    protected List<GenericRecord> readRecords(final InputStream in, final Schema schema, final int recordCount) throws IOException {
+        final DataFileStream<GenericRecord> dataFileStream = new DataFileStream<>(in, new GenericDatumReader<GenericRecord>());
+        GenericData.setStringType(dataFileStream.getSchema(), StringType.String);
+
+        final List<GenericRecord> avroRecords = new ArrayList<>();
+        while (dataFileStream.hasNext()) {
+            avroRecords.add(dataFileStream.next());
+        }
+        return avroRecords;
+    }
 }
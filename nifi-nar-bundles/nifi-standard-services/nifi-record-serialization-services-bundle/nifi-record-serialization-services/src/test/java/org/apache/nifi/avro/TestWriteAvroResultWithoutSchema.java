@@ -20,6 +20,8 @@ package org.apache.nifi.avro;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.avro.Schema;
@@ -46,6 +48,18 @@ public class TestWriteAvroResultWithoutSchema extends TestWriteAvroResult {
         return reader.read(null, decoder);
     }
 
+    @Override
+    protected List<GenericRecord> readRecords(final InputStream in, final Schema schema, final int recordCount) throws IOException {
+        final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(in, null);
+        final GenericDatumReader<GenericRecord> reader = new GenericDatumReader<GenericRecord>(schema);
+
+        final List<GenericRecord> avroRecords = new ArrayList<>();
+        for (int i = 0; i < recordCount; i++) {
+            avroRecords.add(reader.read(null, decoder));
+        }
+        return avroRecords;
+    }
+
     @Override
     protected void verify(final WriteResult writeResult) {
         final Map<String, String> attributes = writeResult.getAttributes();
@@ -20,6 +20,7 @@ package org.apache.nifi.csv;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -28,7 +29,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -125,6 +128,53 @@ public class TestCSVRecordReader {
         }
     }
 
+    @Test
+    public void testMultipleRecordsInBatches() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.replaceAll(f -> f.getFieldName().equals("balance") ? new RecordField("balance", doubleDataType) : f);
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        try (final InputStream fis = new FileInputStream(new File("src/test/resources/csv/multi-bank-account.csv"));
+            final CSVRecordReader reader = createReader(fis, schema)) {
+
+            final List<Record> firstBatch = reader.nextBatch(1);
+            assertEquals(1, firstBatch.size());
+            final Object[] firstExpectedValues = new Object[] {"1", "John Doe", 4750.89D, "123 My Street", "My City", "MS", "11111", "USA"};
+            Assert.assertArrayEquals(firstExpectedValues, firstBatch.get(0).getValues());
+
+            final List<Record> secondBatch = reader.nextBatch(10);
+            assertEquals(1, secondBatch.size());
+            final Object[] secondExpectedValues = new Object[] {"2", "Jane Doe", 4820.09D, "321 Your Street", "Your City", "NY", "33333", "USA"};
+            Assert.assertArrayEquals(secondExpectedValues, secondBatch.get(0).getValues());
+
+            assertTrue(reader.nextBatch(10).isEmpty());
+        }
+    }
+
+    @Test
+    public void testProjectedFields() throws IOException, MalformedRecordException {
+        final List<RecordField> fields = getDefaultFields();
+        fields.replaceAll(f -> f.getFieldName().equals("balance") ? new RecordField("balance", doubleDataType) : f);
+
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        try (final InputStream fis = new FileInputStream(new File("src/test/resources/csv/multi-bank-account.csv"));
+            final CSVRecordReader reader = new CSVRecordReader(fis, Mockito.mock(ComponentLog.class), schema, format, true, false,
+                RecordFieldType.DATE.getDefaultFormat(), RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(),
+                new HashSet<>(Arrays.asList("name", "balance")))) {
+
+            final Record firstRecord = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {null, "John Doe", 4750.89D, null, null, null, null, null}, firstRecord.getValues());
+            assertEquals(new HashSet<>(Arrays.asList("name", "balance")), firstRecord.getRawFieldNames());
+
+            final Record secondRecord = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {null, "Jane Doe", 4820.09D, null, null, null, null, null}, secondRecord.getValues());
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
     @Test
     public void testExtraWhiteSpace() throws IOException, MalformedRecordException {
         final List<RecordField> fields = getDefaultFields();
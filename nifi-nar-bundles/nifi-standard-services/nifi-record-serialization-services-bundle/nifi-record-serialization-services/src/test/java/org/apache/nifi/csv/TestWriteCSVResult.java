@@ -18,7 +18,10 @@
 package org.apache.nifi.csv;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigInteger;
@@ -37,7 +40,9 @@ import java.util.TimeZone;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.QuoteMode;
+import org.apache.nifi.logging.ComponentLog;
 import org.apache.nifi.schema.access.SchemaNameAsAttribute;
+import org.apache.nifi.serialization.MalformedRecordException;
 import org.apache.nifi.serialization.SimpleRecordSchema;
 import org.apache.nifi.serialization.record.DataType;
 import org.apache.nifi.serialization.record.MapRecord;
@@ -47,6 +52,7 @@ import org.apache.nifi.serialization.record.RecordFieldType;
 import org.apache.nifi.serialization.record.RecordSchema;
 import org.apache.nifi.serialization.record.RecordSet;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 
 public class TestWriteCSVResult {
@@ -294,6 +300,70 @@ public class TestWriteCSVResult {
     }
 
 
+    @Test
+    public void testPassthroughOfRecordReadFromCsv() throws IOException, MalformedRecordException {
+        final CSVFormat csvFormat = CSVFormat.DEFAULT.withFirstRecordAsHeader().withRecordSeparator("\n");
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("dob", RecordFieldType.DATE.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String input = "id,dob\n1,1970-01-01\n2,1970-01-02\n";
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final CSVRecordReader reader = new CSVRecordReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                Mockito.mock(ComponentLog.class), schema, csvFormat, true, false, "yyyy-MM-dd", null, null);
+            final WriteCSVResult writer = new WriteCSVResult(csvFormat, schema, new SchemaNameAsAttribute(), baos,
+                "MM/dd/yyyy", RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), true)) {
+
+            final Record first = reader.nextRecord();
+            assertTrue(first.getSerializedForm().isPresent());
+
+            final Record second = reader.nextRecord();
+            second.setValue("id", 3);
+            assertFalse(second.getSerializedForm().isPresent());
+
+            writer.beginRecordSet();
+            writer.write(first);
+            writer.write(second);
+            writer.finishRecordSet();
+            writer.flush();
+        }
+
+        // The writer's date format differs from the reader's, so both records are formatted by the writer
+        assertEquals("id,dob\n1,01/01/1970\n3,01/02/1970\n", baos.toString());
+    }
+
+    @Test
+    public void testPassthroughWithSameFormats() throws IOException, MalformedRecordException {
+        final CSVFormat csvFormat = CSVFormat.DEFAULT.withFirstRecordAsHeader().withRecordSeparator("\n");
+        final List<RecordField> fields = new ArrayList<>();
+        fields.add(new RecordField("id", RecordFieldType.INT.getDataType()));
+        fields.add(new RecordField("dob", RecordFieldType.DATE.getDataType()));
+        final RecordSchema schema = new SimpleRecordSchema(fields);
+
+        final String input = "id,dob\n01,1970-01-01\n02,1970-01-02\n";
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final CSVRecordReader reader = new CSVRecordReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                Mockito.mock(ComponentLog.class), schema, csvFormat, true, false, "yyyy-MM-dd", null, null);
+            final WriteCSVResult writer = new WriteCSVResult(csvFormat, schema, new SchemaNameAsAttribute(), baos,
+                "yyyy-MM-dd", RecordFieldType.TIME.getDefaultFormat(), RecordFieldType.TIMESTAMP.getDefaultFormat(), true)) {
+
+            final Record first = reader.nextRecord();
+            final Record second = reader.nextRecord();
+            second.setValue("id", 3);
+
+            writer.beginRecordSet();
+            writer.write(first);
+            writer.write(second);
+            writer.finishRecordSet();
+            writer.flush();
+        }
+
+        // The unmodified record keeps its original text while the modified one is formatted by the writer
+        assertEquals("id,dob\n01,1970-01-01\n3,1970-01-02\n", baos.toString());
+    }
+
+
     private DateFormat getDateFormat(final String format) {
         final DateFormat df = new SimpleDateFormat(format);
         df.setTimeZone(TimeZone.getTimeZone("gmt"));
@@ -18,6 +18,7 @@
 package org.apache.nifi.json;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -31,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -161,6 +163,41 @@ public class TestJsonTreeRowRecordReader {
         }
     }
 
+    @Test
+    public void testReadArrayInBatch() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+
+        try (final InputStream in = new FileInputStream(new File("src/test/resources/json/bank-account-array.json"));
+            final JsonTreeRowRecordReader reader = new JsonTreeRowRecordReader(in, Mockito.mock(ComponentLog.class), schema, dateFormat, timeFormat, timestampFormat)) {
+
+            final List<Record> batch = reader.nextBatch(10);
+            assertEquals(2, batch.size());
+            Assert.assertArrayEquals(new Object[] {1, "John Doe", 4750.89, "123 My Street", "My City", "MS", "11111", "USA"}, batch.get(0).getValues());
+            Assert.assertArrayEquals(new Object[] {2, "Jane Doe", 4820.09, "321 Your Street", "Your City", "NY", "33333", "USA"}, batch.get(1).getValues());
+
+            assertTrue(reader.nextBatch(10).isEmpty());
+        }
+    }
+
+    @Test
+    public void testReadArrayWithProjection() throws IOException, MalformedRecordException {
+        final RecordSchema schema = new SimpleRecordSchema(getDefaultFields());
+
+        try (final InputStream in = new FileInputStream(new File("src/test/resources/json/bank-account-array.json"));
+            final JsonTreeRowRecordReader reader = new JsonTreeRowRecordReader(in, Mockito.mock(ComponentLog.class), schema, dateFormat, timeFormat, timestampFormat,
+                new HashSet<>(Arrays.asList("id", "country")))) {
+
+            final Record firstRecord = reader.nextRecord();
+            Assert.assertArrayEquals(new Object[] {1, null, null, null, null, null, null, "USA"}, firstRecord.getValues());
+            assertFalse(firstRecord.getSerializedForm().isPresent());
+
+            final Object[] secondRecordValues = reader.nextRecord().getValues();
+            Assert.assertArrayEquals(new Object[] {2, null, null, null, null, null, null, "USA"}, secondRecordValues);
+
+            assertNull(reader.nextRecord());
+        }
+    }
+
     @Test
     public void testReadRawRecordIncludesFieldsNotInSchema() throws IOException, MalformedRecordException {
         final List<RecordField> fields = new ArrayList<>();
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.serialization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.apache.nifi.avro.AvroReader;
+import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.reporting.InitializationException;
+import org.apache.nifi.schema.access.SchemaAccessUtils;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSchemaRegistryService {
+
+    private static final String SCHEMA_TEXT = "{\"type\": \"record\", \"name\": \"person\", \"fields\": [{\"name\": \"id\", \"type\": \"int\"}]}";
+
+    private TestRunner runner;
+
+    @Before
+    public void setup() {
+        runner = TestRunners.newTestRunner(new AbstractProcessor() {
+            @Override
+            public void onTrigger(final ProcessContext context, final ProcessSession session) {
+            }
+        });
+    }
+
+    private AvroReader addReader(final String identifier) throws InitializationException {
+        final AvroReader reader = new AvroReader();
+        runner.addControllerService(identifier, reader);
+        runner.setProperty(reader, SchemaAccessUtils.SCHEMA_ACCESS_STRATEGY, SchemaAccessUtils.SCHEMA_TEXT_PROPERTY.getValue());
+        runner.setProperty(reader, SchemaAccessUtils.SCHEMA_TEXT, SCHEMA_TEXT);
+        runner.enableControllerService(reader);
+        return reader;
+    }
+
+    @Test
+    public void testSchemaCachePerService() throws Exception {
+        final AvroReader first = addReader("first");
+        final AvroReader second = addReader("second");
+
+        final RecordSchema schema = first.getSchema(Collections.emptyMap(), null);
+        assertSame(schema, first.getSchema(Collections.emptyMap(), null));
+        assertEquals(Long.valueOf(1L), first.getSchemaCacheStatistics().get("hits"));
+        assertEquals(Long.valueOf(1L), first.getSchemaCacheStatistics().get("misses"));
+
+        // the cache of one service is not shared with another
+        second.getSchema(Collections.emptyMap(), null);
+        assertEquals(Long.valueOf(0L), second.getSchemaCacheStatistics().get("hits"));
+        assertEquals(Long.valueOf(1L), second.getSchemaCacheStatistics().get("misses"));
+
+        // disabling the service discards the schemas that it resolved
+        runner.disableControllerService(first);
+        assertEquals(Long.valueOf(0L), first.getSchemaCacheStatistics().get("size"));
+        assertEquals(Long.valueOf(1L), second.getSchemaCacheStatistics().get("size"));
+    }
+}